@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.benchmark;
+
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.server.replica.delay.DelayedOperationManager;
+import com.alibaba.fluss.server.replica.delay.DelayedTableBucketKey;
+import com.alibaba.fluss.server.replica.delay.TestingDelayedOperation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the completion throughput of a {@link DelayedOperationManager} with 100k parked
+ * operations, like the delayed fetch log operations of long-poll consumers.
+ *
+ * <p>{@link #checkAndCompleteUnsatisfied()} checks random buckets from multiple threads while none
+ * of the parked operations can be completed, which is the cost of every append and high watermark
+ * change. {@link #checkAndCompleteAll} completes all the parked operations at once.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 0)
+public class DelayedOperationManagerBenchmark {
+
+    private static final int PARKED_OPERATIONS = 100_000;
+    private static final long OPERATION_TIMEOUT_MS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"100", "10000"})
+    private int bucketCount;
+
+    private DelayedOperationManager<TestingDelayedOperation> manager;
+    private DelayedTableBucketKey[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        manager = new DelayedOperationManager<>("benchmark", 0, 1000);
+        keys = createKeys(bucketCount);
+        parkOperations(manager, keys, new ParkedOperationState());
+    }
+
+    @TearDown
+    public void teardown() {
+        manager.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int checkAndCompleteUnsatisfied() {
+        return manager.checkAndComplete(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int checkAndCompleteAll(ParkedBeforeEachCall parked) {
+        parked.state.completable = true;
+        int completed = 0;
+        for (DelayedTableBucketKey key : parked.keys) {
+            completed += parked.manager.checkAndComplete(key);
+        }
+        return completed;
+    }
+
+    /** The operations which are parked before each call to complete them all. */
+    @State(Scope.Thread)
+    public static class ParkedBeforeEachCall {
+
+        @Param({"100", "10000"})
+        private int bucketCount;
+
+        private DelayedOperationManager<TestingDelayedOperation> manager;
+        private DelayedTableBucketKey[] keys;
+        private ParkedOperationState state;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            manager = new DelayedOperationManager<>("benchmark", 0, 1000);
+            keys = createKeys(bucketCount);
+            state = new ParkedOperationState();
+            parkOperations(manager, keys, state);
+        }
+
+        @TearDown(Level.Invocation)
+        public void teardown() {
+            manager.shutdown();
+        }
+    }
+
+    private static DelayedTableBucketKey[] createKeys(int bucketCount) {
+        DelayedTableBucketKey[] keys = new DelayedTableBucketKey[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            keys[i] = new DelayedTableBucketKey(new TableBucket(1L, i));
+        }
+        return keys;
+    }
+
+    private static void parkOperations(
+            DelayedOperationManager<TestingDelayedOperation> manager,
+            DelayedTableBucketKey[] keys,
+            ParkedOperationState state) {
+        for (int i = 0; i < PARKED_OPERATIONS; i++) {
+            manager.tryCompleteElseWatch(
+                    new TestingDelayedOperation(OPERATION_TIMEOUT_MS, () -> state.completable),
+                    Collections.singletonList(keys[i % keys.length]));
+        }
+    }
+
+    /** The state shared by the parked operations to make them completable at once. */
+    private static class ParkedOperationState {
+        private volatile boolean completable = false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt =
+                new OptionsBuilder()
+                        .verbosity(VerboseMode.NORMAL)
+                        .include(
+                                ".*"
+                                        + DelayedOperationManagerBenchmark.class.getCanonicalName()
+                                        + ".*")
+                        .build();
+
+        new Runner(opt).run();
+    }
+}
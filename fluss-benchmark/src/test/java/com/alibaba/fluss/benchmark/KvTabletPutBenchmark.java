@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.benchmark;
+
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.TableConfig;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
+import com.alibaba.fluss.memory.TestingMemorySegmentPool;
+import com.alibaba.fluss.metadata.KvFormat;
+import com.alibaba.fluss.metadata.LogFormat;
+import com.alibaba.fluss.metadata.PhysicalTablePath;
+import com.alibaba.fluss.metadata.Schema;
+import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.record.KvRecord;
+import com.alibaba.fluss.record.KvRecordBatch;
+import com.alibaba.fluss.record.KvRecordTestUtils;
+import com.alibaba.fluss.server.kv.KvTablet;
+import com.alibaba.fluss.server.kv.rowmerger.RowMerger;
+import com.alibaba.fluss.server.log.LogTablet;
+import com.alibaba.fluss.server.log.LogTestUtils;
+import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.BufferAllocator;
+import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.RootAllocator;
+import com.alibaba.fluss.types.DataTypes;
+import com.alibaba.fluss.utils.FileUtils;
+import com.alibaba.fluss.utils.clock.SystemClock;
+import com.alibaba.fluss.utils.concurrent.FlussScheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.alibaba.fluss.compression.ArrowCompressionInfo.DEFAULT_COMPRESSION;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+
+/**
+ * Benchmark for putting small kv record batches into a {@link KvTablet} as leader, which is the
+ * upsert path of a primary key table. The batches update the rows of a fixed key space, so most of
+ * the records produce -U/+U changelogs.
+ *
+ * <p>Run it with the GC profiler (i.e., {@code -prof gc}) to check the allocation rate per
+ * operation of the upsert path.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(iterations = 3)
+@Fork(value = 0)
+public class KvTabletPutBenchmark {
+
+    private static final Schema SCHEMA =
+            Schema.newBuilder()
+                    .column("id", DataTypes.INT())
+                    .column("name", DataTypes.STRING())
+                    .column("value", DataTypes.BIGINT())
+                    .primaryKey("id")
+                    .build();
+    private static final int KEY_COUNT = 10_000;
+    private static final int BATCH_COUNT = 1_000;
+
+    @Param({"10", "100"})
+    private int recordsPerBatch;
+
+    @Param({"false", "true"})
+    private boolean pagedPreWriteBuffer;
+
+    private File tempDir;
+    private BufferAllocator allocator;
+    private ConcurrentMemorySegmentPool preWriteBufferPool;
+    private LogTablet logTablet;
+    private KvTablet kvTablet;
+    private final List<KvRecordBatch> batches = new ArrayList<>();
+    private int nextBatch;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        tempDir = Files.createTempDirectory("kv-tablet-put-benchmark").toFile();
+        Configuration conf = new Configuration();
+        PhysicalTablePath tablePath = PhysicalTablePath.of(TablePath.of("db", "t"));
+        File logTabletDir =
+                LogTestUtils.makeRandomLogTabletDir(
+                        new File(tempDir, "log"), "db", 0L, tablePath.getTableName());
+        logTablet =
+                LogTablet.create(
+                        tablePath,
+                        logTabletDir,
+                        conf,
+                        0,
+                        new FlussScheduler(1),
+                        LogFormat.ARROW,
+                        1,
+                        true,
+                        SystemClock.getInstance(),
+                        true);
+        allocator = new RootAllocator(Long.MAX_VALUE);
+        preWriteBufferPool =
+                pagedPreWriteBuffer
+                        ? ConcurrentMemorySegmentPool.createKvPreWriteBufferPool(conf)
+                        : null;
+        File kvTabletDir = new File(tempDir, "kv");
+        kvTabletDir.mkdirs();
+        kvTablet =
+                KvTablet.create(
+                        tablePath,
+                        logTablet.getTableBucket(),
+                        logTablet,
+                        kvTabletDir,
+                        conf,
+                        allocator,
+                        new TestingMemorySegmentPool(64 * 1024),
+                        preWriteBufferPool,
+                        KvFormat.COMPACTED,
+                        SCHEMA,
+                        RowMerger.create(new TableConfig(conf), SCHEMA, KvFormat.COMPACTED),
+                        DEFAULT_COMPRESSION);
+
+        KvRecordTestUtils.KvRecordBatchFactory batchFactory =
+                KvRecordTestUtils.KvRecordBatchFactory.of(1);
+        KvRecordTestUtils.PKBasedKvRecordFactory recordFactory =
+                KvRecordTestUtils.PKBasedKvRecordFactory.of(SCHEMA.getRowType(), new int[] {0});
+        for (int i = 0; i < BATCH_COUNT; i++) {
+            List<KvRecord> records = new ArrayList<>(recordsPerBatch);
+            for (int j = 0; j < recordsPerBatch; j++) {
+                int id = (i * recordsPerBatch + j) % KEY_COUNT;
+                records.add(
+                        recordFactory.ofRecord(
+                                new Object[] {id, randomAlphanumeric(16), (long) i}));
+            }
+            batches.add(batchFactory.ofRecords(records));
+        }
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        kvTablet.close();
+        logTablet.close();
+        allocator.close();
+        if (preWriteBufferPool != null) {
+            preWriteBufferPool.close();
+        }
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    @Benchmark
+    public void putAsLeader() throws Exception {
+        kvTablet.putAsLeader(batches.get(nextBatch), null);
+        nextBatch = (nextBatch + 1) % BATCH_COUNT;
+        // flush the pre-write buffer as the high watermark advances in a real cluster
+        long logEndOffset = logTablet.localLogEndOffset();
+        logTablet.updateHighWatermark(logEndOffset);
+        kvTablet.flush(
+                logEndOffset,
+                exception -> {
+                    throw new IllegalStateException(exception);
+                });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt =
+                new OptionsBuilder()
+                        .verbosity(VerboseMode.NORMAL)
+                        .include(".*" + KvTabletPutBenchmark.class.getCanonicalName() + ".*")
+                        .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.benchmark;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.MemorySize;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
+import com.alibaba.fluss.memory.LazyMemorySegmentPool;
+import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.memory.MemorySegmentPool;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the contention of a {@link MemorySegmentPool} shared by many threads, like the
+ * server buffer pool shared by the request processor threads building the WAL of all the tablets.
+ *
+ * <p>Each call allocates the pages of a request and returns them right away. With the large pool
+ * all the calls are served by the fast path, with the small pool the threads run out of memory and
+ * wait for each other.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Fork(value = 0)
+public class MemorySegmentPoolBenchmark {
+
+    private static final int PAGES_PER_REQUEST = 4;
+
+    @Param({"lazy", "concurrent"})
+    private String poolType;
+
+    /** 4096 pages, or 128 pages which are not enough for 64 threads allocating 4 pages each. */
+    @Param({"16mb", "512kb"})
+    private String totalMemory;
+
+    private MemorySegmentPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Configuration conf = new Configuration();
+        conf.set(ConfigOptions.SERVER_BUFFER_MEMORY_SIZE, MemorySize.parse(totalMemory));
+        conf.set(ConfigOptions.SERVER_BUFFER_PAGE_SIZE, MemorySize.parse("4kb"));
+        conf.set(ConfigOptions.SERVER_BUFFER_PER_REQUEST_MEMORY_SIZE, MemorySize.parse("16kb"));
+        conf.set(ConfigOptions.SERVER_BUFFER_POOL_WAIT_TIMEOUT, Duration.ofMinutes(1));
+        pool =
+                "lazy".equals(poolType)
+                        ? LazyMemorySegmentPool.createServerBufferPool(conf)
+                        : ConcurrentMemorySegmentPool.createServerBufferPool(conf);
+    }
+
+    @TearDown
+    public void teardown() {
+        pool.close();
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allocateAndReturn16Threads() throws IOException {
+        return allocateAndReturn();
+    }
+
+    @Benchmark
+    @Threads(32)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allocateAndReturn32Threads() throws IOException {
+        return allocateAndReturn();
+    }
+
+    @Benchmark
+    @Threads(64)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allocateAndReturn64Threads() throws IOException {
+        return allocateAndReturn();
+    }
+
+    private int allocateAndReturn() throws IOException {
+        List<MemorySegment> segments = pool.allocatePages(PAGES_PER_REQUEST);
+        // touch the pages like a builder writing a batch header
+        int checksum = 0;
+        for (MemorySegment segment : segments) {
+            segment.putInt(0, checksum);
+            checksum += segment.getInt(0) + 1;
+        }
+        pool.returnAll(segments);
+        return checksum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt =
+                new OptionsBuilder()
+                        .verbosity(VerboseMode.NORMAL)
+                        .include(".*" + MemorySegmentPoolBenchmark.class.getCanonicalName() + ".*")
+                        .build();
+
+        new Runner(opt).run();
+    }
+}
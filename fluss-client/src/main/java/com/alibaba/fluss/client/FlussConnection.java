@@ -19,6 +19,7 @@ package com.alibaba.fluss.client;
 
 import com.alibaba.fluss.client.admin.Admin;
 import com.alibaba.fluss.client.admin.FlussAdmin;
+import com.alibaba.fluss.client.lookup.LookupCache;
 import com.alibaba.fluss.client.lookup.LookupClient;
 import com.alibaba.fluss.client.metadata.MetadataUpdater;
 import com.alibaba.fluss.client.table.FlussTable;
@@ -40,10 +41,14 @@ import com.alibaba.fluss.rpc.GatewayClientProxy;
 import com.alibaba.fluss.rpc.RpcClient;
 import com.alibaba.fluss.rpc.gateway.AdminReadOnlyGateway;
 import com.alibaba.fluss.rpc.metrics.ClientMetricGroup;
+import com.alibaba.fluss.utils.MapUtils;
+
+import javax.annotation.Nullable;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.alibaba.fluss.client.utils.MetadataUtils.getOneAvailableTabletServerNode;
 import static com.alibaba.fluss.config.FlussConfigUtils.CLIENT_PREFIX;
@@ -62,6 +67,9 @@ public final class FlussConnection implements Connection {
     private volatile RemoteFileDownloader remoteFileDownloader;
     private volatile SecurityTokenManager securityTokenManager;
 
+    /** The lookup caches of the tables, keyed by table id. */
+    private final Map<Long, LookupCache> lookupCaches = MapUtils.newConcurrentHashMap();
+
     FlussConnection(Configuration conf) {
         this(conf, MetricRegistry.create(conf, null));
     }
@@ -140,6 +148,21 @@ public final class FlussConnection implements Connection {
         return lookupClient;
     }
 
+    /**
+     * Gets or creates the lookup cache of the given table, returns null if the lookup cache is
+     * disabled or not supported by the table.
+     */
+    @Nullable
+    public LookupCache getOrCreateLookupCache(TableInfo tableInfo) {
+        if (!conf.get(ConfigOptions.CLIENT_LOOKUP_CACHE_ENABLED)
+                || !tableInfo.hasPrimaryKey()
+                || tableInfo.isPartitioned()) {
+            return null;
+        }
+        return lookupCaches.computeIfAbsent(
+                tableInfo.getTableId(), id -> LookupCache.create(this, tableInfo));
+    }
+
     public RemoteFileDownloader getOrCreateRemoteFileDownloader() {
         if (remoteFileDownloader == null) {
             synchronized (this) {
@@ -181,6 +204,11 @@ public final class FlussConnection implements Connection {
             writerClient.close(Duration.ofMillis(Long.MAX_VALUE));
         }
 
+        for (LookupCache lookupCache : lookupCaches.values()) {
+            lookupCache.close();
+        }
+        lookupCaches.clear();
+
         if (lookupClient != null) {
             // timeout is Long.MAX_VALUE to make the pending get request
             // to be processed
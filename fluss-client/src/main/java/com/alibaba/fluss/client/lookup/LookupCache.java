@@ -0,0 +1,475 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.client.lookup;
+
+import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.client.FlussConnection;
+import com.alibaba.fluss.client.admin.Admin;
+import com.alibaba.fluss.client.admin.OffsetSpec;
+import com.alibaba.fluss.client.metrics.LookupCacheMetricGroup;
+import com.alibaba.fluss.client.table.scanner.ScanRecord;
+import com.alibaba.fluss.client.table.scanner.TableScan;
+import com.alibaba.fluss.client.table.scanner.log.LogScannerImpl;
+import com.alibaba.fluss.client.table.scanner.log.ScanRecords;
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.metadata.DataLakeFormat;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.metadata.TableInfo;
+import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.row.encode.KeyEncoder;
+import com.alibaba.fluss.rpc.metrics.ClientMetricGroup;
+import com.alibaba.fluss.shaded.guava32.com.google.common.cache.Cache;
+import com.alibaba.fluss.shaded.guava32.com.google.common.cache.CacheBuilder;
+import com.alibaba.fluss.types.RowType;
+import com.alibaba.fluss.utils.clock.Clock;
+import com.alibaba.fluss.utils.clock.SystemClock;
+import com.alibaba.fluss.utils.concurrent.ExecutorThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A client-side cache of the primary key lookup results of a table, which is shared by all the
+ * lookupers of the table in the same connection. The cache is bounded by the bytes of the cached
+ * keys and values, and evicts the least recently used entries.
+ *
+ * <p>The cache is kept consistent with the table by consuming the changelog of the table, a cached
+ * key is evicted once a change of the key is consumed. To avoid caching a value read before a
+ * change which is consumed while the lookup is in flight, the keys are hashed into stripes with a
+ * version which is bumped on each change, and the lookup result is only cached if the version of
+ * its stripe is not changed during the lookup.
+ *
+ * <p>The staleness of the cache is bounded: the changelog consumer periodically fetches the latest
+ * offsets of the table, and the cache is only used if the consumer has caught up with the latest
+ * offsets fetched within {@code client.lookup.cache.max-staleness}.
+ */
+@Internal
+@ThreadSafe
+public class LookupCache implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LookupCache.class);
+
+    /** The estimated memory overhead of a cache entry besides the bytes of the key and value. */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private static final int NUM_VERSION_STRIPES = 4096;
+
+    /** The version returned when the result of a lookup can't be cached. */
+    static final long NOT_CACHEABLE = -1L;
+
+    private final Cache<CacheKey, CachedValue> cache;
+    private final AtomicLong sizeInBytes;
+    private final AtomicLongArray versions;
+    private final long maxStalenessMs;
+    private final Clock clock;
+    private final LookupCacheMetricGroup metricGroup;
+
+    /** The time until which all the changes are consumed, -1 if the changelog is not synced. */
+    private volatile long lastSyncTimeMs;
+
+    @Nullable private ChangelogConsumer changelogConsumer;
+
+    @VisibleForTesting
+    LookupCache(
+            TablePath tablePath,
+            long maxBytes,
+            long maxStalenessMs,
+            Clock clock,
+            ClientMetricGroup clientMetricGroup) {
+        checkArgument(maxBytes > 0, "The max bytes of lookup cache must be positive.");
+        this.sizeInBytes = new AtomicLong();
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .maximumWeight(maxBytes)
+                        .<CacheKey, CachedValue>weigher((k, v) -> weight(k, v))
+                        .<CacheKey, CachedValue>removalListener(
+                                n -> sizeInBytes.addAndGet(-weight(n.getKey(), n.getValue())))
+                        .build();
+        this.versions = new AtomicLongArray(NUM_VERSION_STRIPES);
+        this.maxStalenessMs = maxStalenessMs;
+        this.clock = clock;
+        this.metricGroup =
+                new LookupCacheMetricGroup(clientMetricGroup, tablePath, sizeInBytes::get);
+        this.lastSyncTimeMs = -1L;
+    }
+
+    /**
+     * Creates the lookup cache of the given table, and starts consuming the changelog of the table
+     * to keep the cache consistent.
+     */
+    public static LookupCache create(FlussConnection connection, TableInfo tableInfo) {
+        checkArgument(
+                tableInfo.hasPrimaryKey() && !tableInfo.isPartitioned(),
+                "Lookup cache is only supported for non-partitioned primary key table, but %s is not.",
+                tableInfo.getTablePath());
+        Configuration conf = connection.getConfiguration();
+        LookupCache lookupCache =
+                new LookupCache(
+                        tableInfo.getTablePath(),
+                        conf.get(ConfigOptions.CLIENT_LOOKUP_CACHE_MAX_BYTES).getBytes(),
+                        conf.get(ConfigOptions.CLIENT_LOOKUP_CACHE_MAX_STALENESS).toMillis(),
+                        SystemClock.getInstance(),
+                        connection.getClientMetricGroup());
+        // only the primary key columns of the changelog are required to evict the keys
+        LogScannerImpl changelogScanner =
+                (LogScannerImpl)
+                        new TableScan(connection, tableInfo)
+                                .project(tableInfo.getSchema().getPrimaryKeyIndexes())
+                                .createLogScanner();
+        lookupCache.startChangelogConsumer(tableInfo, changelogScanner, connection.getAdmin());
+        return lookupCache;
+    }
+
+    private void startChangelogConsumer(TableInfo tableInfo, LogScannerImpl scanner, Admin admin) {
+        changelogConsumer = new ChangelogConsumer(tableInfo, scanner, admin);
+        changelogConsumer.start();
+    }
+
+    /**
+     * Gets the cached lookup result of the given primary key.
+     *
+     * @return the cached value, or null if the key is not cached or the cache is too stale to use.
+     */
+    @Nullable
+    public CachedValue get(byte[] key) {
+        CachedValue value = isSynced() ? cache.getIfPresent(new CacheKey(key)) : null;
+        if (value == null) {
+            metricGroup.missCount().inc();
+        } else {
+            metricGroup.hitCount().inc();
+            metricGroup.bytesSaved().inc(value.sizeInBytes());
+        }
+        return value;
+    }
+
+    /**
+     * Returns the version of the given key which should be got before sending the lookup request,
+     * and be passed to {@link #put(byte[], byte[], long)} once the lookup result is received.
+     */
+    public long version(byte[] key) {
+        return isSynced() ? versions.get(stripe(key)) : NOT_CACHEABLE;
+    }
+
+    /**
+     * Caches the lookup result of the given key if the key is not changed since the given version
+     * is got. A null value means the key doesn't exist.
+     */
+    public void put(byte[] key, @Nullable byte[] value, long version) {
+        if (version == NOT_CACHEABLE) {
+            return;
+        }
+        int stripe = stripe(key);
+        if (versions.get(stripe) != version) {
+            return;
+        }
+        CacheKey cacheKey = new CacheKey(key);
+        CachedValue cachedValue = new CachedValue(value);
+        sizeInBytes.addAndGet(weight(cacheKey, cachedValue));
+        cache.put(cacheKey, cachedValue);
+        // the key may be changed and invalidated concurrently before the value is put, check the
+        // version again to remove the value which may be stale
+        if (versions.get(stripe) != version) {
+            cache.asMap().remove(cacheKey, cachedValue);
+        }
+    }
+
+    /** Evicts the given key as it's changed. */
+    void invalidate(byte[] key) {
+        // bump the version before evicting, so that the in-flight lookups of the key won't be
+        // cached
+        versions.incrementAndGet(stripe(key));
+        cache.invalidate(new CacheKey(key));
+        metricGroup.invalidationCount().inc();
+    }
+
+    /** Marks that all the changes happened before the given time are consumed. */
+    void markSynced(long syncTimeMs) {
+        lastSyncTimeMs = Math.max(lastSyncTimeMs, syncTimeMs);
+    }
+
+    /** Clears the cache as the changelog is not consumed continuously. */
+    void reset() {
+        lastSyncTimeMs = -1L;
+        for (int i = 0; i < NUM_VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    @VisibleForTesting
+    public boolean isSynced() {
+        long syncTimeMs = lastSyncTimeMs;
+        return syncTimeMs >= 0 && clock.milliseconds() - syncTimeMs <= maxStalenessMs;
+    }
+
+    @VisibleForTesting
+    long sizeInBytes() {
+        return sizeInBytes.get();
+    }
+
+    @Override
+    public void close() {
+        if (changelogConsumer != null) {
+            changelogConsumer.close();
+        }
+        cache.invalidateAll();
+        metricGroup.close();
+    }
+
+    private static int stripe(byte[] key) {
+        int hash = Arrays.hashCode(key);
+        return (hash ^ (hash >>> 16)) & (NUM_VERSION_STRIPES - 1);
+    }
+
+    private static int weight(CacheKey key, CachedValue value) {
+        return key.key.length + value.sizeInBytes() + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /** The cached lookup result of a key. */
+    public static final class CachedValue {
+        @Nullable private final byte[] value;
+
+        private CachedValue(@Nullable byte[] value) {
+            this.value = value;
+        }
+
+        /** Returns the value bytes of the key, or null if the key doesn't exist. */
+        @Nullable
+        public byte[] getValue() {
+            return value;
+        }
+
+        private int sizeInBytes() {
+            return value == null ? 0 : value.length;
+        }
+    }
+
+    private static final class CacheKey {
+        private final byte[] key;
+        private final int hashCode;
+
+        private CacheKey(byte[] key) {
+            this.key = key;
+            this.hashCode = Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(key, ((CacheKey) o).key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A consumer of the changelog of the table in a separate thread, which evicts the changed keys
+     * and tracks how far the changelog is consumed.
+     */
+    private class ChangelogConsumer implements Runnable {
+
+        private static final long RETRY_BACKOFF_MS = 1000L;
+
+        private final TableInfo tableInfo;
+        private final LogScannerImpl scanner;
+        private final Admin admin;
+        private final KeyEncoder keyEncoder;
+        private final List<Integer> buckets;
+        private final Duration pollTimeout;
+        private final long checkIntervalMs;
+        private final ExecutorService executor;
+
+        /** The latest offsets fetched to check whether the changelog is caught up. */
+        @Nullable private CompletableFuture<Map<Integer, Long>> pendingLatestOffsets;
+
+        private long pendingCheckTimeMs;
+        private long lastCheckTimeMs;
+        private boolean subscribed;
+        private volatile boolean running;
+
+        private ChangelogConsumer(TableInfo tableInfo, LogScannerImpl scanner, Admin admin) {
+            this.tableInfo = tableInfo;
+            this.scanner = scanner;
+            this.admin = admin;
+            // encode the key of the changelog the same way as the primary key lookuper
+            RowType keyRowType = tableInfo.getRowType().project(tableInfo.getPrimaryKeys());
+            DataLakeFormat lakeFormat = tableInfo.getTableConfig().getDataLakeFormat().orElse(null);
+            this.keyEncoder =
+                    KeyEncoder.of(keyRowType, tableInfo.getPhysicalPrimaryKeys(), lakeFormat);
+            this.buckets = new ArrayList<>();
+            for (int i = 0; i < tableInfo.getNumBuckets(); i++) {
+                buckets.add(i);
+            }
+            // check the staleness several times within the max staleness
+            this.checkIntervalMs = Math.max(1L, maxStalenessMs / 4);
+            this.pollTimeout = Duration.ofMillis(Math.min(100L, checkIntervalMs));
+            this.executor =
+                    Executors.newSingleThreadExecutor(
+                            new ExecutorThreadFactory(
+                                    "fluss-lookup-cache-" + tableInfo.getTablePath()));
+        }
+
+        private void start() {
+            running = true;
+            executor.submit(this);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    if (!subscribed) {
+                        subscribe();
+                    }
+                    ScanRecords records = scanner.poll(pollTimeout);
+                    for (TableBucket tableBucket : records.buckets()) {
+                        for (ScanRecord record : records.records(tableBucket)) {
+                            invalidate(keyEncoder.encodeKey(record.getRow()));
+                        }
+                    }
+                    maybeCheckSynced();
+                } catch (Throwable t) {
+                    if (!running) {
+                        break;
+                    }
+                    LOG.warn(
+                            "Failed to consume the changelog of table {} for lookup cache, "
+                                    + "the cache is cleared and will be rebuilt.",
+                            tableInfo.getTablePath(),
+                            t);
+                    reset();
+                    subscribed = false;
+                    pendingLatestOffsets = null;
+                    try {
+                        Thread.sleep(RETRY_BACKOFF_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+
+        /** Subscribes the changelog from the latest offsets, the cache is empty at this time. */
+        private void subscribe() throws Exception {
+            reset();
+            long checkTimeMs = clock.milliseconds();
+            Map<Integer, Long> latestOffsets = listLatestOffsets().get();
+            for (Map.Entry<Integer, Long> entry : latestOffsets.entrySet()) {
+                scanner.subscribe(entry.getKey(), entry.getValue());
+            }
+            subscribed = true;
+            markSynced(checkTimeMs);
+        }
+
+        /**
+         * Fetches the latest offsets periodically, and marks the cache is synced to the time the
+         * latest offsets are fetched once the changelog is consumed to the offsets.
+         */
+        private void maybeCheckSynced() {
+            long now = clock.milliseconds();
+            if (pendingLatestOffsets == null) {
+                if (now - lastCheckTimeMs >= checkIntervalMs) {
+                    lastCheckTimeMs = now;
+                    pendingCheckTimeMs = now;
+                    pendingLatestOffsets = listLatestOffsets();
+                }
+                return;
+            }
+
+            if (!pendingLatestOffsets.isDone()) {
+                return;
+            }
+            if (pendingLatestOffsets.isCompletedExceptionally()) {
+                // retry in the next check
+                pendingLatestOffsets = null;
+                return;
+            }
+            for (Map.Entry<Integer, Long> entry : pendingLatestOffsets.join().entrySet()) {
+                // use the fetch position rather than the offset of the last consumed record, as
+                // the batches without any record, e.g., deleting an absent key, also move the
+                // latest offset
+                Long nextOffset = scanner.position(entry.getKey());
+                if (nextOffset == null || nextOffset < entry.getValue()) {
+                    // not caught up yet
+                    return;
+                }
+            }
+            markSynced(pendingCheckTimeMs);
+            pendingLatestOffsets = null;
+        }
+
+        private CompletableFuture<Map<Integer, Long>> listLatestOffsets() {
+            return admin.listOffsets(tableInfo.getTablePath(), buckets, new OffsetSpec.LatestSpec())
+                    .all();
+        }
+
+        private void close() {
+            running = false;
+            scanner.wakeup();
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    LOG.warn(
+                            "Failed to stop the changelog consumer of lookup cache for table {}.",
+                            tableInfo.getTablePath());
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            try {
+                scanner.close();
+                admin.close();
+            } catch (Exception e) {
+                LOG.warn(
+                        "Failed to close the changelog consumer of lookup cache for table {}.",
+                        tableInfo.getTablePath(),
+                        e);
+            }
+        }
+    }
+}
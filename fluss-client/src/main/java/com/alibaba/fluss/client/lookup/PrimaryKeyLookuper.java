@@ -46,6 +46,9 @@ class PrimaryKeyLookuper implements Lookuper {
 
     private final LookupClient lookupClient;
 
+    /** The cache of the lookup results, null if the lookup cache is disabled. */
+    private @Nullable final LookupCache lookupCache;
+
     private final KeyEncoder primaryKeyEncoder;
 
     /**
@@ -65,6 +68,14 @@ class PrimaryKeyLookuper implements Lookuper {
 
     public PrimaryKeyLookuper(
             TableInfo tableInfo, MetadataUpdater metadataUpdater, LookupClient lookupClient) {
+        this(tableInfo, metadataUpdater, lookupClient, null);
+    }
+
+    public PrimaryKeyLookuper(
+            TableInfo tableInfo,
+            MetadataUpdater metadataUpdater,
+            LookupClient lookupClient,
+            @Nullable LookupCache lookupCache) {
         checkArgument(
                 tableInfo.hasPrimaryKey(),
                 "Log table %s doesn't support lookup",
@@ -73,6 +84,7 @@ class PrimaryKeyLookuper implements Lookuper {
         this.numBuckets = tableInfo.getNumBuckets();
         this.metadataUpdater = metadataUpdater;
         this.lookupClient = lookupClient;
+        this.lookupCache = lookupCache;
 
         // the row type of the input lookup row
         RowType lookupRowType = tableInfo.getRowType().project(tableInfo.getPrimaryKeys());
@@ -103,6 +115,15 @@ class PrimaryKeyLookuper implements Lookuper {
         // encoding the key row using a compacted way consisted with how the key is encoded when put
         // a row
         byte[] pkBytes = primaryKeyEncoder.encodeKey(lookupKey);
+        long cacheVersion = LookupCache.NOT_CACHEABLE;
+        if (lookupCache != null) {
+            LookupCache.CachedValue cachedValue = lookupCache.get(pkBytes);
+            if (cachedValue != null) {
+                return CompletableFuture.completedFuture(decode(cachedValue.getValue()));
+            }
+            // the version must be got before sending the request to detect the concurrent changes
+            cacheVersion = lookupCache.version(pkBytes);
+        }
         byte[] bkBytes =
                 bucketKeyEncoder == primaryKeyEncoder
                         ? pkBytes
@@ -117,15 +138,20 @@ class PrimaryKeyLookuper implements Lookuper {
                                 metadataUpdater);
         int bucketId = bucketingFunction.bucketing(bkBytes, numBuckets);
         TableBucket tableBucket = new TableBucket(tableInfo.getTableId(), partitionId, bucketId);
+        long version = cacheVersion;
         return lookupClient
                 .lookup(tableBucket, pkBytes)
                 .thenApply(
                         valueBytes -> {
-                            InternalRow row =
-                                    valueBytes == null
-                                            ? null
-                                            : kvValueDecoder.decodeValue(valueBytes).row;
-                            return new LookupResult(row);
+                            if (lookupCache != null) {
+                                lookupCache.put(pkBytes, valueBytes, version);
+                            }
+                            return decode(valueBytes);
                         });
     }
+
+    private LookupResult decode(@Nullable byte[] valueBytes) {
+        InternalRow row = valueBytes == null ? null : kvValueDecoder.decodeValue(valueBytes).row;
+        return new LookupResult(row);
+    }
 }
@@ -38,6 +38,7 @@ public class WriterMetricGroup extends AbstractMetricGroup {
     private static final int WINDOW_SIZE = 1024;
 
     private final Counter recordsRetryTotal;
+    private final Counter recordsExpiredTotal;
     private final Counter recordsSendTotal;
     private final Counter bytesSendTotal;
     private final Histogram bytesPerBatch;
@@ -53,6 +54,8 @@ public class WriterMetricGroup extends AbstractMetricGroup {
 
         recordsRetryTotal = new ThreadSafeSimpleCounter();
         meter(MetricNames.WRITER_RECORDS_RETRY_RATE, new MeterView(recordsRetryTotal));
+        recordsExpiredTotal = new ThreadSafeSimpleCounter();
+        meter(MetricNames.WRITER_RECORDS_EXPIRED_RATE, new MeterView(recordsExpiredTotal));
         recordsSendTotal = new ThreadSafeSimpleCounter();
         meter(MetricNames.WRITER_RECORDS_SEND_RATE, new MeterView(recordsSendTotal));
         bytesSendTotal = new ThreadSafeSimpleCounter();
@@ -81,6 +84,10 @@ public class WriterMetricGroup extends AbstractMetricGroup {
         return recordsRetryTotal;
     }
 
+    public Counter recordsExpiredTotal() {
+        return recordsExpiredTotal;
+    }
+
     public Counter recordsSendTotal() {
         return recordsSendTotal;
     }
@@ -65,7 +65,10 @@ public class FlussTable implements Table {
     @Override
     public Lookup newLookup() {
         return new TableLookup(
-                tableInfo, conn.getMetadataUpdater(), conn.getOrCreateLookupClient());
+                tableInfo,
+                conn.getMetadataUpdater(),
+                conn.getOrCreateLookupClient(),
+                conn.getOrCreateLookupCache(tableInfo));
     }
 
     @Override
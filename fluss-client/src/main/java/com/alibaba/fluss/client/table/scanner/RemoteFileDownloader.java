@@ -17,6 +17,7 @@
 
 package com.alibaba.fluss.client.table.scanner;
 
+import com.alibaba.fluss.fs.FsPath;
 import com.alibaba.fluss.fs.FsPathAndFileName;
 import com.alibaba.fluss.fs.utils.FileDownloadSpec;
 import com.alibaba.fluss.fs.utils.FileDownloadUtils;
@@ -69,4 +70,26 @@ public class RemoteFileDownloader implements Closeable {
                 closeableRegistry,
                 snapshotDownLoadThreadPool);
     }
+
+    /**
+     * Downloads the remote file from the given start position to its end into the target file, in
+     * chunks of the given size which are read in parallel by positioned reads.
+     *
+     * @return the number of downloaded bytes
+     */
+    public long transferRangeToFile(
+            FsPath remoteFilePath,
+            Path targetFile,
+            long startPosition,
+            long chunkSize,
+            CloseableRegistry closeableRegistry)
+            throws IOException {
+        return FileDownloadUtils.transferRangeToFile(
+                remoteFilePath,
+                targetFile,
+                startPosition,
+                chunkSize,
+                closeableRegistry,
+                snapshotDownLoadThreadPool);
+    }
 }
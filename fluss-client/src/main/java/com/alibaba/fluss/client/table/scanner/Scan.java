@@ -21,6 +21,7 @@ import com.alibaba.fluss.annotation.PublicEvolving;
 import com.alibaba.fluss.client.table.scanner.batch.BatchScanner;
 import com.alibaba.fluss.client.table.scanner.log.LogScanner;
 import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.predicate.Predicate;
 
 import javax.annotation.Nullable;
 
@@ -51,6 +52,20 @@ public interface Scan {
      */
     Scan project(List<String> projectedColumnNames);
 
+    /**
+     * Returns a new scan from this that will only read the rows satisfying the given filter. The
+     * filter is built on the fields of the table schema, see {@link
+     * com.alibaba.fluss.predicate.PredicateBuilder}.
+     *
+     * <p>For tables in ARROW log format, the filter is pushed down to the server to skip the record
+     * batches that don't contain any satisfying rows. The unsatisfied rows in the returned batches
+     * are always filtered out in the client. Note that the filter is applied on each change record
+     * of the changelog for primary key tables.
+     *
+     * @param filter the filter to apply, no filter if is null
+     */
+    Scan filter(@Nullable Predicate filter);
+
     /**
      * Returns a new scan from this that will read the given limited row number.
      *
@@ -67,8 +82,10 @@ public interface Scan {
 
     /**
      * Creates a {@link BatchScanner} to read current data in the given table bucket for this scan.
+     * If {@link #limit(int)} is not set, all the data of the bucket is read page by page from a
+     * consistent snapshot, which is only supported for primary key tables.
      *
-     * <p>Note: this API doesn't support pre-configured with {@link #project}.
+     * <p>Note: this API doesn't support pre-configured with {@link #filter(Predicate)}.
      */
     BatchScanner createBatchScanner(TableBucket tableBucket);
 
@@ -76,8 +93,8 @@ public interface Scan {
      * Creates a {@link BatchScanner} to read given snapshot data in the given table bucket for this
      * scan.
      *
-     * <p>Note: this API doesn't support pre-configured with {@link #project} and {@link
-     * #limit(int)} and only support for Primary Key Tables.
+     * <p>Note: this API doesn't support pre-configured with {@link #project}, {@link #limit(int)}
+     * and {@link #filter(Predicate)} and only support for Primary Key Tables.
      */
     BatchScanner createBatchScanner(TableBucket tableBucket, long snapshotId);
 }
@@ -21,6 +21,7 @@ import com.alibaba.fluss.client.FlussConnection;
 import com.alibaba.fluss.client.admin.Admin;
 import com.alibaba.fluss.client.metadata.KvSnapshotMetadata;
 import com.alibaba.fluss.client.table.scanner.batch.BatchScanner;
+import com.alibaba.fluss.client.table.scanner.batch.KvBatchScanner;
 import com.alibaba.fluss.client.table.scanner.batch.KvSnapshotBatchScanner;
 import com.alibaba.fluss.client.table.scanner.batch.LimitBatchScanner;
 import com.alibaba.fluss.client.table.scanner.log.LogScanner;
@@ -29,6 +30,7 @@ import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.exception.FlussRuntimeException;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableInfo;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.types.RowType;
 
 import javax.annotation.Nullable;
@@ -45,25 +47,29 @@ public class TableScan implements Scan {
     @Nullable private final int[] projectedColumns;
     /** The limited row number to read. No limit if is null. */
     @Nullable private final Integer limit;
+    /** The filter to apply on the rows. No filter if is null. */
+    @Nullable private final Predicate filter;
 
     public TableScan(FlussConnection conn, TableInfo tableInfo) {
-        this(conn, tableInfo, null, null);
+        this(conn, tableInfo, null, null, null);
     }
 
     private TableScan(
             FlussConnection conn,
             TableInfo tableInfo,
             @Nullable int[] projectedColumns,
-            @Nullable Integer limit) {
+            @Nullable Integer limit,
+            @Nullable Predicate filter) {
         this.conn = conn;
         this.tableInfo = tableInfo;
         this.projectedColumns = projectedColumns;
         this.limit = limit;
+        this.filter = filter;
     }
 
     @Override
     public Scan project(@Nullable int[] projectedColumns) {
-        return new TableScan(conn, tableInfo, projectedColumns, limit);
+        return new TableScan(conn, tableInfo, projectedColumns, limit, filter);
     }
 
     @Override
@@ -78,12 +84,17 @@ public class TableScan implements Scan {
             }
             columnIndexes[i] = index;
         }
-        return new TableScan(conn, tableInfo, columnIndexes, limit);
+        return new TableScan(conn, tableInfo, columnIndexes, limit, filter);
+    }
+
+    @Override
+    public Scan filter(@Nullable Predicate filter) {
+        return new TableScan(conn, tableInfo, projectedColumns, limit, filter);
     }
 
     @Override
     public Scan limit(int rowNumber) {
-        return new TableScan(conn, tableInfo, projectedColumns, rowNumber);
+        return new TableScan(conn, tableInfo, projectedColumns, rowNumber, filter);
     }
 
     @Override
@@ -98,14 +109,28 @@ public class TableScan implements Scan {
                 conn.getMetadataUpdater(),
                 conn.getClientMetricGroup(),
                 conn.getOrCreateRemoteFileDownloader(),
-                projectedColumns);
+                projectedColumns,
+                filter);
     }
 
     @Override
     public BatchScanner createBatchScanner(TableBucket tableBucket) {
-        if (limit == null) {
+        if (filter != null) {
             throw new UnsupportedOperationException(
-                    "Currently, BatchScanner is only available when limit is set.");
+                    "Currently, BatchScanner doesn't support filter pushdown.");
+        }
+        if (limit == null) {
+            if (!tableInfo.hasPrimaryKey()) {
+                throw new UnsupportedOperationException(
+                        "Currently, BatchScanner without limit is only available for primary key table.");
+            }
+            int maxBytes =
+                    (int)
+                            conn.getConfiguration()
+                                    .get(ConfigOptions.CLIENT_SCANNER_KV_FETCH_MAX_BYTES)
+                                    .getBytes();
+            return new KvBatchScanner(
+                    tableInfo, tableBucket, conn.getMetadataUpdater(), projectedColumns, maxBytes);
         }
         return new LimitBatchScanner(
                 tableInfo, tableBucket, conn.getMetadataUpdater(), projectedColumns, limit);
@@ -117,6 +142,10 @@ public class TableScan implements Scan {
             throw new UnsupportedOperationException(
                     "Currently, SnapshotBatchScanner doesn't support limit pushdown.");
         }
+        if (filter != null) {
+            throw new UnsupportedOperationException(
+                    "Currently, SnapshotBatchScanner doesn't support filter pushdown.");
+        }
         String scannerTmpDir =
                 conn.getConfiguration().getString(ConfigOptions.CLIENT_SCANNER_IO_TMP_DIR);
         Admin admin = conn.getAdmin();
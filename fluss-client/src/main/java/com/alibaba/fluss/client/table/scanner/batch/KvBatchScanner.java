@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.client.table.scanner.batch;
+
+import com.alibaba.fluss.client.metadata.MetadataUpdater;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.metadata.TableInfo;
+import com.alibaba.fluss.record.DefaultValueRecordBatch;
+import com.alibaba.fluss.record.ValueRecord;
+import com.alibaba.fluss.record.ValueRecordReadContext;
+import com.alibaba.fluss.row.GenericRow;
+import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.row.ProjectedRow;
+import com.alibaba.fluss.row.decode.RowDecoder;
+import com.alibaba.fluss.row.encode.ValueDecoder;
+import com.alibaba.fluss.rpc.gateway.TabletServerGateway;
+import com.alibaba.fluss.rpc.messages.ScanKvRequest;
+import com.alibaba.fluss.rpc.messages.ScanKvResponse;
+import com.alibaba.fluss.rpc.protocol.ApiError;
+import com.alibaba.fluss.types.DataType;
+import com.alibaba.fluss.types.RowType;
+import com.alibaba.fluss.utils.CloseableIterator;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link BatchScanner} implementation that scans all the records of a primary key table bucket
+ * page by page. The tablet server keeps a scanner reading from a consistent snapshot of the bucket
+ * between the requests, and the next page is requested as soon as the previous page is received.
+ */
+public class KvBatchScanner implements BatchScanner {
+
+    private final TableBucket tableBucket;
+    @Nullable private final int[] projectedFields;
+    private final int maxBytes;
+    private final InternalRow.FieldGetter[] fieldGetters;
+    private final ValueDecoder kvValueDecoder;
+    private final TabletServerGateway gateway;
+
+    private CompletableFuture<ScanKvResponse> scanFuture;
+    // the id of the scanner kept by the tablet server, null before the first response is received
+    // or after the scan is finished
+    @Nullable private byte[] scannerId;
+    private boolean endOfInput;
+
+    public KvBatchScanner(
+            TableInfo tableInfo,
+            TableBucket tableBucket,
+            MetadataUpdater metadataUpdater,
+            @Nullable int[] projectedFields,
+            int maxBytes) {
+        this.tableBucket = tableBucket;
+        this.projectedFields = projectedFields;
+        this.maxBytes = maxBytes;
+
+        RowType rowType = tableInfo.getRowType();
+        this.fieldGetters = new InternalRow.FieldGetter[rowType.getFieldCount()];
+        for (int i = 0; i < rowType.getFieldCount(); i++) {
+            this.fieldGetters[i] = InternalRow.createFieldGetter(rowType.getTypeAt(i), i);
+        }
+        this.kvValueDecoder =
+                new ValueDecoder(
+                        RowDecoder.create(
+                                tableInfo.getTableConfig().getKvFormat(),
+                                rowType.getChildren().toArray(new DataType[0])));
+
+        if (tableBucket.getPartitionId() != null) {
+            metadataUpdater.checkAndUpdateMetadata(tableInfo.getTablePath(), tableBucket);
+        }
+        // the scanner is kept by the leader, so all the requests are sent to the same server.
+        int leader = metadataUpdater.leaderFor(tableBucket);
+        this.gateway = metadataUpdater.newTabletServerClientForNode(leader);
+
+        this.scanFuture = gateway.scanKv(newScanKvRequest());
+        this.endOfInput = false;
+    }
+
+    @Nullable
+    @Override
+    public CloseableIterator<InternalRow> pollBatch(Duration timeout) throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        ScanKvResponse response;
+        try {
+            response = scanFuture.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // poll next time
+            return CloseableIterator.emptyIterator();
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+
+        if (response.hasErrorCode()) {
+            endOfInput = true;
+            throw new IOException(ApiError.fromErrorMessage(response).exception());
+        }
+        if (response.hasHasMoreResults() && response.isHasMoreResults()) {
+            // prefetch the next page while the current page is consumed
+            scannerId = response.getScannerId();
+            scanFuture = gateway.scanKv(newScanKvRequest());
+        } else {
+            scannerId = null;
+            endOfInput = true;
+        }
+        return CloseableIterator.wrap(parseScanKvResponse(response).iterator());
+    }
+
+    private ScanKvRequest newScanKvRequest() {
+        ScanKvRequest request =
+                new ScanKvRequest()
+                        .setTableId(tableBucket.getTableId())
+                        .setBucketId(tableBucket.getBucket())
+                        .setMaxBytes(maxBytes);
+        if (tableBucket.getPartitionId() != null) {
+            request.setPartitionId(tableBucket.getPartitionId());
+        }
+        if (scannerId != null) {
+            request.setScannerId(scannerId);
+        }
+        return request;
+    }
+
+    private List<InternalRow> parseScanKvResponse(ScanKvResponse response) {
+        List<InternalRow> scanRows = new ArrayList<>();
+        if (!response.hasRecords()) {
+            return scanRows;
+        }
+        DefaultValueRecordBatch valueRecords =
+                DefaultValueRecordBatch.pointToByteBuffer(ByteBuffer.wrap(response.getRecords()));
+        ValueRecordReadContext readContext =
+                new ValueRecordReadContext(kvValueDecoder.getRowDecoder());
+        for (ValueRecord record : valueRecords.records(readContext)) {
+            scanRows.add(maybeProject(record.getRow()));
+        }
+        return scanRows;
+    }
+
+    private InternalRow maybeProject(InternalRow originRow) {
+        // because that rocksdb is not suitable to projection, thus do it in client.
+        GenericRow newRow = new GenericRow(fieldGetters.length);
+        for (int i = 0; i < fieldGetters.length; i++) {
+            newRow.setField(i, fieldGetters[i].getFieldOrNull(originRow));
+        }
+        if (projectedFields != null) {
+            ProjectedRow projectedRow = ProjectedRow.from(projectedFields);
+            projectedRow.replaceRow(newRow);
+            return projectedRow;
+        } else {
+            return newRow;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (endOfInput) {
+            return;
+        }
+        endOfInput = true;
+        // close the scanner on the server once the pending request is done, otherwise the
+        // scanner is kept by the server until it's expired
+        scanFuture.thenAccept(
+                response -> {
+                    if (response.hasScannerId()) {
+                        ScanKvRequest closeRequest =
+                                newScanKvRequest()
+                                        .setScannerId(response.getScannerId())
+                                        .setCloseScanner(true);
+                        gateway.scanKv(closeRequest);
+                    }
+                });
+    }
+}
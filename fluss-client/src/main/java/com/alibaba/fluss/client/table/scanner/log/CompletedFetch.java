@@ -22,6 +22,7 @@ import com.alibaba.fluss.client.table.scanner.ScanRecord;
 import com.alibaba.fluss.exception.CorruptRecordException;
 import com.alibaba.fluss.exception.FetchException;
 import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.record.LogRecord;
 import com.alibaba.fluss.record.LogRecordBatch;
 import com.alibaba.fluss.record.LogRecordReadContext;
@@ -34,6 +35,8 @@ import com.alibaba.fluss.utils.CloseableIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -59,6 +62,7 @@ abstract class CompletedFetch {
     private final LogScannerStatus logScannerStatus;
     protected final LogRecordReadContext readContext;
     protected final InternalRow.FieldGetter[] selectedFieldGetters;
+    @Nullable private final Predicate recordFilter;
 
     private LogRecordBatch currentBatch;
     private LogRecord lastRecord;
@@ -90,6 +94,7 @@ abstract class CompletedFetch {
         this.logScannerStatus = logScannerStatus;
         this.nextFetchOffset = fetchOffset;
         this.selectedFieldGetters = readContext.getSelectedFieldGetters();
+        this.recordFilter = readContext.getRecordFilter();
     }
 
     // TODO: optimize this to avoid deep copying the record.
@@ -217,17 +222,35 @@ abstract class CompletedFetch {
                 // TODO get last epoch.
                 maybeEnsureValid(currentBatch);
 
-                records = currentBatch.records(readContext);
+                records =
+                        mayMatchFilter(currentBatch)
+                                ? currentBatch.records(readContext)
+                                : CloseableIterator.emptyIterator();
             } else {
                 LogRecord record = records.next();
-                // skip any records out of range.
-                if (record.logOffset() >= nextFetchOffset) {
+                // skip any records out of range or not satisfying the filter.
+                if (record.logOffset() >= nextFetchOffset
+                        && (recordFilter == null || recordFilter.test(record.getRow()))) {
                     return record;
                 }
             }
         }
     }
 
+    /**
+     * Returns false if the statistics of the batch guarantee that none of the records satisfies the
+     * filter, so the batch can be skipped without decoding the records. The batches projected by
+     * the server don't contain statistics.
+     */
+    private boolean mayMatchFilter(LogRecordBatch batch) {
+        if (recordFilter == null || readContext.isProjectionPushDowned()) {
+            return true;
+        }
+        return batch.getStatistics(readContext.getRowType(batch.schemaId()))
+                .map(statistics -> statistics.mayMatch(recordFilter))
+                .orElse(true);
+    }
+
     private void maybeEnsureValid(LogRecordBatch batch) {
         if (isCheckCrcs) {
             if (readContext.isProjectionPushDowned()) {
@@ -35,6 +35,7 @@ import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePartition;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.record.LogRecordReadContext;
 import com.alibaba.fluss.record.LogRecords;
 import com.alibaba.fluss.record.MemoryLogRecords;
@@ -50,7 +51,9 @@ import com.alibaba.fluss.rpc.messages.PbFetchLogReqForBucket;
 import com.alibaba.fluss.rpc.messages.PbFetchLogReqForTable;
 import com.alibaba.fluss.rpc.messages.PbFetchLogRespForBucket;
 import com.alibaba.fluss.rpc.messages.PbFetchLogRespForTable;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
 import com.alibaba.fluss.rpc.protocol.Errors;
+import com.alibaba.fluss.rpc.util.FetchSessionHandler;
 import com.alibaba.fluss.utils.IOUtils;
 import com.alibaba.fluss.utils.Projection;
 
@@ -72,6 +75,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.alibaba.fluss.rpc.util.CommonRpcMessageUtils.getFetchLogResultForBucket;
+import static com.alibaba.fluss.rpc.util.CommonRpcMessageUtils.toPbPredicate;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 
 /* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
@@ -83,6 +87,9 @@ import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 public class LogFetcher implements Closeable {
     private static final Logger LOG = LoggerFactory.getLogger(LogFetcher.class);
 
+    /** The time to read a bucket from the leader after reading it from a follower failed. */
+    private static final long FOLLOWER_READ_BACKOFF_MS = 60_000L;
+
     private final TablePath tablePath;
     private final boolean isPartitioned;
     private final LogRecordReadContext readContext;
@@ -90,13 +97,16 @@ public class LogFetcher implements Closeable {
     //  currently can only do project when generate scanRecord instead of doing project while read
     //  bytes from remote file.
     private final LogRecordReadContext remoteReadContext;
-    @Nullable private final Projection projection;
+    // the serialized filter to push down to the server, null if no filter
+    @Nullable private final PbPredicate pbFilter;
     private final RpcClient rpcClient;
     private final int maxFetchBytes;
     private final int maxBucketFetchBytes;
     private final int minFetchBytes;
     private final int maxFetchWaitMs;
     private final boolean isCheckCrcs;
+    // the rack of the client to read from the in-sync replicas in the same rack, null if not set
+    @Nullable private final String clientRack;
     private final LogScannerStatus logScannerStatus;
     private final LogFetchBuffer logFetchBuffer;
     private final LogFetchCollector logFetchCollector;
@@ -105,6 +115,17 @@ public class LogFetcher implements Closeable {
     @GuardedBy("this")
     private final Set<Integer> nodesWithPendingFetchRequests;
 
+    /** The fetch sessions with the tablet servers to send incremental fetch log requests. */
+    @GuardedBy("this")
+    private final Map<Integer, FetchSessionHandler> fetchSessionHandlers;
+
+    /**
+     * The buckets which are read from the leader until the time in the value, because reading them
+     * from a follower failed.
+     */
+    @GuardedBy("this")
+    private final Map<TableBucket, Long> readFromLeaderUntilMs;
+
     @GuardedBy("this")
     private boolean isClosed = false;
 
@@ -114,6 +135,7 @@ public class LogFetcher implements Closeable {
     public LogFetcher(
             TableInfo tableInfo,
             @Nullable Projection projection,
+            @Nullable Predicate filter,
             RpcClient rpcClient,
             LogScannerStatus logScannerStatus,
             Configuration conf,
@@ -122,10 +144,11 @@ public class LogFetcher implements Closeable {
             RemoteFileDownloader remoteFileDownloader) {
         this.tablePath = tableInfo.getTablePath();
         this.isPartitioned = tableInfo.isPartitioned();
-        this.readContext = LogRecordReadContext.createReadContext(tableInfo, false, projection);
+        this.readContext =
+                LogRecordReadContext.createReadContext(tableInfo, false, projection, filter);
         this.remoteReadContext =
-                LogRecordReadContext.createReadContext(tableInfo, true, projection);
-        this.projection = projection;
+                LogRecordReadContext.createReadContext(tableInfo, true, projection, filter);
+        this.pbFilter = filter == null ? null : toPbPredicate(filter);
         this.rpcClient = rpcClient;
         this.logScannerStatus = logScannerStatus;
         this.maxFetchBytes =
@@ -140,8 +163,11 @@ public class LogFetcher implements Closeable {
                 (int) conf.get(ConfigOptions.CLIENT_SCANNER_LOG_FETCH_WAIT_MAX_TIME).toMillis();
 
         this.isCheckCrcs = conf.getBoolean(ConfigOptions.CLIENT_SCANNER_LOG_CHECK_CRC);
+        this.clientRack = conf.getString(ConfigOptions.CLIENT_RACK);
+        this.readFromLeaderUntilMs = new HashMap<>();
         this.logFetchBuffer = new LogFetchBuffer();
         this.nodesWithPendingFetchRequests = new HashSet<>();
+        this.fetchSessionHandlers = new HashMap<>();
         this.metadataUpdater = metadataUpdater;
         this.logFetchCollector =
                 new LogFetchCollector(tablePath, logScannerStatus, conf, metadataUpdater);
@@ -214,12 +240,21 @@ public class LogFetcher implements Closeable {
             final long requestStartTime = System.currentTimeMillis();
             scannerMetricGroup.fetchRequestCount().inc();
 
-            gateway.fetchLog(fetchLogRequest)
+            FetchSessionHandler fetchSessionHandler =
+                    fetchSessionHandlers.computeIfAbsent(destination, FetchSessionHandler::new);
+            FetchLogRequest sessionRequest = fetchSessionHandler.build(fetchLogRequest);
+            gateway.fetchLog(sessionRequest)
                     .whenComplete(
                             (fetchLogResponse, e) -> {
                                 if (e != null) {
+                                    fetchSessionHandler.handleError(sessionRequest, e);
                                     handleFetchLogException(
                                             destination, tableOrPartitionsInFetchRequest, e);
+                                } else if (!fetchSessionHandler.handleResponse(
+                                        sessionRequest, fetchLogResponse)) {
+                                    // the fetch session failed, the buckets will be fetched by
+                                    // the next full fetch
+                                    handleFetchSessionError(destination);
                                 } else {
                                     handleFetchLogResponse(
                                             destination, requestStartTime, fetchLogResponse);
@@ -293,6 +328,11 @@ public class LogFetcher implements Closeable {
         }
     }
 
+    private synchronized void handleFetchSessionError(int destination) {
+        LOG.debug("Removing pending request for node: {}", destination);
+        nodesWithPendingFetchRequests.remove(destination);
+    }
+
     /** Implements the core logic for a successful fetch log response. */
     private synchronized void handleFetchLogResponse(
             int destination, long requestStartTime, FetchLogResponse fetchLogResponse) {
@@ -317,6 +357,19 @@ public class LogFetcher implements Closeable {
                                     respForBucket.getBucketId());
                     FetchLogResultForBucket fetchResultForBucket =
                             getFetchLogResultForBucket(tb, tablePath, respForBucket);
+                    if (fetchResultForBucket.getErrorCode() != Errors.NONE.code()
+                            && !isLeader(tb, destination)) {
+                        // reading from the follower failed, e.g. the offset has been moved to
+                        // remote storage which can only be read through the leader
+                        LOG.debug(
+                                "Failed to read bucket {} from follower {}, reading it from the "
+                                        + "leader in the next {} ms.",
+                                tb,
+                                destination,
+                                FOLLOWER_READ_BACKOFF_MS);
+                        readFromLeaderUntilMs.put(
+                                tb, System.currentTimeMillis() + FOLLOWER_READ_BACKOFF_MS);
+                    }
                     Long fetchOffset = logScannerStatus.getBucketOffset(tb);
                     // if the offset is null, it means the bucket has been unsubscribed,
                     // we just set a Long.MAX_VALUE as the next fetch offset
@@ -373,12 +426,12 @@ public class LogFetcher implements Closeable {
                 fetchOffset = segment.remoteLogStartOffset();
             }
             RemoteLogDownloadFuture downloadFuture =
-                    remoteLogDownloader.requestRemoteLog(remoteLogTabletDir, segment);
+                    remoteLogDownloader.requestRemoteLog(
+                            remoteLogTabletDir, segment, posInLogSegment);
             PendingFetch pendingFetch =
                     new RemotePendingFetch(
                             segment,
                             downloadFuture,
-                            posInLogSegment,
                             fetchOffset,
                             highWatermark,
                             remoteReadContext,
@@ -406,9 +459,7 @@ public class LogFetcher implements Closeable {
                 continue;
             }
 
-            // TODO add select preferred read replica, currently we can only read from leader.
-
-            Integer leader = getTableBucketLeader(tb);
+            Integer leader = selectReadReplica(tb);
             if (leader == null) {
                 LOG.trace(
                         "Skipping fetch request for bucket {} because leader is not available.",
@@ -451,13 +502,22 @@ public class LogFetcher implements Closeable {
                                         .setMaxBytes(maxFetchBytes)
                                         .setMinBytes(minFetchBytes)
                                         .setMaxWaitMs(maxFetchWaitMs);
+                        if (clientRack != null) {
+                            fetchLogRequest.setAllowFollowerRead(true);
+                        }
                         PbFetchLogReqForTable reqForTable =
                                 new PbFetchLogReqForTable().setTableId(finalTableId);
                         if (readContext.isProjectionPushDowned()) {
-                            assert projection != null;
+                            int[] pushdownProjection = readContext.getPushdownProjection();
+                            assert pushdownProjection != null;
                             reqForTable
                                     .setProjectionPushdownEnabled(true)
-                                    .setProjectedFields(projection.getProjectionInOrder());
+                                    .setProjectedFields(pushdownProjection);
+                            // the filter is only push downed along with the projection, as the
+                            // fields referenced by the filter are required to filter again
+                            if (pbFilter != null) {
+                                reqForTable.setFilter().copyFrom(pbFilter);
+                            }
                         } else {
                             reqForTable.setProjectionPushdownEnabled(false);
                         }
@@ -480,6 +540,44 @@ public class LogFetcher implements Closeable {
         return logScannerStatus.fetchableBuckets(tableBucket -> !exclude.contains(tableBucket));
     }
 
+    /**
+     * Selects the replica to read the bucket from. It's the leader unless the client rack is set
+     * and there is an in-sync replica in the same rack while the leader isn't. Returns null if the
+     * leader is unknown.
+     */
+    private @Nullable Integer selectReadReplica(TableBucket tableBucket) {
+        Integer leader = getTableBucketLeader(tableBucket);
+        if (leader == null || clientRack == null) {
+            return leader;
+        }
+        Long readFromLeaderUntil = readFromLeaderUntilMs.get(tableBucket);
+        if (readFromLeaderUntil != null) {
+            if (System.currentTimeMillis() < readFromLeaderUntil) {
+                return leader;
+            }
+            readFromLeaderUntilMs.remove(tableBucket);
+        }
+        BucketLocation bucketLocation = metadataUpdater.getBucketLocation(tableBucket).get();
+        if (bucketLocation.getLeader() != null
+                && clientRack.equals(bucketLocation.getLeader().rack())) {
+            return leader;
+        }
+        for (ServerNode inSyncReplica : bucketLocation.getInSyncReplicas()) {
+            if (clientRack.equals(inSyncReplica.rack())) {
+                return inSyncReplica.id();
+            }
+        }
+        return leader;
+    }
+
+    private boolean isLeader(TableBucket tableBucket, int serverId) {
+        return metadataUpdater
+                .getBucketLocation(tableBucket)
+                .map(BucketLocation::getLeader)
+                .map(leader -> leader.id() == serverId)
+                .orElse(false);
+    }
+
     private Integer getTableBucketLeader(TableBucket tableBucket) {
         metadataUpdater.checkAndUpdateMetadata(tablePath, tableBucket);
         if (metadataUpdater.getBucketLocation(tableBucket).isPresent()) {
@@ -18,6 +18,7 @@
 package com.alibaba.fluss.client.table.scanner.log;
 
 import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.predicate.Predicate;
 
 import javax.annotation.Nullable;
 
@@ -32,12 +33,16 @@ public class LogScan {
     /** The projected fields to do projection. No projection if is null. */
     @Nullable private final int[] projectedFields;
 
+    /** The filter to apply on the rows. No filter if is null. */
+    @Nullable private final Predicate filter;
+
     public LogScan() {
-        this(null);
+        this(null, null);
     }
 
-    private LogScan(@Nullable int[] projectedFields) {
+    private LogScan(@Nullable int[] projectedFields, @Nullable Predicate filter) {
         this.projectedFields = projectedFields;
+        this.filter = filter;
     }
 
     /**
@@ -46,11 +51,25 @@ public class LogScan {
      * @param projectedFields the projection fields
      */
     public LogScan withProjectedFields(int[] projectedFields) {
-        return new LogScan(projectedFields);
+        return new LogScan(projectedFields, filter);
+    }
+
+    /**
+     * Returns a new instance of LogScan description with row filter.
+     *
+     * @param filter the filter on the fields of the table
+     */
+    public LogScan withFilter(Predicate filter) {
+        return new LogScan(projectedFields, filter);
     }
 
     @Nullable
     public int[] getProjectedFields() {
         return projectedFields;
     }
+
+    @Nullable
+    public Predicate getFilter() {
+        return filter;
+    }
 }
@@ -17,6 +17,7 @@
 
 package com.alibaba.fluss.client.table.scanner.log;
 
+import com.alibaba.fluss.annotation.Internal;
 import com.alibaba.fluss.annotation.PublicEvolving;
 import com.alibaba.fluss.client.metadata.MetadataUpdater;
 import com.alibaba.fluss.client.metrics.ScannerMetricGroup;
@@ -27,6 +28,7 @@ import com.alibaba.fluss.exception.WakeupException;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.rpc.RpcClient;
 import com.alibaba.fluss.rpc.metrics.ClientMetricGroup;
 import com.alibaba.fluss.types.RowType;
@@ -84,7 +86,8 @@ public class LogScannerImpl implements LogScanner {
             MetadataUpdater metadataUpdater,
             ClientMetricGroup clientMetricGroup,
             RemoteFileDownloader remoteFileDownloader,
-            @Nullable int[] projectedFields) {
+            @Nullable int[] projectedFields,
+            @Nullable Predicate filter) {
         this.tablePath = tableInfo.getTablePath();
         this.tableId = tableInfo.getTableId();
         this.isPartitionedTable = tableInfo.isPartitioned();
@@ -98,6 +101,7 @@ public class LogScannerImpl implements LogScanner {
                 new LogFetcher(
                         tableInfo,
                         projection,
+                        filter,
                         rpcClient,
                         logScannerStatus,
                         conf,
@@ -225,6 +229,20 @@ public class LogScannerImpl implements LogScanner {
         }
     }
 
+    /**
+     * Returns the offset to fetch next from the given bucket of the non-partitioned table, which
+     * also moves past the batches without any record, or null if the bucket isn't subscribed.
+     */
+    @Internal
+    public @Nullable Long position(int bucket) {
+        acquireAndEnsureOpen();
+        try {
+            return logScannerStatus.getBucketOffset(new TableBucket(tableId, bucket));
+        } finally {
+            release();
+        }
+    }
+
     @Override
     public void wakeup() {
         logFetcher.wakeup();
@@ -40,14 +40,13 @@ public class RemoteLogDownloadFuture {
         return logFileFuture.isDone();
     }
 
-    public FileLogRecords getFileLogRecords(int startPosition) {
+    /**
+     * Returns the records of the downloaded log file, which starts at the requested start position
+     * of the remote log segment.
+     */
+    public FileLogRecords getFileLogRecords() {
         try {
-            FileLogRecords fileLogRecords = FileLogRecords.open(logFileFuture.join(), false);
-            if (startPosition > 0) {
-                return fileLogRecords.slice(startPosition, Integer.MAX_VALUE);
-            } else {
-                return fileLogRecords;
-            }
+            return FileLogRecords.open(logFileFuture.join(), false);
         } catch (IOException e) {
             throw new FlussRuntimeException(e);
         }
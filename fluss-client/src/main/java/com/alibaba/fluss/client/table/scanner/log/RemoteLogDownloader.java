@@ -43,7 +43,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -58,7 +57,10 @@ import static com.alibaba.fluss.utils.FlussPaths.filenamePrefixFromOffset;
 import static com.alibaba.fluss.utils.FlussPaths.remoteLogSegmentDir;
 import static com.alibaba.fluss.utils.FlussPaths.remoteLogSegmentFile;
 
-/** Downloader to read remote log files to local disk. */
+/**
+ * Downloader to read remote log files to local disk. Only the part of a remote log segment file
+ * from the position of the fetch offset is downloaded, in chunks which are read in parallel.
+ */
 @ThreadSafe
 @Internal
 public class RemoteLogDownloader implements Closeable {
@@ -85,6 +87,8 @@ public class RemoteLogDownloader implements Closeable {
 
     private final long pollTimeout;
 
+    private final long downloadChunkSize;
+
     public RemoteLogDownloader(
             TablePath tablePath,
             Configuration conf,
@@ -107,6 +111,8 @@ public class RemoteLogDownloader implements Closeable {
         this.remoteFileDownloader = remoteFileDownloader;
         this.scannerMetricGroup = scannerMetricGroup;
         this.pollTimeout = pollTimeout;
+        this.downloadChunkSize =
+                conf.get(ConfigOptions.CLIENT_SCANNER_REMOTE_LOG_DOWNLOAD_CHUNK_SIZE).getBytes();
         this.prefetchSemaphore =
                 new Semaphore(conf.getInt(ConfigOptions.CLIENT_SCANNER_REMOTE_LOG_PREFETCH_NUM));
         // The local tmp dir to store the fetched log segment files,
@@ -119,9 +125,15 @@ public class RemoteLogDownloader implements Closeable {
         downloadThread.start();
     }
 
-    /** Request to fetch remote log segment to local. This method is non-blocking. */
-    public RemoteLogDownloadFuture requestRemoteLog(FsPath logTabletDir, RemoteLogSegment segment) {
-        RemoteLogDownloadRequest request = new RemoteLogDownloadRequest(segment, logTabletDir);
+    /**
+     * Request to fetch remote log segment to local from the given start position, which is the
+     * position of the fetch offset in the segment looked up from the remote log index. The
+     * downloaded local file starts at the start position. This method is non-blocking.
+     */
+    public RemoteLogDownloadFuture requestRemoteLog(
+            FsPath logTabletDir, RemoteLogSegment segment, int startPosition) {
+        RemoteLogDownloadRequest request =
+                new RemoteLogDownloadRequest(segment, logTabletDir, startPosition);
         segmentsToFetch.add(request);
         return new RemoteLogDownloadFuture(request.future, () -> recycleRemoteLog(segment));
     }
@@ -155,21 +167,25 @@ public class RemoteLogDownloader implements Closeable {
             FsPathAndFileName fsPathAndFileName = request.getFsPathAndFileName();
             Path segmentPath = localLogDir.resolve(request.segment.remoteLogSegmentId().toString());
             scannerMetricGroup.remoteFetchRequestCount().inc();
-            // download the remote file to local
+            // download the remote file to local from the start position
             LOG.info(
-                    "Start to download remote log segment file {} to local.",
-                    fsPathAndFileName.getFileName());
+                    "Start to download remote log segment file {} from position {} to local.",
+                    fsPathAndFileName.getFileName(),
+                    request.startPosition);
             long startTime = System.currentTimeMillis();
-            remoteFileDownloader.transferAllToDirectory(
-                    Collections.singletonList(fsPathAndFileName),
-                    segmentPath,
-                    new CloseableRegistry());
+            File localFile = new File(segmentPath.toFile(), fsPathAndFileName.getFileName());
+            long downloadedBytes =
+                    remoteFileDownloader.transferRangeToFile(
+                            fsPathAndFileName.getPath(),
+                            localFile.toPath(),
+                            request.startPosition,
+                            downloadChunkSize,
+                            new CloseableRegistry());
             LOG.info(
                     "Download remote log segment file {} to local cost {} ms.",
                     fsPathAndFileName.getFileName(),
                     System.currentTimeMillis() - startTime);
-            File localFile = new File(segmentPath.toFile(), fsPathAndFileName.getFileName());
-            scannerMetricGroup.remoteFetchBytes().inc(localFile.length());
+            scannerMetricGroup.remoteFetchBytes().inc(downloadedBytes);
             String segmentId = request.segment.remoteLogSegmentId().toString();
             fetchedFiles.put(segmentId, segmentPath);
             request.future.complete(localFile);
@@ -268,11 +284,14 @@ public class RemoteLogDownloader implements Closeable {
     private static class RemoteLogDownloadRequest {
         private final RemoteLogSegment segment;
         private final FsPath remoteLogTabletDir;
+        private final int startPosition;
         private final CompletableFuture<File> future = new CompletableFuture<>();
 
-        public RemoteLogDownloadRequest(RemoteLogSegment segment, FsPath remoteLogTabletDir) {
+        public RemoteLogDownloadRequest(
+                RemoteLogSegment segment, FsPath remoteLogTabletDir, int startPosition) {
             this.segment = segment;
             this.remoteLogTabletDir = remoteLogTabletDir;
+            this.startPosition = startPosition;
         }
 
         public FsPathAndFileName getFsPathAndFileName() {
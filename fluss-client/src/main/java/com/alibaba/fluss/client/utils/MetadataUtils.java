@@ -319,6 +319,13 @@ public class MetadataUtils {
             for (int i = 0; i < replicas.length; i++) {
                 replicas[i] = newAliveTableServers.get(pbBucketMetadata.getReplicaIdAt(i));
             }
+            List<ServerNode> inSyncReplicas = new ArrayList<>(pbBucketMetadata.getIsrsCount());
+            for (int i = 0; i < pbBucketMetadata.getIsrsCount(); i++) {
+                ServerNode inSyncReplica = newAliveTableServers.get(pbBucketMetadata.getIsrAt(i));
+                if (inSyncReplica != null) {
+                    inSyncReplicas.add(inSyncReplica);
+                }
+            }
             ServerNode leader = null;
             if (pbBucketMetadata.hasLeaderId()) {
                 leader = newAliveTableServers.get(pbBucketMetadata.getLeaderId());
@@ -326,7 +333,12 @@ public class MetadataUtils {
             PhysicalTablePath physicalTablePath = PhysicalTablePath.of(tablePath, partitionName);
 
             BucketLocation bucketLocation =
-                    new BucketLocation(physicalTablePath, tableBucket, leader, replicas);
+                    new BucketLocation(
+                            physicalTablePath,
+                            tableBucket,
+                            leader,
+                            replicas,
+                            inSyncReplicas.toArray(new ServerNode[0]));
             bucketLocations.add(bucketLocation);
         }
         return bucketLocations;
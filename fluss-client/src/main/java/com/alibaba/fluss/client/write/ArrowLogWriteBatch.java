@@ -23,12 +23,14 @@ import com.alibaba.fluss.memory.AbstractPagedOutputView;
 import com.alibaba.fluss.memory.MemorySegment;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.record.ChangeType;
+import com.alibaba.fluss.record.LogRecordBatchStatisticsCollector;
 import com.alibaba.fluss.record.MemoryLogRecordsArrowBuilder;
 import com.alibaba.fluss.record.bytesview.BytesView;
 import com.alibaba.fluss.row.InternalRow;
 import com.alibaba.fluss.row.arrow.ArrowWriter;
 import com.alibaba.fluss.rpc.messages.ProduceLogRequest;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.IOException;
@@ -41,13 +43,18 @@ import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
  * A batch of log records managed in ARROW format that is or will be sent to server by {@link
  * ProduceLogRequest}.
  *
- * <p>This class is not thread safe and external synchronization must be used when modifying it.
+ * <p>This class is not thread safe and external synchronization must be used when modifying it. The
+ * only exception is that building the arrow batch ({@link #close()} and {@link #build()}) may run
+ * outside the lock of the batch's deque once the batch is {@link #closeForRecordAppends() closed
+ * for record appends}, so it is synchronized on the batch itself.
  */
 @NotThreadSafe
 @Internal
 public class ArrowLogWriteBatch extends WriteBatch {
     private final MemoryLogRecordsArrowBuilder recordsBuilder;
     private final AbstractPagedOutputView outputView;
+    private boolean recordAppendsAborted;
+    private boolean built;
 
     public ArrowLogWriteBatch(
             int bucketId,
@@ -55,11 +62,13 @@ public class ArrowLogWriteBatch extends WriteBatch {
             int schemaId,
             ArrowWriter arrowWriter,
             AbstractPagedOutputView outputView,
+            @Nullable LogRecordBatchStatisticsCollector statisticsCollector,
             long createdMs) {
         super(bucketId, physicalTablePath, createdMs);
         this.outputView = outputView;
         this.recordsBuilder =
-                MemoryLogRecordsArrowBuilder.builder(schemaId, arrowWriter, outputView, true);
+                MemoryLogRecordsArrowBuilder.builder(
+                        schemaId, arrowWriter, outputView, true, statisticsCollector);
     }
 
     @Override
@@ -82,18 +91,31 @@ public class ArrowLogWriteBatch extends WriteBatch {
     }
 
     @Override
-    public BytesView build() {
+    public synchronized BytesView build() {
         try {
-            return recordsBuilder.build();
+            BytesView bytesView = recordsBuilder.build();
+            built = true;
+            return bytesView;
         } catch (IOException e) {
             throw new FlussRuntimeException("Failed to build memory log records.", e);
         }
     }
 
     @Override
-    public void close() throws Exception {
+    public synchronized void close() throws Exception {
+        if (recordAppendsAborted || built) {
+            // the batch may be aborted (e.g. expired), or drained and built by the sender, after
+            // it's closed for record appends but before the appender builds it outside the lock.
+            return;
+        }
         recordsBuilder.close();
-        reopened = false;
+        built = true;
+    }
+
+    @Override
+    public boolean closeForRecordAppends() {
+        recordsBuilder.closeForRecordAppends();
+        return true;
     }
 
     @Override
@@ -133,7 +155,8 @@ public class ArrowLogWriteBatch extends WriteBatch {
     }
 
     @Override
-    public void abortRecordAppends() {
+    public synchronized void abortRecordAppends() {
+        recordAppendsAborted = true;
         recordsBuilder.abort();
     }
 }
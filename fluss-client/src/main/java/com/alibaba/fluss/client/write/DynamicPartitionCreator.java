@@ -50,6 +50,7 @@ public class DynamicPartitionCreator {
     private final boolean dynamicPartitionEnabled;
     private final Admin admin;
     private final Consumer<Throwable> fatalErrorHandler;
+    private final Runnable partitionCreatedListener;
 
     private final Set<PhysicalTablePath> inflightPartitionsToCreate = ConcurrentHashMap.newKeySet();
 
@@ -57,11 +58,13 @@ public class DynamicPartitionCreator {
             MetadataUpdater metadataUpdater,
             Admin admin,
             boolean dynamicPartitionEnabled,
-            Consumer<Throwable> fatalErrorHandler) {
+            Consumer<Throwable> fatalErrorHandler,
+            Runnable partitionCreatedListener) {
         this.metadataUpdater = metadataUpdater;
         this.admin = admin;
         this.dynamicPartitionEnabled = dynamicPartitionEnabled;
         this.fatalErrorHandler = fatalErrorHandler;
+        this.partitionCreatedListener = partitionCreatedListener;
     }
 
     public void checkAndCreatePartitionAsync(PhysicalTablePath physicalTablePath) {
@@ -150,6 +153,8 @@ public class DynamicPartitionCreator {
         // TODO: trigger to update metadata here when metadataUpdater supports async update
         // metadataUpdater.checkAndUpdatePartitionMetadata(physicalTablePath);
         LOG.info("Successfully created partition {}", physicalTablePath);
+        // the batches of the partition can be sent once its metadata is updated
+        partitionCreatedListener.run();
     }
 
     private void onPartitionCreationFailed(
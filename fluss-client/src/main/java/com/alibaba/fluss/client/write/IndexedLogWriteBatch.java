@@ -100,7 +100,6 @@ public final class IndexedLogWriteBatch extends WriteBatch {
     @Override
     public void close() throws Exception {
         recordsBuilder.close();
-        reopened = false;
     }
 
     @Override
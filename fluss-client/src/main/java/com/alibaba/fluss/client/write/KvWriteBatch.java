@@ -111,7 +111,6 @@ public class KvWriteBatch extends WriteBatch {
     @Override
     public void close() throws Exception {
         recordsBuilder.close();
-        reopened = false;
     }
 
     @Override
@@ -26,7 +26,7 @@ import com.alibaba.fluss.cluster.ServerNode;
 import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.config.Configuration;
 import com.alibaba.fluss.exception.FlussRuntimeException;
-import com.alibaba.fluss.memory.LazyMemorySegmentPool;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
 import com.alibaba.fluss.memory.MemorySegment;
 import com.alibaba.fluss.memory.PreAllocatedPagedOutputView;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
@@ -34,11 +34,13 @@ import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metrics.MetricNames;
 import com.alibaba.fluss.record.LogRecordBatch;
+import com.alibaba.fluss.record.LogRecordBatchStatisticsCollector;
 import com.alibaba.fluss.row.arrow.ArrowWriter;
 import com.alibaba.fluss.row.arrow.ArrowWriterPool;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.BufferAllocator;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.RootAllocator;
 import com.alibaba.fluss.utils.CopyOnWriteMap;
+import com.alibaba.fluss.utils.ExponentialBackoff;
 import com.alibaba.fluss.utils.MathUtils;
 import com.alibaba.fluss.utils.clock.Clock;
 
@@ -60,6 +62,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.alibaba.fluss.record.LogRecordBatch.NO_WRITER_ID;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
@@ -76,6 +79,9 @@ import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 public final class RecordAccumulator {
     private static final Logger LOG = LoggerFactory.getLogger(RecordAccumulator.class);
 
+    private static final int RETRY_BACKOFF_EXP_BASE = 2;
+    private static final double RETRY_BACKOFF_JITTER = 0.2;
+
     private volatile boolean closed;
     private final AtomicInteger flushesInProgress;
     private final AtomicInteger appendsInProgress;
@@ -89,11 +95,26 @@ public final class RecordAccumulator {
      */
     private final int batchTimeoutMs;
 
+    /** The backoff before retrying a failed batch, growing with the attempts of the batch. */
+    private final ExponentialBackoff retryBackoff;
+
+    /**
+     * The maximum time a batch can stay in the accumulator (including retries) before it's expired.
+     */
+    private final int deliveryTimeoutMs;
+
+    /**
+     * The earliest time at which any batch in the accumulator reaches the delivery timeout. It's
+     * lowered when a batch is appended or re-enqueued, so that {@link #expiredBatches()} only walks
+     * through the buckets when some batch may have expired.
+     */
+    private final AtomicLong nextBatchExpiryTimeMs = new AtomicLong(Long.MAX_VALUE);
+
     /**
      * The memory segment pool to allocate/deallocate {@link MemorySegment}s for {@link
      * ArrowLogWriteBatch}.
      */
-    private final LazyMemorySegmentPool writerBufferPool;
+    private final ConcurrentMemorySegmentPool writerBufferPool;
 
     /** The arrow buffer allocator to allocate memory for arrow log write batch. */
     private final BufferAllocator bufferAllocator;
@@ -112,10 +133,6 @@ public final class RecordAccumulator {
     private final Clock clock;
     private final DynamicWriteBatchSizeEstimator batchSizeEstimator;
 
-    // TODO add retryBackoffMs to retry the produce request upon receiving an error.
-    // TODO add deliveryTimeoutMs to report success or failure on record delivery.
-    // TODO add nextBatchExpiryTimeMs
-
     RecordAccumulator(
             Configuration conf,
             IdempotenceManager idempotenceManager,
@@ -131,8 +148,25 @@ public final class RecordAccumulator {
                         (int) conf.get(ConfigOptions.CLIENT_WRITER_BATCH_TIMEOUT).toMillis());
         this.batchSize =
                 Math.max(1, (int) conf.get(ConfigOptions.CLIENT_WRITER_BATCH_SIZE).getBytes());
-
-        this.writerBufferPool = LazyMemorySegmentPool.createWriterBufferPool(conf);
+        this.retryBackoff =
+                new ExponentialBackoff(
+                        conf.get(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF).toMillis(),
+                        RETRY_BACKOFF_EXP_BASE,
+                        conf.get(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF_MAX).toMillis(),
+                        RETRY_BACKOFF_JITTER);
+        // a batch must be allowed to linger and to wait for at least one request
+        long minDeliveryTimeoutMs =
+                batchTimeoutMs + conf.get(ConfigOptions.CLIENT_REQUEST_TIMEOUT).toMillis();
+        this.deliveryTimeoutMs =
+                (int)
+                        Math.min(
+                                Integer.MAX_VALUE,
+                                Math.max(
+                                        minDeliveryTimeoutMs,
+                                        conf.get(ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT)
+                                                .toMillis()));
+
+        this.writerBufferPool = ConcurrentMemorySegmentPool.createWriterBufferPool(conf);
         this.bufferAllocator = new RootAllocator(Long.MAX_VALUE);
         this.arrowWriterPool = new ArrowWriterPool(bufferAllocator);
         this.incomplete = new IncompleteBatches();
@@ -192,11 +226,20 @@ public final class RecordAccumulator {
             Deque<WriteBatch> dq =
                     bucketAndWriteBatches.batches.computeIfAbsent(
                             bucketId, k -> new ArrayDeque<>());
+            WriteBatch closedBatch;
             synchronized (dq) {
                 RecordAppendResult appendResult = tryAppend(writeRecord, callback, dq);
                 if (appendResult != null) {
                     return appendResult;
                 }
+                closedBatch = closeLastBatchForRecordAppends(dq);
+            }
+
+            if (closedBatch != null) {
+                // close (i.e. build) the full batch outside the lock, as building an arrow batch
+                // (including compression) is expensive and would block other appenders of the
+                // bucket, while closing it right away still recycles its arrow writer promptly.
+                closedBatch.close();
             }
 
             // we don't have an in-progress record batch try to allocate a new batch
@@ -206,8 +249,17 @@ public final class RecordAccumulator {
             }
 
             memorySegments = allocateMemorySegments(writeRecord, physicalTablePath);
+            RecordAppendResult appendResult;
             synchronized (dq) {
-                RecordAppendResult appendResult =
+                appendResult = tryAppend(writeRecord, callback, dq);
+                if (appendResult != null) {
+                    // Somebody else found us a batch, return the one we waited for! Hopefully
+                    // this doesn't happen often...
+                    return appendResult;
+                }
+                // the batch created by somebody else is full as well.
+                closedBatch = closeLastBatchForRecordAppends(dq);
+                appendResult =
                         appendNewBatch(
                                 writeRecord,
                                 callback,
@@ -216,11 +268,14 @@ public final class RecordAccumulator {
                                 dq,
                                 memorySegments,
                                 cluster);
-                if (appendResult.newBatchCreated) {
-                    memorySegments = Collections.emptyList();
-                }
-                return appendResult;
+                memorySegments = Collections.emptyList();
             }
+
+            if (closedBatch != null) {
+                // build the full batch outside the lock as well.
+                closedBatch.close();
+            }
+            return appendResult;
         } finally {
             // Other append operations by the Sender thread may have created a new batch, causing
             // the temporarily allocated memorySegments here to go unused, and therefore, it needs
@@ -266,8 +321,6 @@ public final class RecordAccumulator {
                             nextReadyCheckDelayMs);
         }
 
-        // TODO and the earliest time at which any non-send-able bucket will be ready;
-
         return new ReadyCheckResult(readyNodes, nextReadyCheckDelayMs, unknownLeaderTables);
     }
 
@@ -300,7 +353,7 @@ public final class RecordAccumulator {
 
     public void reEnqueue(ReadyWriteBatch readyWriteBatch) {
         WriteBatch batch = readyWriteBatch.writeBatch();
-        batch.reEnqueued();
+        batch.reEnqueued(clock.milliseconds(), retryBackoff.backoff(batch.attempts()));
         Deque<WriteBatch> deque =
                 getOrCreateDeque(readyWriteBatch.tableBucket(), batch.physicalTablePath());
         synchronized (deque) {
@@ -309,6 +362,7 @@ public final class RecordAccumulator {
             } else {
                 deque.addFirst(batch);
             }
+            updateNextBatchExpiryTime(batch);
         }
     }
 
@@ -325,6 +379,75 @@ public final class RecordAccumulator {
         }
     }
 
+    /**
+     * Remove the batches which have stayed in the accumulator longer than the delivery timeout and
+     * return them, the caller is responsible for failing them. Batches in flight are not expired,
+     * as their requests are bounded by the request timeout and they return to the accumulator when
+     * being retried.
+     */
+    public List<ReadyWriteBatch> expiredBatches() {
+        long nowMs = clock.milliseconds();
+        if (nowMs < nextBatchExpiryTimeMs.get()) {
+            // no batch can have expired yet.
+            return Collections.emptyList();
+        }
+
+        // reset before the traversal, the batches appended or re-enqueued to the visited buckets
+        // during the traversal lower it again.
+        nextBatchExpiryTimeMs.set(Long.MAX_VALUE);
+        long nextExpiryTimeMs = Long.MAX_VALUE;
+        List<ReadyWriteBatch> expiredBatches = new ArrayList<>();
+        for (BucketAndWriteBatches bucketAndWriteBatches : writeBatches.values()) {
+            for (Map.Entry<Integer, Deque<WriteBatch>> entry :
+                    bucketAndWriteBatches.batches.entrySet()) {
+                Deque<WriteBatch> deque = entry.getValue();
+                synchronized (deque) {
+                    // batches are in creation order, so only the head batches can be expired.
+                    WriteBatch batch;
+                    while ((batch = deque.peekFirst()) != null) {
+                        if (!batch.hasReachedDeliveryTimeout(deliveryTimeoutMs, nowMs)) {
+                            nextExpiryTimeMs =
+                                    Math.min(
+                                            nextExpiryTimeMs,
+                                            batch.deliveryDeadlineMs(deliveryTimeoutMs));
+                            break;
+                        }
+                        deque.pollFirst();
+                        batch.abortRecordAppends();
+                        expiredBatches.add(
+                                new ReadyWriteBatch(
+                                        new TableBucket(
+                                                bucketAndWriteBatches.tableId,
+                                                bucketAndWriteBatches.partitionId,
+                                                entry.getKey()),
+                                        batch));
+                    }
+                }
+            }
+        }
+        nextBatchExpiryTimeMs.accumulateAndGet(nextExpiryTimeMs, Math::min);
+        return expiredBatches;
+    }
+
+    /** Get the time until the earliest batch in the accumulator reaches the delivery timeout. */
+    public long nextExpiryDelayMs() {
+        return Math.max(0, nextBatchExpiryTimeMs.get() - clock.milliseconds());
+    }
+
+    private void updateNextBatchExpiryTime(WriteBatch batch) {
+        nextBatchExpiryTimeMs.accumulateAndGet(
+                batch.deliveryDeadlineMs(deliveryTimeoutMs), Math::min);
+    }
+
+    /** Check whether the batch has stayed in the writer longer than the delivery timeout. */
+    public boolean hasReachedDeliveryTimeout(WriteBatch batch) {
+        return batch.hasReachedDeliveryTimeout(deliveryTimeoutMs, clock.milliseconds());
+    }
+
+    public int getDeliveryTimeoutMs() {
+        return deliveryTimeoutMs;
+    }
+
     /** Get the deque for the given table-bucket, creating it if necessary. */
     private Deque<WriteBatch> getOrCreateDeque(
             TableBucket tableBucket, PhysicalTablePath physicalTablePath) {
@@ -486,6 +609,7 @@ public final class RecordAccumulator {
             Deque<WriteBatch> deque = entry.getValue();
 
             final long waitedTimeMs;
+            final long retryBackoffRemainingMs;
             final int dequeSize;
             final boolean full;
 
@@ -501,7 +625,9 @@ public final class RecordAccumulator {
                     continue;
                 }
 
-                waitedTimeMs = batch.waitedTimeMs(clock.milliseconds());
+                long nowMs = clock.milliseconds();
+                waitedTimeMs = batch.waitedTimeMs(nowMs);
+                retryBackoffRemainingMs = batch.retryBackoffRemainingMs(nowMs);
                 dequeSize = deque.size();
                 full = dequeSize > 1 || batch.isClosed();
             }
@@ -520,6 +646,7 @@ public final class RecordAccumulator {
                                 exhausted,
                                 leader,
                                 waitedTimeMs,
+                                retryBackoffRemainingMs,
                                 full,
                                 readyNodes,
                                 nextReadyCheckDelayMs);
@@ -533,9 +660,14 @@ public final class RecordAccumulator {
             boolean exhausted,
             ServerNode leader,
             long waitedTimeMs,
+            long retryBackoffRemainingMs,
             boolean full,
             Set<ServerNode> readyNodes,
             long nextReadyCheckDelayMs) {
+        if (retryBackoffRemainingMs > 0) {
+            // the batch is being retried, it's not sendable until the retry backoff elapses.
+            return Math.min(nextReadyCheckDelayMs, retryBackoffRemainingMs);
+        }
         if (!readyNodes.contains(leader)) {
             // if the wait time larger than lingerMs, we can send this batch even if it is not full.
             boolean expired = waitedTimeMs >= (long) batchTimeoutMs;
@@ -573,13 +705,6 @@ public final class RecordAccumulator {
             List<MemorySegment> segments,
             Cluster cluster)
             throws Exception {
-        RecordAppendResult appendResult = tryAppend(writeRecord, callback, deque);
-        if (appendResult != null) {
-            // Somebody else found us a batch, return the one we waited for! Hopefully this doesn't
-            // happen often...
-            return appendResult;
-        }
-
         PhysicalTablePath physicalTablePath = writeRecord.getPhysicalTablePath();
         PreAllocatedPagedOutputView outputView = new PreAllocatedPagedOutputView(segments);
         int schemaId = tableInfo.getSchemaId();
@@ -605,6 +730,10 @@ public final class RecordAccumulator {
                             outputView.getPreAllocatedSize(),
                             tableInfo.getRowType(),
                             tableInfo.getTableConfig().getArrowCompressionInfo());
+            int[] statisticsColumns =
+                    LogRecordBatchStatisticsCollector.resolveColumnIndexes(
+                            tableInfo.getRowType(),
+                            tableInfo.getTableConfig().getArrowStatisticsColumns());
             batch =
                     new ArrowLogWriteBatch(
                             bucketId,
@@ -612,6 +741,10 @@ public final class RecordAccumulator {
                             schemaId,
                             arrowWriter,
                             outputView,
+                            statisticsColumns.length == 0
+                                    ? null
+                                    : new LogRecordBatchStatisticsCollector(
+                                            tableInfo.getRowType(), statisticsColumns),
                             clock.milliseconds());
         } else {
             batch =
@@ -627,6 +760,7 @@ public final class RecordAccumulator {
         batch.tryAppend(writeRecord, callback);
         deque.addLast(batch);
         incomplete.add(batch);
+        updateNextBatchExpiryTime(batch);
         return new RecordAppendResult(deque.size() > 1 || batch.isClosed(), true, false);
     }
 
@@ -637,26 +771,29 @@ public final class RecordAccumulator {
             throw new FlussRuntimeException("Writer closed while send in progress");
         }
         WriteBatch last = deque.peekLast();
-        if (last != null) {
-            boolean success = last.tryAppend(writeRecord, callback);
-            if (!success) {
-                // TODO For ArrowLogWriteBatch, close here is a heavy operation (including build
-                // logic), we need to avoid do that in an lock which locked dq. However, why we not
-                // remove build logic out of close for ArrowLogWriteBatch is that we want to release
-                // non-heap memory hold by arrowWriter as soon as possible to avoid OOM. Maybe we
-                // need to introduce a more reasonable way to solve these two problems.
-                last.close();
-            } else {
-                return new RecordAppendResult(deque.size() > 1 || last.isClosed(), false, false);
-            }
+        if (last != null && last.tryAppend(writeRecord, callback)) {
+            return new RecordAppendResult(deque.size() > 1 || last.isClosed(), false, false);
         }
         return null;
     }
 
+    /**
+     * Close the last batch of the deque for record appends if it is not closed yet. Return the
+     * batch if it needs to be {@link WriteBatch#close() closed} outside the lock of the deque.
+     */
+    @Nullable
+    private WriteBatch closeLastBatchForRecordAppends(Deque<WriteBatch> deque) throws Exception {
+        WriteBatch last = deque.peekLast();
+        if (last == null || last.isClosed()) {
+            return null;
+        }
+        return last.closeForRecordAppends() ? last : null;
+    }
+
     private List<ReadyWriteBatch> drainBatchesForOneNode(
             Cluster cluster, ServerNode node, int maxSize) throws Exception {
         int size = 0;
-        List<BucketLocation> buckets = getAllBucketsInCurrentNode(node, cluster);
+        List<BucketLocation> buckets = cluster.getAvailableBucketsForNode(node.id());
         List<ReadyWriteBatch> ready = new ArrayList<>();
         if (buckets.isEmpty()) {
             return ready;
@@ -683,7 +820,10 @@ public final class RecordAccumulator {
                     continue;
                 }
 
-                // TODO retry back off check.
+                if (first.retryBackoffRemainingMs(clock.milliseconds()) > 0) {
+                    // the bucket is backing off before retrying the batch.
+                    continue;
+                }
 
                 if (size + first.estimatedSizeInBytes() > maxSize && !ready.isEmpty()) {
                     // there is a rare case that a single batch size is larger than the request size
@@ -789,28 +929,6 @@ public final class RecordAccumulator {
         nodesDrainIndex.put(id, drainIndex);
     }
 
-    /**
-     * TODO This is a very time-consuming operation, which will be moved to be computed in the
-     * Cluster later on.
-     */
-    private List<BucketLocation> getAllBucketsInCurrentNode(
-            ServerNode currentNode, Cluster cluster) {
-        List<BucketLocation> buckets = new ArrayList<>();
-        Set<PhysicalTablePath> physicalTablePaths = cluster.getBucketLocationsByPath().keySet();
-        for (PhysicalTablePath path : physicalTablePaths) {
-            List<BucketLocation> bucketsForTable =
-                    cluster.getAvailableBucketsForPhysicalTablePath(path);
-            for (BucketLocation bucket : bucketsForTable) {
-                // the bucket leader is always not null in available list,
-                // but we still check here to avoid NPE warning.
-                if (bucket.getLeader() != null && currentNode.id() == bucket.getLeader().id()) {
-                    buckets.add(bucket);
-                }
-            }
-        }
-        return buckets;
-    }
-
     /**
      * The deque for the bucket may have to be reordered in situations where leadership changes in
      * between batch drains. Since the requests are on different connections, we no longer have any
@@ -27,6 +27,7 @@ import com.alibaba.fluss.exception.LeaderNotAvailableException;
 import com.alibaba.fluss.exception.OutOfOrderSequenceException;
 import com.alibaba.fluss.exception.PartitionNotExistException;
 import com.alibaba.fluss.exception.RetriableException;
+import com.alibaba.fluss.exception.TimeoutException;
 import com.alibaba.fluss.exception.UnknownTableOrBucketException;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
@@ -53,6 +54,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.fluss.client.utils.ClientRpcMessageUtils.makeProduceLogRequest;
 import static com.alibaba.fluss.client.utils.ClientRpcMessageUtils.makePutKvRequest;
@@ -99,6 +101,13 @@ public class Sender implements Runnable {
 
     private final Object inFlightBatchesLock = new Object();
 
+    /** The lock the sender waits on when there is nothing to send, until it's woken up. */
+    private final Object wakeupLock = new Object();
+
+    /** true when the sender is woken up and the next wait should return immediately. */
+    @GuardedBy("wakeupLock")
+    private boolean wakeupRequested;
+
     // TODO if we introduce client metadata cache, these parameters need to remove.
     private final MetadataUpdater metadataUpdater;
 
@@ -228,23 +237,24 @@ public class Sender implements Runnable {
         }
 
         Set<ServerNode> readyNodes = readyCheckResult.readyNodes;
-        if (readyNodes.isEmpty()) {
-            // TODO The method sendWriteData is in a busy loop. If there is no data continuously, it
-            // will cause the CPU to be occupied.
-            // In the future, we need to introduce delay logic to deal with it.
-            // TODO: condition waiter
-            Thread.sleep(readyCheckResult.nextReadyCheckDelayMs);
-        }
 
         // get the list of batches prepare to send.
         Map<Integer, List<ReadyWriteBatch>> batches =
                 accumulator.drain(metadataUpdater.getCluster(), readyNodes, maxRequestSize);
 
-        if (!batches.isEmpty()) {
-            addToInflightBatches(batches);
+        addToInflightBatches(batches);
 
-            // TODO add logic for batch expire.
+        failExpiredBatches();
 
+        if (batches.isEmpty()) {
+            // Nothing can be sent now, either no bucket is ready or the ready buckets have reached
+            // their max in-flight requests. Wait until the earliest time a bucket gets ready or a
+            // batch expires, or until a batch gets full, a flush begins or a response arrives.
+            awaitWakeup(
+                    Math.min(
+                            readyCheckResult.nextReadyCheckDelayMs,
+                            accumulator.nextExpiryDelayMs()));
+        } else {
             sendWriteRequests(batches);
 
             // move metrics update to the end to make sure the batches has been built.
@@ -252,6 +262,61 @@ public class Sender implements Runnable {
         }
     }
 
+    /**
+     * Wakes up the sender if it's waiting for data to send, or makes the next wait return
+     * immediately if it isn't waiting.
+     */
+    public void wakeup() {
+        synchronized (wakeupLock) {
+            wakeupRequested = true;
+            wakeupLock.notifyAll();
+        }
+    }
+
+    private void awaitWakeup(long timeoutMs) throws InterruptedException {
+        synchronized (wakeupLock) {
+            long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            long remainingMs = timeoutMs;
+            while (!wakeupRequested && remainingMs > 0) {
+                wakeupLock.wait(remainingMs);
+                remainingMs =
+                        TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime() + 999_999);
+            }
+            wakeupRequested = false;
+        }
+    }
+
+    /** Fail the batches which haven't been sent out within the delivery timeout. */
+    private void failExpiredBatches() {
+        for (ReadyWriteBatch expiredBatch : accumulator.expiredBatches()) {
+            WriteBatch batch = expiredBatch.writeBatch();
+            String errorMessage =
+                    String.format(
+                            "Expiring %d record(s) for table bucket %s: the batch has not been "
+                                    + "written within the delivery timeout %d ms.",
+                            batch.getRecordCount(),
+                            expiredBatch.tableBucket(),
+                            accumulator.getDeliveryTimeoutMs());
+            failBatch(expiredBatch, new TimeoutException(errorMessage), false);
+            if (idempotenceManager.idempotenceEnabled()
+                    && batch.hasBatchSequence()
+                    && idempotenceManager.hasWriterId(batch.writerId())) {
+                // The batch has been sent before and expired while waiting to be retried, we
+                // don't know whether the tablet server has written it. The following batches of
+                // the bucket would fail with OutOfOrderSequenceException, so reset the writer id
+                // to restart the batch sequences with a new writer id.
+                LOG.warn(
+                        "Resetting writer id {} as the batch with batch sequence {} of table bucket {} "
+                                + "expired after it was sent to the tablet server.",
+                        batch.writerId(),
+                        batch.batchSequence(),
+                        expiredBatch.tableBucket());
+                idempotenceManager.resetWriterId();
+            }
+            writerMetricGroup.recordsExpiredTotal().inc(batch.getRecordCount());
+        }
+    }
+
     private void completeBatch(ReadyWriteBatch readyWriteBatch) {
         if (idempotenceManager.idempotenceEnabled()) {
             idempotenceManager.handleCompletedBatch(readyWriteBatch);
@@ -297,15 +362,17 @@ public class Sender implements Runnable {
     }
 
     /**
-     * We can retry a round of send if the error is transient and the number of attempts taken is
-     * fewer than the maximum allowed. We can also retry {@link OutOfOrderSequenceException}
-     * exceptions for future batches, since if the first batch has failed, the future batches are
-     * certain to fail with an {@link OutOfOrderSequenceException} exception.
+     * We can retry a round of send if the error is transient, the number of attempts taken is fewer
+     * than the maximum allowed and the batch hasn't reached the delivery timeout. We can also retry
+     * {@link OutOfOrderSequenceException} exceptions for future batches, since if the first batch
+     * has failed, the future batches are certain to fail with an {@link
+     * OutOfOrderSequenceException} exception.
      */
     private boolean canRetry(ReadyWriteBatch readyWriteBatch, Errors error) {
         WriteBatch batch = readyWriteBatch.writeBatch();
         return batch.attempts() < retries
                 && !batch.isDone()
+                && !accumulator.hasReachedDeliveryTimeout(batch)
                 && ((error.exception() instanceof RetriableException)
                         || (idempotenceManager.idempotenceEnabled()
                                 && idempotenceManager.canRetry(
@@ -413,6 +480,8 @@ public class Sender implements Runnable {
                                 handleProduceLogResponse(
                                         produceLogResponse, tableId, recordsByBucket);
                             }
+                            // retried batches and freed in-flight slots can be sent now
+                            wakeup();
                         });
     }
 
@@ -432,6 +501,8 @@ public class Sender implements Runnable {
                             } else {
                                 handlePutKvResponse(putKvResponse, tableId, recordsByBucket);
                             }
+                            // retried batches and freed in-flight slots can be sent now
+                            wakeup();
                         });
     }
 
@@ -600,5 +671,6 @@ public class Sender implements Runnable {
         // breaking from the sender loop. Otherwise, we may miss some callbacks when shutting down.
         accumulator.close();
         running = false;
+        wakeup();
     }
 }
@@ -53,6 +53,8 @@ public abstract class WriteBatch {
     protected boolean reopened;
     protected int recordCount;
     private long drainedMs;
+    private long lastAttemptMs;
+    private long retryBackoffMs;
 
     public WriteBatch(int bucketId, PhysicalTablePath physicalTablePath, long createdMs) {
         this.physicalTablePath = physicalTablePath;
@@ -81,6 +83,18 @@ public abstract class WriteBatch {
     /** close the batch to not append new records. */
     public abstract void close() throws Exception;
 
+    /**
+     * close the batch to not append new records, which is called while holding the lock of the
+     * batch's deque and thus must be cheap.
+     *
+     * @return true if the batch defers expensive work to {@link #close()}, which then needs to be
+     *     called outside the lock.
+     */
+    public boolean closeForRecordAppends() throws Exception {
+        close();
+        return false;
+    }
+
     /**
      * check if the batch is closed.
      *
@@ -202,12 +216,32 @@ public abstract class WriteBatch {
         return attempts.get();
     }
 
-    void reEnqueued() {
+    void reEnqueued(long nowMs, long retryBackoffMs) {
         attempts.getAndIncrement();
+        this.lastAttemptMs = nowMs;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /** Get the remaining time to back off before retrying the batch, 0 if it's not backing off. */
+    long retryBackoffRemainingMs(long nowMs) {
+        return Math.max(0, lastAttemptMs + retryBackoffMs - nowMs);
+    }
+
+    /** Check whether the batch has stayed in the writer longer than the delivery timeout. */
+    boolean hasReachedDeliveryTimeout(long deliveryTimeoutMs, long nowMs) {
+        return deliveryTimeoutMs <= nowMs - createdMs;
+    }
+
+    /** Get the time at which the batch reaches the delivery timeout. */
+    long deliveryDeadlineMs(long deliveryTimeoutMs) {
+        return createdMs + deliveryTimeoutMs;
     }
 
     void drained(long nowMs) {
         this.drainedMs = Math.max(drainedMs, nowMs);
+        // the reset batch sequence is sent with this drain. It's not cleared on close(), as a
+        // full batch may be closed outside the deque lock after it's drained and re-enqueued.
+        this.reopened = false;
     }
 
     /**
@@ -102,6 +102,7 @@ public class WriterClient {
 
             short acks = configureAcks(idempotenceManager.idempotenceEnabled());
             int retries = configureRetries(idempotenceManager.idempotenceEnabled());
+            validateDeliveryTimeout();
             this.accumulator =
                     new RecordAccumulator(
                             conf, idempotenceManager, writerMetricGroup, SystemClock.getInstance());
@@ -114,7 +115,8 @@ public class WriterClient {
                             metadataUpdater,
                             admin,
                             conf.get(ConfigOptions.CLIENT_WRITER_DYNAMIC_CREATE_PARTITION_ENABLED),
-                            this::maybeAbortBatches);
+                            this::maybeAbortBatches,
+                            sender::wakeup);
         } catch (Throwable t) {
             close(Duration.ofMillis(0));
             throw new FlussRuntimeException("Failed to construct writer", t);
@@ -145,6 +147,7 @@ public class WriterClient {
         LOG.trace("Flushing accumulated records in writer.");
         long start = System.currentTimeMillis();
         accumulator.beginFlush();
+        sender.wakeup();
         try {
             accumulator.awaitFlushCompletion();
         } catch (InterruptedException e) {
@@ -193,7 +196,7 @@ public class WriterClient {
                         "Waking up the sender since table {} bucket {} is either full or getting a new batch",
                         record.getPhysicalTablePath(),
                         bucketId);
-                // TODO add the wakeup logic refer to Kafka.
+                sender.wakeup();
             }
         } catch (Exception e) {
             throw new FlussRuntimeException(e);
@@ -270,6 +273,28 @@ public class WriterClient {
         return retries;
     }
 
+    private void validateDeliveryTimeout() {
+        // the accumulator raises a too small default delivery timeout, but an explicitly
+        // configured one is rejected.
+        if (!conf.contains(ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT)) {
+            return;
+        }
+        Duration deliveryTimeout = conf.get(ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT);
+        Duration minDeliveryTimeout =
+                conf.get(ConfigOptions.CLIENT_WRITER_BATCH_TIMEOUT)
+                        .plus(conf.get(ConfigOptions.CLIENT_REQUEST_TIMEOUT));
+        if (deliveryTimeout.compareTo(minDeliveryTimeout) < 0) {
+            throw new IllegalConfigurationException(
+                    "The value of "
+                            + ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT.key()
+                            + " should be greater than or equal to the sum of "
+                            + ConfigOptions.CLIENT_WRITER_BATCH_TIMEOUT.key()
+                            + " and "
+                            + ConfigOptions.CLIENT_REQUEST_TIMEOUT.key()
+                            + ".");
+        }
+    }
+
     private Sender newSender(short acks, int retries) {
         return new Sender(
                 accumulator,
@@ -331,6 +331,18 @@ class FlussAdminITCase extends ClientToServerITCaseBase {
                 .isInstanceOf(InvalidConfigException.class)
                 .hasMessageContaining(
                         "Currently, Primary Key Table only supports ARROW log format if kv format is COMPACTED.");
+
+        TableDescriptor t8 =
+                TableDescriptor.builder()
+                        .schema(DEFAULT_SCHEMA)
+                        .comment("test table")
+                        .property(ConfigOptions.TABLE_LOG_ARROW_STATISTICS_COLUMNS.key(), "age,ts")
+                        .build();
+        assertThatThrownBy(() -> admin.createTable(tablePath, t8, false).get())
+                .cause()
+                .isInstanceOf(InvalidConfigException.class)
+                .hasMessage(
+                        "The statistics column 'ts' configured by 'table.log.arrow.statistics.columns' doesn't exist in schema.");
     }
 
     @Test
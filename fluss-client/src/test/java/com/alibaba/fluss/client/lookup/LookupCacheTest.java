@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.client.lookup;
+
+import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.rpc.metrics.TestingClientMetricGroup;
+import com.alibaba.fluss.utils.clock.ManualClock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link LookupCache}. */
+class LookupCacheTest {
+
+    private static final TablePath TABLE_PATH = TablePath.of("test_db", "test_table");
+    private static final long MAX_STALENESS_MS = 10_000L;
+
+    private final ManualClock clock = new ManualClock(System.currentTimeMillis());
+
+    @Test
+    void testGetAndPut() {
+        LookupCache cache = createCache(1024 * 1024);
+        byte[] key1 = new byte[] {1};
+        byte[] key2 = new byte[] {2};
+
+        // not synced with the changelog yet, can't cache
+        assertThat(cache.version(key1)).isEqualTo(LookupCache.NOT_CACHEABLE);
+        cache.put(key1, new byte[] {10}, cache.version(key1));
+        assertThat(cache.get(key1)).isNull();
+
+        cache.markSynced(clock.milliseconds());
+        cache.put(key1, new byte[] {10}, cache.version(key1));
+        // the absent key is cached as well
+        cache.put(key2, null, cache.version(key2));
+        LookupCache.CachedValue value1 = cache.get(key1);
+        assertThat(value1).isNotNull();
+        assertThat(value1.getValue()).isEqualTo(new byte[] {10});
+        LookupCache.CachedValue value2 = cache.get(key2);
+        assertThat(value2).isNotNull();
+        assertThat(value2.getValue()).isNull();
+
+        cache.invalidate(key1);
+        assertThat(cache.get(key1)).isNull();
+        assertThat(cache.get(key2)).isNotNull();
+        cache.close();
+    }
+
+    @Test
+    void testChangedDuringLookupIsNotCached() {
+        LookupCache cache = createCache(1024 * 1024);
+        cache.markSynced(clock.milliseconds());
+        byte[] key = new byte[] {1, 2, 3};
+
+        long version = cache.version(key);
+        // the key is changed while the lookup is in flight
+        cache.invalidate(key);
+        cache.put(key, new byte[] {1}, version);
+        assertThat(cache.get(key)).isNull();
+
+        // the lookup sent after the change can be cached
+        cache.put(key, new byte[] {2}, cache.version(key));
+        assertThat(cache.get(key)).isNotNull();
+
+        // the cache is reset, the in-flight lookups are not cached
+        version = cache.version(key);
+        cache.reset();
+        cache.markSynced(clock.milliseconds());
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, new byte[] {3}, version);
+        assertThat(cache.get(key)).isNull();
+        cache.close();
+    }
+
+    @Test
+    void testStaleness() {
+        LookupCache cache = createCache(1024 * 1024);
+        byte[] key = new byte[] {1};
+        cache.markSynced(clock.milliseconds());
+        cache.put(key, new byte[] {1}, cache.version(key));
+        assertThat(cache.get(key)).isNotNull();
+
+        clock.advanceTime(MAX_STALENESS_MS + 1, TimeUnit.MILLISECONDS);
+        assertThat(cache.isSynced()).isFalse();
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.version(key)).isEqualTo(LookupCache.NOT_CACHEABLE);
+
+        // the changelog catches up again
+        cache.markSynced(clock.milliseconds());
+        assertThat(cache.get(key)).isNotNull();
+        cache.close();
+    }
+
+    @Test
+    void testEvictBySize() {
+        LookupCache cache = createCache(10 * 1024);
+        cache.markSynced(clock.milliseconds());
+        for (int i = 0; i < 100; i++) {
+            byte[] key = new byte[] {(byte) i};
+            cache.put(key, new byte[1024], cache.version(key));
+        }
+        assertThat(cache.sizeInBytes()).isGreaterThan(0).isLessThanOrEqualTo(10 * 1024);
+        assertThat(cache.get(new byte[] {99})).isNotNull();
+        assertThat(cache.get(new byte[] {0})).isNull();
+
+        cache.reset();
+        assertThat(cache.sizeInBytes()).isEqualTo(0);
+        cache.close();
+    }
+
+    private LookupCache createCache(long maxBytes) {
+        return new LookupCache(
+                TABLE_PATH,
+                maxBytes,
+                MAX_STALENESS_MS,
+                clock,
+                TestingClientMetricGroup.newInstance());
+    }
+}
@@ -19,11 +19,14 @@ package com.alibaba.fluss.client.table;
 
 import com.alibaba.fluss.client.Connection;
 import com.alibaba.fluss.client.ConnectionFactory;
+import com.alibaba.fluss.client.FlussConnection;
 import com.alibaba.fluss.client.admin.ClientToServerITCaseBase;
+import com.alibaba.fluss.client.lookup.LookupCache;
 import com.alibaba.fluss.client.lookup.LookupResult;
 import com.alibaba.fluss.client.lookup.Lookuper;
 import com.alibaba.fluss.client.table.scanner.Scan;
 import com.alibaba.fluss.client.table.scanner.ScanRecord;
+import com.alibaba.fluss.client.table.scanner.batch.BatchScanner;
 import com.alibaba.fluss.client.table.scanner.log.LogScanner;
 import com.alibaba.fluss.client.table.scanner.log.ScanRecords;
 import com.alibaba.fluss.client.table.writer.AppendWriter;
@@ -65,6 +68,7 @@ import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -83,6 +87,7 @@ import static com.alibaba.fluss.testutils.DataTestUtils.compactedRow;
 import static com.alibaba.fluss.testutils.DataTestUtils.keyRow;
 import static com.alibaba.fluss.testutils.DataTestUtils.row;
 import static com.alibaba.fluss.testutils.InternalRowAssert.assertThatRow;
+import static com.alibaba.fluss.testutils.common.CommonTestUtils.retry;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -437,6 +442,112 @@ class FlussTableITCase extends ClientToServerITCaseBase {
         }
     }
 
+    @Test
+    void testLookupWithCache() throws Exception {
+        TablePath tablePath = TablePath.of("test_db_1", "test_lookup_with_cache_table");
+        createTable(tablePath, DATA1_TABLE_DESCRIPTOR_PK, false);
+        Configuration config = new Configuration(clientConf);
+        config.set(ConfigOptions.CLIENT_LOOKUP_CACHE_ENABLED, true);
+        config.set(ConfigOptions.CLIENT_LOOKUP_CACHE_MAX_STALENESS, Duration.ofSeconds(2));
+        try (Connection conn = ConnectionFactory.createConnection(config)) {
+            Table table = conn.getTable(tablePath);
+            UpsertWriter upsertWriter = table.newUpsert().createWriter();
+            Lookuper lookuper = table.newLookup().createLookuper();
+            InternalRow rowKey = row(1);
+            RowType rowType = DATA1_SCHEMA_PK.getRowType();
+
+            // the absent key may be cached, and evicted once the key is inserted
+            assertThat(lookupRow(lookuper, rowKey)).isNull();
+            upsertWriter.upsert(row(1, "a")).get();
+            retry(
+                    Duration.ofMinutes(1),
+                    () ->
+                            assertThatRow(lookupRow(lookuper, rowKey))
+                                    .withSchema(rowType)
+                                    .isEqualTo(row(1, "a")));
+
+            // the cached value is evicted once the key is updated
+            upsertWriter.upsert(row(1, "b")).get();
+            retry(
+                    Duration.ofMinutes(1),
+                    () ->
+                            assertThatRow(lookupRow(lookuper, rowKey))
+                                    .withSchema(rowType)
+                                    .isEqualTo(row(1, "b")));
+
+            upsertWriter.delete(row(1, "b")).get();
+            retry(Duration.ofMinutes(1), () -> assertThat(lookupRow(lookuper, rowKey)).isNull());
+        }
+    }
+
+    @Test
+    void testLookupCacheSyncedAfterDeletingAbsentKey() throws Exception {
+        TablePath tablePath = TablePath.of("test_db_1", "test_lookup_cache_delete_absent_key");
+        createTable(tablePath, DATA1_TABLE_DESCRIPTOR_PK, false);
+        Configuration config = new Configuration(clientConf);
+        config.set(ConfigOptions.CLIENT_LOOKUP_CACHE_ENABLED, true);
+        config.set(ConfigOptions.CLIENT_LOOKUP_CACHE_MAX_STALENESS, Duration.ofSeconds(1));
+        try (Connection conn = ConnectionFactory.createConnection(config)) {
+            Table table = conn.getTable(tablePath);
+            UpsertWriter upsertWriter = table.newUpsert().createWriter();
+            LookupCache lookupCache =
+                    ((FlussConnection) conn).getOrCreateLookupCache(table.getTableInfo());
+            upsertWriter.upsert(row(1, "a")).get();
+            retry(Duration.ofMinutes(1), () -> assertThat(lookupCache.isSynced()).isTrue());
+
+            // deleting an absent key appends an empty batch which moves the latest offset
+            // without any changelog record
+            upsertWriter.delete(row(2, "b")).get();
+            // wait until the sync time before the delete is too stale to use
+            Thread.sleep(2000);
+            retry(Duration.ofMinutes(1), () -> assertThat(lookupCache.isSynced()).isTrue());
+        }
+    }
+
+    @Test
+    void testScanPrimaryTable() throws Exception {
+        TableDescriptor descriptor =
+                TableDescriptor.builder().schema(DATA1_SCHEMA_PK).distributedBy(1).build();
+        long tableId = createTable(DATA1_TABLE_PATH_PK, descriptor, true);
+        int insertSize = 100;
+        // a small fetch size to scan the bucket by multiple requests
+        Configuration config = new Configuration(clientConf);
+        config.set(ConfigOptions.CLIENT_SCANNER_KV_FETCH_MAX_BYTES, MemorySize.parse("64b"));
+        try (Connection conn = ConnectionFactory.createConnection(config)) {
+            Table table = conn.getTable(DATA1_TABLE_PATH_PK);
+            UpsertWriter upsertWriter = table.newUpsert().createWriter();
+
+            List<Object[]> expectedRows = new ArrayList<>();
+            for (int i = 0; i < insertSize; i++) {
+                upsertWriter.upsert(row(i, "v" + i));
+                expectedRows.add(new Object[] {i, "v" + i});
+            }
+            upsertWriter.flush();
+
+            TableBucket tb = new TableBucket(tableId, 0);
+            List<InternalRow> actualRows = collectRows(table.newScan().createBatchScanner(tb));
+            // the rows are returned in the order of the encoded keys
+            actualRows.sort(Comparator.comparingInt(r -> r.getInt(0)));
+            assertThat(actualRows.size()).isEqualTo(insertSize);
+            for (int i = 0; i < insertSize; i++) {
+                assertRowValueEquals(
+                        DATA1_SCHEMA.getRowType(), actualRows.get(i), expectedRows.get(i));
+            }
+
+            // test projection scan
+            int[] projectedFields = new int[] {1};
+            actualRows =
+                    collectRows(table.newScan().project(projectedFields).createBatchScanner(tb));
+            assertThat(actualRows.size()).isEqualTo(insertSize);
+            assertThat(actualRows.get(0).getFieldCount()).isEqualTo(1);
+
+            // close the scanner before reaching the end
+            try (BatchScanner scanner = table.newScan().createBatchScanner(tb)) {
+                assertThat(scanner.pollBatch(Duration.ofMinutes(1))).isNotNull();
+            }
+        }
+    }
+
     @Test
     void testLimitScanLogTable() throws Exception {
         TableDescriptor descriptor =
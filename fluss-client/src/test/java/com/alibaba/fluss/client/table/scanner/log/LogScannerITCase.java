@@ -17,18 +17,27 @@
 
 package com.alibaba.fluss.client.table.scanner.log;
 
+import com.alibaba.fluss.client.Connection;
+import com.alibaba.fluss.client.ConnectionFactory;
 import com.alibaba.fluss.client.admin.ClientToServerITCaseBase;
 import com.alibaba.fluss.client.table.Table;
 import com.alibaba.fluss.client.table.scanner.ScanRecord;
 import com.alibaba.fluss.client.table.writer.AppendWriter;
 import com.alibaba.fluss.client.table.writer.UpsertWriter;
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
 import com.alibaba.fluss.exception.FetchException;
 import com.alibaba.fluss.metadata.Schema;
+import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableDescriptor;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.predicate.PredicateBuilder;
 import com.alibaba.fluss.record.ChangeType;
+import com.alibaba.fluss.row.BinaryString;
 import com.alibaba.fluss.row.GenericRow;
 import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.server.zk.data.LeaderAndIsr;
 import com.alibaba.fluss.types.DataTypes;
 import com.alibaba.fluss.types.RowType;
 
@@ -44,6 +53,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static com.alibaba.fluss.record.TestData.DATA1_PARTITIONED_TABLE_DESCRIPTOR;
+import static com.alibaba.fluss.record.TestData.DATA1_ROW_TYPE;
 import static com.alibaba.fluss.record.TestData.DATA1_SCHEMA;
 import static com.alibaba.fluss.record.TestData.DATA1_TABLE_DESCRIPTOR;
 import static com.alibaba.fluss.record.TestData.DATA1_TABLE_PATH;
@@ -86,6 +96,98 @@ public class LogScannerITCase extends ClientToServerITCaseBase {
         }
     }
 
+    @Test
+    void testPollFromFollowerInSameRack() throws Exception {
+        TableDescriptor tableDescriptor =
+                TableDescriptor.builder(DATA1_TABLE_DESCRIPTOR).distributedBy(1).build();
+        long tableId = createTable(DATA1_TABLE_PATH, tableDescriptor, false);
+        LeaderAndIsr leaderAndIsr =
+                FLUSS_CLUSTER_EXTENSION.waitLeaderAndIsrReady(new TableBucket(tableId, 0));
+        int follower =
+                leaderAndIsr.isr().stream()
+                        .filter(id -> id != leaderAndIsr.leader())
+                        .findFirst()
+                        .orElseThrow(IllegalStateException::new);
+
+        int recordSize = 10;
+        List<GenericRow> expectedRows = new ArrayList<>();
+        try (Table table = conn.getTable(DATA1_TABLE_PATH)) {
+            AppendWriter appendWriter = table.newAppend().createWriter();
+            for (int i = 0; i < recordSize; i++) {
+                GenericRow row = row(i, "a");
+                expectedRows.add(row);
+                appendWriter.append(row).get();
+            }
+        }
+
+        // the tablet servers of the test cluster are located in rack "rack" + serverId
+        Configuration followerRackConf = new Configuration(clientConf);
+        followerRackConf.set(ConfigOptions.CLIENT_RACK, "rack" + follower);
+        try (Connection followerRackConn = ConnectionFactory.createConnection(followerRackConf);
+                Table table = followerRackConn.getTable(DATA1_TABLE_PATH)) {
+            LogScanner logScanner = createLogScanner(table);
+            subscribeFromBeginning(logScanner, table);
+            List<GenericRow> rowList = new ArrayList<>();
+            while (rowList.size() < recordSize) {
+                ScanRecords scanRecords = logScanner.poll(Duration.ofSeconds(1));
+                for (ScanRecord scanRecord : scanRecords) {
+                    InternalRow row = scanRecord.getRow();
+                    rowList.add(row(row.getInt(0), row.getString(1)));
+                }
+            }
+            assertThat(rowList).containsExactlyInAnyOrderElementsOf(expectedRows);
+            logScanner.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testPollWithFilter(boolean withStatistics) throws Exception {
+        TableDescriptor tableDescriptor = DATA1_TABLE_DESCRIPTOR;
+        if (withStatistics) {
+            // the batches not satisfying the filter are skipped by the statistics
+            tableDescriptor =
+                    TableDescriptor.builder(DATA1_TABLE_DESCRIPTOR)
+                            .property(ConfigOptions.TABLE_LOG_ARROW_STATISTICS_COLUMNS.key(), "a,b")
+                            .build();
+        }
+        createTable(DATA1_TABLE_PATH, tableDescriptor, false);
+
+        int recordSize = 10;
+        List<Integer> expectedValues = new ArrayList<>();
+        try (Table table = conn.getTable(DATA1_TABLE_PATH)) {
+            AppendWriter appendWriter = table.newAppend().createWriter();
+            for (int i = 0; i < recordSize; i++) {
+                String b = i % 2 == 0 ? "a" : "b";
+                if (i >= 5 && b.equals("b")) {
+                    expectedValues.add(i);
+                }
+                appendWriter.append(row(i, b)).get();
+            }
+
+            PredicateBuilder builder = new PredicateBuilder(DATA1_ROW_TYPE);
+            Predicate filter =
+                    PredicateBuilder.and(
+                            builder.greaterOrEqual(0, 5),
+                            builder.equal(1, BinaryString.fromString("b")));
+            // the filter references the field which is not projected
+            LogScanner logScanner =
+                    table.newScan().project(new int[] {0}).filter(filter).createLogScanner();
+            subscribeFromBeginning(logScanner, table);
+            List<Integer> values = new ArrayList<>();
+            while (values.size() < expectedValues.size()) {
+                ScanRecords scanRecords = logScanner.poll(Duration.ofSeconds(1));
+                for (ScanRecord scanRecord : scanRecords) {
+                    InternalRow row = scanRecord.getRow();
+                    assertThat(row.getFieldCount()).isEqualTo(1);
+                    values.add(row.getInt(0));
+                }
+            }
+            assertThat(values).containsExactlyInAnyOrderElementsOf(expectedValues);
+            assertThat(logScanner.poll(Duration.ofSeconds(1)).isEmpty()).isTrue();
+        }
+    }
+
     @Test
     void testPollWhileCreateTableNotReady() throws Exception {
         // create one table with 30 buckets.
@@ -22,9 +22,11 @@ import com.alibaba.fluss.client.metrics.TestingScannerMetricGroup;
 import com.alibaba.fluss.client.table.scanner.RemoteFileDownloader;
 import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.MemorySize;
 import com.alibaba.fluss.fs.FsPath;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.record.FileLogRecords;
 import com.alibaba.fluss.remote.RemoteLogSegment;
 import com.alibaba.fluss.utils.FileUtils;
 import com.alibaba.fluss.utils.IOUtils;
@@ -35,9 +37,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -67,6 +71,10 @@ class RemoteLogDownloaderTest {
         conf.set(ConfigOptions.REMOTE_DATA_DIR, remoteDataDir.getAbsolutePath());
         conf.set(ConfigOptions.CLIENT_SCANNER_IO_TMP_DIR, localDir.getAbsolutePath());
         conf.set(ConfigOptions.CLIENT_SCANNER_REMOTE_LOG_PREFETCH_NUM, 4);
+        // use a small chunk size to download the segments in multiple chunks
+        conf.set(
+                ConfigOptions.CLIENT_SCANNER_REMOTE_LOG_DOWNLOAD_CHUNK_SIZE,
+                MemorySize.parse("100b"));
         remoteLogDir = remoteLogDir(conf);
         remoteFileDownloader = new RemoteFileDownloader(1);
         scannerMetricGroup = TestingScannerMetricGroup.newInstance();
@@ -137,12 +145,41 @@ class RemoteLogDownloaderTest {
         assertThat(FileUtils.listDirectory(localLogDir).length).isEqualTo(0);
     }
 
+    @Test
+    void testDownloadFromStartPosition() throws Exception {
+        TableBucket tb = new TableBucket(DATA1_TABLE_ID, 0);
+        RemoteLogSegment segment =
+                buildRemoteLogSegmentList(tb, DATA1_PHYSICAL_TABLE_PATH, 1, conf).get(0);
+        FsPath remoteLogTabletDir = remoteLogTabletDir(remoteLogDir, DATA1_PHYSICAL_TABLE_PATH, tb);
+        File remoteFile =
+                new File(
+                        RemoteLogDownloader.getFsPathAndFileName(remoteLogTabletDir, segment)
+                                .getPath()
+                                .getPath());
+        byte[] remoteBytes = Files.readAllBytes(remoteFile.toPath());
+        // start in the middle of the segment to download it partially in multiple chunks
+        int startPosition = remoteBytes.length / 3;
+        assertThat(remoteBytes.length - startPosition).isGreaterThan(100);
+
+        RemoteLogDownloadFuture future =
+                remoteLogDownloader.requestRemoteLog(remoteLogTabletDir, segment, startPosition);
+        retry(Duration.ofMinutes(1), () -> assertThat(future.isDone()).isTrue());
+
+        // only the bytes from the start position are downloaded
+        try (FileLogRecords fileLogRecords = future.getFileLogRecords()) {
+            assertThat(Files.readAllBytes(fileLogRecords.file().toPath()))
+                    .isEqualTo(Arrays.copyOfRange(remoteBytes, startPosition, remoteBytes.length));
+        }
+        assertThat(scannerMetricGroup.remoteFetchBytes().getCount())
+                .isEqualTo(remoteBytes.length - startPosition);
+    }
+
     private List<RemoteLogDownloadFuture> requestRemoteLogs(
             FsPath remoteLogTabletDir, List<RemoteLogSegment> remoteLogSegments) {
         List<RemoteLogDownloadFuture> futures = new ArrayList<>();
         for (RemoteLogSegment segment : remoteLogSegments) {
             RemoteLogDownloadFuture future =
-                    remoteLogDownloader.requestRemoteLog(remoteLogTabletDir, segment);
+                    remoteLogDownloader.requestRemoteLog(remoteLogTabletDir, segment, 0);
             futures.add(future);
         }
         return futures;
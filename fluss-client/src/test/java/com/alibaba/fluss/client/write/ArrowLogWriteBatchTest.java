@@ -132,6 +132,7 @@ public class ArrowLogWriteBatchTest {
                                 DATA1_ROW_TYPE,
                                 DEFAULT_COMPRESSION),
                         new PreAllocatedPagedOutputView(memorySegmentList),
+                        null,
                         System.currentTimeMillis());
         assertThat(arrowLogWriteBatch.pooledMemorySegments()).isEqualTo(memorySegmentList);
 
@@ -203,6 +204,7 @@ public class ArrowLogWriteBatchTest {
                             DATA1_TABLE_INFO.getSchemaId(),
                             arrowWriter,
                             new PreAllocatedPagedOutputView(memorySegmentList),
+                            null,
                             System.currentTimeMillis());
 
             int recordCount = 0;
@@ -234,6 +236,76 @@ public class ArrowLogWriteBatchTest {
         assertThat(currentRatio).isLessThan(1.0f);
     }
 
+    @Test
+    void testCloseForRecordAppends() throws Exception {
+        int bucketId = 0;
+        int maxSizeInBytes = 10240;
+        ArrowLogWriteBatch arrowLogWriteBatch =
+                createArrowLogWriteBatch(new TableBucket(DATA1_TABLE_ID, bucketId), maxSizeInBytes);
+        int recordCount = 5;
+        for (int i = 0; i < recordCount; i++) {
+            assertThat(
+                            arrowLogWriteBatch.tryAppend(
+                                    createWriteRecord(row(i, "a" + i)), newWriteCallback()))
+                    .isTrue();
+        }
+        int estimatedSizeInBytes = arrowLogWriteBatch.estimatedSizeInBytes();
+
+        arrowLogWriteBatch.closeForRecordAppends();
+        assertThat(arrowLogWriteBatch.isClosed()).isTrue();
+        assertThat(arrowLogWriteBatch.tryAppend(createWriteRecord(row(1, "a")), newWriteCallback()))
+                .isFalse();
+        // the arrow batch is not built yet, so the arrow writer is not recycled.
+        assertThat(arrowLogWriteBatch.estimatedSizeInBytes()).isEqualTo(estimatedSizeInBytes);
+        assertThat(writerProvider.freeWriters()).isEmpty();
+
+        // close builds the arrow batch and recycles the arrow writer.
+        arrowLogWriteBatch.close();
+        assertThat(writerProvider.freeWriters()).hasSize(1);
+        MemoryLogRecords records = MemoryLogRecords.pointToBytesView(arrowLogWriteBatch.build());
+        assertThat(records.batches().iterator().next().getRecordCount()).isEqualTo(recordCount);
+    }
+
+    @Test
+    void testCloseAfterAbortRecordAppends() throws Exception {
+        ArrowLogWriteBatch arrowLogWriteBatch =
+                createArrowLogWriteBatch(new TableBucket(DATA1_TABLE_ID, 0), 10240);
+        assertThat(arrowLogWriteBatch.tryAppend(createWriteRecord(row(1, "a")), newWriteCallback()))
+                .isTrue();
+        arrowLogWriteBatch.closeForRecordAppends();
+
+        // the batch is aborted before the appender builds it outside the lock
+        arrowLogWriteBatch.abortRecordAppends();
+        arrowLogWriteBatch.close();
+        assertThat(arrowLogWriteBatch.isClosed()).isTrue();
+    }
+
+    @Test
+    void testCloseAfterBatchSequenceReset() throws Exception {
+        ArrowLogWriteBatch arrowLogWriteBatch =
+                createArrowLogWriteBatch(new TableBucket(DATA1_TABLE_ID, 0), 10240);
+        assertThat(arrowLogWriteBatch.tryAppend(createWriteRecord(row(1, "a")), newWriteCallback()))
+                .isTrue();
+        arrowLogWriteBatch.closeForRecordAppends();
+
+        // the sender drains and builds the batch before the appender closes it outside the lock,
+        // then the batch sequence is reset and the batch is re-enqueued.
+        arrowLogWriteBatch.setWriterState(1L, 0);
+        arrowLogWriteBatch.drained(System.currentTimeMillis());
+        arrowLogWriteBatch.build();
+        arrowLogWriteBatch.resetWriterState(1L, 5);
+        assertThat(arrowLogWriteBatch.sequenceHasBeenReset()).isTrue();
+
+        // the late close must not clear the reset before the batch is drained again.
+        arrowLogWriteBatch.close();
+        assertThat(arrowLogWriteBatch.sequenceHasBeenReset()).isTrue();
+        MemoryLogRecords records = MemoryLogRecords.pointToBytesView(arrowLogWriteBatch.build());
+        assertThat(records.batches().iterator().next().batchSequence()).isEqualTo(5);
+
+        arrowLogWriteBatch.drained(System.currentTimeMillis());
+        assertThat(arrowLogWriteBatch.sequenceHasBeenReset()).isFalse();
+    }
+
     @Test
     void testBatchAborted() throws Exception {
         int bucketId = 0;
@@ -303,6 +375,7 @@ public class ArrowLogWriteBatchTest {
                         DATA1_ROW_TYPE,
                         DEFAULT_COMPRESSION),
                 new UnmanagedPagedOutputView(128),
+                null,
                 System.currentTimeMillis());
     }
 
@@ -63,6 +63,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -130,9 +131,6 @@ class RecordAccumulatorTest {
         cluster = updateCluster(Arrays.asList(bucket1, bucket2, bucket3));
     }
 
-    // TODO Add more tests to test lingMs, retryBackoffMs, deliveryTimeoutMs and
-    //  nextBatchExpiryTimeMs if we introduced.
-
     @Test
     void testDrainBatches() throws Exception {
         // test case: node1(tb1, tb2), node2(tb3).
@@ -524,6 +522,91 @@ class RecordAccumulatorTest {
         assertThat(result.nextReadyCheckDelayMs).isLessThanOrEqualTo(batchTimeout);
     }
 
+    @Test
+    void testRetryBackoff() throws Exception {
+        long retryBackoffMs = 100L;
+        conf.set(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF, Duration.ofMillis(retryBackoffMs));
+        // use a constant backoff to make the test deterministic.
+        conf.set(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF_MAX, Duration.ofMillis(retryBackoffMs));
+        int batchTimeout = 1000;
+        IndexedRow row = indexedRow(DATA1_ROW_TYPE, new Object[] {1, "a"});
+        RecordAccumulator accum = createTestRecordAccumulator(batchTimeout, 1024, 256, 10 * 1024);
+        accum.append(createRecord(row), writeCallback, cluster, bucket1.getBucketId(), false);
+        clock.advanceTime(batchTimeout, TimeUnit.MILLISECONDS);
+
+        Set<ServerNode> readyNodes = accum.ready(cluster).readyNodes;
+        assertThat(readyNodes).containsExactly(node1);
+        List<ReadyWriteBatch> batches =
+                accum.drain(cluster, readyNodes, Integer.MAX_VALUE).get(node1.id());
+        assertThat(batches).hasSize(1);
+
+        // the re-enqueued batch backs off before it can be retried.
+        accum.reEnqueue(batches.get(0));
+        RecordAccumulator.ReadyCheckResult result = accum.ready(cluster);
+        assertThat(result.readyNodes).isEmpty();
+        assertThat(result.nextReadyCheckDelayMs).isEqualTo(retryBackoffMs);
+        assertThat(accum.drain(cluster, Collections.singleton(node1), Integer.MAX_VALUE)).isEmpty();
+
+        clock.advanceTime(retryBackoffMs, TimeUnit.MILLISECONDS);
+        result = accum.ready(cluster);
+        assertThat(result.readyNodes).containsExactly(node1);
+        batches = accum.drain(cluster, result.readyNodes, Integer.MAX_VALUE).get(node1.id());
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).writeBatch().attempts()).isEqualTo(1);
+    }
+
+    @Test
+    void testExpiredBatches() throws Exception {
+        long deliveryTimeoutMs = 60_000L;
+        conf.set(
+                ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT, Duration.ofMillis(deliveryTimeoutMs));
+        IndexedRow row = indexedRow(DATA1_ROW_TYPE, new Object[] {1, "a"});
+        RecordAccumulator accum = createTestRecordAccumulator(10, 1024, 256, 10 * 1024);
+        accum.append(createRecord(row), writeCallback, cluster, bucket1.getBucketId(), false);
+        assertThat(accum.nextExpiryDelayMs()).isEqualTo(deliveryTimeoutMs);
+        clock.advanceTime(deliveryTimeoutMs / 2, TimeUnit.MILLISECONDS);
+        accum.append(createRecord(row), writeCallback, cluster, bucket3.getBucketId(), false);
+
+        assertThat(accum.expiredBatches()).isEmpty();
+        assertThat(accum.nextExpiryDelayMs()).isEqualTo(deliveryTimeoutMs / 2);
+
+        // only the batch of bucket1 reaches the delivery timeout.
+        clock.advanceTime(deliveryTimeoutMs / 2, TimeUnit.MILLISECONDS);
+        List<ReadyWriteBatch> expiredBatches = accum.expiredBatches();
+        assertThat(expiredBatches).hasSize(1);
+        assertThat(expiredBatches.get(0).tableBucket()).isEqualTo(tb1);
+        assertThat(accum.getReadyDeque(DATA1_PHYSICAL_TABLE_PATH, tb1.getBucket())).isEmpty();
+        assertThat(getBatchNumInAccum(accum)).isEqualTo(1);
+        assertThat(accum.nextExpiryDelayMs()).isEqualTo(deliveryTimeoutMs / 2);
+        assertThat(accum.hasReachedDeliveryTimeout(expiredBatches.get(0).writeBatch())).isTrue();
+    }
+
+    @Test
+    void testExpiredReEnqueuedBatch() throws Exception {
+        long deliveryTimeoutMs = 60_000L;
+        conf.set(
+                ConfigOptions.CLIENT_WRITER_DELIVERY_TIMEOUT, Duration.ofMillis(deliveryTimeoutMs));
+        IndexedRow row = indexedRow(DATA1_ROW_TYPE, new Object[] {1, "a"});
+        RecordAccumulator accum = createTestRecordAccumulator(0, 1024, 256, 10 * 1024);
+        accum.append(createRecord(row), writeCallback, cluster, bucket1.getBucketId(), false);
+        List<ReadyWriteBatch> batches =
+                accum.drain(cluster, Collections.singleton(node1), Integer.MAX_VALUE)
+                        .get(node1.id());
+        assertThat(batches).hasSize(1);
+        assertThat(accum.expiredBatches()).isEmpty();
+
+        // the retried batch keeps its creation time.
+        clock.advanceTime(deliveryTimeoutMs / 2, TimeUnit.MILLISECONDS);
+        accum.reEnqueue(batches.get(0));
+        assertThat(accum.nextExpiryDelayMs()).isEqualTo(deliveryTimeoutMs / 2);
+
+        clock.advanceTime(deliveryTimeoutMs / 2, TimeUnit.MILLISECONDS);
+        List<ReadyWriteBatch> expiredBatches = accum.expiredBatches();
+        assertThat(expiredBatches).hasSize(1);
+        assertThat(expiredBatches.get(0).writeBatch()).isSameAs(batches.get(0).writeBatch());
+        assertThat(getBatchNumInAccum(accum)).isEqualTo(0);
+    }
+
     /**
      * Creates a indexed WriteRecord as the DATA1_PHYSICAL_TABLE_PATH is registered as a INDEXED
      * format , see {@link #updateCluster(List)}.
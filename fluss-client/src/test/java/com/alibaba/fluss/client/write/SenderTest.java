@@ -35,6 +35,8 @@ import com.alibaba.fluss.rpc.messages.ProduceLogRequest;
 import com.alibaba.fluss.rpc.messages.ProduceLogResponse;
 import com.alibaba.fluss.rpc.protocol.Errors;
 import com.alibaba.fluss.server.tablet.TestTabletServerGateway;
+import com.alibaba.fluss.utils.clock.Clock;
+import com.alibaba.fluss.utils.clock.ManualClock;
 import com.alibaba.fluss.utils.clock.SystemClock;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -50,6 +52,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.fluss.record.TestData.DATA1_PHYSICAL_TABLE_PATH;
 import static com.alibaba.fluss.record.TestData.DATA1_TABLE_ID;
@@ -470,6 +473,54 @@ final class SenderTest {
         assertThat(future1.isDone()).isTrue();
     }
 
+    @Test
+    void testResetWriterIdAfterRetriedBatchExpired() throws Exception {
+        ManualClock clock = new ManualClock(System.currentTimeMillis());
+        IdempotenceManager idempotenceManager = createIdempotenceManager(true);
+        // back off long enough for the retried batch to expire in the accumulator.
+        Sender sender1 =
+                setupWithIdempotenceState(
+                        idempotenceManager, Integer.MAX_VALUE, 0, Duration.ofHours(1), clock);
+        sender1.runOnce();
+        assertThat(idempotenceManager.isWriterIdValid()).isTrue();
+
+        // Send the first ProduceLogRequest.
+        CompletableFuture<Exception> future1 = new CompletableFuture<>();
+        appendToAccumulator(tb1, row(1, "a"), future1::complete);
+        sender1.runOnce();
+        assertThat(idempotenceManager.nextSequence(tb1)).isEqualTo(1);
+
+        // response 0 with retrievable error which will reEnqueue the batch.
+        finishIdempotentProduceLogRequest(
+                0, tb1, 0, createProduceLogResponse(tb1, Errors.REQUEST_TIME_OUT));
+        retry(
+                Duration.ofMinutes(1),
+                () ->
+                        assertThat(
+                                        accumulator.getReadyDeque(
+                                                DATA1_PHYSICAL_TABLE_PATH, tb1.getBucket()))
+                                .hasSize(1));
+
+        // the batch expires while backing off, the tablet server may have written it, so the
+        // writer id is reset.
+        clock.advanceTime(accumulator.getDeliveryTimeoutMs(), TimeUnit.MILLISECONDS);
+        sender1.runOnce();
+        assertThat(future1.get()).isInstanceOf(TimeoutException.class);
+        assertThat(idempotenceManager.isWriterIdValid()).isFalse();
+        assertThat(idempotenceManager.hasInflightBatches(tb1)).isFalse();
+        assertThat(accumulator.getReadyDeque(DATA1_PHYSICAL_TABLE_PATH, tb1.getBucket())).isEmpty();
+
+        // the next batch is sent with a new writer id and restarts from batch sequence 0.
+        CompletableFuture<Exception> future2 = new CompletableFuture<>();
+        appendToAccumulator(tb1, row(1, "a"), future2::complete);
+        sender1.runOnce();
+        assertThat(idempotenceManager.isWriterIdValid()).isTrue();
+        finishIdempotentProduceLogRequest(0, tb1, 0, createProduceLogResponse(tb1, 0L, 1L));
+        sender1.runOnce();
+        assertThat(future2.get()).isNull();
+        assertThat(idempotenceManager.lastAckedBatchSequence(tb1)).isEqualTo(Optional.of(0));
+    }
+
     @Test
     void testCorrectHandlingOfOutOfOrderResponses() throws Exception {
         IdempotenceManager idempotenceManager = createIdempotenceManager(true);
@@ -699,6 +750,37 @@ final class SenderTest {
         assertThat(future.get()).isNull();
     }
 
+    @Test
+    void testWakeupWhileWaitingForData() throws Exception {
+        // a batch timeout long enough to never expire in this test.
+        Sender sender1 =
+                setupWithIdempotenceState(
+                        createIdempotenceManager(false),
+                        Integer.MAX_VALUE,
+                        (int) Duration.ofHours(1).toMillis());
+        CompletableFuture<Void> runOnceFuture =
+                CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                // nothing to send, waits for the batch timeout until woken up.
+                                sender1.runOnce();
+                            } catch (Exception e) {
+                                throw new RuntimeException(e);
+                            }
+                        });
+        assertThat(runOnceFuture).isNotDone();
+
+        sender1.wakeup();
+        runOnceFuture.get(1, TimeUnit.MINUTES);
+
+        // a wakeup before waiting makes the next wait return immediately.
+        sender1.wakeup();
+        CompletableFuture<Exception> future = new CompletableFuture<>();
+        appendToAccumulator(tb1, row(1, "a"), future::complete);
+        sender1.runOnce();
+        assertThat(sender1.numOfInFlightBatches(tb1)).isEqualTo(0);
+    }
+
     private TestingMetadataUpdater initializeMetadataUpdater() {
         return new TestingMetadataUpdater(
                 Collections.singletonMap(DATA1_TABLE_PATH, DATA1_TABLE_INFO));
@@ -769,14 +851,29 @@ final class SenderTest {
 
     private Sender setupWithIdempotenceState(
             IdempotenceManager idempotenceManager, int reties, int batchTimeoutMs) {
+        // resend the retried batches immediately.
+        return setupWithIdempotenceState(
+                idempotenceManager,
+                reties,
+                batchTimeoutMs,
+                Duration.ZERO,
+                SystemClock.getInstance());
+    }
+
+    private Sender setupWithIdempotenceState(
+            IdempotenceManager idempotenceManager,
+            int reties,
+            int batchTimeoutMs,
+            Duration retryBackoff,
+            Clock clock) {
         Configuration conf = new Configuration();
         conf.set(ConfigOptions.CLIENT_WRITER_BUFFER_MEMORY_SIZE, new MemorySize(TOTAL_MEMORY_SIZE));
         conf.set(ConfigOptions.CLIENT_WRITER_BATCH_SIZE, new MemorySize(BATCH_SIZE));
         conf.set(ConfigOptions.CLIENT_WRITER_BUFFER_PAGE_SIZE, new MemorySize(PAGE_SIZE));
         conf.set(ConfigOptions.CLIENT_WRITER_BATCH_TIMEOUT, Duration.ofMillis(batchTimeoutMs));
-        accumulator =
-                new RecordAccumulator(
-                        conf, idempotenceManager, writerMetricGroup, SystemClock.getInstance());
+        conf.set(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF, retryBackoff);
+        conf.set(ConfigOptions.CLIENT_WRITER_RETRY_BACKOFF_MAX, retryBackoff);
+        accumulator = new RecordAccumulator(conf, idempotenceManager, writerMetricGroup, clock);
         return new Sender(
                 accumulator,
                 REQUEST_TIMEOUT,
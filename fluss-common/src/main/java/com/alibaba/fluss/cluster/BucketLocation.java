@@ -33,8 +33,9 @@ public final class BucketLocation {
     private final TableBucket tableBucket;
     @Nullable private final ServerNode leader;
     private final ServerNode[] replicas;
+    private final ServerNode[] inSyncReplicas;
 
-    // TODO add inSyncReplicas and offlineReplicas.
+    // TODO add offlineReplicas.
 
     public BucketLocation(
             PhysicalTablePath physicalTablePath,
@@ -50,10 +51,20 @@ public final class BucketLocation {
             TableBucket tableBucket,
             @Nullable ServerNode leader,
             ServerNode[] replicas) {
+        this(physicalTablePath, tableBucket, leader, replicas, new ServerNode[0]);
+    }
+
+    public BucketLocation(
+            PhysicalTablePath physicalTablePath,
+            TableBucket tableBucket,
+            @Nullable ServerNode leader,
+            ServerNode[] replicas,
+            ServerNode[] inSyncReplicas) {
         this.physicalTablePath = physicalTablePath;
         this.tableBucket = tableBucket;
         this.leader = leader;
         this.replicas = replicas;
+        this.inSyncReplicas = inSyncReplicas;
     }
 
     public PhysicalTablePath getPhysicalTablePath() {
@@ -77,6 +88,14 @@ public final class BucketLocation {
         return replicas;
     }
 
+    /**
+     * The alive in-sync replicas of the bucket, empty if the in-sync replicas are unknown, e.g. the
+     * metadata is from an old server.
+     */
+    public ServerNode[] getInSyncReplicas() {
+        return inSyncReplicas;
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) {
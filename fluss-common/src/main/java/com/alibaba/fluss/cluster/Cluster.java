@@ -47,6 +47,7 @@ public final class Cluster {
     @Nullable private final ServerNode coordinatorServer;
     private final Map<PhysicalTablePath, List<BucketLocation>> availableLocationsByPath;
     private final Map<TableBucket, BucketLocation> availableLocationByBucket;
+    private final Map<Integer, List<BucketLocation>> availableLocationsByNode;
     private final Map<Integer, ServerNode> aliveTabletServersById;
     private final List<ServerNode> aliveTabletServers;
     private final Map<TablePath, Long> tableIdByPath;
@@ -72,10 +73,11 @@ public final class Cluster {
         this.tableInfoByPath = Collections.unmodifiableMap(tableInfoByPath);
         this.partitionsIdByPath = Collections.unmodifiableMap(partitionsIdByPath);
 
-        // Index the bucket locations by table path, and index bucket location by bucket.
-        // Note that this code is performance sensitive if there are a large number of buckets,
-        // so we are careful to avoid unnecessary work.
+        // Index the bucket locations by table path and by leader node, and index bucket location
+        // by bucket. Note that this code is performance sensitive if there are a large number of
+        // buckets, so we are careful to avoid unnecessary work.
         Map<TableBucket, BucketLocation> tmpAvailableLocationByBucket = new HashMap<>();
+        Map<Integer, List<BucketLocation>> tmpAvailableLocationsByNode = new HashMap<>();
         Map<PhysicalTablePath, List<BucketLocation>> tmpAvailableLocationsByPath =
                 new HashMap<>(bucketLocationsByPath.size());
         for (Map.Entry<PhysicalTablePath, List<BucketLocation>> entry :
@@ -91,6 +93,10 @@ public final class Cluster {
                 if (bucketLocation.getLeader() != null) {
                     tmpAvailableLocationByBucket.put(
                             bucketLocation.getTableBucket(), bucketLocation);
+                    tmpAvailableLocationsByNode
+                            .computeIfAbsent(
+                                    bucketLocation.getLeader().id(), k -> new ArrayList<>())
+                            .add(bucketLocation);
                     availableBucketsForTable.add(bucketLocation);
                 } else {
                     foundUnavailableBucket = true;
@@ -114,6 +120,9 @@ public final class Cluster {
         this.partitionNameById = Collections.unmodifiableMap(tmpPartitionNameById);
         this.availableLocationByBucket = Collections.unmodifiableMap(tmpAvailableLocationByBucket);
         this.availableLocationsByPath = Collections.unmodifiableMap(tmpAvailableLocationsByPath);
+        tmpAvailableLocationsByNode.replaceAll(
+                (nodeId, bucketsForNode) -> Collections.unmodifiableList(bucketsForNode));
+        this.availableLocationsByNode = Collections.unmodifiableMap(tmpAvailableLocationsByNode);
 
         Map<Long, TablePath> tempPathByTableId = new HashMap<>();
         tableIdByPath.forEach(((tablePath, tableId) -> tempPathByTableId.put(tableId, tablePath)));
@@ -217,6 +226,11 @@ public final class Cluster {
         return availableLocationsByPath.getOrDefault(physicalTablePath, Collections.emptyList());
     }
 
+    /** Get the list of available buckets whose leader is the given tablet server. */
+    public List<BucketLocation> getAvailableBucketsForNode(int serverId) {
+        return availableLocationsByNode.getOrDefault(serverId, Collections.emptyList());
+    }
+
     /** Get the table info for this table. */
     public Optional<TableInfo> getTable(TablePath tablePath) {
         return Optional.ofNullable(tableInfoByPath.get(tablePath));
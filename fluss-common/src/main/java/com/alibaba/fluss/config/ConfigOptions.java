@@ -554,7 +554,51 @@ public class ConfigOptions {
                             "This setting allows specifying an interval at which we will force a "
                                     + "fsync of data written to the log. For example if this was set to 1, "
                                     + "we would fsync after every message; if it were 5 we would fsync after every "
-                                    + "five messages.");
+                                    + "five messages. See 'log.flush.background.enabled' for whether the fsync "
+                                    + "is done before acknowledging the append.");
+
+    public static final ConfigOption<MemorySize> LOG_FLUSH_INTERVAL_BYTES =
+            key("log.flush.interval-bytes")
+                    .memoryType()
+                    .defaultValue(MemorySize.MAX_VALUE)
+                    .withDescription(
+                            "This setting allows specifying an interval of written bytes at which "
+                                    + "we will force a fsync of data written to the log. See "
+                                    + "'log.flush.background.enabled' for whether the fsync is done "
+                                    + "before acknowledging the append.");
+
+    public static final ConfigOption<Boolean> LOG_FLUSH_BACKGROUND_ENABLED =
+            key("log.flush.background.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the fsync forced by 'log.flush.interval-messages' and "
+                                    + "'log.flush.interval-bytes' is done by the log flusher thread of the "
+                                    + "data directory in the background, so that it doesn't block the appends "
+                                    + "to the log. Note that if it's true, the append crossing the interval is "
+                                    + "acknowledged before the data is fsynced, and the durability of the "
+                                    + "acknowledged data relies on the replication until the flusher has "
+                                    + "flushed it. Set it to false to fsync in the append path before "
+                                    + "acknowledging the append.");
+
+    public static final ConfigOption<Duration> LOG_FLUSH_INTERVAL =
+            key("log.flush.interval")
+                    .durationType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The maximum time that data written to the log is kept in the page cache "
+                                    + "before it is flushed to disk by the log flusher thread. If not "
+                                    + "set, the log is not flushed by time.");
+
+    public static final ConfigOption<Duration> LOG_RECOVERY_POINT_CHECKPOINT_INTERVAL =
+            key("log.recovery-point.checkpoint-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(1))
+                    .withDescription(
+                            "The frequency with which the log flusher thread saves the recovery points "
+                                    + "of the flushed logs out to disk, the recovery point is the "
+                                    + "offset up to which the log is flushed and doesn't need to be "
+                                    + "recovered after an unclean shutdown.");
 
     public static final ConfigOption<Duration> LOG_REPLICA_HIGH_WATERMARK_CHECKPOINT_INTERVAL =
             key("log.replica.high-watermark.checkpoint-interval")
@@ -650,6 +694,28 @@ public class ConfigOptions {
                                     + LOG_REPLICA_FETCH_WAIT_MAX_TIME.key()
                                     + " time to return.");
 
+    public static final ConfigOption<Integer> LOG_REPLICA_FETCH_MAX_IN_FLIGHT_REQUESTS =
+            key("log.replica.fetch.max-in-flight-requests")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription(
+                            "The maximum number of fetch log requests in flight from each replica fetcher "
+                                    + "thread to the leader. The buckets of a fetcher are spread over the "
+                                    + "in-flight requests, each bucket is always fetched by the same request "
+                                    + "slot to keep its records in order, so the records fetched by one request "
+                                    + "are appended while the other requests are in flight.");
+
+    public static final ConfigOption<Integer> LOG_FETCH_SESSION_CACHE_MAX_ENTRIES =
+            key("log.fetch.session-cache.max-entries")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription(
+                            "The maximum number of fetch sessions cached by a tablet server. A fetch session "
+                                    + "remembers the buckets fetched by a follower or a client, so that the "
+                                    + "following fetch log requests and responses only carry the buckets whose "
+                                    + "fetch state changed. The least recently used session is evicted when the "
+                                    + "cache is full. Set it to 0 to disable fetch sessions.");
+
     public static final ConfigOption<Integer> LOG_REPLICA_MIN_IN_SYNC_REPLICAS_NUMBER =
             key("log.replica.min-in-sync-replicas-number")
                     .intType()
@@ -686,6 +752,39 @@ public class ConfigOptions {
                             "The total size of the space allocated to store index files fetched "
                                     + "from remote storage in the local storage.");
 
+    public static final ConfigOption<Boolean> REMOTE_LOG_SERVER_SIDE_READ_ENABLED =
+            key("remote.log.server-side-read.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the tablet server reads the remote log segments for the log scanners "
+                                    + "whose fetch offset has been moved to remote storage, and serves the "
+                                    + "records through normal fetch log responses. The segments are read in "
+                                    + "chunks through a local disk cache shared by all the scanners, so that "
+                                    + "the scanners replaying the same history don't download the same segments "
+                                    + "repeatedly. The chunks not cached yet are loaded in the background, and the "
+                                    + "fetches reading them meanwhile are served by the scanners downloading the "
+                                    + "segments. The fetches with projection or filter pushed down are still "
+                                    + "served by the scanners downloading the segments. If disabled, the scanners "
+                                    + "always download the whole remote log segments themselves.");
+
+    public static final ConfigOption<MemorySize> REMOTE_LOG_SEGMENT_CACHE_SIZE =
+            key("remote.log.segment-cache.size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("5gb"))
+                    .withDescription(
+                            "The total size of the local disk space used to cache the chunks of remote "
+                                    + "log segments read by the tablet server when `remote.log.server-side-read.enabled` "
+                                    + "is true. The least recently used chunks are evicted when the cache is full.");
+
+    public static final ConfigOption<MemorySize> REMOTE_LOG_SEGMENT_CACHE_CHUNK_SIZE =
+            key("remote.log.segment-cache.chunk-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("4mb"))
+                    .withDescription(
+                            "The size of the chunks the remote log segments are read and cached in when "
+                                    + "`remote.log.server-side-read.enabled` is true.");
+
     public static final ConfigOption<Integer> REMOTE_LOG_MANAGER_THREAD_POOL_SIZE =
             key("remote.log-manager.thread-pool-size")
                     .intType()
@@ -757,6 +856,16 @@ public class ConfigOptions {
                                     + "to be able to track the source of requests beyond just ip/port by allowing "
                                     + "a logical application name to be included in server-side request logging.");
 
+    public static final ConfigOption<String> CLIENT_RACK =
+            key("client.rack")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The rack of the client. If set, the log scanner reads from an in-sync replica "
+                                    + "whose `tablet-server.rack` matches this rack instead of always reading "
+                                    + "from the leader, which avoids the cross-rack traffic of the reads. "
+                                    + "The records are read up to the high watermark of the leader known by the replica.");
+
     public static final ConfigOption<Duration> CLIENT_CONNECT_TIMEOUT =
             key("client.connect-timeout")
                     .durationType()
@@ -907,6 +1016,41 @@ public class ConfigOptions {
                             "Setting a value greater than zero will cause the client to resend any record whose "
                                     + "send fails with a potentially transient error.");
 
+    public static final ConfigOption<Duration> CLIENT_WRITER_RETRY_BACKOFF =
+            key("client.writer.retry-backoff")
+                    .durationType()
+                    .defaultValue(Duration.ofMillis(100))
+                    .withDescription(
+                            "The initial amount of time to wait before resending a failed batch to a given "
+                                    + "table bucket. The backoff increases exponentially for each consecutive "
+                                    + "failure of the batch, up to the maximum retry backoff. This avoids repeatedly "
+                                    + "sending requests in a tight loop under some failure scenarios, e.g. during "
+                                    + "leader changes.");
+
+    public static final ConfigOption<Duration> CLIENT_WRITER_RETRY_BACKOFF_MAX =
+            key("client.writer.retry-backoff.max")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription(
+                            "The maximum amount of time to wait before resending a failed batch to a given "
+                                    + "table bucket. If it is less than "
+                                    + CLIENT_WRITER_RETRY_BACKOFF.key()
+                                    + ", the backoff is constant and equal to this value.");
+
+    public static final ConfigOption<Duration> CLIENT_WRITER_DELIVERY_TIMEOUT =
+            key("client.writer.delivery-timeout")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(2))
+                    .withDescription(
+                            "An upper bound on the time to report success or failure after a record is sent "
+                                    + "to the writer. This limits the total time that a record will be delayed "
+                                    + "prior to sending and the time allowed for retrying failed sends. A batch "
+                                    + "that is not sent out within this time is failed with a timeout exception "
+                                    + "and its buffer memory is released. The value should be greater than or "
+                                    + "equal to the sum of "
+                                    + CLIENT_WRITER_BATCH_TIMEOUT.key()
+                                    + " and `client.request-timeout`.");
+
     public static final ConfigOption<Boolean> CLIENT_WRITER_ENABLE_IDEMPOTENCE =
             key("client.writer.enable-idempotence")
                     .booleanType()
@@ -1001,6 +1145,15 @@ public class ConfigOptions {
                                     + "from client. Records are fetched in batches, the max bytes size is config by "
                                     + "this option.");
 
+    public static final ConfigOption<MemorySize> CLIENT_SCANNER_KV_FETCH_MAX_BYTES =
+            key("client.scanner.kv.fetch.max-bytes")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("1mb"))
+                    .withDescription(
+                            "The maximum amount of data the server should return for a scan kv request "
+                                    + "from the BatchScanner of a primary key table. At least one record is "
+                                    + "returned if the scan is not finished, so this is not a absolute maximum.");
+
     public static final ConfigOption<Duration> CLIENT_SCANNER_LOG_FETCH_WAIT_MAX_TIME =
             key("client.scanner.log.fetch.wait-max-time")
                     .durationType()
@@ -1047,6 +1200,36 @@ public class ConfigOptions {
                             "The maximum time to wait for the lookup batch to full, if this timeout is reached, "
                                     + "the lookup batch will be closed to send.");
 
+    public static final ConfigOption<Boolean> CLIENT_LOOKUP_CACHE_ENABLED =
+            key("client.lookup.cache.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to cache the results of the primary key lookups in the client. "
+                                    + "The cache of a table is shared by all the lookupers of the table in "
+                                    + "the same connection, and it's kept consistent with the table by "
+                                    + "consuming the changelog of the table, the cached keys are evicted "
+                                    + "once they are changed. Currently, the cache is only available for "
+                                    + "non-partitioned primary key tables.");
+
+    public static final ConfigOption<MemorySize> CLIENT_LOOKUP_CACHE_MAX_BYTES =
+            key("client.lookup.cache.max-bytes")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("64mb"))
+                    .withDescription(
+                            "The max size of the keys and values cached by the lookup cache of a table. "
+                                    + "The least recently used entries are evicted when the size is exceeded.");
+
+    public static final ConfigOption<Duration> CLIENT_LOOKUP_CACHE_MAX_STALENESS =
+            key("client.lookup.cache.max-staleness")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(10))
+                    .withDescription(
+                            "The max time the lookup cache can be used since the last successful poll "
+                                    + "of the changelog. If the changelog can't be polled within this time, "
+                                    + "e.g., the tablet servers are not reachable, the lookups bypass the "
+                                    + "cache until the changelog is polled again.");
+
     public static final ConfigOption<Integer> CLIENT_SCANNER_REMOTE_LOG_PREFETCH_NUM =
             key("client.scanner.remote-log.prefetch-num")
                     .intType()
@@ -1055,6 +1238,17 @@ public class ConfigOptions {
                             "The number of remote log segments to keep in local temp file for LogScanner, "
                                     + "which download from remote storage. The default setting is 4.");
 
+    public static final ConfigOption<MemorySize> CLIENT_SCANNER_REMOTE_LOG_DOWNLOAD_CHUNK_SIZE =
+            key("client.scanner.remote-log.download-chunk-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("8mb"))
+                    .withDescription(
+                            "The size of the chunks which a remote log segment is split into when "
+                                    + "LogScanner downloads it. Only the part of the segment from the "
+                                    + "position of the fetch offset is downloaded, and the chunks are "
+                                    + "downloaded in parallel by the remote file download threads. "
+                                    + "The default setting is 8mb.");
+
     public static final ConfigOption<String> CLIENT_SCANNER_IO_TMP_DIR =
             key("client.scanner.io.tmpdir")
                     .stringType()
@@ -1166,6 +1360,18 @@ public class ConfigOptions {
                             "The compression level of ZSTD for the log records if the log format is set to `ARROW` "
                                     + "and the compression type is set to `ZSTD`. The valid range is 1 to 22.");
 
+    public static final ConfigOption<List<String>> TABLE_LOG_ARROW_STATISTICS_COLUMNS =
+            key("table.log.arrow.statistics.columns")
+                    .stringType()
+                    .asList()
+                    .noDefaultValue()
+                    .withDescription(
+                            "The columns to collect statistics (min value, max value and null count) for "
+                                    + "each log record batch if the log format is set to `ARROW`. The statistics "
+                                    + "are used to skip the batches that don't contain any record satisfying the "
+                                    + "filter of log scanners without decoding the records. Only columns of "
+                                    + "primitive types are supported. No statistics are collected by default.");
+
     public static final ConfigOption<KvFormat> TABLE_KV_FORMAT =
             key("table.kv.format")
                     .enumType(KvFormat.class)
@@ -1569,6 +1775,94 @@ public class ConfigOptions {
                     .withDescription(
                             "The max fetch size for fetching log to apply to kv during recovering kv.");
 
+    public static final ConfigOption<Integer> KV_RECOVER_PARALLELISM =
+            key("kv.recover.parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The number of threads to convert the log records to key-value pairs "
+                                    + "when recovering a kv tablet from the log. If it's larger than 1, "
+                                    + "the recovery is pipelined: the log is read by the recovering thread, "
+                                    + "converted by the given number of threads in parallel, and applied "
+                                    + "to kv by another thread in the order of the log. The default value is 1, "
+                                    + "which recovers the kv tablet in the recovering thread only.");
+
+    public static final ConfigOption<MemorySize> KV_RECOVER_WRITE_BATCH_SIZE =
+            key("kv.recover.write-batch-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("16mb"))
+                    .withDescription(
+                            "The max size of the consumed memory for RocksDB batch write when "
+                                    + "recovering a kv tablet from the log in the pipelined way, "
+                                    + "see 'kv.recover.parallelism'. It's also the max size of the "
+                                    + "key-value pairs in each SST file if "
+                                    + "'kv.recover.sst-ingestion.enabled' is true.");
+
+    public static final ConfigOption<Boolean> KV_RECOVER_SST_INGESTION_ENABLED =
+            key("kv.recover.sst-ingestion.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to apply the acknowledged log to kv by writing sorted SST files and "
+                                    + "ingesting them into RocksDB when recovering a kv tablet from the log, "
+                                    + "instead of writing them in batches through the memtable. It's much "
+                                    + "cheaper for recovering a large amount of log, e.g., the initial load "
+                                    + "of a table without any kv snapshot. The size of each SST file is "
+                                    + "bounded by 'kv.recover.write-batch-size'.");
+
+    public static final ConfigOption<Duration> KV_SCANNER_TTL =
+            key("kv.scanner.ttl")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(1))
+                    .withDescription(
+                            "The time a kv scanner is kept by the tablet server without being "
+                                    + "accessed by the client. The expired scanner is closed to release "
+                                    + "the RocksDB snapshot and iterator held by it, and the client has "
+                                    + "to restart the scan.");
+
+    public static final ConfigOption<Integer> KV_SCANNER_MAX_NUM =
+            key("kv.scanner.max-num")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription(
+                            "The max number of the open kv scanners in a tablet server. The request "
+                                    + "to open a new scanner fails if the number is exceeded.");
+
+    // ------------------------------------------------------------------------
+    //  ConfigOptions for Kv pre-write buffer
+    // ------------------------------------------------------------------------
+    public static final ConfigOption<Boolean> KV_PRE_WRITE_BUFFER_MEMORY_POOL_ENABLED =
+            key("kv.pre-write-buffer.memory-pool.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to store the kv records not yet flushed to kv storage in pages of a memory pool "
+                                    + "shared by all the kv tablets of the tablet server, instead of in per-record heap objects. "
+                                    + "When enabled, the total memory of the pre-write buffers is bounded by `"
+                                    + "kv.pre-write-buffer.memory-size"
+                                    + "`, and the put requests fail with a retriable exception when the memory is exhausted, "
+                                    + "which applies backpressure to the writers until the buffers are flushed. "
+                                    + "The default value is `false`.");
+
+    public static final ConfigOption<MemorySize> KV_PRE_WRITE_BUFFER_MEMORY_SIZE =
+            key("kv.pre-write-buffer.memory-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("256mb"))
+                    .withDescription(
+                            "The total bytes of memory the kv pre-write buffers of a tablet server can use. "
+                                    + "It only takes effect when `"
+                                    + KV_PRE_WRITE_BUFFER_MEMORY_POOL_ENABLED.key()
+                                    + "` is true.");
+
+    public static final ConfigOption<MemorySize> KV_PRE_WRITE_BUFFER_PAGE_SIZE =
+            key("kv.pre-write-buffer.page-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("64kb"))
+                    .withDescription(
+                            "Size of every page in the memory pool of the kv pre-write buffers (`"
+                                    + KV_PRE_WRITE_BUFFER_MEMORY_SIZE.key()
+                                    + "`). A kv tablet holds at least one page once it has been written.");
+
     // ------------------------------------------------------------------------
     //  ConfigOptions for metrics
     // ------------------------------------------------------------------------
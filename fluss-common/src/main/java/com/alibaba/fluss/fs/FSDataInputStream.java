@@ -18,9 +18,12 @@
 package com.alibaba.fluss.fs;
 
 import com.alibaba.fluss.annotation.PublicStable;
+import com.alibaba.fluss.fs.utils.VectoredReadUtils;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * Interface for a data input stream to a file on a {@link FileSystem}.
@@ -50,4 +53,69 @@ public abstract class FSDataInputStream extends InputStream {
      *     while accessing the stream's position.
      */
     public abstract long getPos() throws IOException;
+
+    /**
+     * Reads bytes from the given position of the file to fill up the given buffer.
+     *
+     * @see #readFully(long, byte[], int, int)
+     */
+    public void readFully(long position, byte[] buffer) throws IOException {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    /**
+     * Reads exactly {@code length} bytes from the given position of the file into the buffer. The
+     * current position of the stream isn't changed by the read.
+     *
+     * <p>The default implementation seeks to the position and back while holding the lock of the
+     * stream. Implementations should override it with a native positioned read if there is one.
+     *
+     * @param position the position in the file to read from
+     * @param buffer the buffer to read the bytes into
+     * @param offset the offset in the buffer to write the bytes at
+     * @param length the number of bytes to read
+     * @throws EOFException Thrown if the end of the file is reached before reading all the bytes.
+     * @throws IOException Thrown if an I/O error occurred while reading.
+     */
+    public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        synchronized (this) {
+            long oldPosition = getPos();
+            try {
+                seek(position);
+                int read = 0;
+                while (read < length) {
+                    int n = read(buffer, offset + read, length - read);
+                    if (n < 0) {
+                        throw new EOFException(
+                                String.format(
+                                        "Reached the end of the stream with %d bytes left to read "
+                                                + "at position %d.",
+                                        length - read, position + read));
+                    }
+                    read += n;
+                }
+            } finally {
+                seek(oldPosition);
+            }
+        }
+    }
+
+    /**
+     * Reads the given ranges of the file. The bytes of every range are delivered through the future
+     * of {@link FileRange#getData()}, which is completed exceptionally if the range can't be read.
+     * Adjacent and nearby ranges are merged into one read. The current position of the stream isn't
+     * changed by the read.
+     *
+     * <p>The futures may be completed asynchronously after this method returns, so the stream must
+     * not be closed before all the futures are completed. The default implementation reads the
+     * merged ranges one after another by {@link #readFully(long, byte[], int, int)} and completes
+     * the futures before returning; implementations for remote storages may read the ranges in
+     * parallel.
+     *
+     * @param ranges the ranges to read
+     * @throws IOException Thrown if the read can't be issued.
+     */
+    public void readVectored(List<FileRange> ranges) throws IOException {
+        VectoredReadUtils.readVectored(this, ranges);
+    }
 }
@@ -21,6 +21,7 @@ import com.alibaba.fluss.annotation.Internal;
 import com.alibaba.fluss.utils.WrappingProxy;
 
 import java.io.IOException;
+import java.util.List;
 
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 
@@ -60,6 +61,16 @@ public class FSDataInputStreamWrapper extends FSDataInputStream
         return inputStream.read(b, off, len);
     }
 
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        inputStream.readFully(position, buffer, offset, length);
+    }
+
+    @Override
+    public void readVectored(List<FileRange> ranges) throws IOException {
+        inputStream.readVectored(ranges);
+    }
+
     @Override
     public long skip(long n) throws IOException {
         return inputStream.skip(n);
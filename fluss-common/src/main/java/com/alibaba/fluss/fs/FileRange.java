@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.fs;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A range of bytes of a file to read by {@link FSDataInputStream#readVectored(java.util.List)}. The
+ * read bytes of the range are delivered through the future returned by {@link #getData()}.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public final class FileRange {
+
+    private final long offset;
+    private final int length;
+    private final CompletableFuture<byte[]> data;
+
+    private FileRange(long offset, int length) {
+        checkArgument(offset >= 0, "The offset of a file range must not be negative.");
+        checkArgument(length >= 0, "The length of a file range must not be negative.");
+        this.offset = offset;
+        this.length = length;
+        this.data = new CompletableFuture<>();
+    }
+
+    /** Creates a file range of the given length starting at the given offset of the file. */
+    public static FileRange of(long offset, int length) {
+        return new FileRange(offset, length);
+    }
+
+    /** Returns the offset of the range in the file. */
+    public long getOffset() {
+        return offset;
+    }
+
+    /** Returns the number of bytes of the range. */
+    public int getLength() {
+        return length;
+    }
+
+    /** Returns the offset in the file right after the range. */
+    public long getEnd() {
+        return offset + length;
+    }
+
+    /**
+     * Returns the future of the bytes of the range, which is completed exceptionally if the range
+     * can't be read.
+     */
+    public CompletableFuture<byte[]> getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "FileRange{" + "offset=" + offset + ", length=" + length + '}';
+    }
+}
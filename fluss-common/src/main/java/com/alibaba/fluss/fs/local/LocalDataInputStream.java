@@ -22,9 +22,11 @@ import com.alibaba.fluss.fs.FSDataInputStream;
 
 import javax.annotation.Nonnull;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 
 /**
@@ -72,6 +74,22 @@ public class LocalDataInputStream extends FSDataInputStream {
         return this.fis.read(buffer, offset, length);
     }
 
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        // positioned reads of the channel don't change the position of the stream
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, offset, length);
+        while (byteBuffer.hasRemaining()) {
+            long readPosition = position + byteBuffer.position() - offset;
+            if (this.fileChannel.read(byteBuffer, readPosition) < 0) {
+                throw new EOFException(
+                        String.format(
+                                "Reached the end of the file with %d bytes left to read at "
+                                        + "position %d.",
+                                byteBuffer.remaining(), readPosition));
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
         // According to javadoc, this also closes the channel
@@ -28,16 +28,21 @@ import com.alibaba.fluss.utils.FileUtils;
 import com.alibaba.fluss.utils.IOUtils;
 import com.alibaba.fluss.utils.concurrent.FutureUtils;
 import com.alibaba.fluss.utils.function.CheckedSupplier;
+import com.alibaba.fluss.utils.function.ThrowingRunnable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -51,6 +56,8 @@ import java.util.stream.Stream;
 public class FileDownloadUtils {
     private static final Logger LOG = LoggerFactory.getLogger(FileDownloadUtils.class);
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Transfer all data to the target directory, as specified in the download requests.
      *
@@ -96,6 +103,79 @@ public class FileDownloadUtils {
         }
     }
 
+    /**
+     * Transfer the data of the remote file from the given start position to its end into the target
+     * file. The range is split into chunks of the given size, each chunk is read by seeking a
+     * separate input stream to its position and written at its position of the target file, so that
+     * only the needed bytes are transferred and the chunks are downloaded in parallel.
+     *
+     * @return the number of downloaded bytes.
+     * @throws IOException If anything about the download goes wrong.
+     */
+    public static long transferRangeToFile(
+            FsPath remoteFilePath,
+            Path targetFilePath,
+            long startPosition,
+            long chunkSize,
+            CloseableRegistry closeableRegistry,
+            ExecutorService executorService)
+            throws IOException {
+        FileSystem fileSystem = remoteFilePath.getFileSystem();
+        long length =
+                Math.max(0L, fileSystem.getFileStatus(remoteFilePath).getLen() - startPosition);
+        Files.createDirectories(targetFilePath.getParent());
+
+        // We use this closer for fine-grained shutdown of all parallel downloading.
+        CloseableRegistry internalCloser = new CloseableRegistry();
+        // Make sure we also react to external close signals.
+        closeableRegistry.registerCloseable(internalCloser);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (FileChannel targetChannel =
+                FileChannel.open(
+                        targetFilePath,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long chunkStart = 0; chunkStart < length; chunkStart += chunkSize) {
+                long positionInFile = chunkStart;
+                long chunkLength = Math.min(chunkSize, length - chunkStart);
+                futures.add(
+                        CompletableFuture.runAsync(
+                                ThrowingRunnable.unchecked(
+                                        () ->
+                                                downloadRange(
+                                                        fileSystem,
+                                                        remoteFilePath,
+                                                        startPosition + positionInFile,
+                                                        chunkLength,
+                                                        targetChannel,
+                                                        positionInFile,
+                                                        internalCloser)),
+                                executorService));
+            }
+            // Wait until either all futures completed successfully or one failed exceptionally.
+            FutureUtils.waitForAll(futures).get();
+            return length;
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            IOUtils.closeQuietly(internalCloser);
+            Files.deleteIfExists(targetFilePath);
+            // Error reporting
+            Throwable throwable = ExceptionUtils.stripExecutionException(e);
+            throwable = ExceptionUtils.stripException(throwable, RuntimeException.class);
+            if (throwable instanceof IOException) {
+                throw (IOException) throwable;
+            } else {
+                throw new FlussRuntimeException("Failed to download data.", e);
+            }
+        } finally {
+            // Unregister and close the internal closer.
+            if (closeableRegistry.unregisterCloseable(internalCloser)) {
+                IOUtils.closeQuietly(internalCloser);
+            }
+        }
+    }
+
     /** Asynchronously runs the specified download requests on executorService. */
     private static Stream<CompletableFuture<Long>> transferDataToDirectoryAsync(
             Collection<FileDownloadSpec> fileDownloadSpecs,
@@ -157,6 +237,57 @@ public class FileDownloadUtils {
         }
     }
 
+    /**
+     * Copies the given range of the remote file to the given position of the target file channel.
+     */
+    private static void downloadRange(
+            FileSystem fileSystem,
+            FsPath remoteFilePath,
+            long remotePosition,
+            long length,
+            FileChannel targetChannel,
+            long targetPosition,
+            CloseableRegistry closeableRegistry)
+            throws IOException {
+        if (closeableRegistry.isClosed()) {
+            return;
+        }
+
+        FSDataInputStream inputStream = null;
+        try {
+            inputStream = fileSystem.open(remoteFilePath);
+            closeableRegistry.registerCloseable(inputStream);
+            inputStream.seek(remotePosition);
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, length)];
+            long copied = 0;
+            while (copied < length) {
+                int read =
+                        inputStream.read(buffer, 0, (int) Math.min(buffer.length, length - copied));
+                if (read < 0) {
+                    throw new EOFException(
+                            String.format(
+                                    "Unexpected end of remote file %s at position %d.",
+                                    remoteFilePath, remotePosition + copied));
+                }
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    targetChannel.write(
+                            byteBuffer, targetPosition + copied + byteBuffer.position());
+                }
+                copied += read;
+            }
+        } catch (Exception ex) {
+            // Quickly close all open streams. This also stops all concurrent downloads because they
+            // are registered with the same registry.
+            IOUtils.closeQuietly(closeableRegistry);
+            throw new IOException(ex);
+        } finally {
+            if (closeableRegistry.unregisterCloseable(inputStream)) {
+                IOUtils.closeQuietly(inputStream);
+            }
+        }
+    }
+
     /** Logging the files download progress. It's not thread safe, should be used in locks. */
     @NotThreadSafe
     private static class DownloadProgressAction implements BiConsumer<Long, Throwable> {
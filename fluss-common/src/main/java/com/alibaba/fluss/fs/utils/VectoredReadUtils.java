@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.fs.utils;
+
+import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.fs.FSDataInputStream;
+import com.alibaba.fluss.fs.FileRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** Utils for the vectored reads of {@link FSDataInputStream#readVectored(List)}. */
+@Internal
+public class VectoredReadUtils {
+
+    /**
+     * The maximum gap in bytes between two ranges to merge them into one read. Reading the gap is
+     * cheaper than issuing another request for small gaps.
+     */
+    public static final int MAX_MERGE_GAP = 4 * 1024;
+
+    /** The maximum size in bytes of a read merged from multiple ranges. */
+    public static final int MAX_MERGED_SIZE = 1024 * 1024;
+
+    /**
+     * Merges the given ranges ordered by their offsets into combined ranges. Adjacent ranges, and
+     * ranges separated by at most {@code maxMergeGap} bytes, are merged as long as the combined
+     * range isn't larger than {@code maxMergedSize}. A single range larger than {@code
+     * maxMergedSize} isn't split.
+     */
+    public static List<CombinedFileRange> mergeRanges(
+            List<FileRange> ranges, int maxMergeGap, int maxMergedSize) {
+        List<FileRange> sortedRanges = new ArrayList<>(ranges);
+        sortedRanges.sort(Comparator.comparingLong(FileRange::getOffset));
+
+        List<CombinedFileRange> combinedRanges = new ArrayList<>();
+        CombinedFileRange current = null;
+        for (FileRange range : sortedRanges) {
+            if (current == null || !current.tryMerge(range, maxMergeGap, maxMergedSize)) {
+                current = new CombinedFileRange(range);
+                combinedRanges.add(current);
+            }
+        }
+        return combinedRanges;
+    }
+
+    /**
+     * Reads the given ranges one combined range after another by positioned reads of the given
+     * input stream. The failure of reading a combined range is reported through the futures of its
+     * ranges.
+     */
+    public static void readVectored(FSDataInputStream in, List<FileRange> ranges) {
+        for (CombinedFileRange combinedRange :
+                mergeRanges(ranges, MAX_MERGE_GAP, MAX_MERGED_SIZE)) {
+            try {
+                byte[] bytes = new byte[combinedRange.getLength()];
+                in.readFully(combinedRange.getOffset(), bytes);
+                combinedRange.complete(bytes);
+            } catch (Throwable t) {
+                combinedRange.completeExceptionally(t);
+            }
+        }
+    }
+
+    /** A range of a file covering one or more {@link FileRange}s which are read at once. */
+    public static final class CombinedFileRange {
+        private final long offset;
+        private long end;
+        private final List<FileRange> ranges;
+
+        private CombinedFileRange(FileRange range) {
+            this.offset = range.getOffset();
+            this.end = range.getEnd();
+            this.ranges = new ArrayList<>();
+            ranges.add(range);
+        }
+
+        private boolean tryMerge(FileRange range, int maxMergeGap, int maxMergedSize) {
+            long newEnd = Math.max(end, range.getEnd());
+            if (range.getOffset() - end > maxMergeGap || newEnd - offset > maxMergedSize) {
+                return false;
+            }
+            end = newEnd;
+            ranges.add(range);
+            return true;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return (int) (end - offset);
+        }
+
+        public List<FileRange> getRanges() {
+            return ranges;
+        }
+
+        /** Completes the covered ranges with their slices of the bytes of this combined range. */
+        public void complete(byte[] bytes) {
+            for (FileRange range : ranges) {
+                int from = (int) (range.getOffset() - offset);
+                range.getData().complete(Arrays.copyOfRange(bytes, from, from + range.getLength()));
+            }
+        }
+
+        /** Completes the covered ranges exceptionally with the given failure. */
+        public void completeExceptionally(Throwable t) {
+            for (FileRange range : ranges) {
+                range.getData().completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "CombinedFileRange{"
+                    + "offset="
+                    + offset
+                    + ", length="
+                    + getLength()
+                    + ", ranges="
+                    + ranges.size()
+                    + '}';
+        }
+    }
+}
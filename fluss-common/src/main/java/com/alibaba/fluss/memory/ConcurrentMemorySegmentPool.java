@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.memory;
+
+import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.exception.FlussRuntimeException;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link MemorySegmentPool} which allocates and releases pages without taking a lock as long as
+ * the pool is not exhausted.
+ *
+ * <p>Pages are reserved by a CAS on the page usage and taken from lock-free caches striped by the
+ * calling thread, so threads running on different cores mostly touch different caches. Pages are
+ * lazily allocated in batches of the per request memory size until the maximum number of pages is
+ * reached. Only when a reservation can not be satisfied, the caller falls back to a FIFO queue of
+ * waiters guarded by a lock, like {@link LazyMemorySegmentPool}. While there are waiters, new
+ * allocations queue up behind them to keep the queue fair.
+ */
+@Internal
+@ThreadSafe
+public class ConcurrentMemorySegmentPool implements MemorySegmentPool, Closeable {
+
+    /** The lock to guard the waiters, only taken when the pool is exhausted. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @GuardedBy("lock")
+    private final Deque<Condition> waiters;
+
+    /** The number of waiters, readable without the lock. */
+    private final AtomicInteger waiterCount = new AtomicInteger(0);
+
+    /**
+     * The number of pages which are reserved by the callers. A page is pushed into the caches
+     * before its reservation is released, so the cached and not yet allocated pages always cover
+     * the unreserved pages.
+     */
+    private final AtomicInteger pageUsage = new AtomicInteger(0);
+
+    /** The number of pages which have been allocated lazily, never more than the max pages. */
+    private final AtomicInteger allocatedPages = new AtomicInteger(0);
+
+    private final ConcurrentLinkedDeque<MemorySegment>[] cacheStripes;
+    private final int stripeMask;
+
+    private final int pageSize;
+    private final int maxPages;
+    private final int perRequestPages;
+    private final long maxTimeToBlockMs;
+
+    private volatile boolean closed;
+
+    @VisibleForTesting
+    ConcurrentMemorySegmentPool(
+            int maxPages, int pageSize, long maxTimeToBlockMs, long perRequestMemorySize) {
+        this(
+                maxPages,
+                pageSize,
+                maxTimeToBlockMs,
+                perRequestMemorySize,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @VisibleForTesting
+    @SuppressWarnings("unchecked")
+    ConcurrentMemorySegmentPool(
+            int maxPages,
+            int pageSize,
+            long maxTimeToBlockMs,
+            long perRequestMemorySize,
+            int concurrencyLevel) {
+        checkArgument(
+                maxPages > 0, "MaxPages for ConcurrentMemorySegmentPool should be greater than 0.");
+        checkArgument(
+                pageSize >= 64,
+                "Page size should be greater than 64 bytes to include the record batch header, but is "
+                        + pageSize
+                        + " bytes.");
+        checkArgument(
+                perRequestMemorySize >= pageSize,
+                String.format(
+                        "Page size should be less than or equal to per request memory size. Page size is:"
+                                + " %s KB, per request memory size is %s KB.",
+                        pageSize / 1024, perRequestMemorySize / 1024));
+        checkArgument(concurrencyLevel > 0, "Concurrency level should be greater than 0.");
+        int stripes = Integer.highestOneBit(Math.min(concurrencyLevel, 1 << 10) * 2 - 1);
+        this.cacheStripes = new ConcurrentLinkedDeque[stripes];
+        for (int i = 0; i < stripes; i++) {
+            cacheStripes[i] = new ConcurrentLinkedDeque<>();
+        }
+        this.stripeMask = stripes - 1;
+        this.maxPages = maxPages;
+        this.pageSize = pageSize;
+        this.perRequestPages = Math.max(1, (int) (perRequestMemorySize / pageSize));
+        this.maxTimeToBlockMs = maxTimeToBlockMs;
+        this.waiters = new ArrayDeque<>();
+        this.closed = false;
+    }
+
+    public static ConcurrentMemorySegmentPool createWriterBufferPool(Configuration conf) {
+        long totalBytes = conf.get(ConfigOptions.CLIENT_WRITER_BUFFER_MEMORY_SIZE).getBytes();
+        long batchSize = conf.get(ConfigOptions.CLIENT_WRITER_BATCH_SIZE).getBytes();
+        checkArgument(
+                totalBytes >= batchSize * 2,
+                String.format(
+                        "Buffer memory size '%s=%s' should be at least twice of batch size '%s=%s'.",
+                        ConfigOptions.CLIENT_WRITER_BUFFER_MEMORY_SIZE.key(),
+                        totalBytes,
+                        ConfigOptions.CLIENT_WRITER_BATCH_SIZE.key(),
+                        batchSize));
+        int pageSize = (int) conf.get(ConfigOptions.CLIENT_WRITER_BUFFER_PAGE_SIZE).getBytes();
+        long perRequestMemorySize =
+                conf.get(ConfigOptions.CLIENT_WRITER_PER_REQUEST_MEMORY_SIZE).getBytes();
+        int segmentCount = (int) (totalBytes / pageSize);
+        long waitTimeout = conf.get(ConfigOptions.CLIENT_WRITER_BUFFER_WAIT_TIMEOUT).toMillis();
+        return new ConcurrentMemorySegmentPool(
+                segmentCount, pageSize, waitTimeout, perRequestMemorySize);
+    }
+
+    public static ConcurrentMemorySegmentPool createServerBufferPool(Configuration conf) {
+        long totalBytes = conf.get(ConfigOptions.SERVER_BUFFER_MEMORY_SIZE).getBytes();
+        int pageSize = (int) conf.get(ConfigOptions.SERVER_BUFFER_PAGE_SIZE).getBytes();
+        long perRequestMemorySize =
+                conf.get(ConfigOptions.SERVER_BUFFER_PER_REQUEST_MEMORY_SIZE).getBytes();
+        int segmentCount = (int) (totalBytes / pageSize);
+        long waitTimeout = conf.get(ConfigOptions.SERVER_BUFFER_POOL_WAIT_TIMEOUT).toMillis();
+        return new ConcurrentMemorySegmentPool(
+                segmentCount, pageSize, waitTimeout, perRequestMemorySize);
+    }
+
+    public static ConcurrentMemorySegmentPool createKvPreWriteBufferPool(Configuration conf) {
+        long totalBytes = conf.get(ConfigOptions.KV_PRE_WRITE_BUFFER_MEMORY_SIZE).getBytes();
+        int pageSize = (int) conf.get(ConfigOptions.KV_PRE_WRITE_BUFFER_PAGE_SIZE).getBytes();
+        int segmentCount = (int) (totalBytes / pageSize);
+        // never block the put of kv records, but fail fast to apply backpressure to the writers
+        return new ConcurrentMemorySegmentPool(segmentCount, pageSize, 0, pageSize);
+    }
+
+    @Override
+    public MemorySegment nextSegment() throws IOException {
+        return allocatePages(1).get(0);
+    }
+
+    @Override
+    public List<MemorySegment> allocatePages(int requiredPages) throws IOException {
+        if (maxPages < requiredPages) { // immediately fail if the request is impossible to satisfy
+            throw new EOFException(
+                    String.format(
+                            "Allocation request cannot be satisfied because the number of maximum available pages is "
+                                    + "exceeded. Total pages: %d. Requested pages: %d",
+                            this.maxPages, requiredPages));
+        }
+        checkClosed();
+
+        if (maxTimeToBlockMs <= 0) {
+            // never wait, so there is no turn to queue up for, only fail if the pages are used up
+            if (!tryReserve(requiredPages)) {
+                throw allocationTimeout(requiredPages);
+            }
+        } else if (waiterCount.get() > 0 || !tryReserve(requiredPages)) {
+            // don't overtake the waiters, otherwise they may starve under memory pressure
+            waitForSegment(requiredPages);
+        }
+        return takePages(requiredPages);
+    }
+
+    private boolean tryReserve(int requiredPages) {
+        while (true) {
+            int usage = pageUsage.get();
+            if (maxPages - usage < requiredPages) {
+                return false;
+            }
+            if (pageUsage.compareAndSet(usage, usage + requiredPages)) {
+                return true;
+            }
+        }
+    }
+
+    /** Takes the reserved pages from the caches, or allocates them if not cached. */
+    private List<MemorySegment> takePages(int numPages) {
+        List<MemorySegment> pages = new ArrayList<>(numPages);
+        int stripe = stripeIndex();
+        while (pages.size() < numPages) {
+            MemorySegment segment = pollCachedPage(stripe);
+            if (segment != null) {
+                pages.add(segment);
+            } else if (!tryAllocatePages(numPages - pages.size(), pages, stripe)) {
+                // the reserved pages are being returned by other threads right now, or the
+                // caches have been dropped by closing the pool
+                checkClosed();
+                Thread.yield();
+            }
+        }
+        return pages;
+    }
+
+    private MemorySegment pollCachedPage(int stripe) {
+        for (int i = 0; i <= stripeMask; i++) {
+            MemorySegment segment = cacheStripes[(stripe + i) & stripeMask].pollFirst();
+            if (segment != null) {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Allocates the required pages, and more pages up to the per request pages into the cache of
+     * the given stripe to have better CPU cache. Returns false if all pages are allocated already.
+     */
+    private boolean tryAllocatePages(int required, List<MemorySegment> pages, int stripe) {
+        while (true) {
+            int allocated = allocatedPages.get();
+            int numPages = Math.min(maxPages - allocated, Math.max(required, perRequestPages));
+            if (numPages <= 0) {
+                return false;
+            }
+            if (allocatedPages.compareAndSet(allocated, allocated + numPages)) {
+                for (int i = 0; i < numPages; i++) {
+                    MemorySegment segment = MemorySegment.allocateHeapMemory(pageSize);
+                    if (i < required) {
+                        pages.add(segment);
+                    } else {
+                        cacheStripes[stripe].offerFirst(segment);
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    private void waitForSegment(int requiredPages) throws EOFException {
+        lock.lock();
+        Condition moreMemory = lock.newCondition();
+        waiters.addLast(moreMemory);
+        waiterCount.incrementAndGet();
+        try {
+            // only the head of the queue reserves pages, the others wait for their turn
+            while (waiters.peekFirst() != moreMemory || !tryReserve(requiredPages)) {
+                boolean success = moreMemory.await(maxTimeToBlockMs, TimeUnit.MILLISECONDS);
+                if (!success) {
+                    throw allocationTimeout(requiredPages);
+                }
+                checkClosed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlussRuntimeException(e);
+        } finally {
+            waiters.remove(moreMemory);
+            waiterCount.decrementAndGet();
+            // let the next waiter try with the pages which are left
+            Condition next = waiters.peekFirst();
+            if (next != null) {
+                next.signal();
+            }
+            lock.unlock();
+        }
+    }
+
+    private EOFException allocationTimeout(int requiredPages) {
+        return new EOFException(
+                "Failed to allocate new segment within the configured max blocking time "
+                        + maxTimeToBlockMs
+                        + " ms. Total memory: "
+                        + totalSize()
+                        + " bytes. Page size: "
+                        + pageSize
+                        + " bytes. Available pages: "
+                        + freePages()
+                        + ". Requested pages: "
+                        + requiredPages);
+    }
+
+    @Override
+    public int pageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public long totalSize() {
+        return (long) maxPages * pageSize;
+    }
+
+    @Override
+    public void returnPage(MemorySegment segment) {
+        returnAll(Collections.singletonList(segment));
+    }
+
+    @Override
+    public void returnAll(List<MemorySegment> memory) {
+        if (memory.isEmpty()) {
+            return;
+        }
+        if (pageUsage.get() < memory.size()) {
+            throw new RuntimeException(
+                    String.format(
+                            "Cannot return %d pages to the pool, only %d pages are in use.",
+                            memory.size(), pageUsage.get()));
+        }
+        if (!closed) {
+            ConcurrentLinkedDeque<MemorySegment> cache = cacheStripes[stripeIndex()];
+            for (MemorySegment segment : memory) {
+                cache.offerFirst(segment);
+            }
+        }
+        // release the reservation only after the pages are visible in the cache
+        pageUsage.addAndGet(-memory.size());
+        if (waiterCount.get() > 0) {
+            signalFirstWaiter();
+        }
+    }
+
+    private void signalFirstWaiter() {
+        lock.lock();
+        try {
+            Condition first = waiters.peekFirst();
+            if (first != null) {
+                first.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int freePages() {
+        return maxPages - pageUsage.get();
+    }
+
+    @Override
+    public long availableMemory() {
+        return ((long) freePages()) * pageSize;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (ConcurrentLinkedDeque<MemorySegment> cache : cacheStripes) {
+            cache.clear();
+        }
+        lock.lock();
+        try {
+            waiters.forEach(Condition::signal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkClosed() {
+        if (closed) {
+            throw new FlussRuntimeException("Memory segment pool closed while allocating memory");
+        }
+    }
+
+    public int queued() {
+        return waiterCount.get();
+    }
+
+    @VisibleForTesting
+    int cachedPages() {
+        int cached = 0;
+        for (ConcurrentLinkedDeque<MemorySegment> cache : cacheStripes) {
+            cached += cache.size();
+        }
+        return cached;
+    }
+
+    private int stripeIndex() {
+        // spread the thread ids, as threads are usually created in sequence
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+}
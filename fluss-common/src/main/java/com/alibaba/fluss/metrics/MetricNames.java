@@ -41,6 +41,8 @@ public class MetricNames {
     public static final String TABLE_COUNT = "tableCount";
     public static final String BUCKET_COUNT = "bucketCount";
     public static final String REPLICAS_TO_DELETE_COUNT = "replicasToDeleteCount";
+    public static final String COORDINATOR_INIT_TIME_MS = "coordinatorInitTimeMs";
+    public static final String TABLET_SERVER_FAILOVER_TIME_MS = "tabletServerFailoverTimeMs";
 
     // for coordinator event processor
     public static final String EVENT_QUEUE_SIZE = "eventQueueSize";
@@ -62,6 +64,16 @@ public class MetricNames {
             "delayedFetchFromFollowerExpiresPerSecond";
     public static final String DELAYED_FETCH_FROM_CLIENT_EXPIRES_RATE =
             "delayedFetchFromClientExpiresPerSecond";
+    public static final String LOG_FLUSH_PENDING_COUNT = "logFlushPendingCount";
+    public static final String LOG_FLUSH_PENDING_LAG_MS = "logFlushPendingLagMs";
+    public static final String METADATA_CACHE_HIT_RATE = "metadataCacheHitsPerSecond";
+    public static final String METADATA_CACHE_MISS_RATE = "metadataCacheMissesPerSecond";
+    public static final String METADATA_CACHE_UPDATE_AGE_MS = "metadataCacheUpdateAgeMs";
+    public static final String REMOTE_LOG_SEGMENT_CACHE_HIT_RATE =
+            "remoteLogSegmentCacheHitsPerSecond";
+    public static final String REMOTE_LOG_SEGMENT_CACHE_MISS_RATE =
+            "remoteLogSegmentCacheMissesPerSecond";
+    public static final String REMOTE_LOG_SEGMENT_CACHE_SIZE = "remoteLogSegmentCacheSize";
 
     // --------------------------------------------------------------------------------------------
     // metrics for table
@@ -89,6 +101,8 @@ public class MetricNames {
     public static final String FAILED_PUT_KV_REQUESTS_RATE = "failedPutKvRequestsPerSecond";
     public static final String TOTAL_LIMIT_SCAN_REQUESTS_RATE = "totalLimitScanRequestsPerSecond";
     public static final String FAILED_LIMIT_SCAN_REQUESTS_RATE = "failedLimitScanRequestsPerSecond";
+    public static final String TOTAL_SCAN_KV_REQUESTS_RATE = "totalScanKvRequestsPerSecond";
+    public static final String FAILED_SCAN_KV_REQUESTS_RATE = "failedScanKvRequestsPerSecond";
     public static final String TOTAL_PREFIX_LOOKUP_REQUESTS_RATE =
             "totalPrefixLookupRequestsPerSecond";
     public static final String FAILED_PREFIX_LOOKUP_REQUESTS_RATE =
@@ -113,6 +127,7 @@ public class MetricNames {
     public static final String LOG_SIZE = "size";
     public static final String LOG_FLUSH_RATE = "flushPerSecond";
     public static final String LOG_FLUSH_LATENCY_MS = "flushLatencyMs";
+    public static final String LOG_FLUSH_LAG_MS = "flushLagMs";
 
     // for kv tablet
     public static final String KV_LATEST_SNAPSHOT_SIZE = "latestSnapshotSize";
@@ -123,6 +138,10 @@ public class MetricNames {
     public static final String KV_PRE_WRITE_BUFFER_FLUSH_RATE = "preWriteBufferFlushPerSecond";
     public static final String KV_PRE_WRITE_BUFFER_FLUSH_LATENCY_MS =
             "preWriteBufferFlushLatencyMs";
+    public static final String KV_PUT_LOCK_WAIT_TIME_MS = "putLockWaitTimeMs";
+    public static final String KV_FLUSH_LOCK_WAIT_TIME_MS = "flushLockWaitTimeMs";
+    public static final String KV_RECOVER_RECORDS_RATE = "recoverRecordsPerSecond";
+    public static final String KV_RECOVER_BYTES_RATE = "recoverBytesPerSecond";
 
     // --------------------------------------------------------------------------------------------
     // metrics for rpc client
@@ -144,6 +163,7 @@ public class MetricNames {
     public static final String WRITER_BUFFER_WAITING_THREADS = "bufferWaitingThreads";
     public static final String WRITER_BATCH_QUEUE_TIME_MS = "batchQueueTimeMs";
     public static final String WRITER_RECORDS_RETRY_RATE = "recordsRetryPerSecond";
+    public static final String WRITER_RECORDS_EXPIRED_RATE = "recordsExpiredPerSecond";
     public static final String WRITER_RECORDS_SEND_RATE = "recordSendPerSecond";
     public static final String WRITER_BYTES_SEND_RATE = "bytesSendPerSecond";
     public static final String WRITER_BYTES_PER_BATCH = "bytesPerBatch";
@@ -161,6 +181,14 @@ public class MetricNames {
     public static final String SCANNER_REMOTE_FETCH_RATE = "remoteFetchRequestsPerSecond";
     public static final String SCANNER_REMOTE_FETCH_ERROR_RATE = "remoteFetchErrorPerSecond";
 
+    // for lookup cache
+    public static final String LOOKUP_CACHE_HIT_RATE = "cacheHitsPerSecond";
+    public static final String LOOKUP_CACHE_MISS_RATE = "cacheMissesPerSecond";
+    public static final String LOOKUP_CACHE_HIT_RATIO = "cacheHitRatio";
+    public static final String LOOKUP_CACHE_BYTES_SAVED_RATE = "cacheBytesSavedPerSecond";
+    public static final String LOOKUP_CACHE_INVALIDATION_RATE = "cacheInvalidationsPerSecond";
+    public static final String LOOKUP_CACHE_SIZE_BYTES = "cacheSizeBytes";
+
     // for netty
     public static final String NETTY_USED_DIRECT_MEMORY = "usedDirectMemory";
     public static final String NETTY_NUM_DIRECT_ARENAS = "numDirectArenas";
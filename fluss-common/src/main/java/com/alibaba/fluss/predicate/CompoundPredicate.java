@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.row.InternalRow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link Predicate} that combines child predicates with {@link Function#AND} or {@link
+ * Function#OR}.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public class CompoundPredicate implements Predicate {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The function to combine the children predicates. */
+    public enum Function {
+        AND,
+        OR
+    }
+
+    private final Function function;
+    private final List<Predicate> children;
+
+    public CompoundPredicate(Function function, List<Predicate> children) {
+        checkArgument(children.size() >= 2, "Compound predicate requires at least 2 children.");
+        this.function = function;
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    public Function function() {
+        return function;
+    }
+
+    public List<Predicate> children() {
+        return children;
+    }
+
+    @Override
+    public boolean test(InternalRow row) {
+        if (function == Function.AND) {
+            for (Predicate child : children) {
+                if (!child.test(row)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            for (Predicate child : children) {
+                if (child.test(row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean test(
+            long rowCount, InternalRow minValues, InternalRow maxValues, Long[] nullCounts) {
+        if (function == Function.AND) {
+            for (Predicate child : children) {
+                if (!child.test(rowCount, minValues, maxValues, nullCounts)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            for (Predicate child : children) {
+                if (child.test(rowCount, minValues, maxValues, nullCounts)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public Predicate remapFields(int[] fieldIndexMapping) {
+        List<Predicate> newChildren = new ArrayList<>(children.size());
+        for (Predicate child : children) {
+            newChildren.add(child.remapFields(fieldIndexMapping));
+        }
+        return new CompoundPredicate(function, newChildren);
+    }
+
+    @Override
+    public <T> T visit(PredicateVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CompoundPredicate that = (CompoundPredicate) o;
+        return function == that.function && children.equals(that.children);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(function, children);
+    }
+
+    @Override
+    public String toString() {
+        return function + "(" + children + ")";
+    }
+}
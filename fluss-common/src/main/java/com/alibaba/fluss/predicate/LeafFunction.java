@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * The functions of a {@link LeafPredicate}. Follows the SQL semantic that comparing a null field
+ * with any literal is never satisfied.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public enum LeafFunction {
+    EQUAL(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) == 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            return min == null || max == null || inRange(min, max, literals.get(0));
+        }
+    },
+    NOT_EQUAL(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) != 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            if (min == null || max == null) {
+                return true;
+            }
+            Object literal = literals.get(0);
+            return compareLiteral(min, literal) != 0 || compareLiteral(max, literal) != 0;
+        }
+    },
+    LESS_THAN(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) < 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            return min == null || compareLiteral(min, literals.get(0)) < 0;
+        }
+    },
+    LESS_OR_EQUAL(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) <= 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            return min == null || compareLiteral(min, literals.get(0)) <= 0;
+        }
+    },
+    GREATER_THAN(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) > 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            return max == null || compareLiteral(max, literals.get(0)) > 0;
+        }
+    },
+    GREATER_OR_EQUAL(1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null && compareLiteral(field, literals.get(0)) >= 0;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            return max == null || compareLiteral(max, literals.get(0)) >= 0;
+        }
+    },
+    IS_NULL(0) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field == null;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            return nullCount == null || nullCount > 0;
+        }
+    },
+    IS_NOT_NULL(0) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            return field != null;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            return !allNull(rowCount, nullCount);
+        }
+    },
+    IN(-1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            if (field == null) {
+                return false;
+            }
+            for (Object literal : literals) {
+                if (compareLiteral(field, literal) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            if (min == null || max == null) {
+                return true;
+            }
+            for (Object literal : literals) {
+                if (inRange(min, max, literal)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    },
+    NOT_IN(-1) {
+        @Override
+        boolean test(@Nullable Object field, List<Object> literals) {
+            if (field == null) {
+                return false;
+            }
+            for (Object literal : literals) {
+                if (compareLiteral(field, literal) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean test(
+                long rowCount,
+                @Nullable Object min,
+                @Nullable Object max,
+                @Nullable Long nullCount,
+                List<Object> literals) {
+            if (allNull(rowCount, nullCount)) {
+                return false;
+            }
+            if (min == null || max == null || compareLiteral(min, max) != 0) {
+                return true;
+            }
+            // all the non-null values are the same, check whether it's excluded
+            for (Object literal : literals) {
+                if (compareLiteral(min, literal) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    /** The number of literals the function requires, -1 means at least one literal. */
+    private final int literalCount;
+
+    LeafFunction(int literalCount) {
+        this.literalCount = literalCount;
+    }
+
+    /** Returns true if the given field value satisfies the function with the given literals. */
+    abstract boolean test(@Nullable Object field, List<Object> literals);
+
+    /**
+     * Returns false if it's guaranteed that none of the values described by the given statistics
+     * satisfies the function with the given literals. The min value, max value and null count are
+     * null if they are unknown.
+     */
+    abstract boolean test(
+            long rowCount,
+            @Nullable Object min,
+            @Nullable Object max,
+            @Nullable Long nullCount,
+            List<Object> literals);
+
+    /** Checks whether the given number of literals is valid for this function. */
+    boolean isValidLiteralCount(int count) {
+        return literalCount < 0 ? count > 0 : count == literalCount;
+    }
+
+    private static boolean allNull(long rowCount, @Nullable Long nullCount) {
+        return nullCount != null && nullCount >= rowCount;
+    }
+
+    private static boolean inRange(Object min, Object max, Object literal) {
+        return compareLiteral(min, literal) <= 0 && compareLiteral(max, literal) >= 0;
+    }
+
+    /**
+     * Compares two non-null values of the same Fluss internal data structure. Binary values are
+     * compared lexicographically as unsigned bytes.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compareLiteral(Object left, Object right) {
+        if (left instanceof byte[] && right instanceof byte[]) {
+            byte[] l = (byte[]) left;
+            byte[] r = (byte[]) right;
+            int len = Math.min(l.length, r.length);
+            for (int i = 0; i < len; i++) {
+                int cmp = (l[i] & 0xff) - (r[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return l.length - r.length;
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.types.DataType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link Predicate} on a single field of a row, e.g. {@code a > 10} or {@code b IS NULL}.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public class LeafPredicate implements Predicate {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LeafFunction function;
+    private final DataType type;
+    private final int fieldIndex;
+    private final String fieldName;
+    private final List<Object> literals;
+    private final InternalRow.FieldGetter fieldGetter;
+
+    public LeafPredicate(
+            LeafFunction function,
+            DataType type,
+            int fieldIndex,
+            String fieldName,
+            List<Object> literals) {
+        checkArgument(
+                function.isValidLiteralCount(literals.size()),
+                "Invalid number of literals %s for function %s.",
+                literals.size(),
+                function);
+        for (Object literal : literals) {
+            checkArgument(literal != null, "The literal of function %s can't be null.", function);
+        }
+        this.function = function;
+        this.type = type;
+        this.fieldIndex = fieldIndex;
+        this.fieldName = fieldName;
+        this.literals = Collections.unmodifiableList(literals);
+        this.fieldGetter = InternalRow.createFieldGetter(type, fieldIndex);
+    }
+
+    public LeafFunction function() {
+        return function;
+    }
+
+    public DataType type() {
+        return type;
+    }
+
+    public int fieldIndex() {
+        return fieldIndex;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public List<Object> literals() {
+        return literals;
+    }
+
+    @Override
+    public boolean test(InternalRow row) {
+        return function.test(fieldGetter.getFieldOrNull(row), literals);
+    }
+
+    @Override
+    public boolean test(
+            long rowCount, InternalRow minValues, InternalRow maxValues, Long[] nullCounts) {
+        return function.test(
+                rowCount,
+                fieldGetter.getFieldOrNull(minValues),
+                fieldGetter.getFieldOrNull(maxValues),
+                nullCounts[fieldIndex],
+                literals);
+    }
+
+    @Override
+    public Predicate remapFields(int[] fieldIndexMapping) {
+        int newIndex = fieldIndexMapping[fieldIndex];
+        checkArgument(newIndex >= 0, "Field %s is not contained in the projection.", fieldName);
+        return new LeafPredicate(function, type, newIndex, fieldName, literals);
+    }
+
+    @Override
+    public <T> T visit(PredicateVisitor<T> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LeafPredicate that = (LeafPredicate) o;
+        return fieldIndex == that.fieldIndex
+                && function == that.function
+                && type.equals(that.type)
+                && fieldName.equals(that.fieldName)
+                && literals.equals(that.literals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(function, type, fieldIndex, fieldName, literals);
+    }
+
+    @Override
+    public String toString() {
+        String literalsStr;
+        if (literals.isEmpty()) {
+            literalsStr = "";
+        } else if (literals.size() == 1) {
+            literalsStr = ", " + literals.get(0);
+        } else {
+            literalsStr = ", " + literals;
+        }
+        return function + "(" + fieldName + literalsStr + ")";
+    }
+}
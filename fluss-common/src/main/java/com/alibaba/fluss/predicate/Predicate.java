@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.row.InternalRow;
+
+import java.io.Serializable;
+
+/**
+ * A filter condition on the columns of a table, e.g. {@code a > 10 AND b IS NOT NULL}. The field
+ * indexes of a predicate refer to the row type the predicate is built on, see {@link
+ * PredicateBuilder}.
+ *
+ * <p>Predicates are immutable and can be shared between threads.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public interface Predicate extends Serializable {
+
+    /** Returns true if the given row satisfies this predicate. */
+    boolean test(InternalRow row);
+
+    /**
+     * Returns false if it's guaranteed that none of the rows described by the given column
+     * statistics satisfies this predicate, e.g. the statistics of a log record batch. The
+     * statistics are indexed by the field indexes of this predicate, and a null min value, max
+     * value or null count means the statistic of the field is unknown.
+     *
+     * @param rowCount the number of rows described by the statistics
+     * @param minValues the min values of the fields
+     * @param maxValues the max values of the fields
+     * @param nullCounts the null counts of the fields
+     */
+    boolean test(long rowCount, InternalRow minValues, InternalRow maxValues, Long[] nullCounts);
+
+    /**
+     * Returns a new predicate that refers to the fields of a projected row, where {@code
+     * fieldIndexMapping[i]} is the position of the field {@code i} in the projected row.
+     */
+    Predicate remapFields(int[] fieldIndexMapping);
+
+    /** Accepts a {@link PredicateVisitor} to traverse the predicate tree. */
+    <T> T visit(PredicateVisitor<T> visitor);
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.types.DataField;
+import com.alibaba.fluss.types.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A utility to build {@link Predicate}s on a given {@link RowType}. The literals must be the
+ * internal data structures of Fluss, e.g. {@link com.alibaba.fluss.row.BinaryString} for STRING.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public class PredicateBuilder {
+
+    private final RowType rowType;
+
+    public PredicateBuilder(RowType rowType) {
+        this.rowType = rowType;
+    }
+
+    /** Returns the index of the field with the given name, or -1 if not found. */
+    public int indexOf(String fieldName) {
+        return rowType.getFieldIndex(fieldName);
+    }
+
+    public Predicate equal(int idx, Object literal) {
+        return leaf(LeafFunction.EQUAL, idx, literal);
+    }
+
+    public Predicate notEqual(int idx, Object literal) {
+        return leaf(LeafFunction.NOT_EQUAL, idx, literal);
+    }
+
+    public Predicate lessThan(int idx, Object literal) {
+        return leaf(LeafFunction.LESS_THAN, idx, literal);
+    }
+
+    public Predicate lessOrEqual(int idx, Object literal) {
+        return leaf(LeafFunction.LESS_OR_EQUAL, idx, literal);
+    }
+
+    public Predicate greaterThan(int idx, Object literal) {
+        return leaf(LeafFunction.GREATER_THAN, idx, literal);
+    }
+
+    public Predicate greaterOrEqual(int idx, Object literal) {
+        return leaf(LeafFunction.GREATER_OR_EQUAL, idx, literal);
+    }
+
+    public Predicate isNull(int idx) {
+        return leaf(LeafFunction.IS_NULL, idx, Collections.emptyList());
+    }
+
+    public Predicate isNotNull(int idx) {
+        return leaf(LeafFunction.IS_NOT_NULL, idx, Collections.emptyList());
+    }
+
+    public Predicate in(int idx, List<Object> literals) {
+        return leaf(LeafFunction.IN, idx, literals);
+    }
+
+    public Predicate notIn(int idx, List<Object> literals) {
+        return leaf(LeafFunction.NOT_IN, idx, literals);
+    }
+
+    /** Creates a {@link LeafPredicate} with the given function on the field at {@code idx}. */
+    public Predicate leaf(LeafFunction function, int idx, List<Object> literals) {
+        if (idx < 0 || idx >= rowType.getFieldCount()) {
+            throw new IllegalArgumentException(
+                    "Field index " + idx + " is out of bound for schema " + rowType);
+        }
+        DataField field = rowType.getFields().get(idx);
+        return new LeafPredicate(
+                function, field.getType(), idx, field.getName(), new ArrayList<>(literals));
+    }
+
+    private Predicate leaf(LeafFunction function, int idx, Object literal) {
+        return leaf(function, idx, Collections.singletonList(literal));
+    }
+
+    /** Combines the given predicates with AND, returns the single predicate if only one given. */
+    public static Predicate and(Predicate... predicates) {
+        return and(Arrays.asList(predicates));
+    }
+
+    /** Combines the given predicates with AND, returns the single predicate if only one given. */
+    public static Predicate and(List<Predicate> predicates) {
+        return compound(CompoundPredicate.Function.AND, predicates);
+    }
+
+    /** Combines the given predicates with OR, returns the single predicate if only one given. */
+    public static Predicate or(Predicate... predicates) {
+        return or(Arrays.asList(predicates));
+    }
+
+    /** Combines the given predicates with OR, returns the single predicate if only one given. */
+    public static Predicate or(List<Predicate> predicates) {
+        return compound(CompoundPredicate.Function.OR, predicates);
+    }
+
+    private static Predicate compound(
+            CompoundPredicate.Function function, List<Predicate> predicates) {
+        if (predicates.isEmpty()) {
+            throw new IllegalArgumentException("At least one predicate is required.");
+        } else if (predicates.size() == 1) {
+            return predicates.get(0);
+        } else {
+            return new CompoundPredicate(function, new ArrayList<>(predicates));
+        }
+    }
+
+    /** Returns the indexes (in ascending order) of all the fields referenced by the predicate. */
+    public static int[] referencedFields(Predicate predicate) {
+        BitSet fields = new BitSet();
+        predicate.visit(
+                new PredicateVisitor<Void>() {
+                    @Override
+                    public Void visit(LeafPredicate leaf) {
+                        fields.set(leaf.fieldIndex());
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(CompoundPredicate compound) {
+                        for (Predicate child : compound.children()) {
+                            child.visit(this);
+                        }
+                        return null;
+                    }
+                });
+        return fields.stream().toArray();
+    }
+}
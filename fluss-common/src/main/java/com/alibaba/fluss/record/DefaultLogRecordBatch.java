@@ -34,6 +34,9 @@ import com.alibaba.fluss.utils.crc.Crc32C;
 
 import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static com.alibaba.fluss.record.LogRecordBatchStatistics.STATISTICS_LENGTH_LENGTH;
 
 /* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
  * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
@@ -77,11 +80,16 @@ import java.util.NoSuchElementException;
  * <p>The current attributes are given below:
  *
  * <pre>
- * ------------------------------------------
- * |  Unused (1-7)   |  AppendOnly Flag (0) |
- * ------------------------------------------
+ * -------------------------------------------------------------
+ * |  Unused (2-7)   |  Statistics Flag (1) | AppendOnly Flag (0) |
+ * -------------------------------------------------------------
  * </pre>
  *
+ * <p>If the Statistics Flag is set, the column statistics of the records are appended after the
+ * records, see {@link LogRecordBatchStatistics} for the layout of the statistics. The statistics
+ * end with their length, so they can be read without decoding the records. Readers that don't
+ * understand the statistics can ignore them, as the records are self-delimited.
+ *
  * @since 0.1
  */
 // TODO rename to MemoryLogRecordBatch
@@ -117,6 +125,7 @@ public class DefaultLogRecordBatch implements LogRecordBatch {
     public static final int LOG_OVERHEAD = LENGTH_OFFSET + LENGTH_LENGTH;
 
     public static final byte APPEND_ONLY_FLAG_MASK = 0x01;
+    public static final byte STATISTICS_FLAG_MASK = 0x02;
 
     private MemorySegment segment;
     private int position;
@@ -187,10 +196,23 @@ public class DefaultLogRecordBatch implements LogRecordBatch {
     }
 
     private byte attributes() {
-        // note we're not using the byte of attributes now.
         return segment.get(ATTRIBUTES_OFFSET + position);
     }
 
+    /** Whether the column statistics are appended after the records of this batch. */
+    boolean hasStatistics() {
+        return (attributes() & STATISTICS_FLAG_MASK) > 0;
+    }
+
+    /** The size of the statistics at the end of the batch, 0 if there is no statistics. */
+    private int statisticsSizeInBytes() {
+        if (!hasStatistics()) {
+            return 0;
+        }
+        int end = position + sizeInBytes();
+        return STATISTICS_LENGTH_LENGTH + segment.getInt(end - STATISTICS_LENGTH_LENGTH);
+    }
+
     @Override
     public long nextLogOffset() {
         return lastLogOffset() + 1;
@@ -254,6 +276,22 @@ public class DefaultLogRecordBatch implements LogRecordBatch {
         }
     }
 
+    @Override
+    public Optional<LogRecordBatchStatistics> getStatistics(RowType rowType) {
+        if (!hasStatistics()) {
+            return Optional.empty();
+        }
+        int end = position + sizeInBytes();
+        int statisticsLength = segment.getInt(end - STATISTICS_LENGTH_LENGTH);
+        return Optional.ofNullable(
+                LogRecordBatchStatistics.readFrom(
+                        segment,
+                        end - STATISTICS_LENGTH_LENGTH - statisticsLength,
+                        statisticsLength,
+                        rowType,
+                        getRecordCount()));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -308,7 +346,7 @@ public class DefaultLogRecordBatch implements LogRecordBatch {
             // append only batch, no change type vector,
             // the start of the arrow data is the beginning of the batch records
             int arrowOffset = position + RECORD_BATCH_HEADER_SIZE;
-            int arrowLength = sizeInBytes() - RECORD_BATCH_HEADER_SIZE;
+            int arrowLength = sizeInBytes() - RECORD_BATCH_HEADER_SIZE - statisticsSizeInBytes();
             ArrowReader reader =
                     ArrowUtils.createArrowReader(
                             segment, arrowOffset, arrowLength, root, allocator, rowType);
@@ -326,7 +364,10 @@ public class DefaultLogRecordBatch implements LogRecordBatch {
                     new ChangeTypeVector(segment, changeTypeOffset, getRecordCount());
             int arrowOffset = changeTypeOffset + changeTypeVector.sizeInBytes();
             int arrowLength =
-                    sizeInBytes() - ARROW_CHANGETYPE_OFFSET - changeTypeVector.sizeInBytes();
+                    sizeInBytes()
+                            - ARROW_CHANGETYPE_OFFSET
+                            - changeTypeVector.sizeInBytes()
+                            - statisticsSizeInBytes();
             ArrowReader reader =
                     ArrowUtils.createArrowReader(
                             segment, arrowOffset, arrowLength, root, allocator, rowType);
@@ -19,6 +19,7 @@ package com.alibaba.fluss.record;
 
 import com.alibaba.fluss.exception.FlussRuntimeException;
 import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.CloseableIterator;
 import com.alibaba.fluss.utils.FileUtils;
 
@@ -27,6 +28,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.Objects;
+import java.util.Optional;
 
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.BASE_OFFSET_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.LENGTH_OFFSET;
@@ -34,6 +36,7 @@ import static com.alibaba.fluss.record.DefaultLogRecordBatch.LOG_OVERHEAD;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.MAGIC_LENGTH;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.MAGIC_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.RECORD_BATCH_HEADER_SIZE;
+import static com.alibaba.fluss.record.LogRecordBatchStatistics.STATISTICS_LENGTH_LENGTH;
 
 /* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
  * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
@@ -167,6 +170,36 @@ public class FileLogInputStream
             return loadFullBatch().records(context);
         }
 
+        @Override
+        public Optional<LogRecordBatchStatistics> getStatistics(RowType rowType) {
+            if (fullBatch != null) {
+                return fullBatch.getStatistics(rowType);
+            }
+            if (!((DefaultLogRecordBatch) loadBatchHeader()).hasStatistics()) {
+                return Optional.empty();
+            }
+            // only read the statistics at the end of the batch
+            int end = position + sizeInBytes();
+            ByteBuffer lengthBuffer =
+                    loadByteBufferWithSize(
+                            STATISTICS_LENGTH_LENGTH,
+                            end - STATISTICS_LENGTH_LENGTH,
+                            "statistics length");
+            int statisticsLength = MemorySegment.wrap(lengthBuffer.array()).getInt(0);
+            ByteBuffer statisticsBuffer =
+                    loadByteBufferWithSize(
+                            statisticsLength,
+                            end - STATISTICS_LENGTH_LENGTH - statisticsLength,
+                            "statistics");
+            return Optional.ofNullable(
+                    LogRecordBatchStatistics.readFrom(
+                            MemorySegment.wrap(statisticsBuffer.array()),
+                            0,
+                            statisticsLength,
+                            rowType,
+                            getRecordCount()));
+        }
+
         @Override
         public boolean isValid() {
             return loadFullBatch().isValid();
@@ -20,6 +20,8 @@ package com.alibaba.fluss.record;
 import com.alibaba.fluss.annotation.VisibleForTesting;
 import com.alibaba.fluss.compression.ArrowCompressionInfo;
 import com.alibaba.fluss.exception.InvalidColumnProjectionException;
+import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.record.bytesview.MultiBytesView;
 import com.alibaba.fluss.shaded.arrow.com.google.flatbuffers.FlatBufferBuilder;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.flatbuf.Buffer;
@@ -38,8 +40,12 @@ import com.alibaba.fluss.shaded.arrow.org.apache.arrow.vector.types.pojo.Field;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.vector.types.pojo.Schema;
 import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.ArrowUtils;
+import com.alibaba.fluss.utils.CloseableIterator;
+import com.alibaba.fluss.utils.crc.Crc32C;
 import com.alibaba.fluss.utils.types.Tuple2;
 
+import javax.annotation.Nullable;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -56,15 +62,31 @@ import java.util.Map;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.APPEND_ONLY_FLAG_MASK;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.ARROW_CHANGETYPE_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.ATTRIBUTES_OFFSET;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.BASE_OFFSET_OFFSET;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.CRC_OFFSET;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.LAST_OFFSET_DELTA_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.LENGTH_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.LOG_OVERHEAD;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.RECORDS_COUNT_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.RECORD_BATCH_HEADER_SIZE;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.SCHEMA_ID_OFFSET;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.STATISTICS_FLAG_MASK;
+import static com.alibaba.fluss.record.LogRecordBatchStatistics.STATISTICS_LENGTH_LENGTH;
 import static com.alibaba.fluss.utils.FileUtils.readFullyOrFail;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 import static com.alibaba.fluss.utils.Preconditions.checkState;
 
-/** Column projection util on Arrow format {@link FileLogRecords}. */
+/**
+ * Column projection util on Arrow format {@link FileLogRecords}.
+ *
+ * <p>If a filter is registered by {@link #setCurrentFilter(Predicate)}, the batches that don't
+ * contain any record satisfying the filter are dropped. The consecutive dropped batches are
+ * replaced by a single empty batch (i.e. only the batch header with zero record count) which keeps
+ * the offset range of the dropped batches, so that the reader can still move the fetch offset
+ * forward. If a batch contains column statistics (see {@link LogRecordBatchStatistics}), only the
+ * statistics are read to decide whether the batch can be dropped, the records are decoded only if
+ * the statistics can't rule out the batch.
+ */
 public class FileLogProjection {
 
     // see the arrow binary message format in the page:
@@ -77,6 +99,7 @@ public class FileLogProjection {
 
     final Map<Long, ProjectionInfo> projectionsCache = new HashMap<>();
     ProjectionInfo currentProjection;
+    @Nullable Predicate currentFilter;
 
     // shared resources for multiple projections
     private final ByteArrayOutputStream outputStream;
@@ -84,6 +107,10 @@ public class FileLogProjection {
     private final ByteBuffer logHeaderBuffer = ByteBuffer.allocate(RECORD_BATCH_HEADER_SIZE);
     private final ByteBuffer arrowHeaderBuffer = ByteBuffer.allocate(ARROW_HEADER_SIZE);
     private ByteBuffer arrowMetadataBuffer;
+    // the buffer to read the full batch to evaluate the filter
+    private ByteBuffer batchBuffer;
+    // the buffer to read the statistics of the batch to evaluate the filter
+    private ByteBuffer statisticsBuffer;
 
     public FileLogProjection() {
         this.outputStream = new ByteArrayOutputStream();
@@ -152,6 +179,14 @@ public class FileLogProjection {
         projectionsCache.put(tableId, currentProjection);
     }
 
+    /**
+     * Registers the filter on the table schema of the current projection. The batches that don't
+     * contain any record satisfying the filter will be dropped. No filter if is null.
+     */
+    public void setCurrentFilter(@Nullable Predicate filter) {
+        this.currentFilter = filter;
+    }
+
     /**
      * Project the log records to a subset of fields and the size of returned log records shouldn't
      * exceed maxBytes.
@@ -162,114 +197,249 @@ public class FileLogProjection {
             throws IOException {
         checkNotNull(currentProjection, "There is no projection registered yet.");
         MultiBytesView.Builder builder = MultiBytesView.builder();
+        // the header of the empty batch to replace the consecutive batches dropped by filter
+        byte[] droppedBatchesHeader = null;
+        LogRecordReadContext filterContext = null;
         int position = start;
-        while (maxBytes > RECORD_BATCH_HEADER_SIZE) {
-            if (position >= end - RECORD_BATCH_HEADER_SIZE) {
-                // the remaining bytes in the file are not enough to read a batch header
-                return new BytesViewLogRecords(builder.build());
+        try {
+            while (maxBytes > RECORD_BATCH_HEADER_SIZE) {
+                if (position > end - RECORD_BATCH_HEADER_SIZE) {
+                    // the remaining bytes in the file are not enough to read a batch header
+                    break;
+                }
+
+                // read log header
+                logHeaderBuffer.rewind();
+                readFullyOrFail(channel, logHeaderBuffer, position, "log header");
+
+                logHeaderBuffer.rewind();
+                int batchSizeInBytes = LOG_OVERHEAD + logHeaderBuffer.getInt(LENGTH_OFFSET);
+                if (position > end - batchSizeInBytes) {
+                    // the remaining bytes in the file are not enough to read a full batch
+                    break;
+                }
+
+                // The empty batch was generated when build cdc log batch when there is no cdc
+                // log generated for this kv batch. See the comments about the field
+                // 'lastOffsetDelta' in DefaultLogRecordBatch. It's merged into the empty batch of
+                // the dropped batches, so that the fetch offset of the client moves past it.
+                boolean dropBatch = batchSizeInBytes == RECORD_BATCH_HEADER_SIZE;
+                if (!dropBatch && currentFilter != null) {
+                    if (filterContext == null) {
+                        filterContext =
+                                LogRecordReadContext.createArrowReadContext(
+                                        currentProjection.schema,
+                                        logHeaderBuffer.getShort(SCHEMA_ID_OFFSET));
+                    }
+                    dropBatch =
+                            !mayMatchStatistics(channel, position, batchSizeInBytes)
+                                    || !mayMatchFilter(
+                                            channel, position, batchSizeInBytes, filterContext);
+                }
+                if (dropBatch) {
+                    if (droppedBatchesHeader == null) {
+                        // reserve the space for the empty batch header
+                        maxBytes -= RECORD_BATCH_HEADER_SIZE;
+                        droppedBatchesHeader = new byte[RECORD_BATCH_HEADER_SIZE];
+                        logHeaderBuffer.rewind();
+                        logHeaderBuffer.get(droppedBatchesHeader);
+                    }
+                    extendDroppedBatches(droppedBatchesHeader, logHeaderBuffer);
+                    position += batchSizeInBytes;
+                    continue;
+                }
+
+                boolean isAppendOnly =
+                        (logHeaderBuffer.get(ATTRIBUTES_OFFSET) & APPEND_ONLY_FLAG_MASK) > 0;
+
+                final int changeTypeBytes;
+                final long arrowHeaderOffset;
+                if (isAppendOnly) {
+                    changeTypeBytes = 0;
+                    arrowHeaderOffset = position + RECORD_BATCH_HEADER_SIZE;
+                } else {
+                    changeTypeBytes = logHeaderBuffer.getInt(RECORDS_COUNT_OFFSET);
+                    arrowHeaderOffset = position + RECORD_BATCH_HEADER_SIZE + changeTypeBytes;
+                }
+
+                // read arrow header
+                arrowHeaderBuffer.rewind();
+                readFullyOrFail(channel, arrowHeaderBuffer, arrowHeaderOffset, "arrow header");
+                arrowHeaderBuffer.position(ARROW_IPC_METADATA_SIZE_OFFSET);
+                int arrowMetadataSize = arrowHeaderBuffer.getInt();
+
+                resizeArrowMetadataBuffer(arrowMetadataSize);
+                arrowMetadataBuffer.rewind();
+                readFullyOrFail(
+                        channel,
+                        arrowMetadataBuffer,
+                        arrowHeaderOffset + ARROW_HEADER_SIZE,
+                        "arrow metadata");
+
+                arrowMetadataBuffer.rewind();
+                Message metadata = Message.getRootAsMessage(arrowMetadataBuffer);
+                ProjectedArrowBatch projectedArrowBatch =
+                        projectArrowBatch(
+                                metadata,
+                                currentProjection.nodesProjection,
+                                currentProjection.buffersProjection,
+                                currentProjection.bufferCount);
+                long arrowBodyLength = projectedArrowBatch.bodyLength();
+
+                int newBatchSizeInBytes =
+                        RECORD_BATCH_HEADER_SIZE
+                                + changeTypeBytes
+                                + currentProjection.arrowMetadataLength
+                                + (int) arrowBodyLength; // safe to cast to int
+                if (newBatchSizeInBytes > maxBytes) {
+                    // the remaining bytes in the file are not enough to read a full batch
+                    break;
+                }
+
+                // 3. create new arrow batch metadata which already projected.
+                byte[] headerMetadata =
+                        serializeArrowRecordBatchMetadata(
+                                projectedArrowBatch,
+                                arrowBodyLength,
+                                currentProjection.bodyCompression);
+                checkState(
+                        headerMetadata.length == currentProjection.arrowMetadataLength,
+                        "Invalid metadata length");
+
+                // 4. update and copy log batch header, the statistics are not copied
+                logHeaderBuffer.position(LENGTH_OFFSET);
+                logHeaderBuffer.putInt(newBatchSizeInBytes - LOG_OVERHEAD);
+                logHeaderBuffer.put(
+                        ATTRIBUTES_OFFSET,
+                        (byte) (logHeaderBuffer.get(ATTRIBUTES_OFFSET) & ~STATISTICS_FLAG_MASK));
+                logHeaderBuffer.rewind();
+                // the logHeader can't be reused, as it will be sent to network
+                byte[] logHeader = new byte[RECORD_BATCH_HEADER_SIZE];
+                logHeaderBuffer.get(logHeader);
+
+                // 5. build log records
+                if (droppedBatchesHeader != null) {
+                    builder.addBytes(toEmptyBatch(droppedBatchesHeader));
+                    droppedBatchesHeader = null;
+                }
+                builder.addBytes(logHeader);
+                if (!isAppendOnly) {
+                    builder.addBytes(channel, position + ARROW_CHANGETYPE_OFFSET, changeTypeBytes);
+                }
+                builder.addBytes(headerMetadata);
+                final long bufferOffset = arrowHeaderOffset + ARROW_HEADER_SIZE + arrowMetadataSize;
+                projectedArrowBatch.buffers.forEach(
+                        b ->
+                                builder.addBytes(
+                                        channel, bufferOffset + b.getOffset(), (int) b.getSize()));
+
+                maxBytes -= newBatchSizeInBytes;
+                position += batchSizeInBytes;
             }
-
-            // read log header
-            logHeaderBuffer.rewind();
-            readFullyOrFail(channel, logHeaderBuffer, position, "log header");
-
-            logHeaderBuffer.rewind();
-            int batchSizeInBytes = LOG_OVERHEAD + logHeaderBuffer.getInt(LENGTH_OFFSET);
-            if (position > end - batchSizeInBytes) {
-                // the remaining bytes in the file are not enough to read a full batch
-                return new BytesViewLogRecords(builder.build());
+        } finally {
+            if (filterContext != null) {
+                filterContext.close();
             }
+        }
 
-            // Skip empty batch. The empty batch was generated when build cdc log batch when there
-            // is no cdc log generated for this kv batch. See the comments about the field
-            // 'lastOffsetDelta' in DefaultLogRecordBatch.
-            if (batchSizeInBytes == RECORD_BATCH_HEADER_SIZE) {
-                position += batchSizeInBytes;
-                continue;
-            }
+        if (droppedBatchesHeader != null) {
+            builder.addBytes(toEmptyBatch(droppedBatchesHeader));
+        }
+        return new BytesViewLogRecords(builder.build());
+    }
 
-            boolean isAppendOnly =
-                    (logHeaderBuffer.get(ATTRIBUTES_OFFSET) & APPEND_ONLY_FLAG_MASK) > 0;
-
-            final int changeTypeBytes;
-            final long arrowHeaderOffset;
-            if (isAppendOnly) {
-                changeTypeBytes = 0;
-                arrowHeaderOffset = position + RECORD_BATCH_HEADER_SIZE;
-            } else {
-                changeTypeBytes = logHeaderBuffer.getInt(RECORDS_COUNT_OFFSET);
-                arrowHeaderOffset = position + RECORD_BATCH_HEADER_SIZE + changeTypeBytes;
-            }
+    /**
+     * Returns false if the statistics of the batch at the given position (whose header is in the
+     * {@link #logHeaderBuffer}) guarantee that none of the records satisfies the filter. Returns
+     * true if the batch doesn't contain statistics.
+     */
+    private boolean mayMatchStatistics(FileChannel channel, int position, int batchSizeInBytes)
+            throws IOException {
+        if ((logHeaderBuffer.get(ATTRIBUTES_OFFSET) & STATISTICS_FLAG_MASK) == 0) {
+            return true;
+        }
+        int end = position + batchSizeInBytes;
+        resizeStatisticsBuffer(STATISTICS_LENGTH_LENGTH);
+        readFullyOrFail(
+                channel, statisticsBuffer, end - STATISTICS_LENGTH_LENGTH, "statistics length");
+        int statisticsLength = statisticsBuffer.getInt(0);
+        resizeStatisticsBuffer(statisticsLength);
+        readFullyOrFail(
+                channel,
+                statisticsBuffer,
+                end - STATISTICS_LENGTH_LENGTH - statisticsLength,
+                "statistics");
+        LogRecordBatchStatistics statistics =
+                LogRecordBatchStatistics.readFrom(
+                        MemorySegment.wrap(statisticsBuffer.array()),
+                        0,
+                        statisticsLength,
+                        currentProjection.schema,
+                        logHeaderBuffer.getInt(RECORDS_COUNT_OFFSET));
+        return statistics == null || statistics.mayMatch(currentFilter);
+    }
 
-            // read arrow header
-            arrowHeaderBuffer.rewind();
-            readFullyOrFail(channel, arrowHeaderBuffer, arrowHeaderOffset, "arrow header");
-            arrowHeaderBuffer.position(ARROW_IPC_METADATA_SIZE_OFFSET);
-            int arrowMetadataSize = arrowHeaderBuffer.getInt();
-
-            resizeArrowMetadataBuffer(arrowMetadataSize);
-            arrowMetadataBuffer.rewind();
-            readFullyOrFail(
-                    channel,
-                    arrowMetadataBuffer,
-                    arrowHeaderOffset + ARROW_HEADER_SIZE,
-                    "arrow metadata");
-
-            arrowMetadataBuffer.rewind();
-            Message metadata = Message.getRootAsMessage(arrowMetadataBuffer);
-            ProjectedArrowBatch projectedArrowBatch =
-                    projectArrowBatch(
-                            metadata,
-                            currentProjection.nodesProjection,
-                            currentProjection.buffersProjection,
-                            currentProjection.bufferCount);
-            long arrowBodyLength = projectedArrowBatch.bodyLength();
-
-            int newBatchSizeInBytes =
-                    RECORD_BATCH_HEADER_SIZE
-                            + changeTypeBytes
-                            + currentProjection.arrowMetadataLength
-                            + (int) arrowBodyLength; // safe to cast to int
-            if (newBatchSizeInBytes > maxBytes) {
-                // the remaining bytes in the file are not enough to read a full batch
-                return new BytesViewLogRecords(builder.build());
-            }
+    private void resizeStatisticsBuffer(int size) {
+        if (statisticsBuffer == null || statisticsBuffer.capacity() < size) {
+            statisticsBuffer = ByteBuffer.allocate(size);
+            statisticsBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        statisticsBuffer.clear();
+        statisticsBuffer.limit(size);
+    }
 
-            // 3. create new arrow batch metadata which already projected.
-            byte[] headerMetadata =
-                    serializeArrowRecordBatchMetadata(
-                            projectedArrowBatch,
-                            arrowBodyLength,
-                            currentProjection.bodyCompression);
-            checkState(
-                    headerMetadata.length == currentProjection.arrowMetadataLength,
-                    "Invalid metadata length");
-
-            // 4. update and copy log batch header
-            logHeaderBuffer.position(LENGTH_OFFSET);
-            logHeaderBuffer.putInt(newBatchSizeInBytes - LOG_OVERHEAD);
-            logHeaderBuffer.rewind();
-            // the logHeader can't be reused, as it will be sent to network
-            byte[] logHeader = new byte[RECORD_BATCH_HEADER_SIZE];
-            logHeaderBuffer.get(logHeader);
-
-            // 5. build log records
-            builder.addBytes(logHeader);
-            if (!isAppendOnly) {
-                builder.addBytes(channel, position + ARROW_CHANGETYPE_OFFSET, changeTypeBytes);
+    /** Returns true if any record of the batch at the given position satisfies the filter. */
+    private boolean mayMatchFilter(
+            FileChannel channel,
+            int position,
+            int batchSizeInBytes,
+            LogRecordReadContext filterContext)
+            throws IOException {
+        if (batchBuffer == null || batchBuffer.capacity() < batchSizeInBytes) {
+            batchBuffer = ByteBuffer.allocate(batchSizeInBytes);
+        }
+        batchBuffer.clear();
+        batchBuffer.limit(batchSizeInBytes);
+        readFullyOrFail(channel, batchBuffer, position, "log batch");
+
+        DefaultLogRecordBatch batch = new DefaultLogRecordBatch();
+        batch.pointTo(MemorySegment.wrap(batchBuffer.array()), 0);
+        try (CloseableIterator<LogRecord> records = batch.records(filterContext)) {
+            while (records.hasNext()) {
+                if (currentFilter.test(records.next().getRow())) {
+                    return true;
+                }
             }
-            builder.addBytes(headerMetadata);
-            final long bufferOffset = arrowHeaderOffset + ARROW_HEADER_SIZE + arrowMetadataSize;
-            projectedArrowBatch.buffers.forEach(
-                    b ->
-                            builder.addBytes(
-                                    channel, bufferOffset + b.getOffset(), (int) b.getSize()));
-
-            maxBytes -= newBatchSizeInBytes;
-            position += batchSizeInBytes;
         }
+        return false;
+    }
 
-        return new BytesViewLogRecords(builder.build());
+    /**
+     * Extends the offset range of the empty batch header to cover the batch of the given header.
+     */
+    private static void extendDroppedBatches(byte[] droppedBatchesHeader, ByteBuffer logHeader) {
+        ByteBuffer header = ByteBuffer.wrap(droppedBatchesHeader).order(ByteOrder.LITTLE_ENDIAN);
+        long baseOffset = header.getLong(BASE_OFFSET_OFFSET);
+        long lastOffset =
+                logHeader.getLong(BASE_OFFSET_OFFSET) + logHeader.getInt(LAST_OFFSET_DELTA_OFFSET);
+        header.putInt(LAST_OFFSET_DELTA_OFFSET, (int) (lastOffset - baseOffset));
+    }
+
+    /**
+     * Turns the given batch header into the header of an empty batch without statistics and updates
+     * the CRC.
+     */
+    private static byte[] toEmptyBatch(byte[] batchHeader) {
+        ByteBuffer header = ByteBuffer.wrap(batchHeader).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LENGTH_OFFSET, RECORD_BATCH_HEADER_SIZE - LOG_OVERHEAD);
+        header.put(
+                ATTRIBUTES_OFFSET, (byte) (header.get(ATTRIBUTES_OFFSET) & ~STATISTICS_FLAG_MASK));
+        header.putInt(RECORDS_COUNT_OFFSET, 0);
+        long crc =
+                Crc32C.compute(
+                        batchHeader, SCHEMA_ID_OFFSET, RECORD_BATCH_HEADER_SIZE - SCHEMA_ID_OFFSET);
+        header.putInt(CRC_OFFSET, (int) crc);
+        return batchHeader;
     }
 
     private ProjectedArrowBatch projectArrowBatch(
@@ -25,6 +25,7 @@ import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.CloseableIterator;
 
 import java.util.Iterator;
+import java.util.Optional;
 
 /**
  * A record batch is a container for {@link LogRecord LogRecords}.
@@ -154,6 +155,19 @@ public interface LogRecordBatch {
      */
     CloseableIterator<LogRecord> records(ReadContext context);
 
+    /**
+     * Returns the column statistics of the records in this batch, which can be read without
+     * decoding the records, e.g. to skip the batch if none of the records satisfies a filter.
+     * Returns empty if the batch doesn't contain statistics.
+     *
+     * @param rowType The row type of the schema of this batch (not projected).
+     * @return The statistics of the records in this batch.
+     * @see LogRecordBatchStatistics
+     */
+    default Optional<LogRecordBatchStatistics> getStatistics(RowType rowType) {
+        return Optional.empty();
+    }
+
     /** The read context of a {@link LogRecordBatch} to read records. */
     interface ReadContext {
 
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.record;
+
+import com.alibaba.fluss.annotation.PublicEvolving;
+import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.memory.OutputView;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.row.BinaryString;
+import com.alibaba.fluss.row.Decimal;
+import com.alibaba.fluss.row.GenericRow;
+import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.row.indexed.IndexedRow;
+import com.alibaba.fluss.row.indexed.IndexedRowWriter;
+import com.alibaba.fluss.types.DataType;
+import com.alibaba.fluss.types.RowType;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The statistics of the columns in a {@link LogRecordBatch}, i.e. the min value, max value and null
+ * count of the columns, which are used to skip the batches that don't contain any record satisfying
+ * a filter without reading the records, see {@link #mayMatch(Predicate)}. The statistics are only
+ * collected for some selected columns, the statistics of other columns are unknown.
+ *
+ * <p>The statistics are serialized at the end of a batch with the {@link
+ * DefaultLogRecordBatch#STATISTICS_FLAG_MASK} attribute, the schema is given below:
+ *
+ * <ul>
+ *   Statistics =>
+ *   <li>Version => Int8
+ *   <li>ColumnCount => Int16
+ *   <li>ColumnIndexes => [Int16]
+ *   <li>NullCounts => [Int32]
+ *   <li>MinValuesLength => Int32
+ *   <li>MinValues => IndexedRow
+ *   <li>MaxValuesLength => Int32
+ *   <li>MaxValues => IndexedRow
+ *   <li>StatisticsLength => Int32
+ * </ul>
+ *
+ * <p>The min values and max values are encoded as {@link IndexedRow} of the types of the selected
+ * columns, a null min/max value means the value is unknown (e.g., all the values are null or the
+ * values are too long). The StatisticsLength is the size of the statistics excluding the
+ * StatisticsLength field itself, it's located at the end of the batch, so that the statistics can
+ * be located without parsing the records of the batch.
+ *
+ * @since 0.8
+ */
+@PublicEvolving
+public class LogRecordBatchStatistics {
+
+    /** The "version" values of the statistics. */
+    public static final byte STATISTICS_VERSION_V0 = 0;
+
+    /** The current "version" value of the statistics. */
+    public static final byte CURRENT_STATISTICS_VERSION = STATISTICS_VERSION_V0;
+
+    static final int VERSION_LENGTH = 1;
+    static final int COLUMN_COUNT_LENGTH = 2;
+    static final int COLUMN_INDEX_LENGTH = 2;
+    static final int NULL_COUNT_LENGTH = 4;
+    static final int VALUES_LENGTH_LENGTH = 4;
+    public static final int STATISTICS_LENGTH_LENGTH = 4;
+
+    private static final int UNKNOWN_NULL_COUNT = -1;
+
+    private final RowType rowType;
+    private final long rowCount;
+    private final int[] columnIndexes;
+    // the statistics of all the fields of the row type, null if unknown
+    private final GenericRow minValues;
+    private final GenericRow maxValues;
+    private final Long[] nullCounts;
+
+    LogRecordBatchStatistics(
+            RowType rowType,
+            long rowCount,
+            int[] columnIndexes,
+            GenericRow minValues,
+            GenericRow maxValues,
+            Long[] nullCounts) {
+        this.rowType = rowType;
+        this.rowCount = rowCount;
+        this.columnIndexes = columnIndexes;
+        this.minValues = minValues;
+        this.maxValues = maxValues;
+        this.nullCounts = nullCounts;
+    }
+
+    /** Returns the number of records described by the statistics. */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /** Returns the indexes of the columns that have statistics. */
+    public int[] getColumnIndexes() {
+        return columnIndexes;
+    }
+
+    /** Returns the min values of all the columns, the value is null if unknown. */
+    public InternalRow getMinValues() {
+        return minValues;
+    }
+
+    /** Returns the max values of all the columns, the value is null if unknown. */
+    public InternalRow getMaxValues() {
+        return maxValues;
+    }
+
+    /** Returns the null counts of all the columns, the count is null if unknown. */
+    public Long[] getNullCounts() {
+        return nullCounts;
+    }
+
+    /**
+     * Returns false if it's guaranteed that none of the records described by the statistics
+     * satisfies the given filter, the filter is on the fields of the row type of the statistics.
+     */
+    public boolean mayMatch(Predicate filter) {
+        return filter.test(rowCount, minValues, maxValues, nullCounts);
+    }
+
+    /**
+     * Serializes the statistics into the given output view, including the trailing StatisticsLength
+     * field.
+     *
+     * @return the number of bytes written
+     */
+    int writeTo(OutputView out) throws IOException {
+        DataType[] types = statisticsTypes(rowType, columnIndexes);
+        byte[] minBytes = serializeValues(types, minValues);
+        byte[] maxBytes = serializeValues(types, maxValues);
+
+        out.writeByte(CURRENT_STATISTICS_VERSION);
+        out.writeShort(columnIndexes.length);
+        for (int columnIndex : columnIndexes) {
+            out.writeShort(columnIndex);
+        }
+        for (int columnIndex : columnIndexes) {
+            Long nullCount = nullCounts[columnIndex];
+            out.writeInt(nullCount == null ? UNKNOWN_NULL_COUNT : nullCount.intValue());
+        }
+        out.writeInt(minBytes.length);
+        out.write(minBytes);
+        out.writeInt(maxBytes.length);
+        out.write(maxBytes);
+
+        int statisticsLength =
+                VERSION_LENGTH
+                        + COLUMN_COUNT_LENGTH
+                        + columnIndexes.length * (COLUMN_INDEX_LENGTH + NULL_COUNT_LENGTH)
+                        + VALUES_LENGTH_LENGTH
+                        + minBytes.length
+                        + VALUES_LENGTH_LENGTH
+                        + maxBytes.length;
+        out.writeInt(statisticsLength);
+        return statisticsLength + STATISTICS_LENGTH_LENGTH;
+    }
+
+    /**
+     * Deserializes the statistics from the given memory segment, the given offset and size don't
+     * include the trailing StatisticsLength field. The values are copied, so the segment can be
+     * reused after this method returns.
+     *
+     * @param rowType the row type of the schema of the batch
+     * @param rowCount the number of records in the batch
+     * @return the statistics, or null if the statistics version is not supported by this reader or
+     *     the statistics don't match the given row type.
+     */
+    @Nullable
+    static LogRecordBatchStatistics readFrom(
+            MemorySegment segment, int offset, int sizeInBytes, RowType rowType, long rowCount) {
+        if (sizeInBytes < VERSION_LENGTH + COLUMN_COUNT_LENGTH) {
+            return null;
+        }
+        byte version = segment.get(offset);
+        if (version != STATISTICS_VERSION_V0) {
+            // written by a newer writer, just ignore the statistics
+            return null;
+        }
+        int position = offset + VERSION_LENGTH;
+        int columnCount = segment.getShort(position);
+        position += COLUMN_COUNT_LENGTH;
+
+        int[] columnIndexes = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnIndexes[i] = segment.getShort(position);
+            position += COLUMN_INDEX_LENGTH;
+            if (columnIndexes[i] < 0 || columnIndexes[i] >= rowType.getFieldCount()) {
+                return null;
+            }
+        }
+
+        int fieldCount = rowType.getFieldCount();
+        Long[] nullCounts = new Long[fieldCount];
+        for (int columnIndex : columnIndexes) {
+            int nullCount = segment.getInt(position);
+            position += NULL_COUNT_LENGTH;
+            nullCounts[columnIndex] = nullCount == UNKNOWN_NULL_COUNT ? null : (long) nullCount;
+        }
+
+        DataType[] types = statisticsTypes(rowType, columnIndexes);
+        GenericRow minValues = new GenericRow(fieldCount);
+        position = deserializeValues(segment, position, types, columnIndexes, minValues);
+        GenericRow maxValues = new GenericRow(fieldCount);
+        position = deserializeValues(segment, position, types, columnIndexes, maxValues);
+        if (position != offset + sizeInBytes) {
+            return null;
+        }
+        return new LogRecordBatchStatistics(
+                rowType, rowCount, columnIndexes, minValues, maxValues, nullCounts);
+    }
+
+    private byte[] serializeValues(DataType[] types, GenericRow values) {
+        IndexedRowWriter writer = new IndexedRowWriter(types);
+        writer.reset();
+        for (int i = 0; i < types.length; i++) {
+            IndexedRowWriter.createFieldWriter(types[i])
+                    .writeField(writer, i, values.getField(columnIndexes[i]));
+        }
+        return Arrays.copyOf(writer.buffer(), writer.position());
+    }
+
+    private static int deserializeValues(
+            MemorySegment segment,
+            int position,
+            DataType[] types,
+            int[] columnIndexes,
+            GenericRow values) {
+        int length = segment.getInt(position);
+        position += VALUES_LENGTH_LENGTH;
+        IndexedRow row = new IndexedRow(types);
+        row.pointTo(segment, position, length);
+        for (int i = 0; i < types.length; i++) {
+            Object value = InternalRow.createFieldGetter(types[i], i).getFieldOrNull(row);
+            values.setField(columnIndexes[i], copyValue(value));
+        }
+        return position + length;
+    }
+
+    /** Returns the nullable types of the given columns, as the min/max values may be unknown. */
+    private static DataType[] statisticsTypes(RowType rowType, int[] columnIndexes) {
+        DataType[] types = new DataType[columnIndexes.length];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            types[i] = rowType.getTypeAt(columnIndexes[i]).copy(true);
+        }
+        return types;
+    }
+
+    /** Copies the value if it may be backed by reused memory. */
+    @Nullable
+    static Object copyValue(@Nullable Object value) {
+        if (value instanceof BinaryString) {
+            return ((BinaryString) value).copy();
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            return Arrays.copyOf(bytes, bytes.length);
+        } else if (value instanceof Decimal) {
+            return ((Decimal) value).copy();
+        } else {
+            return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LogRecordBatchStatistics{"
+                + "rowCount="
+                + rowCount
+                + ", columnIndexes="
+                + Arrays.toString(columnIndexes)
+                + ", minValues="
+                + minValues
+                + ", maxValues="
+                + maxValues
+                + ", nullCounts="
+                + Arrays.toString(nullCounts)
+                + '}';
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.record;
+
+import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.row.BinaryString;
+import com.alibaba.fluss.row.GenericRow;
+import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.types.DataType;
+import com.alibaba.fluss.types.DataTypeRoot;
+import com.alibaba.fluss.types.RowType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.alibaba.fluss.predicate.LeafFunction.compareLiteral;
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * Collects the {@link LogRecordBatchStatistics} of the records appended to a log record batch. The
+ * values are compared in the same way as the filters are evaluated, so that the statistics can be
+ * used to skip batches safely.
+ */
+@Internal
+public class LogRecordBatchStatisticsCollector {
+
+    /** The types that support collecting statistics. */
+    public static final EnumSet<DataTypeRoot> SUPPORTED_TYPES =
+            EnumSet.of(
+                    DataTypeRoot.CHAR,
+                    DataTypeRoot.STRING,
+                    DataTypeRoot.BOOLEAN,
+                    DataTypeRoot.BINARY,
+                    DataTypeRoot.BYTES,
+                    DataTypeRoot.DECIMAL,
+                    DataTypeRoot.TINYINT,
+                    DataTypeRoot.SMALLINT,
+                    DataTypeRoot.INTEGER,
+                    DataTypeRoot.BIGINT,
+                    DataTypeRoot.FLOAT,
+                    DataTypeRoot.DOUBLE,
+                    DataTypeRoot.DATE,
+                    DataTypeRoot.TIME_WITHOUT_TIME_ZONE,
+                    DataTypeRoot.TIMESTAMP_WITHOUT_TIME_ZONE,
+                    DataTypeRoot.TIMESTAMP_WITH_LOCAL_TIME_ZONE);
+
+    /**
+     * The max length in bytes of the string and binary values kept as min/max values. The min/max
+     * values of a column become unknown once a longer value is appended, to keep the statistics
+     * small.
+     */
+    static final int MAX_VALUE_LENGTH = 128;
+
+    private final RowType rowType;
+    private final int[] columnIndexes;
+    private final InternalRow.FieldGetter[] fieldGetters;
+    private final Object[] minValues;
+    private final Object[] maxValues;
+    private final long[] nullCounts;
+    // whether the min/max values of the column are unknown
+    private final boolean[] unknownMinMax;
+    private long rowCount;
+
+    public LogRecordBatchStatisticsCollector(RowType rowType, int[] columnIndexes) {
+        checkArgument(
+                columnIndexes.length <= Short.MAX_VALUE,
+                "Too many columns to collect statistics: %s",
+                columnIndexes.length);
+        this.rowType = rowType;
+        this.columnIndexes = columnIndexes;
+        this.fieldGetters = new InternalRow.FieldGetter[columnIndexes.length];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            DataType type = rowType.getTypeAt(columnIndexes[i]);
+            checkArgument(
+                    SUPPORTED_TYPES.contains(type.getTypeRoot()),
+                    "Collecting statistics on column '%s' of type %s is not supported.",
+                    rowType.getFieldNames().get(columnIndexes[i]),
+                    type);
+            fieldGetters[i] = InternalRow.createFieldGetter(type, columnIndexes[i]);
+        }
+        this.minValues = new Object[columnIndexes.length];
+        this.maxValues = new Object[columnIndexes.length];
+        this.nullCounts = new long[columnIndexes.length];
+        this.unknownMinMax = new boolean[columnIndexes.length];
+        this.rowCount = 0;
+    }
+
+    /**
+     * Resolves the indexes of the given columns that support collecting statistics, the columns
+     * that don't exist in the row type or are not supported are ignored.
+     */
+    public static int[] resolveColumnIndexes(RowType rowType, List<String> columns) {
+        List<Integer> columnIndexes = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            int index = rowType.getFieldIndex(column);
+            if (index >= 0
+                    && SUPPORTED_TYPES.contains(rowType.getTypeAt(index).getTypeRoot())
+                    && !columnIndexes.contains(index)) {
+                columnIndexes.add(index);
+            }
+        }
+        return columnIndexes.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /** Updates the statistics with the given row. */
+    public void update(InternalRow row) {
+        rowCount++;
+        for (int i = 0; i < fieldGetters.length; i++) {
+            Object value = fieldGetters[i].getFieldOrNull(row);
+            if (value == null) {
+                nullCounts[i]++;
+            } else if (!unknownMinMax[i]) {
+                if (exceedsMaxLength(value)) {
+                    unknownMinMax[i] = true;
+                    minValues[i] = null;
+                    maxValues[i] = null;
+                    continue;
+                }
+                if (minValues[i] == null || compareLiteral(value, minValues[i]) < 0) {
+                    minValues[i] = LogRecordBatchStatistics.copyValue(value);
+                }
+                if (maxValues[i] == null || compareLiteral(value, maxValues[i]) > 0) {
+                    maxValues[i] = LogRecordBatchStatistics.copyValue(value);
+                }
+            }
+        }
+    }
+
+    /** Returns the number of rows collected. */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /** Returns the statistics of the rows collected so far. */
+    public LogRecordBatchStatistics getStatistics() {
+        int fieldCount = rowType.getFieldCount();
+        GenericRow minRow = new GenericRow(fieldCount);
+        GenericRow maxRow = new GenericRow(fieldCount);
+        Long[] nullCountArray = new Long[fieldCount];
+        for (int i = 0; i < columnIndexes.length; i++) {
+            minRow.setField(columnIndexes[i], minValues[i]);
+            maxRow.setField(columnIndexes[i], maxValues[i]);
+            nullCountArray[columnIndexes[i]] = nullCounts[i];
+        }
+        return new LogRecordBatchStatistics(
+                rowType, rowCount, columnIndexes, minRow, maxRow, nullCountArray);
+    }
+
+    private static boolean exceedsMaxLength(Object value) {
+        if (value instanceof BinaryString) {
+            return ((BinaryString) value).getSizeInBytes() > MAX_VALUE_LENGTH;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length > MAX_VALUE_LENGTH;
+        } else {
+            return false;
+        }
+    }
+}
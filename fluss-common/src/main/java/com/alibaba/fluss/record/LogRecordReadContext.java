@@ -17,9 +17,10 @@
 
 package com.alibaba.fluss.record;
 
-import com.alibaba.fluss.annotation.VisibleForTesting;
 import com.alibaba.fluss.metadata.LogFormat;
 import com.alibaba.fluss.metadata.TableInfo;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.predicate.PredicateBuilder;
 import com.alibaba.fluss.row.InternalRow;
 import com.alibaba.fluss.row.InternalRow.FieldGetter;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.BufferAllocator;
@@ -32,6 +33,7 @@ import com.alibaba.fluss.utils.Projection;
 
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -55,16 +57,34 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
     private final FieldGetter[] selectedFieldGetters;
     // whether the projection is push downed to the server side and the returned data is pruned.
     private final boolean projectionPushDowned;
+    // the fields (in order) to push down to the server side, null if projection isn't push downed
+    @Nullable private final int[] pushdownProjection;
+    // the filter on the read data to skip the unsatisfied records, null if no filter
+    @Nullable private final Predicate recordFilter;
 
     /**
      * Creates a LogRecordReadContext for the given table information and projection information.
      */
     public static LogRecordReadContext createReadContext(
             TableInfo tableInfo, boolean readFromRemote, @Nullable Projection projection) {
+        return createReadContext(tableInfo, readFromRemote, projection, null);
+    }
+
+    /**
+     * Creates a LogRecordReadContext for the given table information, projection and filter
+     * information. The filter is on the fields of the table.
+     */
+    public static LogRecordReadContext createReadContext(
+            TableInfo tableInfo,
+            boolean readFromRemote,
+            @Nullable Projection projection,
+            @Nullable Predicate filter) {
         RowType rowType = tableInfo.getRowType();
         LogFormat logFormat = tableInfo.getTableConfig().getLogFormat();
-        // only for arrow log format, the projection can be push downed to the server side
-        boolean projectionPushDowned = projection != null && logFormat == LogFormat.ARROW;
+        // only for arrow log format, the projection and filter can be push downed to the server
+        // side, the filter is push downed along with a projection (may be all fields)
+        boolean projectionPushDowned =
+                (projection != null || filter != null) && logFormat == LogFormat.ARROW;
         int schemaId = tableInfo.getSchemaId();
         if (projection == null) {
             // set a default dummy projection to simplify code
@@ -76,25 +96,68 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
                 // currently, for remote read, arrow log doesn't support projection pushdown,
                 // so set the rowType as is.
                 int[] selectedFields = projection.getProjection();
-                return createArrowReadContext(rowType, schemaId, selectedFields, false);
+                return createArrowReadContext(
+                        rowType, schemaId, selectedFields, false, null, filter);
             } else {
-                // arrow data that returned from server has been projected (in order)
-                RowType projectedRowType = projection.projectInOrder(rowType);
+                // arrow data that returned from server has been projected (in order), which
+                // also contains the fields referenced by the filter to filter records again
+                int[] fetchedFields = projection.getProjectionInOrder();
+                if (filter != null) {
+                    fetchedFields =
+                            IntStream.concat(
+                                            Arrays.stream(fetchedFields),
+                                            Arrays.stream(
+                                                    PredicateBuilder.referencedFields(filter)))
+                                    .distinct()
+                                    .sorted()
+                                    .toArray();
+                }
+                RowType fetchedRowType = rowType.project(fetchedFields);
                 // need to reorder the fields for final output
-                int[] selectedFields = projection.getReorderingIndexes();
+                int[] fieldMapping = new int[rowType.getFieldCount()];
+                Arrays.fill(fieldMapping, -1);
+                for (int i = 0; i < fetchedFields.length; i++) {
+                    fieldMapping[fetchedFields[i]] = i;
+                }
+                int[] selectedFields =
+                        Arrays.stream(projection.getProjection())
+                                .map(field -> fieldMapping[field])
+                                .toArray();
                 return createArrowReadContext(
-                        projectedRowType, schemaId, selectedFields, projectionPushDowned);
+                        fetchedRowType,
+                        schemaId,
+                        selectedFields,
+                        projectionPushDowned,
+                        projectionPushDowned ? fetchedFields : null,
+                        filter == null ? null : filter.remapFields(fieldMapping));
             }
         } else if (logFormat == LogFormat.INDEXED) {
             int[] selectedFields = projection.getProjection();
-            return createIndexedReadContext(rowType, schemaId, selectedFields);
+            FieldGetter[] fieldGetters = buildProjectedFieldGetters(rowType, selectedFields);
+            // for INDEXED log format, the projection and filter are NEVER push downed to the
+            // server side
+            return new LogRecordReadContext(
+                    LogFormat.INDEXED,
+                    rowType,
+                    schemaId,
+                    null,
+                    null,
+                    fieldGetters,
+                    false,
+                    null,
+                    filter);
         } else {
             throw new IllegalArgumentException("Unsupported log format: " + logFormat);
         }
     }
 
     private static LogRecordReadContext createArrowReadContext(
-            RowType dataRowType, int schemaId, int[] selectedFields, boolean projectionPushDowned) {
+            RowType dataRowType,
+            int schemaId,
+            int[] selectedFields,
+            boolean projectionPushDowned,
+            @Nullable int[] pushdownProjection,
+            @Nullable Predicate recordFilter) {
         // TODO: use a more reasonable memory limit
         BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
         VectorSchemaRoot vectorRoot =
@@ -107,20 +170,20 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
                 vectorRoot,
                 allocator,
                 fieldGetters,
-                projectionPushDowned);
+                projectionPushDowned,
+                pushdownProjection,
+                recordFilter);
     }
 
     /**
-     * Creates a testing purpose LogRecordReadContext for ARROW log format, that underlying Arrow
-     * resources are not reused.
+     * Creates a LogRecordReadContext for ARROW log format to read all the fields of the table.
      *
      * @param rowType the schema of the table
      * @param schemaId the schemaId of the table
      */
-    @VisibleForTesting
     public static LogRecordReadContext createArrowReadContext(RowType rowType, int schemaId) {
         int[] selectedFields = IntStream.range(0, rowType.getFieldCount()).toArray();
-        return createArrowReadContext(rowType, schemaId, selectedFields, false);
+        return createArrowReadContext(rowType, schemaId, selectedFields, false, null, null);
     }
 
     /**
@@ -146,7 +209,7 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
         FieldGetter[] fieldGetters = buildProjectedFieldGetters(rowType, selectedFields);
         // for INDEXED log format, the projection is NEVER push downed to the server side
         return new LogRecordReadContext(
-                LogFormat.INDEXED, rowType, schemaId, null, null, fieldGetters, false);
+                LogFormat.INDEXED, rowType, schemaId, null, null, fieldGetters, false, null, null);
     }
 
     private LogRecordReadContext(
@@ -156,7 +219,9 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
             VectorSchemaRoot vectorSchemaRoot,
             BufferAllocator bufferAllocator,
             FieldGetter[] selectedFieldGetters,
-            boolean projectionPushDowned) {
+            boolean projectionPushDowned,
+            @Nullable int[] pushdownProjection,
+            @Nullable Predicate recordFilter) {
         this.logFormat = logFormat;
         this.dataRowType = dataRowType;
         this.schemaId = schemaId;
@@ -164,6 +229,8 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
         this.bufferAllocator = bufferAllocator;
         this.selectedFieldGetters = selectedFieldGetters;
         this.projectionPushDowned = projectionPushDowned;
+        this.pushdownProjection = pushdownProjection;
+        this.recordFilter = recordFilter;
     }
 
     @Override
@@ -191,6 +258,24 @@ public class LogRecordReadContext implements LogRecordBatch.ReadContext, AutoClo
         return projectionPushDowned;
     }
 
+    /**
+     * Returns the fields (in order) to push down to the server side, returns null if the projection
+     * is not push downed.
+     */
+    @Nullable
+    public int[] getPushdownProjection() {
+        return pushdownProjection;
+    }
+
+    /**
+     * Returns the filter on the fields of the read data, the records not satisfying the filter
+     * should be skipped. Returns null if there is no filter.
+     */
+    @Nullable
+    public Predicate getRecordFilter() {
+        return recordFilter;
+    }
+
     @Override
     public VectorSchemaRoot getVectorSchemaRoot(int schemaId) {
         checkArgument(
@@ -27,14 +27,18 @@ import com.alibaba.fluss.row.InternalRow;
 import com.alibaba.fluss.row.arrow.ArrowWriter;
 import com.alibaba.fluss.utils.crc.Crc32C;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.APPEND_ONLY_FLAG_MASK;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.ARROW_CHANGETYPE_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.BASE_OFFSET_LENGTH;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.CRC_OFFSET;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.LENGTH_LENGTH;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.RECORD_BATCH_HEADER_SIZE;
 import static com.alibaba.fluss.record.DefaultLogRecordBatch.SCHEMA_ID_OFFSET;
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.STATISTICS_FLAG_MASK;
 import static com.alibaba.fluss.record.LogRecordBatch.CURRENT_LOG_MAGIC_VALUE;
 import static com.alibaba.fluss.record.LogRecordBatch.NO_BATCH_SEQUENCE;
 import static com.alibaba.fluss.record.LogRecordBatch.NO_WRITER_ID;
@@ -54,6 +58,7 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
     private final MemorySegment firstSegment;
     private final AbstractPagedOutputView pagedOutputView;
     private final boolean appendOnly;
+    @Nullable private final LogRecordBatchStatisticsCollector statisticsCollector;
 
     private volatile MultiBytesView bytesView = null;
 
@@ -65,6 +70,7 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
     private boolean reCalculateSizeInBytes = false;
     private boolean resetBatchHeader = false;
     private boolean aborted = false;
+    private boolean hasStatistics = false;
 
     private MemoryLogRecordsArrowBuilder(
             long baseLogOffset,
@@ -72,8 +78,10 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
             byte magic,
             ArrowWriter arrowWriter,
             AbstractPagedOutputView pagedOutputView,
-            boolean appendOnly) {
+            boolean appendOnly,
+            @Nullable LogRecordBatchStatisticsCollector statisticsCollector) {
         this.appendOnly = appendOnly;
+        this.statisticsCollector = statisticsCollector;
         checkArgument(
                 schemaId <= Short.MAX_VALUE,
                 "schemaId shouldn't be greater than the max value of short: " + Short.MAX_VALUE);
@@ -106,7 +114,13 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
             ArrowWriter arrowWriter,
             AbstractPagedOutputView outputView) {
         return new MemoryLogRecordsArrowBuilder(
-                baseLogOffset, schemaId, CURRENT_LOG_MAGIC_VALUE, arrowWriter, outputView, false);
+                baseLogOffset,
+                schemaId,
+                CURRENT_LOG_MAGIC_VALUE,
+                arrowWriter,
+                outputView,
+                false,
+                null);
     }
 
     /** Builder with limited write size and the memory segment used to serialize records. */
@@ -115,13 +129,29 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
             ArrowWriter arrowWriter,
             AbstractPagedOutputView outputView,
             boolean appendOnly) {
+        return builder(schemaId, arrowWriter, outputView, appendOnly, null);
+    }
+
+    /**
+     * Builder with limited write size and the memory segment used to serialize records, the
+     * statistics of the appended records are collected by the given collector and written at the
+     * end of the batch, see {@link LogRecordBatchStatistics}. No statistics if the collector is
+     * null.
+     */
+    public static MemoryLogRecordsArrowBuilder builder(
+            int schemaId,
+            ArrowWriter arrowWriter,
+            AbstractPagedOutputView outputView,
+            boolean appendOnly,
+            @Nullable LogRecordBatchStatisticsCollector statisticsCollector) {
         return new MemoryLogRecordsArrowBuilder(
                 BUILDER_DEFAULT_OFFSET,
                 schemaId,
                 CURRENT_LOG_MAGIC_VALUE,
                 arrowWriter,
                 outputView,
-                appendOnly);
+                appendOnly,
+                statisticsCollector);
     }
 
     public MultiBytesView build() throws IOException {
@@ -141,6 +171,11 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
         arrowWriter.serializeToOutputView(
                 pagedOutputView, ARROW_CHANGETYPE_OFFSET + changeTypeWriter.sizeInBytes());
         recordCount = arrowWriter.getRecordsCount();
+        if (statisticsCollector != null && recordCount > 0) {
+            // append the statistics after the arrow batch
+            statisticsCollector.getStatistics().writeTo(pagedOutputView);
+            hasStatistics = true;
+        }
         bytesView =
                 MultiBytesView.builder()
                         .addMemorySegmentByteViewList(pagedOutputView.getWrittenSegments())
@@ -177,6 +212,9 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
         }
 
         arrowWriter.writeRow(row);
+        if (statisticsCollector != null) {
+            statisticsCollector.update(row);
+        }
         if (!appendOnly) {
             changeTypeWriter.writeChangeType(changeType);
         }
@@ -207,8 +245,12 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
         return isClosed;
     }
 
-    @Override
-    public void close() throws Exception {
+    /**
+     * Close this builder for record appends without building the arrow batch. This is a cheap
+     * operation, the arrow batch is built (and the arrow writer is recycled) by the following
+     * {@link #close()} or {@link #build()}.
+     */
+    public void closeForRecordAppends() {
         if (aborted) {
             throw new IllegalStateException(
                     "Cannot close MemoryLogRecordsArrowBuilder as it has already been aborted");
@@ -218,10 +260,19 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
             return;
         }
 
+        // make the estimated size up-to-date, as it is not changed anymore until the batch is built
+        estimatedSizeInBytes();
         isClosed = true;
+    }
 
-        // Build arrowBatch when batch close to recycle arrow writer.
-        build();
+    @Override
+    public void close() throws Exception {
+        closeForRecordAppends();
+
+        if (bytesView == null) {
+            // Build arrowBatch when batch close to recycle arrow writer.
+            build();
+        }
     }
 
     public void recycleArrowWriter() {
@@ -263,8 +314,15 @@ public class MemoryLogRecordsArrowBuilder implements AutoCloseable {
         outputView.writeUnsignedInt(0);
         // write schema id
         outputView.writeShort((short) schemaId);
-        // write attributes (currently only appendOnly flag)
-        outputView.writeBoolean(appendOnly);
+        // write attributes
+        byte attributes = 0;
+        if (appendOnly) {
+            attributes |= APPEND_ONLY_FLAG_MASK;
+        }
+        if (hasStatistics) {
+            attributes |= STATISTICS_FLAG_MASK;
+        }
+        outputView.writeByte(attributes);
         // write lastOffsetDelta
         if (recordCount > 0) {
             outputView.writeInt(recordCount - 1);
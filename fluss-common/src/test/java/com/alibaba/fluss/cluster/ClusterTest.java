@@ -97,6 +97,41 @@ class ClusterTest {
                 .isEqualTo(new SchemaInfo(DATA2_SCHEMA, 1));
     }
 
+    @Test
+    void testGetAvailableBucketsForNode() {
+        Cluster cluster = createCluster();
+        assertThat(cluster.getAvailableBucketsForNode(NODES[0].id()))
+                .containsExactlyInAnyOrder(
+                        new BucketLocation(
+                                DATA1_PHYSICAL_TABLE_PATH, DATA1_TABLE_ID, 0, NODES[0], NODES),
+                        new BucketLocation(
+                                PhysicalTablePath.of(DATA2_TABLE_PATH),
+                                DATA2_TABLE_ID,
+                                1,
+                                NODES[0],
+                                NODES));
+        assertThat(cluster.getAvailableBucketsForNode(NODES[2].id()))
+                .containsExactly(
+                        new BucketLocation(
+                                DATA1_PHYSICAL_TABLE_PATH, DATA1_TABLE_ID, 2, NODES[2], NODES));
+        // no bucket leader on the node.
+        assertThat(cluster.getAvailableBucketsForNode(NODES[1].id())).isEmpty();
+
+        // the buckets of the invalid table are removed from the node.
+        cluster =
+                cluster.invalidPhysicalTableBucketMeta(
+                        Collections.singleton(DATA1_PHYSICAL_TABLE_PATH));
+        assertThat(cluster.getAvailableBucketsForNode(NODES[0].id()))
+                .containsExactly(
+                        new BucketLocation(
+                                PhysicalTablePath.of(DATA2_TABLE_PATH),
+                                DATA2_TABLE_ID,
+                                1,
+                                NODES[0],
+                                NODES));
+        assertThat(cluster.getAvailableBucketsForNode(NODES[2].id())).isEmpty();
+    }
+
     @Test
     void testInvalidMetaAndUpdate() {
         Cluster cluster = createCluster();
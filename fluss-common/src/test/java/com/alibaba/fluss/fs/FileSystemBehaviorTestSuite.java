@@ -22,11 +22,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -257,6 +263,65 @@ public abstract class FileSystemBehaviorTestSuite {
         checkPathExistence(path, false, getConsistencyToleranceNS());
     }
 
+    @Test
+    void testPositionedRead() throws Exception {
+        final byte[] data = randomBytes(64 * 1024);
+        final FsPath path = createFileWithData(data);
+        try (FSDataInputStream in = fs.open(path)) {
+            // move the position of the stream, which isn't changed by the positioned reads
+            assertThat(in.read(new byte[10])).isEqualTo(10);
+
+            byte[] buffer = new byte[4096];
+            in.readFully(30000, buffer);
+            assertThat(buffer).isEqualTo(Arrays.copyOfRange(data, 30000, 34096));
+            in.readFully(100, buffer, 10, 20);
+            assertThat(Arrays.copyOfRange(buffer, 10, 30))
+                    .isEqualTo(Arrays.copyOfRange(data, 100, 120));
+            assertThat(in.getPos()).isEqualTo(10);
+
+            assertThatThrownBy(() -> in.readFully(data.length - 10, new byte[20]))
+                    .isInstanceOf(EOFException.class);
+        } finally {
+            fs.delete(path, false);
+        }
+    }
+
+    @Test
+    void testVectoredRead() throws Exception {
+        final byte[] data = randomBytes(4 * 1024 * 1024);
+        final FsPath path = createFileWithData(data);
+        try (FSDataInputStream in = fs.open(path)) {
+            List<FileRange> ranges =
+                    Arrays.asList(
+                            // ranges out of order, adjacent, nearby and far away
+                            FileRange.of(3 * 1024 * 1024, 1000),
+                            FileRange.of(0, 100),
+                            FileRange.of(100, 200),
+                            FileRange.of(1000, 0),
+                            FileRange.of(2000, 500),
+                            FileRange.of(1024 * 1024, 64 * 1024),
+                            FileRange.of(data.length - 10, 10));
+            in.readVectored(ranges);
+            for (FileRange range : ranges) {
+                assertThat(range.getData().get(1, TimeUnit.MINUTES))
+                        .isEqualTo(
+                                Arrays.copyOfRange(
+                                        data, (int) range.getOffset(), (int) range.getEnd()));
+            }
+
+            // the range beyond the end of the file fails without failing the other ranges
+            FileRange validRange = FileRange.of(0, 10);
+            FileRange invalidRange = FileRange.of(data.length - 10, 20);
+            in.readVectored(Arrays.asList(validRange, invalidRange));
+            assertThat(validRange.getData().get(1, TimeUnit.MINUTES))
+                    .isEqualTo(Arrays.copyOfRange(data, 0, 10));
+            assertThatThrownBy(() -> invalidRange.getData().get(1, TimeUnit.MINUTES))
+                    .isInstanceOf(ExecutionException.class);
+        } finally {
+            fs.delete(path, false);
+        }
+    }
+
     @Test
     void testDirectoryListing() throws Exception {
         final FsPath directory = new FsPath(basePath, "testdir/");
@@ -304,6 +369,22 @@ public abstract class FileSystemBehaviorTestSuite {
         return UUID.randomUUID().toString();
     }
 
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
+    private FsPath createFileWithData(byte[] data) throws Exception {
+        final FsPath path = new FsPath(basePath, randomName());
+        try (FSDataOutputStream out = fs.create(path, FileSystem.WriteMode.OVERWRITE)) {
+            out.write(data);
+        }
+        // just in case, wait for the path to exist
+        checkPathExistence(path, true, getConsistencyToleranceNS());
+        return path;
+    }
+
     private void createFile(FsPath file) throws IOException {
         try (FSDataOutputStream out = fs.create(file, FileSystem.WriteMode.NO_OVERWRITE)) {
             out.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.fs.utils;
+
+import com.alibaba.fluss.fs.FileRange;
+import com.alibaba.fluss.fs.utils.VectoredReadUtils.CombinedFileRange;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link VectoredReadUtils}. */
+class VectoredReadUtilsTest {
+
+    @Test
+    void testMergeRanges() {
+        FileRange first = FileRange.of(0, 100);
+        FileRange adjacent = FileRange.of(100, 100);
+        FileRange nearby = FileRange.of(250, 50);
+        FileRange farAway = FileRange.of(1000, 100);
+        FileRange overlapping = FileRange.of(1050, 100);
+        FileRange tooLarge = FileRange.of(1200, 1000);
+
+        List<CombinedFileRange> combinedRanges =
+                VectoredReadUtils.mergeRanges(
+                        Arrays.asList(tooLarge, farAway, nearby, first, overlapping, adjacent),
+                        100,
+                        500);
+        assertThat(combinedRanges).hasSize(3);
+        assertCombinedRange(combinedRanges.get(0), 0, 300, first, adjacent, nearby);
+        assertCombinedRange(combinedRanges.get(1), 1000, 150, farAway, overlapping);
+        assertCombinedRange(combinedRanges.get(2), 1200, 1000, tooLarge);
+    }
+
+    @Test
+    void testCompleteCombinedRange() throws Exception {
+        FileRange first = FileRange.of(10, 2);
+        FileRange second = FileRange.of(13, 3);
+        CombinedFileRange combinedRange =
+                VectoredReadUtils.mergeRanges(Arrays.asList(first, second), 10, 100).get(0);
+
+        combinedRange.complete(new byte[] {0, 1, 2, 3, 4, 5});
+        assertThat(first.getData().get()).isEqualTo(new byte[] {0, 1});
+        assertThat(second.getData().get()).isEqualTo(new byte[] {3, 4, 5});
+    }
+
+    private static void assertCombinedRange(
+            CombinedFileRange combinedRange, long offset, int length, FileRange... ranges) {
+        assertThat(combinedRange.getOffset()).isEqualTo(offset);
+        assertThat(combinedRange.getLength()).isEqualTo(length);
+        assertThat(combinedRange.getRanges()).containsExactly(ranges);
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.memory;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.MemorySize;
+import com.alibaba.fluss.exception.FlussRuntimeException;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.alibaba.fluss.testutils.common.CommonTestUtils.retry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Test for {@link com.alibaba.fluss.memory.ConcurrentMemorySegmentPool}. */
+public class ConcurrentMemorySegmentPoolTest {
+
+    @Test
+    void testSimpleAllocateAndReturnPages() throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(64, 1024, 10);
+
+        MemorySegment segment = pool.nextSegment();
+        assertThat(segment.size()).isEqualTo(1024);
+        assertThat(pool.freePages()).isEqualTo(63);
+        assertThat(pool.availableMemory()).isEqualTo(63 * 1024);
+
+        pool.returnPage(segment);
+        assertThat(pool.freePages()).isEqualTo(64);
+        assertThat(pool.cachedPages()).isEqualTo(1);
+
+        // the cached page is reused before new pages are allocated
+        List<MemorySegment> segments = pool.allocatePages(2);
+        assertThat(segments).hasSize(2).contains(segment);
+        assertThat(pool.freePages()).isEqualTo(62);
+        assertThat(pool.cachedPages()).isEqualTo(0);
+
+        pool.returnAll(segments);
+        assertThat(pool.freePages()).isEqualTo(64);
+        assertThat(pool.cachedPages()).isEqualTo(2);
+    }
+
+    @Test
+    void testPerRequestMemorySizeAllocatesPagesInBatches() throws Exception {
+        ConcurrentMemorySegmentPool pool =
+                new ConcurrentMemorySegmentPool(10, 512, Long.MAX_VALUE, 2048);
+        List<MemorySegment> segments = new ArrayList<>();
+        // should allocate 4 new pages (1 used, 3 cached)
+        segments.addAll(pool.allocatePages(1));
+        assertThat(pool.freePages()).isEqualTo(9);
+        assertThat(pool.cachedPages()).isEqualTo(3);
+        // should not allocate additional pages
+        segments.addAll(pool.allocatePages(3));
+        assertThat(pool.freePages()).isEqualTo(6);
+        assertThat(pool.cachedPages()).isEqualTo(0);
+        // should allocate 4 new pages again (1 used, 3 cached)
+        segments.addAll(pool.allocatePages(1));
+        assertThat(pool.freePages()).isEqualTo(5);
+        assertThat(pool.cachedPages()).isEqualTo(3);
+        // should allocate the 2 remaining pages only (5 used)
+        segments.addAll(pool.allocatePages(5));
+        assertThat(pool.freePages()).isEqualTo(0);
+        assertThat(pool.cachedPages()).isEqualTo(0);
+
+        pool.returnAll(segments);
+        assertThat(pool.freePages()).isEqualTo(10);
+        assertThat(pool.cachedPages()).isEqualTo(10);
+    }
+
+    @Test
+    void testPagesReturnedByOtherThreadsAreReused() throws Exception {
+        ConcurrentMemorySegmentPool pool = new ConcurrentMemorySegmentPool(4, 64, 10, 64, 64);
+        List<MemorySegment> segments = pool.allocatePages(4);
+        CompletableFuture.runAsync(() -> pool.returnAll(segments)).get();
+
+        // all pages are allocated, so the pages must be found in the cache of the other thread
+        assertThat(pool.allocatePages(4)).containsExactlyInAnyOrderElementsOf(segments);
+        assertThat(pool.freePages()).isEqualTo(0);
+    }
+
+    @Test
+    void testCannotAllocateMorePagesThanAvailable() throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(2, 512, 10);
+        List<MemorySegment> segments = pool.allocatePages(2);
+        assertThat(pool.freePages()).isEqualTo(0);
+        assertThatThrownBy(pool::nextSegment)
+                .isInstanceOf(EOFException.class)
+                .hasMessageContaining("Available pages: 0. Requested pages: 1");
+        assertThat(pool.queued()).isEqualTo(0);
+
+        pool.returnAll(segments);
+        assertThatThrownBy(() -> pool.allocatePages(3))
+                .isInstanceOf(EOFException.class)
+                .hasMessageContaining("Total pages: 2. Requested pages: 3");
+        assertThat(pool.freePages()).isEqualTo(2);
+
+        assertThatThrownBy(
+                        () ->
+                                pool.returnAll(
+                                        Collections.singletonList(
+                                                MemorySegment.allocateHeapMemory(512))))
+                .hasMessage("Cannot return 1 pages to the pool, only 0 pages are in use.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 500})
+    void testBlockTimeIsRespected(int maxTimeToBlockMs) throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(1, 1024, maxTimeToBlockMs);
+        pool.nextSegment();
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> pool.allocatePages(1))
+                .isInstanceOf(EOFException.class)
+                .hasMessageContaining("Available pages: 0. Requested pages: 1");
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(maxTimeToBlockMs);
+        assertThat(pool.queued()).isEqualTo(0);
+    }
+
+    @Test
+    void testZeroBlockTimeNeverQueuesBehindWaiters() throws Exception {
+        int numThreads = 4;
+        int iterations = 10_000;
+        ConcurrentMemorySegmentPool pool = new ConcurrentMemorySegmentPool(64, 64, 0, 64);
+        // the greedy allocations always fail as one page is held, but there are always pages
+        // left for the small allocations
+        MemorySegment held = pool.nextSegment();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger greedyFailures = new AtomicInteger();
+        Thread greedy =
+                new Thread(
+                        () -> {
+                            while (running.get()) {
+                                try {
+                                    pool.allocatePages(64);
+                                } catch (IOException e) {
+                                    greedyFailures.incrementAndGet();
+                                }
+                            }
+                        });
+        greedy.start();
+
+        List<Thread> threads = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < numThreads; i++) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                try {
+                                    for (int j = 0; j < iterations; j++) {
+                                        pool.returnPage(pool.nextSegment());
+                                    }
+                                } catch (Throwable t) {
+                                    failure.compareAndSet(null, t);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        running.set(false);
+        greedy.join();
+
+        if (failure.get() != null) {
+            throw new AssertionError("A small allocation failed with free pages.", failure.get());
+        }
+        assertThat(greedyFailures.get()).isGreaterThan(0);
+        assertThat(pool.queued()).isEqualTo(0);
+        pool.returnPage(held);
+        assertThat(pool.freePages()).isEqualTo(64);
+    }
+
+    @Test
+    void testDelayedAllocation() throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(5, 1024, Long.MAX_VALUE);
+        MemorySegment segment = pool.nextSegment();
+
+        CompletableFuture<List<MemorySegment>> allocation = allocateAsync(pool, 5);
+        retry(Duration.ofSeconds(10), () -> assertThat(pool.queued()).isEqualTo(1));
+        assertThat(allocation).isNotDone();
+
+        pool.returnPage(segment);
+        assertThat(allocation.get(10, TimeUnit.SECONDS)).hasSize(5);
+        assertThat(pool.freePages()).isEqualTo(0);
+        assertThat(pool.queued()).isEqualTo(0);
+    }
+
+    @Test
+    void testWaitersAreServedInOrder() throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(4, 64, Long.MAX_VALUE);
+        List<MemorySegment> segments = pool.allocatePages(4);
+
+        CompletableFuture<List<MemorySegment>> first = allocateAsync(pool, 4);
+        retry(Duration.ofSeconds(10), () -> assertThat(pool.queued()).isEqualTo(1));
+        CompletableFuture<List<MemorySegment>> second = allocateAsync(pool, 1);
+        retry(Duration.ofSeconds(10), () -> assertThat(pool.queued()).isEqualTo(2));
+
+        // a single free page doesn't overtake the first waiter which requires all the pages
+        pool.returnPage(segments.get(0));
+        assertThat(second).isNotDone();
+        assertThat(pool.queued()).isEqualTo(2);
+
+        pool.returnAll(segments.subList(1, 4));
+        List<MemorySegment> firstSegments = first.get(10, TimeUnit.SECONDS);
+        assertThat(firstSegments).hasSize(4);
+        assertThat(second).isNotDone();
+
+        pool.returnAll(firstSegments);
+        assertThat(second.get(10, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(pool.queued()).isEqualTo(0);
+        assertThat(pool.freePages()).isEqualTo(3);
+    }
+
+    @Test
+    void testCloseNotifyWaiters() throws Exception {
+        ConcurrentMemorySegmentPool pool = buildPool(1, 64, Long.MAX_VALUE);
+        MemorySegment segment = pool.nextSegment();
+
+        CompletableFuture<List<MemorySegment>> allocation = allocateAsync(pool, 1);
+        retry(Duration.ofSeconds(10), () -> assertThat(pool.queued()).isEqualTo(1));
+
+        pool.close();
+        assertThatThrownBy(() -> allocation.get(10, TimeUnit.SECONDS))
+                .hasRootCauseInstanceOf(FlussRuntimeException.class);
+        assertThat(pool.queued()).isEqualTo(0);
+        assertThatThrownBy(pool::nextSegment).isInstanceOf(FlussRuntimeException.class);
+
+        // returning pages still works, but they are not cached anymore
+        pool.returnPage(segment);
+        assertThat(pool.availableMemory()).isEqualTo(64);
+        assertThat(pool.cachedPages()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4})
+    void testStressfulSituation(int perRequestMemorySizeFactor) throws Exception {
+        // this test creates lots of threads that hammer on the memory segment pool
+        int numThreads = 16;
+        int iterations = 50_000;
+        int maxPages = 512;
+        ConcurrentMemorySegmentPool pool =
+                new ConcurrentMemorySegmentPool(
+                        maxPages, 64, 20_000, perRequestMemorySizeFactor * 64L);
+
+        List<Thread> threads = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < numThreads; i++) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                try {
+                                    for (int j = 0; j < iterations; j++) {
+                                        int numPages =
+                                                RandomUtils.nextBoolean()
+                                                        ? 1
+                                                        : RandomUtils.nextInt(
+                                                                0, maxPages / (numThreads / 2) + 1);
+                                        List<MemorySegment> segments = pool.allocatePages(numPages);
+                                        assertThat(segments).hasSize(numPages);
+                                        pool.returnAll(segments);
+                                    }
+                                } catch (Throwable t) {
+                                    failure.compareAndSet(null, t);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError("A thread failed to allocate or return pages.", failure.get());
+        }
+        assertThat(pool.freePages()).isEqualTo(maxPages);
+        assertThat(pool.cachedPages()).isLessThanOrEqualTo(maxPages);
+        assertThat(pool.queued()).isEqualTo(0);
+    }
+
+    @Test
+    void testCreateServerBufferPool() throws IOException {
+        Configuration conf = new Configuration();
+        conf.set(ConfigOptions.SERVER_BUFFER_MEMORY_SIZE, MemorySize.parse("128kb"));
+        conf.set(ConfigOptions.SERVER_BUFFER_PAGE_SIZE, MemorySize.parse("2kb"));
+        conf.set(ConfigOptions.SERVER_BUFFER_PER_REQUEST_MEMORY_SIZE, MemorySize.parse("2kb"));
+        conf.set(ConfigOptions.SERVER_BUFFER_POOL_WAIT_TIMEOUT, Duration.ofMillis(1000L));
+
+        ConcurrentMemorySegmentPool pool = ConcurrentMemorySegmentPool.createServerBufferPool(conf);
+        assertThat(pool.totalSize()).isEqualTo(128 * 1024);
+        assertThat(pool.pageSize()).isEqualTo(2 * 1024);
+        assertThat(pool.freePages()).isEqualTo(64);
+        assertThat(pool.cachedPages()).isEqualTo(0);
+
+        pool.allocatePages(64);
+        assertThatThrownBy(() -> pool.allocatePages(1))
+                .isInstanceOf(EOFException.class)
+                .hasMessageContaining("1000 ms");
+    }
+
+    private static ConcurrentMemorySegmentPool buildPool(
+            int maxPages, int pageSize, long maxTimeToBlockMs) {
+        return new ConcurrentMemorySegmentPool(maxPages, pageSize, maxTimeToBlockMs, pageSize);
+    }
+
+    private static CompletableFuture<List<MemorySegment>> allocateAsync(
+            ConcurrentMemorySegmentPool pool, int requiredPages) {
+        CompletableFuture<List<MemorySegment>> future = new CompletableFuture<>();
+        Thread thread =
+                new Thread(
+                        () -> {
+                            try {
+                                future.complete(pool.allocatePages(requiredPages));
+                            } catch (Throwable t) {
+                                future.completeExceptionally(t);
+                            }
+                        });
+        thread.start();
+        return future;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.predicate;
+
+import com.alibaba.fluss.row.BinaryString;
+import com.alibaba.fluss.row.GenericRow;
+import com.alibaba.fluss.types.DataTypes;
+import com.alibaba.fluss.types.RowType;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.alibaba.fluss.row.BinaryString.fromString;
+import static com.alibaba.fluss.testutils.DataTestUtils.row;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Tests for {@link Predicate} and {@link PredicateBuilder}. */
+class PredicateTest {
+
+    private static final RowType ROW_TYPE =
+            RowType.of(DataTypes.INT(), DataTypes.STRING(), DataTypes.BYTES());
+
+    private final PredicateBuilder builder = new PredicateBuilder(ROW_TYPE);
+
+    @Test
+    void testComparison() {
+        GenericRow row = row(5, "b", new byte[] {1, (byte) 0xff});
+
+        assertThat(builder.equal(0, 5).test(row)).isTrue();
+        assertThat(builder.notEqual(0, 5).test(row)).isFalse();
+        assertThat(builder.lessThan(0, 6).test(row)).isTrue();
+        assertThat(builder.lessOrEqual(0, 5).test(row)).isTrue();
+        assertThat(builder.greaterThan(0, 5).test(row)).isFalse();
+        assertThat(builder.greaterOrEqual(0, 5).test(row)).isTrue();
+
+        assertThat(builder.greaterThan(1, fromString("a")).test(row)).isTrue();
+        assertThat(builder.lessThan(1, fromString("a")).test(row)).isFalse();
+
+        // bytes are compared as unsigned bytes
+        assertThat(builder.greaterThan(2, new byte[] {1, 0x7f}).test(row)).isTrue();
+        assertThat(builder.equal(2, new byte[] {1, (byte) 0xff}).test(row)).isTrue();
+    }
+
+    @Test
+    void testNullValues() {
+        GenericRow row = row(null, "a", null);
+
+        assertThat(builder.isNull(0).test(row)).isTrue();
+        assertThat(builder.isNotNull(0).test(row)).isFalse();
+        assertThat(builder.isNotNull(1).test(row)).isTrue();
+        // null never satisfies comparisons
+        assertThat(builder.equal(0, 1).test(row)).isFalse();
+        assertThat(builder.notEqual(0, 1).test(row)).isFalse();
+        assertThat(builder.notIn(0, Arrays.asList(1, 2)).test(row)).isFalse();
+    }
+
+    @Test
+    void testInAndNotIn() {
+        GenericRow row = row(3, "c", null);
+
+        assertThat(builder.in(0, Arrays.asList(1, 3)).test(row)).isTrue();
+        assertThat(builder.in(0, Arrays.asList(1, 2)).test(row)).isFalse();
+        assertThat(builder.notIn(0, Arrays.asList(1, 2)).test(row)).isTrue();
+        assertThat(builder.in(1, Arrays.asList(fromString("a"), fromString("c"))).test(row))
+                .isTrue();
+    }
+
+    @Test
+    void testCompound() {
+        GenericRow row = row(3, "c", null);
+        Predicate a = builder.equal(0, 3);
+        Predicate b = builder.equal(1, fromString("d"));
+
+        assertThat(PredicateBuilder.and(a, b).test(row)).isFalse();
+        assertThat(PredicateBuilder.or(a, b).test(row)).isTrue();
+        // a single child is returned as is
+        assertThat(PredicateBuilder.and(a)).isEqualTo(a);
+        assertThat(PredicateBuilder.referencedFields(PredicateBuilder.or(b, a)))
+                .isEqualTo(new int[] {0, 1});
+    }
+
+    @Test
+    void testRemapFields() {
+        Predicate predicate =
+                PredicateBuilder.and(
+                        builder.equal(0, 3), builder.equal(1, BinaryString.fromString("c")));
+        // the row only contains the fields (1, 0)
+        Predicate remapped = predicate.remapFields(new int[] {1, 0, -1});
+
+        assertThat(remapped.test(row("c", 3))).isTrue();
+        assertThat(remapped.test(row("c", 4))).isFalse();
+    }
+
+    @Test
+    void testStatistics() {
+        // field 0 in [3, 7] with 1 null of 10 rows, field 1 is all null, field 2 is unknown
+        GenericRow min = row(3, null, null);
+        GenericRow max = row(7, null, null);
+        Long[] nullCounts = new Long[] {1L, 10L, null};
+
+        assertThat(builder.equal(0, 5).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.equal(0, 8).test(10, min, max, nullCounts)).isFalse();
+        assertThat(builder.notEqual(0, 5).test(10, min, max, nullCounts)).isTrue();
+        // all the non-null values are 3
+        assertThat(builder.notEqual(0, 3).test(10, min, min, nullCounts)).isFalse();
+        assertThat(builder.notIn(0, Arrays.asList(3, 4)).test(10, min, min, nullCounts)).isFalse();
+        assertThat(builder.lessThan(0, 3).test(10, min, max, nullCounts)).isFalse();
+        assertThat(builder.lessOrEqual(0, 3).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.greaterThan(0, 7).test(10, min, max, nullCounts)).isFalse();
+        assertThat(builder.greaterOrEqual(0, 7).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.in(0, Arrays.asList(1, 8)).test(10, min, max, nullCounts)).isFalse();
+        assertThat(builder.in(0, Arrays.asList(1, 4)).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.notIn(0, Arrays.asList(3, 4)).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.isNull(0).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.isNull(0).test(10, min, max, new Long[] {0L, 10L, null})).isFalse();
+
+        // all the values of field 1 are null
+        assertThat(builder.isNotNull(1).test(10, min, max, nullCounts)).isFalse();
+        assertThat(builder.equal(1, fromString("a")).test(10, min, max, nullCounts)).isFalse();
+
+        // the statistics of field 2 are unknown
+        assertThat(builder.equal(2, new byte[] {1}).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.isNull(2).test(10, min, max, nullCounts)).isTrue();
+        assertThat(builder.isNotNull(2).test(10, min, max, nullCounts)).isTrue();
+
+        Predicate unmatched = builder.greaterThan(0, 7);
+        Predicate unknown = builder.isNotNull(2);
+        assertThat(PredicateBuilder.and(unmatched, unknown).test(10, min, max, nullCounts))
+                .isFalse();
+        assertThat(PredicateBuilder.or(unmatched, unknown).test(10, min, max, nullCounts)).isTrue();
+    }
+
+    @Test
+    void testInvalidPredicate() {
+        assertThatThrownBy(() -> builder.equal(3, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.leaf(LeafFunction.EQUAL, 0, Arrays.asList(1, 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
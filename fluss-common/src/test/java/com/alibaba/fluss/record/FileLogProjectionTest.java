@@ -18,8 +18,16 @@
 package com.alibaba.fluss.record;
 
 import com.alibaba.fluss.exception.InvalidColumnProjectionException;
+import com.alibaba.fluss.memory.ManagedPagedOutputView;
+import com.alibaba.fluss.memory.TestingMemorySegmentPool;
 import com.alibaba.fluss.metadata.LogFormat;
+import com.alibaba.fluss.predicate.PredicateBuilder;
+import com.alibaba.fluss.row.BinaryString;
 import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.row.arrow.ArrowWriter;
+import com.alibaba.fluss.row.arrow.ArrowWriterPool;
+import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.BufferAllocator;
+import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.RootAllocator;
 import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.CloseableIterator;
 
@@ -40,6 +48,7 @@ import static com.alibaba.fluss.compression.ArrowCompressionInfo.DEFAULT_COMPRES
 import static com.alibaba.fluss.record.LogRecordReadContext.createArrowReadContext;
 import static com.alibaba.fluss.record.TestData.DEFAULT_SCHEMA_ID;
 import static com.alibaba.fluss.testutils.DataTestUtils.createRecordsWithoutBaseLogOffset;
+import static com.alibaba.fluss.testutils.DataTestUtils.row;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
@@ -218,6 +227,258 @@ class FileLogProjectionTest {
         assertThat(hasFull).isTrue();
     }
 
+    @Test
+    void testProjectWithFilter() throws Exception {
+        FileLogRecords fileLogRecords =
+                createFileLogRecords(
+                        TestData.DATA1_ROW_TYPE,
+                        TestData.DATA1,
+                        TestData.DATA1,
+                        TestData.ANOTHER_DATA1);
+        PredicateBuilder builder = new PredicateBuilder(TestData.DATA1_ROW_TYPE);
+        FileLogProjection projection = new FileLogProjection();
+        projection.setCurrentProjection(
+                1L, TestData.DATA1_ROW_TYPE, DEFAULT_COMPRESSION, new int[] {0});
+
+        // only the last batch contains "c1", the first two batches are merged into an empty batch
+        projection.setCurrentFilter(builder.equal(1, BinaryString.fromString("c1")));
+        List<LogRecordBatch> batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0).getRecordCount()).isEqualTo(0);
+        assertThat(batches.get(0).baseLogOffset()).isEqualTo(0L);
+        assertThat(batches.get(0).lastLogOffset()).isEqualTo(19L);
+        assertThat(batches.get(0).isValid()).isTrue();
+        assertThat(batches.get(1).getRecordCount()).isEqualTo(10);
+        assertThat(batches.get(1).baseLogOffset()).isEqualTo(20L);
+
+        // no batch satisfies the filter, all the batches are merged into an empty batch
+        projection.setCurrentFilter(builder.greaterThan(0, 10));
+        batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0).getRecordCount()).isEqualTo(0);
+        assertThat(batches.get(0).baseLogOffset()).isEqualTo(0L);
+        assertThat(batches.get(0).lastLogOffset()).isEqualTo(29L);
+        assertThat(batches.get(0).isValid()).isTrue();
+
+        // remove the filter
+        projection.setCurrentFilter(null);
+        batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        assertThat(batches).hasSize(3);
+    }
+
+    @Test
+    void testProjectWithStatistics() throws Exception {
+        FileLogRecords fileLogRecords = FileLogRecords.open(new File(tempDir, "test.tmp"));
+        fileLogRecords.append(createRecordsWithStatistics(0L, TestData.DATA1));
+        fileLogRecords.append(createRecordsWithStatistics(10L, TestData.DATA1));
+        fileLogRecords.append(createRecordsWithStatistics(20L, TestData.ANOTHER_DATA1));
+        fileLogRecords.flush();
+
+        // the statistics can be read from the file without loading the records
+        LogRecordBatchStatistics statistics =
+                fileLogRecords
+                        .batches()
+                        .iterator()
+                        .next()
+                        .getStatistics(TestData.DATA1_ROW_TYPE)
+                        .get();
+        assertThat(statistics.getMinValues().getInt(0)).isEqualTo(1);
+        assertThat(statistics.getMaxValues().getInt(0)).isEqualTo(10);
+        assertThat(statistics.getMaxValues().getString(1).toString()).isEqualTo("j");
+
+        PredicateBuilder builder = new PredicateBuilder(TestData.DATA1_ROW_TYPE);
+        FileLogProjection projection = new FileLogProjection();
+        projection.setCurrentProjection(
+                1L, TestData.DATA1_ROW_TYPE, DEFAULT_COMPRESSION, new int[] {0, 1});
+        // the first two batches are dropped by statistics as the max value of b is "j"
+        projection.setCurrentFilter(builder.greaterThan(1, BinaryString.fromString("j")));
+        List<LogRecordBatch> batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        assertThat(batches).hasSize(2);
+        // the empty batch of the dropped batches doesn't contain the statistics either
+        assertThat(batches.get(0).getRecordCount()).isEqualTo(0);
+        assertThat(batches.get(0).lastLogOffset()).isEqualTo(19L);
+        assertThat(((DefaultLogRecordBatch) batches.get(0)).hasStatistics()).isFalse();
+        batches.get(0).ensureValid();
+        // the projected batch doesn't contain the statistics
+        LogRecordBatch projected = batches.get(1);
+        assertThat(projected.getRecordCount()).isEqualTo(10);
+        assertThat(projected.getStatistics(TestData.DATA1_ROW_TYPE)).isEmpty();
+        List<Object[]> results = new ArrayList<>();
+        try (LogRecordReadContext context =
+                        createArrowReadContext(TestData.DATA1_ROW_TYPE, DEFAULT_SCHEMA_ID);
+                CloseableIterator<LogRecord> records = projected.records(context)) {
+            while (records.hasNext()) {
+                InternalRow row = records.next().getRow();
+                results.add(new Object[] {row.getInt(0), row.getString(1).toString()});
+            }
+        }
+        assertEquals(results, TestData.ANOTHER_DATA1);
+    }
+
+    @Test
+    void testProjectColumnsOfBatchesWithStatistics() throws Exception {
+        FileLogRecords fileLogRecords = FileLogRecords.open(new File(tempDir, "test.tmp"));
+        fileLogRecords.append(createRecordsWithStatistics(0L, TestData.DATA1));
+        fileLogRecords.append(createRecordsWithStatistics(10L, TestData.ANOTHER_DATA1));
+        fileLogRecords.flush();
+
+        FileLogProjection projection = new FileLogProjection();
+        projection.setCurrentProjection(
+                1L, TestData.DATA1_ROW_TYPE, DEFAULT_COMPRESSION, new int[] {1});
+        List<LogRecordBatch> batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        assertThat(batches).hasSize(2);
+
+        // the statistics trailer is dropped with the flag of the statistics, so the projected
+        // batches are read without the statistics
+        RowType projectedType = TestData.DATA1_ROW_TYPE.project(new int[] {1});
+        List<Object[]> results = new ArrayList<>();
+        for (LogRecordBatch batch : batches) {
+            assertThat(((DefaultLogRecordBatch) batch).hasStatistics()).isFalse();
+            try (LogRecordReadContext context =
+                            createArrowReadContext(projectedType, DEFAULT_SCHEMA_ID);
+                    CloseableIterator<LogRecord> records = batch.records(context)) {
+                while (records.hasNext()) {
+                    results.add(new Object[] {records.next().getRow().getString(0).toString()});
+                }
+            }
+        }
+        List<Object[]> expected = new ArrayList<>();
+        for (Object[] values : TestData.DATA1) {
+            expected.add(new Object[] {values[1]});
+        }
+        for (Object[] values : TestData.ANOTHER_DATA1) {
+            expected.add(new Object[] {values[1]});
+        }
+        assertEquals(results, expected);
+    }
+
+    @Test
+    void testProjectEmptyBatches() throws Exception {
+        FileLogRecords fileLogRecords = FileLogRecords.open(new File(tempDir, "test.tmp"));
+        fileLogRecords.append(createRecordsWithStatistics(0L, TestData.DATA1));
+        // the empty batches are appended when the kv batch doesn't generate any cdc log
+        fileLogRecords.append(createEmptyRecords(10L));
+        fileLogRecords.append(createEmptyRecords(11L));
+        fileLogRecords.append(createRecordsWithStatistics(12L, TestData.DATA1));
+        fileLogRecords.append(createEmptyRecords(22L));
+        fileLogRecords.flush();
+
+        FileLogProjection projection = new FileLogProjection();
+        projection.setCurrentProjection(
+                1L, TestData.DATA1_ROW_TYPE, DEFAULT_COMPRESSION, new int[] {0});
+        List<LogRecordBatch> batches =
+                toBatches(
+                        projection.project(
+                                fileLogRecords.channel(),
+                                0,
+                                fileLogRecords.sizeInBytes(),
+                                Integer.MAX_VALUE));
+        // the consecutive empty batches are kept as one empty batch, so that the next fetch
+        // offset moves past them
+        assertThat(batches).hasSize(4);
+        assertThat(batches.get(0).getRecordCount()).isEqualTo(10);
+        assertThat(batches.get(1).getRecordCount()).isEqualTo(0);
+        assertThat(batches.get(1).baseLogOffset()).isEqualTo(10L);
+        assertThat(batches.get(1).nextLogOffset()).isEqualTo(12L);
+        assertThat(batches.get(2).getRecordCount()).isEqualTo(10);
+        assertThat(batches.get(2).baseLogOffset()).isEqualTo(12L);
+        assertThat(batches.get(3).getRecordCount()).isEqualTo(0);
+        assertThat(batches.get(3).baseLogOffset()).isEqualTo(22L);
+        assertThat(batches.get(3).nextLogOffset()).isEqualTo(23L);
+        assertThat(batches.get(1).isValid()).isTrue();
+        assertThat(batches.get(3).isValid()).isTrue();
+    }
+
+    private static MemoryLogRecords createEmptyRecords(long baseLogOffset) throws Exception {
+        try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+                ArrowWriterPool provider = new ArrowWriterPool(allocator)) {
+            ArrowWriter writer =
+                    provider.getOrCreateWriter(
+                            1L,
+                            DEFAULT_SCHEMA_ID,
+                            Integer.MAX_VALUE,
+                            TestData.DATA1_ROW_TYPE,
+                            DEFAULT_COMPRESSION);
+            MemoryLogRecordsArrowBuilder builder =
+                    MemoryLogRecordsArrowBuilder.builder(
+                            DEFAULT_SCHEMA_ID,
+                            writer,
+                            new ManagedPagedOutputView(new TestingMemorySegmentPool(10 * 1024)),
+                            false);
+            builder.close();
+            MemoryLogRecords records = MemoryLogRecords.pointToBytesView(builder.build());
+            ((DefaultLogRecordBatch) records.batches().iterator().next())
+                    .setBaseLogOffset(baseLogOffset);
+            return records;
+        }
+    }
+
+    private static MemoryLogRecords createRecordsWithStatistics(
+            long baseLogOffset, List<Object[]> data) throws Exception {
+        try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+                ArrowWriterPool provider = new ArrowWriterPool(allocator)) {
+            ArrowWriter writer =
+                    provider.getOrCreateWriter(
+                            1L,
+                            DEFAULT_SCHEMA_ID,
+                            Integer.MAX_VALUE,
+                            TestData.DATA1_ROW_TYPE,
+                            DEFAULT_COMPRESSION);
+            MemoryLogRecordsArrowBuilder builder =
+                    MemoryLogRecordsArrowBuilder.builder(
+                            DEFAULT_SCHEMA_ID,
+                            writer,
+                            new ManagedPagedOutputView(new TestingMemorySegmentPool(10 * 1024)),
+                            true,
+                            new LogRecordBatchStatisticsCollector(
+                                    TestData.DATA1_ROW_TYPE, new int[] {0, 1}));
+            for (Object[] values : data) {
+                builder.append(ChangeType.APPEND_ONLY, row(values));
+            }
+            builder.close();
+            MemoryLogRecords records = MemoryLogRecords.pointToBytesView(builder.build());
+            ((DefaultLogRecordBatch) records.batches().iterator().next())
+                    .setBaseLogOffset(baseLogOffset);
+            return records;
+        }
+    }
+
+    private static List<LogRecordBatch> toBatches(LogRecords records) {
+        List<LogRecordBatch> batches = new ArrayList<>();
+        records.batches().forEach(batches::add);
+        return batches;
+    }
+
     @SafeVarargs
     private final FileLogRecords createFileLogRecords(RowType rowType, List<Object[]>... inputs)
             throws Exception {
@@ -24,6 +24,7 @@ import com.alibaba.fluss.config.Configuration;
 import com.alibaba.fluss.config.MemorySize;
 import com.alibaba.fluss.memory.ManagedPagedOutputView;
 import com.alibaba.fluss.memory.TestingMemorySegmentPool;
+import com.alibaba.fluss.predicate.PredicateBuilder;
 import com.alibaba.fluss.row.InternalRow;
 import com.alibaba.fluss.row.arrow.ArrowWriter;
 import com.alibaba.fluss.row.arrow.ArrowWriterPool;
@@ -52,6 +53,7 @@ import static com.alibaba.fluss.compression.ArrowCompressionInfo.NO_COMPRESSION;
 import static com.alibaba.fluss.record.TestData.DATA1;
 import static com.alibaba.fluss.record.TestData.DATA1_ROW_TYPE;
 import static com.alibaba.fluss.record.TestData.DEFAULT_SCHEMA_ID;
+import static com.alibaba.fluss.row.BinaryString.fromString;
 import static com.alibaba.fluss.row.arrow.ArrowWriter.BUFFER_USAGE_RATIO;
 import static com.alibaba.fluss.testutils.DataTestUtils.assertLogRecordsEquals;
 import static com.alibaba.fluss.testutils.DataTestUtils.row;
@@ -336,6 +338,93 @@ public class MemoryLogRecordsArrowBuilderTest {
         assertThat(recordBatch.batchSequence()).isEqualTo(1);
     }
 
+    @Test
+    void testStatistics() throws Exception {
+        ArrowWriter writer =
+                provider.getOrCreateWriter(
+                        1L, DEFAULT_SCHEMA_ID, 1024, DATA1_ROW_TYPE, DEFAULT_COMPRESSION);
+        MemoryLogRecordsArrowBuilder builder =
+                MemoryLogRecordsArrowBuilder.builder(
+                        DEFAULT_SCHEMA_ID,
+                        writer,
+                        new ManagedPagedOutputView(new TestingMemorySegmentPool(1024)),
+                        false,
+                        new LogRecordBatchStatisticsCollector(DATA1_ROW_TYPE, new int[] {0, 1}));
+        List<Object[]> data =
+                Arrays.asList(new Object[] {3, "c"}, new Object[] {1, null}, new Object[] {7, "x"});
+        List<ChangeType> changeTypes =
+                Arrays.asList(ChangeType.INSERT, ChangeType.DELETE, ChangeType.UPDATE_AFTER);
+        for (int i = 0; i < data.size(); i++) {
+            builder.append(changeTypes.get(i), row(data.get(i)));
+        }
+        builder.close();
+        MemoryLogRecords records = MemoryLogRecords.pointToBytesView(builder.build());
+
+        // the records can be read as usual, and the checksum covers the statistics
+        LogRecordBatch batch = records.batches().iterator().next();
+        assertThat(batch.isValid()).isTrue();
+        try (LogRecordReadContext readContext =
+                        LogRecordReadContext.createArrowReadContext(
+                                DATA1_ROW_TYPE, DEFAULT_SCHEMA_ID);
+                CloseableIterator<LogRecord> iterator = batch.records(readContext)) {
+            for (int i = 0; i < data.size(); i++) {
+                LogRecord record = iterator.next();
+                assertThat(record.getChangeType()).isEqualTo(changeTypes.get(i));
+                assertThat(record.getRow().getInt(0)).isEqualTo(data.get(i)[0]);
+            }
+            assertThat(iterator.hasNext()).isFalse();
+        }
+
+        LogRecordBatchStatistics statistics = batch.getStatistics(DATA1_ROW_TYPE).get();
+        assertThat(statistics.getRowCount()).isEqualTo(3);
+        assertThat(statistics.getColumnIndexes()).isEqualTo(new int[] {0, 1});
+        assertThat(statistics.getMinValues().getInt(0)).isEqualTo(1);
+        assertThat(statistics.getMaxValues().getInt(0)).isEqualTo(7);
+        assertThat(statistics.getMinValues().getString(1).toString()).isEqualTo("c");
+        assertThat(statistics.getMaxValues().getString(1).toString()).isEqualTo("x");
+        assertThat(statistics.getNullCounts()).isEqualTo(new Long[] {0L, 1L});
+
+        PredicateBuilder predicateBuilder = new PredicateBuilder(DATA1_ROW_TYPE);
+        assertThat(statistics.mayMatch(predicateBuilder.greaterThan(0, 7))).isFalse();
+        assertThat(statistics.mayMatch(predicateBuilder.equal(0, 5))).isTrue();
+        assertThat(statistics.mayMatch(predicateBuilder.lessThan(1, fromString("c")))).isFalse();
+        assertThat(statistics.mayMatch(predicateBuilder.isNull(1))).isTrue();
+    }
+
+    @Test
+    void testStatisticsWithLongValues() throws Exception {
+        ArrowWriter writer =
+                provider.getOrCreateWriter(
+                        1L, DEFAULT_SCHEMA_ID, 1024, DATA1_ROW_TYPE, DEFAULT_COMPRESSION);
+        MemoryLogRecordsArrowBuilder builder =
+                MemoryLogRecordsArrowBuilder.builder(
+                        DEFAULT_SCHEMA_ID,
+                        writer,
+                        new ManagedPagedOutputView(new TestingMemorySegmentPool(1024)),
+                        true,
+                        new LogRecordBatchStatisticsCollector(DATA1_ROW_TYPE, new int[] {1}));
+        builder.append(ChangeType.APPEND_ONLY, row(1, "a"));
+        builder.append(ChangeType.APPEND_ONLY, row(2, StringUtils.repeat("b", 200)));
+        builder.close();
+        MemoryLogRecords records = MemoryLogRecords.pointToBytesView(builder.build());
+
+        // the min/max values are unknown as the string is too long
+        LogRecordBatch batch = records.batches().iterator().next();
+        LogRecordBatchStatistics statistics = batch.getStatistics(DATA1_ROW_TYPE).get();
+        assertThat(statistics.getMinValues().isNullAt(1)).isTrue();
+        assertThat(statistics.getMaxValues().isNullAt(1)).isTrue();
+        assertThat(statistics.getNullCounts()).isEqualTo(new Long[] {null, 0L});
+        assertThat(
+                        statistics.mayMatch(
+                                new PredicateBuilder(DATA1_ROW_TYPE).equal(1, fromString("z"))))
+                .isTrue();
+        assertLogRecordsEquals(
+                DATA1_ROW_TYPE,
+                records,
+                Arrays.asList(
+                        new Object[] {1, "a"}, new Object[] {2, StringUtils.repeat("b", 200)}));
+    }
+
     private static List<ArrowCompressionInfo> compressionInfos() {
         return Arrays.asList(
                 new ArrowCompressionInfo(ArrowCompressionType.LZ4_FRAME, -1),
@@ -18,10 +18,18 @@
 package com.alibaba.fluss.fs.hdfs;
 
 import com.alibaba.fluss.fs.FSDataInputStream;
+import com.alibaba.fluss.fs.FileRange;
+import com.alibaba.fluss.fs.utils.VectoredReadUtils;
+import com.alibaba.fluss.fs.utils.VectoredReadUtils.CombinedFileRange;
+import com.alibaba.fluss.utils.function.SupplierWithException;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 
@@ -55,13 +63,40 @@ public final class HadoopDataInputStream extends FSDataInputStream {
     /** The internal stream. */
     private final org.apache.hadoop.fs.FSDataInputStream fsDataInputStream;
 
+    /** Opens another stream of the same file to read a range of a vectored read in parallel. */
+    @Nullable
+    private final SupplierWithException<org.apache.hadoop.fs.FSDataInputStream, IOException>
+            rangeStreamOpener;
+
+    /** The executor to read the ranges of a vectored read in parallel. */
+    @Nullable private final Executor vectoredReadExecutor;
+
     /**
      * Creates a new data input stream from the given Hadoop input stream.
      *
      * @param fsDataInputStream The Hadoop input stream
      */
     public HadoopDataInputStream(org.apache.hadoop.fs.FSDataInputStream fsDataInputStream) {
+        this(fsDataInputStream, null, null);
+    }
+
+    /**
+     * Creates a new data input stream from the given Hadoop input stream, which reads the ranges of
+     * vectored reads in parallel, each by a positioned read of its own stream.
+     *
+     * @param fsDataInputStream The Hadoop input stream
+     * @param rangeStreamOpener Opens another Hadoop input stream of the same file
+     * @param vectoredReadExecutor The executor to read the ranges in parallel
+     */
+    public HadoopDataInputStream(
+            org.apache.hadoop.fs.FSDataInputStream fsDataInputStream,
+            @Nullable
+                    SupplierWithException<org.apache.hadoop.fs.FSDataInputStream, IOException>
+                            rangeStreamOpener,
+            @Nullable Executor vectoredReadExecutor) {
         this.fsDataInputStream = checkNotNull(fsDataInputStream);
+        this.rangeStreamOpener = rangeStreamOpener;
+        this.vectoredReadExecutor = vectoredReadExecutor;
     }
 
     @Override
@@ -99,6 +134,43 @@ public final class HadoopDataInputStream extends FSDataInputStream {
         return fsDataInputStream.read(buffer, offset, length);
     }
 
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+        // the positioned read of Hadoop, which is a ranged GET request for object stores
+        fsDataInputStream.readFully(position, buffer, offset, length);
+    }
+
+    @Override
+    public void readVectored(List<FileRange> ranges) throws IOException {
+        List<CombinedFileRange> combinedRanges =
+                VectoredReadUtils.mergeRanges(
+                        ranges, VectoredReadUtils.MAX_MERGE_GAP, VectoredReadUtils.MAX_MERGED_SIZE);
+        if (rangeStreamOpener == null
+                || vectoredReadExecutor == null
+                || combinedRanges.size() < 2) {
+            super.readVectored(ranges);
+            return;
+        }
+        for (CombinedFileRange combinedRange : combinedRanges) {
+            try {
+                vectoredReadExecutor.execute(() -> readCombinedRange(combinedRange));
+            } catch (RejectedExecutionException e) {
+                // the queue of the executor is full, read the range in the calling thread
+                readCombinedRange(combinedRange);
+            }
+        }
+    }
+
+    private void readCombinedRange(CombinedFileRange combinedRange) {
+        try (org.apache.hadoop.fs.FSDataInputStream rangeStream = rangeStreamOpener.get()) {
+            byte[] bytes = new byte[combinedRange.getLength()];
+            rangeStream.readFully(combinedRange.getOffset(), bytes, 0, bytes.length);
+            combinedRange.complete(bytes);
+        } catch (Throwable t) {
+            combinedRange.completeExceptionally(t);
+        }
+    }
+
     @Override
     public int available() throws IOException {
         return fsDataInputStream.available();
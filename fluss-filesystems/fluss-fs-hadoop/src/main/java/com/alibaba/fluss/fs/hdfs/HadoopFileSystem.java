@@ -21,12 +21,16 @@ import com.alibaba.fluss.fs.FileStatus;
 import com.alibaba.fluss.fs.FileSystem;
 import com.alibaba.fluss.fs.FsPath;
 import com.alibaba.fluss.fs.token.ObtainedSecurityToken;
+import com.alibaba.fluss.utils.concurrent.ExecutorThreadFactory;
 
 import org.apache.hadoop.fs.Path;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 
@@ -43,6 +47,15 @@ public class HadoopFileSystem extends FileSystem {
             new ObtainedSecurityToken(
                     HadoopFsPlugin.SCHEME, new byte[0], null, Collections.emptyMap());
 
+    /** The maximum number of ranges of vectored reads which are read in parallel. */
+    private static final int VECTORED_READ_THREADS = 16;
+
+    /**
+     * The maximum number of ranges of vectored reads waiting to be read. The ranges beyond it are
+     * read by the threads issuing the vectored reads.
+     */
+    private static final int VECTORED_READ_QUEUE_CAPACITY = 256;
+
     /** The wrapped Hadoop File System. */
     private final org.apache.hadoop.fs.FileSystem fs;
 
@@ -80,7 +93,8 @@ public class HadoopFileSystem extends FileSystem {
     public HadoopDataInputStream open(final FsPath f) throws IOException {
         final Path path = toHadoopPath(f);
         final org.apache.hadoop.fs.FSDataInputStream fdis = fs.open(path);
-        return new HadoopDataInputStream(fdis);
+        return new HadoopDataInputStream(
+                fdis, () -> fs.open(path), VectoredReadExecutorHolder.EXECUTOR);
     }
 
     @Override
@@ -131,4 +145,28 @@ public class HadoopFileSystem extends FileSystem {
     public static Path toHadoopPath(FsPath path) {
         return new Path(path.toUri());
     }
+
+    /**
+     * Holds the executor to read the ranges of vectored reads in parallel. It's shared by all the
+     * Hadoop file systems of the plugin and created when the first stream is opened. Its threads
+     * are only started by vectored reads, are daemon threads and terminate when idle, so the
+     * executor doesn't need to be shut down.
+     */
+    private static final class VectoredReadExecutorHolder {
+
+        private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ThreadPoolExecutor createExecutor() {
+            ThreadPoolExecutor executor =
+                    new ThreadPoolExecutor(
+                            VECTORED_READ_THREADS,
+                            VECTORED_READ_THREADS,
+                            60L,
+                            TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(VECTORED_READ_QUEUE_CAPACITY),
+                            new ExecutorThreadFactory("fluss-hadoop-fs-vectored-read"));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
 }
@@ -17,13 +17,30 @@
 
 package com.alibaba.fluss.fs.hdfs;
 
+import com.alibaba.fluss.fs.FSDataOutputStream;
+import com.alibaba.fluss.fs.FileRange;
+import com.alibaba.fluss.fs.FileSystem.WriteMode;
+import com.alibaba.fluss.fs.FsPath;
+import com.alibaba.fluss.fs.local.LocalFileSystem;
+
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.RawLocalFileSystem;
 import org.apache.hadoop.fs.Seekable;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.alibaba.fluss.utils.Preconditions.checkArgument;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,6 +55,8 @@ import static org.mockito.Mockito.verify;
 /** Tests for the {@link HadoopDataInputStream}. */
 class HadoopDataInputStreamTest {
 
+    @TempDir private java.nio.file.Path tempDir;
+
     private FSDataInputStream verifyInputStream;
     private HadoopDataInputStream testInputStream;
 
@@ -69,6 +88,123 @@ class HadoopDataInputStreamTest {
                 .isInstanceOf(Exception.class);
     }
 
+    @Test
+    void testReadVectored() throws Exception {
+        CountingLocalFileSystem fs = new CountingLocalFileSystem();
+        byte[] data = writeRandomFile(fs, 3 * 1024 * 1024);
+
+        List<FileRange> ranges =
+                Arrays.asList(
+                        FileRange.of(2 * 1024 * 1024, 5000),
+                        FileRange.of(0, 100),
+                        // merged with the previous range as the gap is small
+                        FileRange.of(150, 200),
+                        FileRange.of(100_000, 100),
+                        FileRange.of(data.length - 10, 10));
+        try (HadoopDataInputStream in = fs.open(filePath())) {
+            in.readVectored(ranges);
+            for (FileRange range : ranges) {
+                assertRangeData(range, data);
+            }
+            // each of the merged ranges is read by a positioned read of its own stream
+            assertThat(fs.opened.get()).isEqualTo(1 + 4);
+        }
+    }
+
+    @Test
+    void testReadVectoredInCallingThreadWhenExecutorIsSaturated() throws Exception {
+        byte[] data = writeRandomFile(new CountingLocalFileSystem(), 1024 * 1024);
+        org.apache.hadoop.fs.FileSystem fs =
+                CountingLocalFileSystem.createLocalFileSystem(new AtomicInteger());
+        Path path = HadoopFileSystem.toHadoopPath(filePath());
+
+        List<FileRange> ranges = Arrays.asList(FileRange.of(0, 100), FileRange.of(500_000, 1000));
+        Thread testThread = Thread.currentThread();
+        try (HadoopDataInputStream in =
+                new HadoopDataInputStream(
+                        fs.open(path),
+                        () -> {
+                            assertThat(Thread.currentThread()).isSameAs(testThread);
+                            return fs.open(path);
+                        },
+                        command -> {
+                            throw new RejectedExecutionException();
+                        })) {
+            in.readVectored(ranges);
+            for (FileRange range : ranges) {
+                assertThat(range.getData()).isDone();
+                assertRangeData(range, data);
+            }
+        }
+    }
+
+    @Test
+    void testReadVectoredBeyondEndOfFile() throws Exception {
+        CountingLocalFileSystem fs = new CountingLocalFileSystem();
+        byte[] data = writeRandomFile(fs, 1024 * 1024);
+
+        FileRange validRange = FileRange.of(0, 100);
+        FileRange invalidRange = FileRange.of(data.length - 10, 100);
+        try (HadoopDataInputStream in = fs.open(filePath())) {
+            in.readVectored(Arrays.asList(validRange, invalidRange));
+            assertRangeData(validRange, data);
+            assertThatThrownBy(() -> invalidRange.getData().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(EOFException.class);
+        }
+    }
+
+    private FsPath filePath() {
+        return new FsPath(new FsPath(tempDir.toUri()), "data");
+    }
+
+    private byte[] writeRandomFile(HadoopFileSystem fs, int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        try (FSDataOutputStream out = fs.create(filePath(), WriteMode.OVERWRITE)) {
+            out.write(data);
+        }
+        return data;
+    }
+
+    private static void assertRangeData(FileRange range, byte[] data) throws Exception {
+        int offset = (int) range.getOffset();
+        assertThat(range.getData().get())
+                .isEqualTo(Arrays.copyOfRange(data, offset, offset + range.getLength()));
+    }
+
+    /**
+     * A {@link HadoopFileSystem} of the local file system standing in for an object store, which
+     * counts the opened streams.
+     */
+    private static final class CountingLocalFileSystem extends HadoopFileSystem {
+
+        private final AtomicInteger opened;
+
+        private CountingLocalFileSystem() throws IOException {
+            this(new AtomicInteger());
+        }
+
+        private CountingLocalFileSystem(AtomicInteger opened) throws IOException {
+            super(createLocalFileSystem(opened));
+            this.opened = opened;
+        }
+
+        private static org.apache.hadoop.fs.FileSystem createLocalFileSystem(AtomicInteger opened)
+                throws IOException {
+            org.apache.hadoop.fs.FileSystem fs =
+                    new RawLocalFileSystem() {
+                        @Override
+                        public FSDataInputStream open(Path f, int bufferSize) throws IOException {
+                            opened.incrementAndGet();
+                            return super.open(f, bufferSize);
+                        }
+                    };
+            fs.initialize(LocalFileSystem.getLocalFsURI(), new Configuration());
+            return fs;
+        }
+    }
+
     private void seekAndAssert(long seekPos) throws IOException {
         assertThat(testInputStream.getPos()).isEqualTo(verifyInputStream.getPos());
         long delta = seekPos - testInputStream.getPos();
@@ -26,10 +26,12 @@ import com.alibaba.fluss.flink.source.lookup.FlinkLookupFunction;
 import com.alibaba.fluss.flink.source.lookup.LookupNormalizer;
 import com.alibaba.fluss.flink.utils.FlinkConnectorOptionsUtils;
 import com.alibaba.fluss.flink.utils.FlinkConversions;
+import com.alibaba.fluss.flink.utils.PredicateConverter;
 import com.alibaba.fluss.flink.utils.PushdownUtils;
 import com.alibaba.fluss.flink.utils.PushdownUtils.FieldEqual;
 import com.alibaba.fluss.metadata.MergeEngineType;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.types.RowType;
 
 import org.apache.flink.annotation.VisibleForTesting;
@@ -130,6 +132,9 @@ public class FlinkTableSource
 
     private List<FieldEqual> partitionFilters = Collections.emptyList();
 
+    // filter push down for log table, it's best-effort and the filters are still evaluated by flink
+    @Nullable private Predicate logFilter;
+
     public FlinkTableSource(
             TablePath tablePath,
             Configuration flussConfig,
@@ -270,7 +275,8 @@ public class FlinkTableSource
                         scanPartitionDiscoveryIntervalMs,
                         new RowDataDeserializationSchema(),
                         streaming,
-                        partitionFilters);
+                        partitionFilters,
+                        logFilter);
 
         if (!streaming) {
             // return a bounded source provide to make planner happy,
@@ -365,6 +371,7 @@ public class FlinkTableSource
         source.singleRowFilter = singleRowFilter;
         source.modificationScanType = modificationScanType;
         source.partitionFilters = partitionFilters;
+        source.logFilter = logFilter;
         return source;
     }
 
@@ -432,7 +439,17 @@ public class FlinkTableSource
             fieldEquals = stringifyFieldEquals(fieldEquals);
 
             this.partitionFilters = fieldEquals;
+            if (!hasPrimaryKey()) {
+                logFilter =
+                        new PredicateConverter(tableOutputType)
+                                .convert(remainingFilters, acceptedFilters);
+            }
             return Result.of(acceptedFilters, remainingFilters);
+        } else if (!hasPrimaryKey()) {
+            // the changelog of primary key table can't be filtered by rows,
+            // so only push down filters for log table
+            logFilter = new PredicateConverter(tableOutputType).convert(filters, acceptedFilters);
+            return Result.of(acceptedFilters, filters);
         } else {
             return Result.of(Collections.emptyList(), filters);
         }
@@ -35,6 +35,7 @@ import com.alibaba.fluss.flink.source.split.SnapshotSplit;
 import com.alibaba.fluss.flink.source.split.SourceSplitBase;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.CloseableIterator;
 import com.alibaba.fluss.utils.ExceptionUtils;
@@ -115,6 +116,22 @@ public class FlinkSourceSplitReader implements SplitReader<RecordAndPos, SourceS
             RowType sourceOutputType,
             @Nullable int[] projectedFields,
             FlinkSourceReaderMetrics flinkSourceReaderMetrics) {
+        this(
+                flussConf,
+                tablePath,
+                sourceOutputType,
+                projectedFields,
+                null,
+                flinkSourceReaderMetrics);
+    }
+
+    public FlinkSourceSplitReader(
+            Configuration flussConf,
+            TablePath tablePath,
+            RowType sourceOutputType,
+            @Nullable int[] projectedFields,
+            @Nullable Predicate logFilter,
+            FlinkSourceReaderMetrics flinkSourceReaderMetrics) {
         this.flinkMetricRegistry =
                 new FlinkMetricRegistry(flinkSourceReaderMetrics.getSourceReaderMetricGroup());
         this.connection = ConnectionFactory.createConnection(flussConf, flinkMetricRegistry);
@@ -126,7 +143,8 @@ public class FlinkSourceSplitReader implements SplitReader<RecordAndPos, SourceS
         this.projectedFields = projectedFields;
         this.flinkSourceReaderMetrics = flinkSourceReaderMetrics;
         sanityCheck(table.getTableInfo().getRowType(), projectedFields);
-        this.logScanner = table.newScan().project(projectedFields).createLogScanner();
+        this.logScanner =
+                table.newScan().project(projectedFields).filter(logFilter).createLogScanner();
         this.stoppingOffsets = new HashMap<>();
         this.emptyLogSplits = new HashSet<>();
     }
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.flink.utils;
+
+import com.alibaba.fluss.predicate.LeafFunction;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.predicate.PredicateBuilder;
+import com.alibaba.fluss.row.Decimal;
+
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.LogicalTypeFamily;
+import org.apache.flink.table.types.logical.RowType;
+
+import javax.annotation.Nullable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.getPrecision;
+
+/**
+ * Converts Flink filter expressions into Fluss {@link Predicate}s which can be pushed down to the
+ * log scanner. Expressions that can't be converted are ignored, so the converted predicate may be
+ * weaker than the original filters and the filters must still be evaluated by Flink.
+ */
+public class PredicateConverter {
+
+    private final RowType rowType;
+    private final PredicateBuilder builder;
+
+    public PredicateConverter(RowType rowType) {
+        this.rowType = rowType;
+        this.builder = new PredicateBuilder(FlinkConversions.toFlussRowType(rowType));
+    }
+
+    /**
+     * Converts the given filters into a conjunction of Fluss predicates, the filters can't be
+     * converted are skipped and the converted ones are added into {@code acceptedFilters}. Returns
+     * null if none of the filters can be converted.
+     */
+    @Nullable
+    public Predicate convert(
+            List<ResolvedExpression> filters, List<ResolvedExpression> acceptedFilters) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (ResolvedExpression filter : filters) {
+            Predicate predicate = convert(filter);
+            if (predicate != null) {
+                predicates.add(predicate);
+                acceptedFilters.add(filter);
+            }
+        }
+        return predicates.isEmpty() ? null : PredicateBuilder.and(predicates);
+    }
+
+    /** Converts the expression into a Fluss predicate, returns null if it can't be converted. */
+    @Nullable
+    public Predicate convert(ResolvedExpression expression) {
+        if (!(expression instanceof CallExpression)) {
+            return null;
+        }
+        CallExpression call = (CallExpression) expression;
+        FunctionDefinition function = call.getFunctionDefinition();
+        List<ResolvedExpression> children = call.getResolvedChildren();
+
+        if (function == BuiltInFunctionDefinitions.AND
+                || function == BuiltInFunctionDefinitions.OR) {
+            List<Predicate> predicates = new ArrayList<>(children.size());
+            for (ResolvedExpression child : children) {
+                Predicate predicate = convert(child);
+                if (predicate == null) {
+                    return null;
+                }
+                predicates.add(predicate);
+            }
+            return function == BuiltInFunctionDefinitions.AND
+                    ? PredicateBuilder.and(predicates)
+                    : PredicateBuilder.or(predicates);
+        } else if (function == BuiltInFunctionDefinitions.IS_NULL
+                || function == BuiltInFunctionDefinitions.IS_NOT_NULL) {
+            if (children.size() != 1 || !(children.get(0) instanceof FieldReferenceExpression)) {
+                return null;
+            }
+            int fieldIndex = ((FieldReferenceExpression) children.get(0)).getFieldIndex();
+            return function == BuiltInFunctionDefinitions.IS_NULL
+                    ? builder.isNull(fieldIndex)
+                    : builder.isNotNull(fieldIndex);
+        } else if (function == BuiltInFunctionDefinitions.IN) {
+            if (children.size() < 2 || !(children.get(0) instanceof FieldReferenceExpression)) {
+                return null;
+            }
+            int fieldIndex = ((FieldReferenceExpression) children.get(0)).getFieldIndex();
+            List<Object> literals = new ArrayList<>(children.size() - 1);
+            for (int i = 1; i < children.size(); i++) {
+                Object literal = toLiteral(fieldIndex, children.get(i));
+                if (literal == null) {
+                    return null;
+                }
+                literals.add(literal);
+            }
+            return builder.in(fieldIndex, literals);
+        } else if (children.size() == 2) {
+            return convertBinaryComparison(function, children.get(0), children.get(1));
+        }
+        return null;
+    }
+
+    @Nullable
+    private Predicate convertBinaryComparison(
+            FunctionDefinition function, ResolvedExpression left, ResolvedExpression right) {
+        LeafFunction leafFunction;
+        if (function == BuiltInFunctionDefinitions.EQUALS) {
+            leafFunction = LeafFunction.EQUAL;
+        } else if (function == BuiltInFunctionDefinitions.NOT_EQUALS) {
+            leafFunction = LeafFunction.NOT_EQUAL;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN) {
+            leafFunction = LeafFunction.LESS_THAN;
+        } else if (function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+            leafFunction = LeafFunction.LESS_OR_EQUAL;
+        } else if (function == BuiltInFunctionDefinitions.GREATER_THAN) {
+            leafFunction = LeafFunction.GREATER_THAN;
+        } else if (function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+            leafFunction = LeafFunction.GREATER_OR_EQUAL;
+        } else {
+            return null;
+        }
+
+        if (left instanceof ValueLiteralExpression && right instanceof FieldReferenceExpression) {
+            // normalize "literal op field" into "field op' literal"
+            ResolvedExpression tmp = left;
+            left = right;
+            right = tmp;
+            leafFunction = reverse(leafFunction);
+        }
+        if (!(left instanceof FieldReferenceExpression)) {
+            return null;
+        }
+        int fieldIndex = ((FieldReferenceExpression) left).getFieldIndex();
+        Object literal = toLiteral(fieldIndex, right);
+        if (literal == null) {
+            return null;
+        }
+        return builder.leaf(leafFunction, fieldIndex, Collections.singletonList(literal));
+    }
+
+    /**
+     * Converts the literal expression into the Fluss internal value of the referenced field,
+     * returns null if the literal type doesn't match the field type.
+     */
+    @Nullable
+    private Object toLiteral(int fieldIndex, ResolvedExpression expression) {
+        if (!(expression instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        ValueLiteralExpression literal = (ValueLiteralExpression) expression;
+        LogicalType fieldType = rowType.getTypeAt(fieldIndex);
+        LogicalType literalType = literal.getOutputDataType().getLogicalType();
+        if (fieldType.getTypeRoot() != literalType.getTypeRoot()) {
+            return null;
+        }
+        if (literal.isNull()) {
+            return null;
+        }
+        // the literal will be encoded with the type of the field, it must not lose precision
+        if (fieldType.is(LogicalTypeFamily.TIMESTAMP)
+                && getPrecision(literalType) > getPrecision(fieldType)) {
+            return null;
+        }
+        if (fieldType instanceof DecimalType) {
+            DecimalType decimalType = (DecimalType) fieldType;
+            if (((DecimalType) literalType).getScale() > decimalType.getScale()) {
+                return null;
+            }
+            return literal.getValueAs(BigDecimal.class)
+                    .map(
+                            value ->
+                                    Decimal.fromBigDecimal(
+                                            value,
+                                            decimalType.getPrecision(),
+                                            decimalType.getScale()))
+                    .orElse(null);
+        }
+        return PushdownUtils.toFlussInternalValue(literal);
+    }
+
+    private static LeafFunction reverse(LeafFunction function) {
+        switch (function) {
+            case LESS_THAN:
+                return LeafFunction.GREATER_THAN;
+            case LESS_OR_EQUAL:
+                return LeafFunction.GREATER_OR_EQUAL;
+            case GREATER_THAN:
+                return LeafFunction.LESS_THAN;
+            case GREATER_OR_EQUAL:
+                return LeafFunction.LESS_OR_EQUAL;
+            default:
+                return function;
+        }
+    }
+}
@@ -169,7 +169,7 @@ public class PushdownUtils {
     }
 
     @Nullable
-    private static Object toFlussInternalValue(ValueLiteralExpression valueExp) {
+    static Object toFlussInternalValue(ValueLiteralExpression valueExp) {
         LogicalType type = valueExp.getOutputDataType().getLogicalType();
         Object value;
         switch (type.getTypeRoot()) {
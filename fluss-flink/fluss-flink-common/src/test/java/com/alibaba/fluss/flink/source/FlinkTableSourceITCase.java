@@ -275,6 +275,41 @@ abstract class FlinkTableSourceITCase extends AbstractTestBase {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"ARROW", "INDEXED"})
+    void testAppendTableFilterPushDown(String logFormat) throws Exception {
+        String tableName = "append_table_filter_push_down_" + logFormat;
+        tEnv.executeSql(
+                String.format(
+                        "create table %s (a int, b varchar, c bigint) with"
+                                + " ('connector' = 'fluss', 'table.log.format' = '%s')",
+                        tableName, logFormat));
+        TablePath tablePath = TablePath.of(DEFAULT_DB, tableName);
+        List<InternalRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            rows.add(row(i, "v" + i, i * 100L));
+        }
+        writeRows(conn, tablePath, rows, true);
+
+        // the filter references the field which is not projected
+        String query = "select b from " + tableName + " where c > 500 and a <> 7";
+        // make sure the plan has pushed down the filter into source
+        assertThat(tEnv.explainSql(query))
+                .contains("TableSourceScan(table=[[testcatalog, defaultdb, " + tableName)
+                .contains("filter=[");
+
+        List<String> expected = Arrays.asList("+I[v6]", "+I[v8]", "+I[v9]", "+I[v10]");
+        try (org.apache.flink.util.CloseableIterator<Row> rowIter =
+                tEnv.executeSql(query).collect()) {
+            int expectRecords = expected.size();
+            List<String> actual = new ArrayList<>(expectRecords);
+            for (int i = 0; i < expectRecords; i++) {
+                actual.add(rowIter.next().toString());
+            }
+            assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {"PK_SNAPSHOT", "PK_LOG", "LOG"})
     void testTableProjectPushDown(String mode) throws Exception {
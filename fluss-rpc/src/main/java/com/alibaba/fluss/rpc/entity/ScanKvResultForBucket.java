@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.rpc.entity;
+
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.record.DefaultValueRecordBatch;
+import com.alibaba.fluss.rpc.protocol.ApiError;
+
+import javax.annotation.Nullable;
+
+/** Result of {@link com.alibaba.fluss.rpc.messages.ScanKvRequest} for the table bucket. */
+public class ScanKvResultForBucket extends ResultForBucket {
+
+    /** The id of the scanner to continue the scan, null if there are no more results. */
+    @Nullable private final byte[] scannerId;
+
+    @Nullable private final DefaultValueRecordBatch values;
+
+    public ScanKvResultForBucket(
+            TableBucket tableBucket,
+            @Nullable byte[] scannerId,
+            @Nullable DefaultValueRecordBatch values) {
+        this(tableBucket, ApiError.NONE, scannerId, values);
+    }
+
+    public ScanKvResultForBucket(TableBucket tableBucket, ApiError error) {
+        this(tableBucket, error, null, null);
+    }
+
+    private ScanKvResultForBucket(
+            TableBucket tableBucket,
+            ApiError error,
+            @Nullable byte[] scannerId,
+            @Nullable DefaultValueRecordBatch values) {
+        super(tableBucket, error);
+        this.scannerId = scannerId;
+        this.values = values;
+    }
+
+    @Nullable
+    public byte[] getScannerId() {
+        return scannerId;
+    }
+
+    public boolean hasMoreResults() {
+        return scannerId != null;
+    }
+
+    @Nullable
+    public DefaultValueRecordBatch getValues() {
+        return values;
+    }
+}
@@ -28,10 +28,13 @@ import com.alibaba.fluss.exception.DatabaseNotExistException;
 import com.alibaba.fluss.exception.DuplicateSequenceException;
 import com.alibaba.fluss.exception.FencedLeaderEpochException;
 import com.alibaba.fluss.exception.FencedTieringEpochException;
+import com.alibaba.fluss.exception.FetchSessionIdNotFoundException;
 import com.alibaba.fluss.exception.InvalidColumnProjectionException;
 import com.alibaba.fluss.exception.InvalidConfigException;
 import com.alibaba.fluss.exception.InvalidCoordinatorException;
 import com.alibaba.fluss.exception.InvalidDatabaseException;
+import com.alibaba.fluss.exception.InvalidFetchSessionEpochException;
+import com.alibaba.fluss.exception.InvalidFilterException;
 import com.alibaba.fluss.exception.InvalidPartitionException;
 import com.alibaba.fluss.exception.InvalidReplicationFactorException;
 import com.alibaba.fluss.exception.InvalidRequiredAcksException;
@@ -40,6 +43,7 @@ import com.alibaba.fluss.exception.InvalidTableException;
 import com.alibaba.fluss.exception.InvalidTargetColumnException;
 import com.alibaba.fluss.exception.InvalidTimestampException;
 import com.alibaba.fluss.exception.InvalidUpdateVersionException;
+import com.alibaba.fluss.exception.KvPreWriteBufferFullException;
 import com.alibaba.fluss.exception.KvSnapshotNotExistException;
 import com.alibaba.fluss.exception.KvStorageException;
 import com.alibaba.fluss.exception.LakeStorageNotConfiguredException;
@@ -68,6 +72,7 @@ import com.alibaba.fluss.exception.TableNotPartitionedException;
 import com.alibaba.fluss.exception.TimeoutException;
 import com.alibaba.fluss.exception.TooManyBucketsException;
 import com.alibaba.fluss.exception.TooManyPartitionsException;
+import com.alibaba.fluss.exception.UnknownScannerException;
 import com.alibaba.fluss.exception.UnknownServerException;
 import com.alibaba.fluss.exception.UnknownTableOrBucketException;
 import com.alibaba.fluss.exception.UnknownWriterIdException;
@@ -214,7 +219,22 @@ public enum Errors {
     INVALID_SERVER_RACK_INFO_EXCEPTION(
             52, "The server rack info is invalid.", InvalidServerRackInfoException::new),
     LAKE_SNAPSHOT_NOT_EXIST(
-            53, "The lake snapshot is not exist.", LakeTableSnapshotNotExistException::new);
+            53, "The lake snapshot is not exist.", LakeTableSnapshotNotExistException::new),
+    INVALID_FILTER_EXCEPTION(54, "The requested filter is invalid.", InvalidFilterException::new),
+    KV_PRE_WRITE_BUFFER_FULL_EXCEPTION(
+            55,
+            "The memory of the kv pre-write buffers is exhausted.",
+            KvPreWriteBufferFullException::new),
+    UNKNOWN_SCANNER_EXCEPTION(
+            56,
+            "The kv scanner is unknown, it may be expired or closed.",
+            UnknownScannerException::new),
+    FETCH_SESSION_ID_NOT_FOUND_EXCEPTION(
+            57,
+            "The fetch session is not found, it may be evicted.",
+            FetchSessionIdNotFoundException::new),
+    INVALID_FETCH_SESSION_EPOCH_EXCEPTION(
+            58, "The fetch session epoch is invalid.", InvalidFetchSessionEpochException::new);
 
     private static final Logger LOG = LoggerFactory.getLogger(Errors.class);
 
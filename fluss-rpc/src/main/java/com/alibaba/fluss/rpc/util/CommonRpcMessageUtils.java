@@ -21,16 +21,27 @@ import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.ResolvedPartitionSpec;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.predicate.CompoundPredicate;
+import com.alibaba.fluss.predicate.LeafFunction;
+import com.alibaba.fluss.predicate.LeafPredicate;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.predicate.PredicateBuilder;
+import com.alibaba.fluss.predicate.PredicateVisitor;
 import com.alibaba.fluss.record.LogRecords;
 import com.alibaba.fluss.record.MemoryLogRecords;
 import com.alibaba.fluss.remote.RemoteLogFetchInfo;
 import com.alibaba.fluss.remote.RemoteLogSegment;
+import com.alibaba.fluss.row.InternalRow;
+import com.alibaba.fluss.row.indexed.IndexedRow;
+import com.alibaba.fluss.row.indexed.IndexedRowWriter;
 import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
 import com.alibaba.fluss.rpc.messages.PbAclFilter;
 import com.alibaba.fluss.rpc.messages.PbAclInfo;
 import com.alibaba.fluss.rpc.messages.PbFetchLogRespForBucket;
 import com.alibaba.fluss.rpc.messages.PbKeyValue;
 import com.alibaba.fluss.rpc.messages.PbPartitionSpec;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
+import com.alibaba.fluss.rpc.messages.PbPredicateNode;
 import com.alibaba.fluss.rpc.messages.PbRemoteLogFetchInfo;
 import com.alibaba.fluss.rpc.messages.PbRemoteLogSegment;
 import com.alibaba.fluss.rpc.protocol.ApiError;
@@ -45,10 +56,14 @@ import com.alibaba.fluss.security.acl.Resource;
 import com.alibaba.fluss.security.acl.ResourceFilter;
 import com.alibaba.fluss.security.acl.ResourceType;
 import com.alibaba.fluss.shaded.netty4.io.netty.buffer.ByteBuf;
+import com.alibaba.fluss.types.DataType;
+import com.alibaba.fluss.types.RowType;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -230,4 +245,97 @@ public class CommonRpcMessageUtils {
         }
         return new ResolvedPartitionSpec(partitionKeys, partitionValues);
     }
+
+    /** Converts the given {@link Predicate} to the rpc message {@link PbPredicate}. */
+    public static PbPredicate toPbPredicate(Predicate predicate) {
+        PbPredicate pbPredicate = new PbPredicate();
+        predicate.visit(
+                new PredicateVisitor<Void>() {
+                    @Override
+                    public Void visit(LeafPredicate leaf) {
+                        PbPredicateNode node =
+                                pbPredicate
+                                        .addNode()
+                                        .setLeafFunction(leaf.function().ordinal())
+                                        .setFieldIndex(leaf.fieldIndex());
+                        for (Object literal : leaf.literals()) {
+                            node.addLiteral(encodeLiteral(leaf.type(), literal));
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public Void visit(CompoundPredicate compound) {
+                        pbPredicate
+                                .addNode()
+                                .setCompoundFunction(compound.function().ordinal())
+                                .setChildrenCount(compound.children().size());
+                        for (Predicate child : compound.children()) {
+                            child.visit(this);
+                        }
+                        return null;
+                    }
+                });
+        return pbPredicate;
+    }
+
+    /**
+     * Converts the rpc message {@link PbPredicate} to {@link Predicate} on the given row type of
+     * the table.
+     */
+    public static Predicate toPredicate(PbPredicate pbPredicate, RowType rowType) {
+        Iterator<PbPredicateNode> nodes = pbPredicate.getNodesList().iterator();
+        Predicate predicate = toPredicate(nodes, new PredicateBuilder(rowType), rowType);
+        if (nodes.hasNext()) {
+            throw new IllegalArgumentException("Found dangling nodes in the predicate.");
+        }
+        return predicate;
+    }
+
+    private static Predicate toPredicate(
+            Iterator<PbPredicateNode> nodes, PredicateBuilder builder, RowType rowType) {
+        if (!nodes.hasNext()) {
+            throw new IllegalArgumentException("Missing nodes in the predicate.");
+        }
+        PbPredicateNode node = nodes.next();
+        if (node.hasLeafFunction()) {
+            LeafFunction function = LeafFunction.values()[node.getLeafFunction()];
+            int fieldIndex = node.getFieldIndex();
+            if (fieldIndex < 0 || fieldIndex >= rowType.getFieldCount()) {
+                throw new IllegalArgumentException(
+                        "Field index "
+                                + fieldIndex
+                                + " of the predicate is out of bound for schema "
+                                + rowType);
+            }
+            DataType fieldType = rowType.getTypeAt(fieldIndex);
+            List<Object> literals = new ArrayList<>(node.getLiteralsCount());
+            for (int i = 0; i < node.getLiteralsCount(); i++) {
+                literals.add(decodeLiteral(fieldType, node.getLiteralAt(i)));
+            }
+            return builder.leaf(function, fieldIndex, literals);
+        } else if (node.hasCompoundFunction()) {
+            CompoundPredicate.Function function =
+                    CompoundPredicate.Function.values()[node.getCompoundFunction()];
+            List<Predicate> children = new ArrayList<>(node.getChildrenCount());
+            for (int i = 0; i < node.getChildrenCount(); i++) {
+                children.add(toPredicate(nodes, builder, rowType));
+            }
+            return new CompoundPredicate(function, children);
+        } else {
+            throw new IllegalArgumentException(
+                    "Neither leaf nor compound function is set in the predicate node.");
+        }
+    }
+
+    private static byte[] encodeLiteral(DataType type, Object literal) {
+        IndexedRowWriter writer = new IndexedRowWriter(new DataType[] {type});
+        IndexedRowWriter.createFieldWriter(type).writeField(writer, 0, literal);
+        return Arrays.copyOf(writer.buffer(), writer.position());
+    }
+
+    private static Object decodeLiteral(DataType type, byte[] bytes) {
+        IndexedRow row = IndexedRow.from(new DataType[] {type}, bytes);
+        return InternalRow.createFieldGetter(type, 0).getFieldOrNull(row);
+    }
 }
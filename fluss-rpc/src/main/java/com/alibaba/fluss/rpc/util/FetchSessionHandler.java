@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.rpc.util;
+
+import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.rpc.messages.FetchLogRequest;
+import com.alibaba.fluss.rpc.messages.FetchLogResponse;
+import com.alibaba.fluss.rpc.messages.PbFetchLogReqForBucket;
+import com.alibaba.fluss.rpc.messages.PbFetchLogReqForTable;
+import com.alibaba.fluss.rpc.messages.PbTableBucket;
+import com.alibaba.fluss.rpc.protocol.Errors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
+ * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership. */
+
+/**
+ * The fetcher side of a fetch session with one tablet server. The fetcher builds the full {@link
+ * FetchLogRequest} of all the buckets to fetch as usual, and the handler turns it into an
+ * incremental request which only carries the buckets added to the session or whose fetch state
+ * changed, plus the buckets removed from the session.
+ *
+ * <p>A session is created by a full fetch (epoch {@link #INITIAL_EPOCH}), and each successful
+ * incremental fetch bumps the epoch. Any error resets the handler to send a full fetch again. The
+ * handler expects at most one in-flight fetch request per tablet server, a request abandoned before
+ * its response arrives (e.g., timed out) also makes the next fetch a full fetch.
+ */
+@Internal
+public class FetchSessionHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(FetchSessionHandler.class);
+
+    /** The session id which indicates there is no fetch session. */
+    public static final int INVALID_SESSION_ID = 0;
+
+    /** The epoch of a full fetch which creates a new fetch session. */
+    public static final int INITIAL_EPOCH = 0;
+
+    /** The epoch of a full fetch which doesn't use any fetch session. */
+    public static final int FINAL_EPOCH = -1;
+
+    private final int serverId;
+
+    /** The buckets of the session and their fetch state sent to the server. */
+    private final Map<TableBucket, BucketFetchState> sessionBuckets = new HashMap<>();
+
+    private int sessionId = INVALID_SESSION_ID;
+    private int nextEpoch = INITIAL_EPOCH;
+
+    /** The last built request whose response has not been handled yet. */
+    @Nullable private FetchLogRequest inFlightRequest;
+
+    public FetchSessionHandler(int serverId) {
+        this.serverId = serverId;
+    }
+
+    /**
+     * Builds the request to send for the given full fetch request, which is an incremental request
+     * if a session has been established.
+     */
+    public synchronized FetchLogRequest build(FetchLogRequest fullRequest) {
+        if (inFlightRequest != null) {
+            LOG.debug(
+                    "The previous request of fetch session {} with server {} is abandoned, "
+                            + "the next fetch will be a full fetch.",
+                    sessionId,
+                    serverId);
+            nextEpoch = INITIAL_EPOCH;
+        }
+        boolean isFull = nextEpoch == INITIAL_EPOCH;
+        FetchLogRequest request =
+                new FetchLogRequest()
+                        .setFollowerServerId(fullRequest.getFollowerServerId())
+                        .setMaxBytes(fullRequest.getMaxBytes())
+                        .setSessionId(sessionId)
+                        .setSessionEpoch(nextEpoch);
+        if (fullRequest.hasMinBytes()) {
+            request.setMinBytes(fullRequest.getMinBytes());
+        }
+        if (fullRequest.hasMaxWaitMs()) {
+            request.setMaxWaitMs(fullRequest.getMaxWaitMs());
+        }
+        if (fullRequest.hasAllowFollowerRead()) {
+            request.setAllowFollowerRead(fullRequest.isAllowFollowerRead());
+        }
+
+        Map<TableBucket, BucketFetchState> previousBuckets = new HashMap<>(sessionBuckets);
+        sessionBuckets.clear();
+        for (PbFetchLogReqForTable fullReqForTable : fullRequest.getTablesReqsList()) {
+            long tableId = fullReqForTable.getTableId();
+            PbFetchLogReqForTable reqForTable = null;
+            for (PbFetchLogReqForBucket fullReqForBucket : fullReqForTable.getBucketsReqsList()) {
+                TableBucket tb =
+                        new TableBucket(
+                                tableId,
+                                fullReqForBucket.hasPartitionId()
+                                        ? fullReqForBucket.getPartitionId()
+                                        : null,
+                                fullReqForBucket.getBucketId());
+                BucketFetchState state =
+                        new BucketFetchState(
+                                fullReqForBucket.getFetchOffset(),
+                                fullReqForBucket.getMaxFetchBytes());
+                sessionBuckets.put(tb, state);
+                if (isFull || !state.equals(previousBuckets.remove(tb))) {
+                    if (reqForTable == null) {
+                        reqForTable = request.addTablesReq().copyFrom(fullReqForTable);
+                        reqForTable.clearBucketsReq();
+                    }
+                    reqForTable.addBucketsReq().copyFrom(fullReqForBucket);
+                }
+            }
+        }
+
+        if (!isFull) {
+            // the buckets left are not fetched anymore
+            for (TableBucket tb : previousBuckets.keySet()) {
+                PbTableBucket forgottenBucket =
+                        request.addForgottenBucket()
+                                .setTableId(tb.getTableId())
+                                .setBucketId(tb.getBucket());
+                if (tb.getPartitionId() != null) {
+                    forgottenBucket.setPartitionId(tb.getPartitionId());
+                }
+            }
+        }
+        inFlightRequest = request;
+        return request;
+    }
+
+    /**
+     * Handles the response of a built request.
+     *
+     * @return false if the fetch session failed or the request has been abandoned, in which case
+     *     the buckets in the response should be ignored
+     */
+    public synchronized boolean handleResponse(FetchLogRequest request, FetchLogResponse response) {
+        if (request != inFlightRequest) {
+            return false;
+        }
+        inFlightRequest = null;
+
+        if (response.hasErrorCode() && response.getErrorCode() != Errors.NONE.code()) {
+            Errors error = Errors.forCode(response.getErrorCode());
+            LOG.info(
+                    "Fetch session {} with server {} failed at epoch {} due to {}, "
+                            + "the next fetch will be a full fetch.",
+                    sessionId,
+                    serverId,
+                    nextEpoch,
+                    error);
+            if (error == Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION) {
+                sessionId = INVALID_SESSION_ID;
+            }
+            nextEpoch = INITIAL_EPOCH;
+            return false;
+        }
+
+        if (nextEpoch == INITIAL_EPOCH) {
+            if (response.hasSessionId() && response.getSessionId() != INVALID_SESSION_ID) {
+                sessionId = response.getSessionId();
+                nextEpoch = nextEpoch(INITIAL_EPOCH);
+                LOG.debug("Created fetch session {} with server {}.", sessionId, serverId);
+            } else {
+                // the server doesn't create a session, keep sending full fetches
+                sessionId = INVALID_SESSION_ID;
+            }
+        } else {
+            nextEpoch = nextEpoch(nextEpoch);
+        }
+        return true;
+    }
+
+    /** Handles the failure of a built request, the next request is a full fetch. */
+    public synchronized void handleError(FetchLogRequest request, Throwable t) {
+        if (request != inFlightRequest) {
+            return;
+        }
+        inFlightRequest = null;
+        LOG.debug(
+                "Fetch session {} with server {} failed at epoch {}, "
+                        + "the next fetch will be a full fetch.",
+                sessionId,
+                serverId,
+                nextEpoch,
+                t);
+        // keep the session id to let the server close the session on the next full fetch
+        nextEpoch = INITIAL_EPOCH;
+    }
+
+    public synchronized int sessionId() {
+        return sessionId;
+    }
+
+    public synchronized int nextEpoch() {
+        return nextEpoch;
+    }
+
+    /** Returns the epoch following the given epoch of a session. */
+    public static int nextEpoch(int epoch) {
+        if (epoch < 0) {
+            // the final epoch is never followed by another epoch
+            return FINAL_EPOCH;
+        } else if (epoch == Integer.MAX_VALUE) {
+            return 1;
+        } else {
+            return epoch + 1;
+        }
+    }
+
+    /** The fetch state of a bucket sent to the server in a fetch session. */
+    private static final class BucketFetchState {
+        private final long fetchOffset;
+        private final int maxFetchBytes;
+
+        private BucketFetchState(long fetchOffset, int maxFetchBytes) {
+            this.fetchOffset = fetchOffset;
+            this.maxFetchBytes = maxFetchBytes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BucketFetchState that = (BucketFetchState) o;
+            return fetchOffset == that.fetchOffset && maxFetchBytes == that.maxFetchBytes;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fetchOffset, maxFetchBytes);
+        }
+    }
+}
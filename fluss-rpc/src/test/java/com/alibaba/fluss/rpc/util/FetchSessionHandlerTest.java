@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.rpc.util;
+
+import com.alibaba.fluss.rpc.messages.FetchLogRequest;
+import com.alibaba.fluss.rpc.messages.FetchLogResponse;
+import com.alibaba.fluss.rpc.messages.PbFetchLogReqForBucket;
+import com.alibaba.fluss.rpc.messages.PbFetchLogReqForTable;
+import com.alibaba.fluss.rpc.messages.PbTableBucket;
+import com.alibaba.fluss.rpc.protocol.Errors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INITIAL_EPOCH;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INVALID_SESSION_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link FetchSessionHandler}. */
+class FetchSessionHandlerTest {
+
+    private static final long TABLE_ID = 150001L;
+
+    @Test
+    void testIncrementalFetch() {
+        FetchSessionHandler handler = new FetchSessionHandler(1);
+
+        // the first fetch is a full fetch to create the session
+        FetchLogRequest request = handler.build(fullRequest(offsets(0L, 0L)));
+        assertThat(request.getSessionId()).isEqualTo(INVALID_SESSION_ID);
+        assertThat(request.getSessionEpoch()).isEqualTo(INITIAL_EPOCH);
+        assertThat(bucketOffsets(request)).isEqualTo(offsets(0L, 0L));
+        assertThat(handler.handleResponse(request, new FetchLogResponse().setSessionId(5)))
+                .isTrue();
+        assertThat(handler.sessionId()).isEqualTo(5);
+        assertThat(handler.nextEpoch()).isEqualTo(1);
+
+        // only the changed and added buckets are sent
+        request = handler.build(fullRequest(offsets(10L, 0L, 0L)));
+        assertThat(request.getSessionId()).isEqualTo(5);
+        assertThat(request.getSessionEpoch()).isEqualTo(1);
+        Map<Integer, Long> expected = new LinkedHashMap<>();
+        expected.put(0, 10L);
+        expected.put(2, 0L);
+        assertThat(bucketOffsets(request)).isEqualTo(expected);
+        assertThat(request.getTablesReqAt(0).isProjectionPushdownEnabled()).isTrue();
+        assertThat(request.getTablesReqAt(0).getProjectedFields()).containsExactly(0, 2);
+        assertThat(request.getForgottenBucketsCount()).isZero();
+        assertThat(handler.handleResponse(request, new FetchLogResponse())).isTrue();
+        assertThat(handler.nextEpoch()).isEqualTo(2);
+
+        // the buckets not fetched anymore are forgotten
+        request = handler.build(fullRequest(offsets(10L)));
+        assertThat(request.getSessionEpoch()).isEqualTo(2);
+        assertThat(request.getTablesReqsCount()).isZero();
+        assertThat(
+                        request.getForgottenBucketsList().stream()
+                                .map(PbTableBucket::getBucketId)
+                                .sorted()
+                                .collect(Collectors.toList()))
+                .containsExactly(1, 2);
+    }
+
+    @Test
+    void testSessionErrorFallbackToFullFetch() {
+        FetchSessionHandler handler = new FetchSessionHandler(1);
+        FetchLogRequest request = handler.build(fullRequest(offsets(0L, 0L)));
+        handler.handleResponse(request, new FetchLogResponse().setSessionId(5));
+
+        request = handler.build(fullRequest(offsets(0L, 0L)));
+        FetchLogResponse errorResponse = new FetchLogResponse();
+        errorResponse.setError(
+                Errors.INVALID_FETCH_SESSION_EPOCH_EXCEPTION.code(), "invalid epoch");
+        assertThat(handler.handleResponse(request, errorResponse)).isFalse();
+
+        // the session to close is still sent along with the full fetch
+        request = handler.build(fullRequest(offsets(0L, 0L)));
+        assertThat(request.getSessionId()).isEqualTo(5);
+        assertThat(request.getSessionEpoch()).isEqualTo(INITIAL_EPOCH);
+        assertThat(bucketOffsets(request)).isEqualTo(offsets(0L, 0L));
+        handler.handleResponse(request, new FetchLogResponse().setSessionId(6));
+
+        request = handler.build(fullRequest(offsets(0L, 0L)));
+        errorResponse = new FetchLogResponse();
+        errorResponse.setError(Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION.code(), "not found");
+        assertThat(handler.handleResponse(request, errorResponse)).isFalse();
+        request = handler.build(fullRequest(offsets(0L, 0L)));
+        assertThat(request.getSessionId()).isEqualTo(INVALID_SESSION_ID);
+        assertThat(request.getSessionEpoch()).isEqualTo(INITIAL_EPOCH);
+
+        // the server doesn't create a session
+        assertThat(handler.handleResponse(request, new FetchLogResponse())).isTrue();
+        request = handler.build(fullRequest(offsets(0L, 0L)));
+        assertThat(request.getSessionEpoch()).isEqualTo(INITIAL_EPOCH);
+        assertThat(bucketOffsets(request)).isEqualTo(offsets(0L, 0L));
+    }
+
+    @Test
+    void testAbandonedRequest() {
+        FetchSessionHandler handler = new FetchSessionHandler(1);
+        FetchLogRequest request = handler.build(fullRequest(offsets(0L, 0L)));
+        handler.handleResponse(request, new FetchLogResponse().setSessionId(5));
+
+        FetchLogRequest abandoned = handler.build(fullRequest(offsets(10L, 0L)));
+        assertThat(abandoned.getSessionEpoch()).isEqualTo(1);
+        // the next request is built before the response of the previous one
+        request = handler.build(fullRequest(offsets(10L, 0L)));
+        assertThat(request.getSessionEpoch()).isEqualTo(INITIAL_EPOCH);
+        assertThat(bucketOffsets(request)).isEqualTo(offsets(10L, 0L));
+
+        // the late response of the abandoned request is ignored
+        assertThat(handler.handleResponse(abandoned, new FetchLogResponse())).isFalse();
+        assertThat(handler.handleResponse(request, new FetchLogResponse().setSessionId(6)))
+                .isTrue();
+        assertThat(handler.sessionId()).isEqualTo(6);
+        assertThat(handler.nextEpoch()).isEqualTo(1);
+
+        // a failed request also falls back to full fetch
+        request = handler.build(fullRequest(offsets(10L, 0L)));
+        handler.handleError(request, new RuntimeException("disconnected"));
+        assertThat(handler.nextEpoch()).isEqualTo(INITIAL_EPOCH);
+    }
+
+    @Test
+    void testNextEpoch() {
+        assertThat(FetchSessionHandler.nextEpoch(INITIAL_EPOCH)).isEqualTo(1);
+        assertThat(FetchSessionHandler.nextEpoch(Integer.MAX_VALUE)).isEqualTo(1);
+        assertThat(FetchSessionHandler.nextEpoch(FetchSessionHandler.FINAL_EPOCH))
+                .isEqualTo(FetchSessionHandler.FINAL_EPOCH);
+    }
+
+    private static Map<Integer, Long> offsets(Long... offsets) {
+        Map<Integer, Long> bucketOffsets = new LinkedHashMap<>();
+        for (int i = 0; i < offsets.length; i++) {
+            bucketOffsets.put(i, offsets[i]);
+        }
+        return bucketOffsets;
+    }
+
+    private static FetchLogRequest fullRequest(Map<Integer, Long> bucketOffsets) {
+        FetchLogRequest request =
+                new FetchLogRequest().setFollowerServerId(-1).setMaxBytes(1024).setMinBytes(1);
+        PbFetchLogReqForTable reqForTable =
+                request.addTablesReq()
+                        .setTableId(TABLE_ID)
+                        .setProjectionPushdownEnabled(true)
+                        .setProjectedFields(new int[] {0, 2});
+        bucketOffsets.forEach(
+                (bucket, offset) ->
+                        reqForTable
+                                .addBucketsReq()
+                                .setBucketId(bucket)
+                                .setFetchOffset(offset)
+                                .setMaxFetchBytes(512));
+        return request;
+    }
+
+    private static Map<Integer, Long> bucketOffsets(FetchLogRequest request) {
+        Map<Integer, Long> bucketOffsets = new LinkedHashMap<>();
+        for (PbFetchLogReqForTable reqForTable : request.getTablesReqsList()) {
+            assertThat(reqForTable.getTableId()).isEqualTo(TABLE_ID);
+            List<PbFetchLogReqForBucket> reqForBuckets = reqForTable.getBucketsReqsList();
+            for (PbFetchLogReqForBucket reqForBucket : reqForBuckets) {
+                bucketOffsets.put(reqForBucket.getBucketId(), reqForBucket.getFetchOffset());
+            }
+        }
+        return bucketOffsets;
+    }
+}
@@ -610,7 +610,9 @@ public abstract class RpcServiceBase extends RpcGatewayService implements AdminR
             // now get the leader
             Optional<LeaderAndIsr> optLeaderAndIsr = zkClient.getLeaderAndIsr(tableBucket);
             Integer leader = optLeaderAndIsr.map(LeaderAndIsr::leader).orElse(null);
-            bucketMetadataList.add(new BucketMetadata(bucketId, leader, leaderEpoch, replicas));
+            List<Integer> isr = optLeaderAndIsr.map(LeaderAndIsr::isr).orElse(new ArrayList<>());
+            bucketMetadataList.add(
+                    new BucketMetadata(bucketId, leader, leaderEpoch, replicas, isr));
         }
         return bucketMetadataList;
     }
@@ -34,6 +34,8 @@ import com.alibaba.fluss.metadata.TableBucketReplica;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePartition;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.metrics.DescriptiveStatisticsHistogram;
+import com.alibaba.fluss.metrics.Histogram;
 import com.alibaba.fluss.metrics.MetricNames;
 import com.alibaba.fluss.rpc.messages.AdjustIsrResponse;
 import com.alibaba.fluss.rpc.messages.CommitKvSnapshotResponse;
@@ -142,6 +144,8 @@ public class CoordinatorEventProcessor implements EventProcessor {
     private volatile int tableCount;
     private volatile int bucketCount;
     private volatile int replicasToDeleteCount;
+    private volatile long coordinatorInitTimeMs;
+    private Histogram tabletServerFailoverTime;
 
     public CoordinatorEventProcessor(
             ZooKeeperClient zooKeeperClient,
@@ -210,6 +214,12 @@ public class CoordinatorEventProcessor implements EventProcessor {
         coordinatorMetricGroup.gauge(MetricNames.TABLE_COUNT, () -> tableCount);
         coordinatorMetricGroup.gauge(
                 MetricNames.REPLICAS_TO_DELETE_COUNT, () -> replicasToDeleteCount);
+        coordinatorMetricGroup.gauge(
+                MetricNames.COORDINATOR_INIT_TIME_MS, () -> coordinatorInitTimeMs);
+        tabletServerFailoverTime =
+                coordinatorMetricGroup.histogram(
+                        MetricNames.TABLET_SERVER_FAILOVER_TIME_MS,
+                        new DescriptiveStatisticsHistogram(100));
     }
 
     public CoordinatorEventManager getCoordinatorEventManager() {
@@ -356,9 +366,12 @@ public class CoordinatorEventProcessor implements EventProcessor {
         lakeTableTieringManager.initWithLakeTables(lakeTables);
 
         // load all assignment
-        loadTableAssignment();
-        loadPartitionAssignment();
+        List<TableBucket> loadedBuckets = new ArrayList<>();
+        loadTableAssignment(loadedBuckets);
+        loadPartitionAssignment(loadedBuckets);
+        loadLeaderAndIsr(loadedBuckets);
         long end = System.currentTimeMillis();
+        coordinatorInitTimeMs = end - start;
         LOG.info("Current total {} tables in the cluster.", coordinatorContext.allTables().size());
         LOG.info(
                 "Detect tables {} to be deleted after initializing coordinator context. ",
@@ -369,20 +382,24 @@ public class CoordinatorEventProcessor implements EventProcessor {
         LOG.info("End initializing coordinator context, cost {}ms", end - start);
     }
 
-    private void loadTableAssignment() throws Exception {
+    private void loadTableAssignment(List<TableBucket> loadedBuckets) throws Exception {
         List<String> assignmentTables = zooKeeperClient.getChildren(TableIdsZNode.path());
+        List<Long> tableIds = new ArrayList<>(assignmentTables.size());
         Set<Long> deletedTables = new HashSet<>();
         for (String tableIdStr : assignmentTables) {
             long tableId = Long.parseLong(tableIdStr);
+            tableIds.add(tableId);
             // if table id not in current coordinator context,
             // we'll consider it as deleted
             if (!coordinatorContext.containsTableId(tableId)) {
                 deletedTables.add(tableId);
             }
-            Optional<TableAssignment> optAssignment = zooKeeperClient.getTableAssignment(tableId);
-            if (optAssignment.isPresent()) {
-                TableAssignment tableAssignment = optAssignment.get();
-                loadAssignment(tableId, tableAssignment, null);
+        }
+        Map<Long, TableAssignment> assignments = zooKeeperClient.getTableAssignments(tableIds);
+        for (long tableId : tableIds) {
+            TableAssignment tableAssignment = assignments.get(tableId);
+            if (tableAssignment != null) {
+                loadAssignment(tableId, tableAssignment, null, loadedBuckets);
             } else {
                 LOG.warn(
                         "Can't get the assignment for table {} with id {}.",
@@ -393,33 +410,38 @@ public class CoordinatorEventProcessor implements EventProcessor {
         coordinatorContext.queueTableDeletion(deletedTables);
     }
 
-    private void loadPartitionAssignment() throws Exception {
+    private void loadPartitionAssignment(List<TableBucket> loadedBuckets) throws Exception {
         // load all assignment
         List<String> partitionAssignmentNodes =
                 zooKeeperClient.getChildren(PartitionIdsZNode.path());
-        Set<TablePartition> deletedPartitions = new HashSet<>();
+        List<Long> partitionIds = new ArrayList<>(partitionAssignmentNodes.size());
         for (String partitionIdStr : partitionAssignmentNodes) {
-            long partitionId = Long.parseLong(partitionIdStr);
-            Optional<PartitionAssignment> optAssignment =
-                    zooKeeperClient.getPartitionAssignment(partitionId);
-            if (!optAssignment.isPresent()) {
+            partitionIds.add(Long.parseLong(partitionIdStr));
+        }
+        Map<Long, PartitionAssignment> assignments =
+                zooKeeperClient.getPartitionAssignments(partitionIds);
+        Set<TablePartition> deletedPartitions = new HashSet<>();
+        for (long partitionId : partitionIds) {
+            PartitionAssignment partitionAssignment = assignments.get(partitionId);
+            if (partitionAssignment == null) {
                 LOG.warn("Can't get the assignment for table partition {}.", partitionId);
                 continue;
             }
-            PartitionAssignment partitionAssignment = optAssignment.get();
             long tableId = partitionAssignment.getTableId();
             // partition id doesn't exist in coordinator context, consider it as deleted
             if (!coordinatorContext.containsPartitionId(partitionId)) {
                 deletedPartitions.add(new TablePartition(tableId, partitionId));
             }
-            loadAssignment(tableId, optAssignment.get(), partitionId);
+            loadAssignment(tableId, partitionAssignment, partitionId, loadedBuckets);
         }
         coordinatorContext.queuePartitionDeletion(deletedPartitions);
     }
 
     private void loadAssignment(
-            long tableId, TableAssignment tableAssignment, @Nullable Long partitionId)
-            throws Exception {
+            long tableId,
+            TableAssignment tableAssignment,
+            @Nullable Long partitionId,
+            List<TableBucket> loadedBuckets) {
         for (Map.Entry<Integer, BucketAssignment> entry :
                 tableAssignment.getBucketAssignments().entrySet()) {
             int bucketId = entry.getKey();
@@ -428,14 +450,18 @@ public class CoordinatorEventProcessor implements EventProcessor {
             TableBucket tableBucket = new TableBucket(tableId, partitionId, bucketId);
             coordinatorContext.updateBucketReplicaAssignment(
                     tableBucket, bucketAssignment.getReplicas());
-            Optional<LeaderAndIsr> optLeaderAndIsr = zooKeeperClient.getLeaderAndIsr(tableBucket);
-            // update bucket LeaderAndIsr info
-            optLeaderAndIsr.ifPresent(
-                    leaderAndIsr ->
-                            coordinatorContext.putBucketLeaderAndIsr(tableBucket, leaderAndIsr));
+            loadedBuckets.add(tableBucket);
         }
     }
 
+    /** Load the LeaderAndIsr of the given buckets with pipelined reads instead of one by one. */
+    private void loadLeaderAndIsr(List<TableBucket> tableBuckets) throws Exception {
+        Map<TableBucket, LeaderAndIsr> leaderAndIsrs =
+                zooKeeperClient.getLeaderAndIsrs(tableBuckets);
+        // update bucket LeaderAndIsr info
+        leaderAndIsrs.forEach(coordinatorContext::putBucketLeaderAndIsr);
+    }
+
     private void onShutdown() {
         // first shutdown table manager
         tableManager.shutdown();
@@ -837,6 +863,7 @@ public class CoordinatorEventProcessor implements EventProcessor {
         }
         // process dead tablet server
         LOG.info("Tablet server failure callback for {}.", tabletServerId);
+        long start = System.currentTimeMillis();
         coordinatorContext.removeOfflineBucketInServer(tabletServerId);
         coordinatorContext.removeLiveTabletServer(tabletServerId);
         coordinatorChannelManager.removeTabletServer(tabletServerId);
@@ -882,6 +909,13 @@ public class CoordinatorEventProcessor implements EventProcessor {
 
         // update tabletServer metadata cache by send updateMetadata request.
         updateTabletServerMetadataCache(serverInfos, null, null, bucketsWithOfflineLeader);
+        long costMs = System.currentTimeMillis() - start;
+        tabletServerFailoverTime.update(costMs);
+        LOG.info(
+                "End processing failure of tablet server {} with {} buckets losing leader, cost {}ms.",
+                tabletServerId,
+                bucketsWithOfflineLeader.size(),
+                costMs);
     }
 
     private List<AdjustIsrResultForBucket> tryProcessAdjustIsr(
@@ -37,6 +37,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -413,12 +414,17 @@ public class ReplicaStateMachine {
 
     private Map<TableBucketReplica, LeaderAndIsr> doRemoveReplicaFromIsr(
             Collection<TableBucketReplica> tableBucketReplicas) {
-        Map<TableBucketReplica, LeaderAndIsr> adjustedLeaderAndIsr = new HashMap<>();
+        // the adjusted leader and isr of each bucket, which may remove multiple replicas of the
+        // same bucket, they are written to zk in batch as a dead server may host lots of buckets
+        Map<TableBucket, LeaderAndIsr> adjustedBucketLeaderAndIsr = new HashMap<>();
+        Map<TableBucketReplica, TableBucket> removedReplicas = new HashMap<>();
         for (TableBucketReplica tableBucketReplica : tableBucketReplicas) {
             TableBucket tableBucket = tableBucketReplica.getTableBucket();
             int replicaId = tableBucketReplica.getReplica();
             Optional<LeaderAndIsr> optLeaderAndIsr =
-                    coordinatorContext.getBucketLeaderAndIsr(tableBucket);
+                    adjustedBucketLeaderAndIsr.containsKey(tableBucket)
+                            ? Optional.of(adjustedBucketLeaderAndIsr.get(tableBucket))
+                            : coordinatorContext.getBucketLeaderAndIsr(tableBucket);
             if (!optLeaderAndIsr.isPresent()) {
                 // no leader and isr for this table bucket, skip
                 continue;
@@ -443,21 +449,47 @@ public class ReplicaStateMachine {
                             : leaderAndIsr.isr().stream()
                                     .filter(id -> id != replicaId)
                                     .collect(Collectors.toList());
-            LeaderAndIsr adjustLeaderAndIsr = leaderAndIsr.newLeaderAndIsr(newLeader, newIsr);
-            try {
-                zooKeeperClient.updateLeaderAndIsr(tableBucket, adjustLeaderAndIsr);
-            } catch (Exception e) {
-                LOG.error(
-                        "Fail to update bucket LeaderAndIsr for table bucket {} of table {}.",
-                        tableBucket,
-                        coordinatorContext.getTablePathById(tableBucket.getTableId()),
-                        e);
-                continue;
+            adjustedBucketLeaderAndIsr.put(
+                    tableBucket, leaderAndIsr.newLeaderAndIsr(newLeader, newIsr));
+            removedReplicas.put(tableBucketReplica, tableBucket);
+        }
+
+        try {
+            zooKeeperClient.batchUpdateLeaderAndIsr(adjustedBucketLeaderAndIsr);
+        } catch (Exception batchException) {
+            LOG.warn(
+                    "Fail to batch update bucket LeaderAndIsr for {} table buckets, "
+                            + "try to update them one by one.",
+                    adjustedBucketLeaderAndIsr.size(),
+                    batchException);
+            Iterator<Map.Entry<TableBucket, LeaderAndIsr>> iterator =
+                    adjustedBucketLeaderAndIsr.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<TableBucket, LeaderAndIsr> entry = iterator.next();
+                TableBucket tableBucket = entry.getKey();
+                try {
+                    zooKeeperClient.updateLeaderAndIsr(tableBucket, entry.getValue());
+                } catch (Exception e) {
+                    LOG.error(
+                            "Fail to update bucket LeaderAndIsr for table bucket {} of table {}.",
+                            tableBucket,
+                            coordinatorContext.getTablePathById(tableBucket.getTableId()),
+                            e);
+                    iterator.remove();
+                }
             }
-            // update leader and isr
-            coordinatorContext.putBucketLeaderAndIsr(tableBucket, adjustLeaderAndIsr);
-            adjustedLeaderAndIsr.put(tableBucketReplica, adjustLeaderAndIsr);
         }
+
+        // update leader and isr
+        adjustedBucketLeaderAndIsr.forEach(coordinatorContext::putBucketLeaderAndIsr);
+        Map<TableBucketReplica, LeaderAndIsr> adjustedLeaderAndIsr = new HashMap<>();
+        removedReplicas.forEach(
+                (tableBucketReplica, tableBucket) -> {
+                    LeaderAndIsr leaderAndIsr = adjustedBucketLeaderAndIsr.get(tableBucket);
+                    if (leaderAndIsr != null) {
+                        adjustedLeaderAndIsr.put(tableBucketReplica, leaderAndIsr);
+                    }
+                });
         return adjustedLeaderAndIsr;
     }
 
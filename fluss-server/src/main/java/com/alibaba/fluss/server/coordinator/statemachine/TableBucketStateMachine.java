@@ -33,8 +33,11 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -122,8 +125,14 @@ public class TableBucketStateMachine {
                 // batch register table bucket lead and isr
                 batchHandleOnlineChangeAndInitLeader(tableBuckets);
             } else {
+                // elect new leaders for the online and offline buckets in batch
+                Map<TableBucket, ElectionResult> electionResults =
+                        targetState == BucketState.OnlineBucket
+                                ? electNewLeaderForTableBuckets(
+                                        bucketsToElectNewLeader(tableBuckets))
+                                : Collections.emptyMap();
                 for (TableBucket tableBucket : tableBuckets) {
-                    doHandleStateChange(tableBucket, targetState);
+                    doHandleStateChange(tableBucket, targetState, electionResults);
                 }
             }
             coordinatorRequestBatch.sendRequestToTabletServers(
@@ -175,8 +184,13 @@ public class TableBucketStateMachine {
      *
      * @param tableBucket The table bucket that is to do state change
      * @param targetState the target state that is to change to
+     * @param electionResults the new leaders elected in batch for the buckets which are online or
+     *     offline
      */
-    private void doHandleStateChange(TableBucket tableBucket, BucketState targetState) {
+    private void doHandleStateChange(
+            TableBucket tableBucket,
+            BucketState targetState,
+            Map<TableBucket, ElectionResult> electionResults) {
         coordinatorContext.putBucketStateIfNotExists(tableBucket, BucketState.NonExistentBucket);
         if (!checkValidTableBucketStateChange(tableBucket, targetState)) {
             return;
@@ -224,7 +238,7 @@ public class TableBucketStateMachine {
                     // current state is Online or Offline
                     // not new bucket, we then need to update leader/epoch for the bucket
                     Optional<ElectionResult> optionalElectionResult =
-                            electNewLeaderForTableBuckets(tableBucket);
+                            Optional.ofNullable(electionResults.get(tableBucket));
                     if (!optionalElectionResult.isPresent()) {
                         logFailedStateChange(tableBucket, currentState, targetState);
                     } else {
@@ -449,45 +463,105 @@ public class TableBucketStateMachine {
         return registerSuccessList;
     }
 
-    private Optional<ElectionResult> electNewLeaderForTableBuckets(TableBucket tableBucket) {
-        LeaderAndIsr leaderAndIsr;
+    /**
+     * Returns the buckets which are online or offline and will elect a new leader when moving to
+     * {@link BucketState#OnlineBucket}.
+     */
+    private Set<TableBucket> bucketsToElectNewLeader(Set<TableBucket> tableBuckets) {
+        Set<TableBucket> bucketsToElect = new HashSet<>();
+        for (TableBucket tableBucket : tableBuckets) {
+            BucketState currentState = coordinatorContext.getBucketState(tableBucket);
+            if (currentState != BucketState.OnlineBucket
+                    && currentState != BucketState.OfflineBucket) {
+                continue;
+            }
+            if (tableBucket.getPartitionId() != null
+                    && coordinatorContext.getPartitionName(tableBucket.getPartitionId()) == null) {
+                // the state change will fail, don't elect leader for it
+                continue;
+            }
+            bucketsToElect.add(tableBucket);
+        }
+        return bucketsToElect;
+    }
+
+    /**
+     * Elect new leaders for the given buckets. The current LeaderAndIsr of the buckets are read
+     * from zookeeper with pipelined reads and the new ones are written with batched multi-op
+     * writes, falling back to update one by one if the batched write fails. The returned map only
+     * contains the buckets which have elected a new leader successfully.
+     */
+    private Map<TableBucket, ElectionResult> electNewLeaderForTableBuckets(
+            Set<TableBucket> tableBuckets) {
+        if (tableBuckets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<TableBucket, LeaderAndIsr> currentLeaderAndIsrs;
         try {
-            leaderAndIsr = zooKeeperClient.getLeaderAndIsr(tableBucket).get();
+            currentLeaderAndIsrs = zooKeeperClient.getLeaderAndIsrs(tableBuckets);
         } catch (Exception e) {
-            LOG.error("Can't get state for table bucket {}.", stringifyBucket(tableBucket), e);
-            return Optional.empty();
+            LOG.error("Can't get state for table buckets {}.", tableBuckets, e);
+            return Collections.emptyMap();
         }
-        if (leaderAndIsr.coordinatorEpoch() > coordinatorContext.getCoordinatorEpoch()) {
-            LOG.error(
-                    "Aborted leader election for table bucket {} since the bucket state path was "
-                            + "already written by another coordinator server. This probably means that the current coordinator server {}"
-                            + " went through a soft failure and another coordinator was elected with epoch {}.",
-                    tableBucket,
-                    coordinatorContext.getCoordinatorEpoch(),
-                    leaderAndIsr.coordinatorEpoch());
-            return Optional.empty();
-        }
-        // re-election
-        Optional<ElectionResult> optionalElectionResult =
-                leaderForOffline(tableBucket, leaderAndIsr);
-        if (!optionalElectionResult.isPresent()) {
-            LOG.error(
-                    "The result of elect leader for table bucket {} is empty.",
-                    stringifyBucket(tableBucket));
-            return Optional.empty();
+
+        Map<TableBucket, ElectionResult> electionResults = new HashMap<>();
+        for (TableBucket tableBucket : tableBuckets) {
+            LeaderAndIsr leaderAndIsr = currentLeaderAndIsrs.get(tableBucket);
+            if (leaderAndIsr == null) {
+                LOG.error("Can't get state for table bucket {}.", stringifyBucket(tableBucket));
+                continue;
+            }
+            if (leaderAndIsr.coordinatorEpoch() > coordinatorContext.getCoordinatorEpoch()) {
+                LOG.error(
+                        "Aborted leader election for table bucket {} since the bucket state path was "
+                                + "already written by another coordinator server. This probably means that the current coordinator server {}"
+                                + " went through a soft failure and another coordinator was elected with epoch {}.",
+                        tableBucket,
+                        coordinatorContext.getCoordinatorEpoch(),
+                        leaderAndIsr.coordinatorEpoch());
+                continue;
+            }
+            // re-election
+            Optional<ElectionResult> optionalElectionResult =
+                    leaderForOffline(tableBucket, leaderAndIsr);
+            if (!optionalElectionResult.isPresent()) {
+                LOG.error(
+                        "The result of elect leader for table bucket {} is empty.",
+                        stringifyBucket(tableBucket));
+                continue;
+            }
+            electionResults.put(tableBucket, optionalElectionResult.get());
         }
-        ElectionResult electionResult = optionalElectionResult.get();
+
+        Map<TableBucket, LeaderAndIsr> newLeaderAndIsrs = new HashMap<>();
+        electionResults.forEach(
+                (tableBucket, electionResult) ->
+                        newLeaderAndIsrs.put(tableBucket, electionResult.leaderAndIsr));
         try {
-            zooKeeperClient.updateLeaderAndIsr(tableBucket, electionResult.leaderAndIsr);
-        } catch (Exception e) {
-            LOG.error(
-                    "Fail to update bucket LeaderAndIsr for table bucket {}.",
-                    stringifyBucket(tableBucket),
-                    e);
-            return Optional.empty();
+            zooKeeperClient.batchUpdateLeaderAndIsr(newLeaderAndIsrs);
+        } catch (Exception batchException) {
+            LOG.warn(
+                    "Fail to batch update bucket LeaderAndIsr for {} table buckets, "
+                            + "try to update them one by one.",
+                    newLeaderAndIsrs.size(),
+                    batchException);
+            for (Map.Entry<TableBucket, LeaderAndIsr> entry : newLeaderAndIsrs.entrySet()) {
+                try {
+                    zooKeeperClient.updateLeaderAndIsr(entry.getKey(), entry.getValue());
+                } catch (Exception e) {
+                    LOG.error(
+                            "Fail to update bucket LeaderAndIsr for table bucket {}.",
+                            stringifyBucket(entry.getKey()),
+                            e);
+                    electionResults.remove(entry.getKey());
+                }
+            }
         }
-        coordinatorContext.putBucketLeaderAndIsr(tableBucket, electionResult.leaderAndIsr);
-        return Optional.of(electionResult);
+        electionResults.forEach(
+                (tableBucket, electionResult) ->
+                        coordinatorContext.putBucketLeaderAndIsr(
+                                tableBucket, electionResult.leaderAndIsr));
+        return electionResults;
     }
 
     private boolean checkValidTableBucketStateChange(
@@ -18,6 +18,7 @@
 package com.alibaba.fluss.server.entity;
 
 import com.alibaba.fluss.annotation.Internal;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
 
 import javax.annotation.Nullable;
 
@@ -30,6 +31,8 @@ public final class FetchReqInfo {
     private final long tableId;
     private final long fetchOffset;
     @Nullable private final int[] projectFields;
+    // the filter is resolved against the table schema when reading the replica
+    @Nullable private final PbPredicate filter;
 
     private int maxBytes;
 
@@ -39,10 +42,20 @@ public final class FetchReqInfo {
 
     public FetchReqInfo(
             long tableId, long fetchOffset, int maxBytes, @Nullable int[] projectFields) {
+        this(tableId, fetchOffset, maxBytes, projectFields, null);
+    }
+
+    public FetchReqInfo(
+            long tableId,
+            long fetchOffset,
+            int maxBytes,
+            @Nullable int[] projectFields,
+            @Nullable PbPredicate filter) {
         this.tableId = tableId;
         this.fetchOffset = fetchOffset;
         this.maxBytes = maxBytes;
         this.projectFields = projectFields;
+        this.filter = filter;
     }
 
     public long getTableId() {
@@ -66,6 +79,11 @@ public final class FetchReqInfo {
         return projectFields;
     }
 
+    @Nullable
+    public PbPredicate getFilter() {
+        return filter;
+    }
+
     @Override
     public String toString() {
         return "FetchData{"
@@ -77,6 +95,8 @@ public final class FetchReqInfo {
                 + maxBytes
                 + ", projectionFields="
                 + Arrays.toString(projectFields)
+                + ", hasFilter="
+                + (filter != null)
                 + '}';
     }
 
@@ -24,7 +24,7 @@ import com.alibaba.fluss.config.TableConfig;
 import com.alibaba.fluss.exception.KvStorageException;
 import com.alibaba.fluss.fs.FileSystem;
 import com.alibaba.fluss.fs.FsPath;
-import com.alibaba.fluss.memory.LazyMemorySegmentPool;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
 import com.alibaba.fluss.memory.MemorySegmentPool;
 import com.alibaba.fluss.metadata.KvFormat;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
@@ -47,6 +47,7 @@ import com.alibaba.fluss.utils.types.Tuple2;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.File;
@@ -82,6 +83,12 @@ public final class KvManager extends TabletManagerBase {
     /** The memory segment pool to allocate memorySegment. */
     private final MemorySegmentPool memorySegmentPool;
 
+    /**
+     * The memory segment pool shared by the pre-write buffers of all the kv tablets, null if the
+     * pre-write buffers don't store kv records in the pool.
+     */
+    @Nullable private final ConcurrentMemorySegmentPool preWriteBufferPool;
+
     private final FsPath remoteKvDir;
 
     private final FileSystem remoteFileSystem;
@@ -96,7 +103,11 @@ public final class KvManager extends TabletManagerBase {
         super(TabletType.KV, dataDir, conf, recoveryThreadsPerDataDir);
         this.logManager = logManager;
         this.arrowBufferAllocator = new RootAllocator(Long.MAX_VALUE);
-        this.memorySegmentPool = LazyMemorySegmentPool.createServerBufferPool(conf);
+        this.memorySegmentPool = ConcurrentMemorySegmentPool.createServerBufferPool(conf);
+        this.preWriteBufferPool =
+                conf.get(ConfigOptions.KV_PRE_WRITE_BUFFER_MEMORY_POOL_ENABLED)
+                        ? ConcurrentMemorySegmentPool.createKvPreWriteBufferPool(conf)
+                        : null;
         this.zkClient = zkClient;
         this.remoteKvDir = FlussPaths.remoteKvDir(conf);
         this.remoteFileSystem = remoteKvDir.getFileSystem();
@@ -131,6 +142,9 @@ public final class KvManager extends TabletManagerBase {
         }
         arrowBufferAllocator.close();
         memorySegmentPool.close();
+        if (preWriteBufferPool != null) {
+            preWriteBufferPool.close();
+        }
         LOG.info("Shut down KvManager complete.");
     }
 
@@ -173,6 +187,7 @@ public final class KvManager extends TabletManagerBase {
                                     conf,
                                     arrowBufferAllocator,
                                     memorySegmentPool,
+                                    preWriteBufferPool,
                                     kvFormat,
                                     schema,
                                     merger,
@@ -281,6 +296,7 @@ public final class KvManager extends TabletManagerBase {
                         conf,
                         arrowBufferAllocator,
                         memorySegmentPool,
+                        preWriteBufferPool,
                         tableInfo.getTableConfig().getKvFormat(),
                         tableInfo.getSchema(),
                         rowMerger,
@@ -41,13 +41,29 @@ import com.alibaba.fluss.server.zk.ZooKeeperClient;
 import com.alibaba.fluss.types.DataType;
 import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.utils.CloseableIterator;
+import com.alibaba.fluss.utils.ExceptionUtils;
+import com.alibaba.fluss.utils.concurrent.ExecutorThreadFactory;
 import com.alibaba.fluss.utils.function.ThrowingConsumer;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
 import static com.alibaba.fluss.server.TabletManagerBase.getTableInfo;
 
-/** A helper for recovering Kv from log. */
+/**
+ * A helper for recovering Kv from log.
+ *
+ * <p>When the recover parallelism is larger than 1, the recovery is pipelined: the log batches are
+ * read in the calling thread, converted to key-value pairs by a pool of threads in parallel, and
+ * applied to the kv by a single thread in the order of the log.
+ */
 public class KvRecoverHelper {
 
     private final KvTablet kvTablet;
@@ -59,11 +75,10 @@ public class KvRecoverHelper {
     // will be initialized when first encounter a log record during recovering from log
     private Integer currentSchemaId;
     private RowType currentRowType;
+    private TableInfo currentTableInfo;
 
-    private KeyEncoder keyEncoder;
-    private RowEncoder rowEncoder;
-
-    private InternalRow.FieldGetter[] currentFieldGetters;
+    // will be initialized when first converting a log record in the recovering thread
+    private LogRecordConverter converter;
 
     public KvRecoverHelper(
             KvTablet kvTablet,
@@ -91,7 +106,7 @@ public class KvRecoverHelper {
 
         long nextLogOffset = recoverPointOffset;
         // read to high watermark
-        try (KvBatchWriter kvBatchWriter = kvTablet.createKvBatchWriter()) {
+        try (KvBatchWriter kvBatchWriter = createKvBatchWriter()) {
             ThrowingConsumer<KeyValueAndLogOffset, Exception> resumeRecordApplier =
                     (resumeRecord) -> {
                         if (resumeRecord.value == null) {
@@ -117,82 +132,156 @@ public class KvRecoverHelper {
         readLogRecordsAndApply(nextLogOffset, FetchIsolation.LOG_END, resumeRecordApplier);
     }
 
+    private KvBatchWriter createKvBatchWriter() throws Exception {
+        if (recoverContext.recoverWithSstIngestion) {
+            // bypass the memtable, so that the recovered data won't be rewritten by the flush of
+            // the memtable
+            return kvTablet.createSstIngestWriter(recoverContext.recoverWriteBatchSize);
+        } else if (isPipelined()) {
+            // the applying thread is the bottleneck of the pipelined recovery, so write to kv in
+            // large batches to reduce the number of writes
+            return kvTablet.createKvBatchWriter(recoverContext.recoverWriteBatchSize);
+        } else {
+            return kvTablet.createKvBatchWriter();
+        }
+    }
+
+    private boolean isPipelined() {
+        return recoverContext.recoverParallelism > 1;
+    }
+
     private long readLogRecordsAndApply(
             long startFetchOffset,
             FetchIsolation fetchIsolation,
             ThrowingConsumer<KeyValueAndLogOffset, Exception> resumeRecordConsumer)
             throws Exception {
+        ThrowingConsumer<KeyValueAndLogOffset, Exception> countingConsumer =
+                (resumeRecord) -> {
+                    resumeRecordConsumer.accept(resumeRecord);
+                    kvTablet.getRecoveredRecordsCount().inc();
+                    kvTablet.getRecoveredBytesCount().inc(resumeRecord.sizeInBytes());
+                };
+        if (isPipelined()) {
+            return readLogRecordsAndApplyPipelined(
+                    startFetchOffset, fetchIsolation, countingConsumer);
+        }
+
         long nextFetchOffset = startFetchOffset;
         while (true) {
-            LogRecords logRecords =
-                    logTablet
-                            .read(
-                                    nextFetchOffset,
-                                    recoverContext.maxFetchLogSizeInRecoverKv,
-                                    fetchIsolation,
-                                    true,
-                                    null)
-                            .getRecords();
+            LogRecords logRecords = readLogRecords(nextFetchOffset, fetchIsolation);
             if (logRecords == MemoryLogRecords.EMPTY) {
                 break;
             }
 
             for (LogRecordBatch logRecordBatch : logRecords.batches()) {
-                short schemaId = logRecordBatch.schemaId();
-                if (currentSchemaId == null) {
-                    initSchema(schemaId);
-                } else if (currentSchemaId != schemaId) {
-                    throw new KvStorageException(
-                            String.format(
-                                    "Can't recover kv tablet for table bucket from log %s since the schema changes from schema id %d to schema id %d. "
-                                            + "Currently, schema change is not supported.",
-                                    recoverContext.tableBucket, currentSchemaId, schemaId));
+                checkSchema(logRecordBatch.schemaId());
+                if (converter == null) {
+                    converter = new LogRecordConverter();
                 }
+                converter.convert(logRecordBatch, countingConsumer);
+                nextFetchOffset = logRecordBatch.nextLogOffset();
+            }
+        }
+        return nextFetchOffset;
+    }
 
-                try (LogRecordReadContext readContext =
-                                LogRecordReadContext.createArrowReadContext(
-                                        currentRowType, currentSchemaId);
-                        CloseableIterator<LogRecord> logRecordIter =
-                                logRecordBatch.records(readContext)) {
-                    while (logRecordIter.hasNext()) {
-                        LogRecord logRecord = logRecordIter.next();
-                        if (logRecord.getChangeType() != ChangeType.UPDATE_BEFORE) {
-                            InternalRow logRow = logRecord.getRow();
-                            byte[] key = keyEncoder.encodeKey(logRow);
-                            byte[] value = null;
-                            if (logRecord.getChangeType() != ChangeType.DELETE) {
-                                // the log row format may not compatible with kv row format,
-                                // e.g, arrow vs. compacted, thus needs a conversion here.
-                                BinaryRow row = toKvRow(logRecord.getRow());
-                                value = ValueEncoder.encodeValue(schemaId, row);
-                            }
-                            resumeRecordConsumer.accept(
-                                    new KeyValueAndLogOffset(key, value, logRecord.logOffset()));
-                        }
-                    }
+    private long readLogRecordsAndApplyPipelined(
+            long startFetchOffset,
+            FetchIsolation fetchIsolation,
+            ThrowingConsumer<KeyValueAndLogOffset, Exception> resumeRecordConsumer)
+            throws Exception {
+        int parallelism = recoverContext.recoverParallelism;
+        ExecutorService convertExecutor =
+                Executors.newFixedThreadPool(
+                        parallelism, new ExecutorThreadFactory("fluss-kv-recover-convert"));
+        ExecutorService applyExecutor =
+                Executors.newSingleThreadExecutor(
+                        new ExecutorThreadFactory("fluss-kv-recover-apply"));
+        // the converter of each converting thread, as the encoders are not thread safe
+        ThreadLocal<LogRecordConverter> converters =
+                ThreadLocal.withInitial(LogRecordConverter::new);
+        // bounds the number of batches being converted or waiting to be applied
+        Semaphore inFlightBatches = new Semaphore(parallelism * 2);
+        // the apply of each batch is chained after the apply of the previous batch to keep the
+        // order of the log
+        CompletableFuture<Void> applyFuture = CompletableFuture.completedFuture(null);
+        long nextFetchOffset = startFetchOffset;
+        try {
+            while (!applyFuture.isCompletedExceptionally()) {
+                LogRecords logRecords = readLogRecords(nextFetchOffset, fetchIsolation);
+                if (logRecords == MemoryLogRecords.EMPTY) {
+                    break;
+                }
+
+                for (LogRecordBatch logRecordBatch : logRecords.batches()) {
+                    checkSchema(logRecordBatch.schemaId());
+                    inFlightBatches.acquire();
+                    CompletableFuture<List<KeyValueAndLogOffset>> convertFuture =
+                            CompletableFuture.supplyAsync(
+                                    () -> converters.get().convert(logRecordBatch),
+                                    convertExecutor);
+                    applyFuture =
+                            applyFuture
+                                    .thenCombineAsync(
+                                            convertFuture,
+                                            (ignored, resumeRecords) -> {
+                                                applyAll(resumeRecords, resumeRecordConsumer);
+                                                return (Void) null;
+                                            },
+                                            applyExecutor)
+                                    .whenComplete((ignored, t) -> inFlightBatches.release());
+                    nextFetchOffset = logRecordBatch.nextLogOffset();
                 }
-                nextFetchOffset = logRecordBatch.nextLogOffset();
             }
+
+            try {
+                applyFuture.get();
+            } catch (ExecutionException e) {
+                ExceptionUtils.rethrowException(
+                        ExceptionUtils.stripCompletionException(e.getCause()),
+                        "Failed to apply the log records to kv.");
+            }
+        } finally {
+            convertExecutor.shutdownNow();
+            applyExecutor.shutdownNow();
         }
         return nextFetchOffset;
     }
 
-    // TODO: this is very in-efficient, because the conversion is CPU heavy. Should be optimized in
-    //  the future.
-    private BinaryRow toKvRow(InternalRow originalRow) {
-        if (kvFormat == KvFormat.INDEXED) {
-            // if the row is in indexed row format, just return the original row directly
-            if (originalRow instanceof IndexedRow) {
-                return (IndexedRow) originalRow;
+    private static void applyAll(
+            List<KeyValueAndLogOffset> resumeRecords,
+            ThrowingConsumer<KeyValueAndLogOffset, Exception> resumeRecordConsumer) {
+        try {
+            for (KeyValueAndLogOffset resumeRecord : resumeRecords) {
+                resumeRecordConsumer.accept(resumeRecord);
             }
+        } catch (Exception e) {
+            ExceptionUtils.rethrow(e);
         }
+    }
 
-        // then, we need to reconstruct the row
-        rowEncoder.startNewRow();
-        for (int i = 0; i < currentRowType.getFieldCount(); i++) {
-            rowEncoder.encodeField(i, currentFieldGetters[i].getFieldOrNull(originalRow));
+    private LogRecords readLogRecords(long fetchOffset, FetchIsolation fetchIsolation)
+            throws Exception {
+        return logTablet
+                .read(
+                        fetchOffset,
+                        recoverContext.maxFetchLogSizeInRecoverKv,
+                        fetchIsolation,
+                        true,
+                        null)
+                .getRecords();
+    }
+
+    private void checkSchema(short schemaId) throws Exception {
+        if (currentSchemaId == null) {
+            initSchema(schemaId);
+        } else if (currentSchemaId != schemaId) {
+            throw new KvStorageException(
+                    String.format(
+                            "Can't recover kv tablet for table bucket from log %s since the schema changes from schema id %d to schema id %d. "
+                                    + "Currently, schema change is not supported.",
+                            recoverContext.tableBucket, currentSchemaId, schemaId));
         }
-        return rowEncoder.finishRow();
     }
 
     private void initSchema(int schemaId) throws Exception {
@@ -203,16 +292,91 @@ public class KvRecoverHelper {
         // kv tablet's table id or not. If not equal, it means other table with same
         // table path has been created, so the kv tablet's table is consider to be
         // deleted. We can ignore the restore operation
+        currentTableInfo = tableInfo;
         currentRowType = tableInfo.getRowType();
-        DataType[] dataTypes = currentRowType.getChildren().toArray(new DataType[0]);
         currentSchemaId = schemaId;
+    }
+
+    /**
+     * Converts the log records to the key-value pairs of kv. It's not thread safe, each converting
+     * thread should use its own converter.
+     */
+    private final class LogRecordConverter {
+
+        private final short schemaId;
+        private final KeyEncoder keyEncoder;
+        private final RowEncoder rowEncoder;
+        private final InternalRow.FieldGetter[] fieldGetters;
+
+        private LogRecordConverter() {
+            this.schemaId = currentSchemaId.shortValue();
+            DataType[] dataTypes = currentRowType.getChildren().toArray(new DataType[0]);
+            DataLakeFormat lakeFormat =
+                    currentTableInfo.getTableConfig().getDataLakeFormat().orElse(null);
+            this.keyEncoder =
+                    KeyEncoder.of(
+                            currentRowType, currentTableInfo.getPhysicalPrimaryKeys(), lakeFormat);
+            this.rowEncoder = RowEncoder.create(kvFormat, dataTypes);
+            this.fieldGetters = new InternalRow.FieldGetter[currentRowType.getFieldCount()];
+            for (int i = 0; i < currentRowType.getFieldCount(); i++) {
+                fieldGetters[i] = InternalRow.createFieldGetter(currentRowType.getTypeAt(i), i);
+            }
+        }
+
+        private List<KeyValueAndLogOffset> convert(LogRecordBatch logRecordBatch) {
+            List<KeyValueAndLogOffset> resumeRecords =
+                    new ArrayList<>(logRecordBatch.getRecordCount());
+            try {
+                convert(logRecordBatch, resumeRecords::add);
+            } catch (Exception e) {
+                ExceptionUtils.rethrow(e);
+            }
+            return resumeRecords;
+        }
 
-        DataLakeFormat lakeFormat = tableInfo.getTableConfig().getDataLakeFormat().orElse(null);
-        keyEncoder = KeyEncoder.of(currentRowType, tableInfo.getPhysicalPrimaryKeys(), lakeFormat);
-        rowEncoder = RowEncoder.create(kvFormat, dataTypes);
-        currentFieldGetters = new InternalRow.FieldGetter[currentRowType.getFieldCount()];
-        for (int i = 0; i < currentRowType.getFieldCount(); i++) {
-            currentFieldGetters[i] = InternalRow.createFieldGetter(currentRowType.getTypeAt(i), i);
+        private void convert(
+                LogRecordBatch logRecordBatch,
+                ThrowingConsumer<KeyValueAndLogOffset, Exception> resumeRecordConsumer)
+                throws Exception {
+            try (LogRecordReadContext readContext =
+                            LogRecordReadContext.createArrowReadContext(currentRowType, schemaId);
+                    CloseableIterator<LogRecord> logRecordIter =
+                            logRecordBatch.records(readContext)) {
+                while (logRecordIter.hasNext()) {
+                    LogRecord logRecord = logRecordIter.next();
+                    if (logRecord.getChangeType() != ChangeType.UPDATE_BEFORE) {
+                        InternalRow logRow = logRecord.getRow();
+                        byte[] key = keyEncoder.encodeKey(logRow);
+                        byte[] value = null;
+                        if (logRecord.getChangeType() != ChangeType.DELETE) {
+                            // the log row format may not compatible with kv row format,
+                            // e.g, arrow vs. compacted, thus needs a conversion here.
+                            BinaryRow row = toKvRow(logRecord.getRow());
+                            value = ValueEncoder.encodeValue(schemaId, row);
+                        }
+                        resumeRecordConsumer.accept(
+                                new KeyValueAndLogOffset(key, value, logRecord.logOffset()));
+                    }
+                }
+            }
+        }
+
+        // TODO: this is very in-efficient, because the conversion is CPU heavy. It's done by
+        //  multiple threads in the pipelined recovery, but should be optimized in the future.
+        private BinaryRow toKvRow(InternalRow originalRow) {
+            if (kvFormat == KvFormat.INDEXED) {
+                // if the row is in indexed row format, just return the original row directly
+                if (originalRow instanceof IndexedRow) {
+                    return (IndexedRow) originalRow;
+                }
+            }
+
+            // then, we need to reconstruct the row
+            rowEncoder.startNewRow();
+            for (int i = 0; i < currentRowType.getFieldCount(); i++) {
+                rowEncoder.encodeField(i, fieldGetters[i].getFieldOrNull(originalRow));
+            }
+            return rowEncoder.finishRow();
         }
     }
 
@@ -226,6 +390,10 @@ public class KvRecoverHelper {
             this.value = value;
             this.logOffset = logOffset;
         }
+
+        private long sizeInBytes() {
+            return value == null ? key.length : key.length + value.length;
+        }
     }
 
     /** A context to provide necessary objects for kv recovering. */
@@ -236,16 +404,25 @@ public class KvRecoverHelper {
 
         private final ZooKeeperClient zkClient;
         private final int maxFetchLogSizeInRecoverKv;
+        private final int recoverParallelism;
+        private final long recoverWriteBatchSize;
+        private final boolean recoverWithSstIngestion;
 
         public KvRecoverContext(
                 TablePath tablePath,
                 TableBucket tableBucket,
                 ZooKeeperClient zkClient,
-                int maxFetchLogSizeInRecoverKv) {
+                int maxFetchLogSizeInRecoverKv,
+                int recoverParallelism,
+                long recoverWriteBatchSize,
+                boolean recoverWithSstIngestion) {
             this.tablePath = tablePath;
             this.tableBucket = tableBucket;
             this.zkClient = zkClient;
             this.maxFetchLogSizeInRecoverKv = maxFetchLogSizeInRecoverKv;
+            this.recoverParallelism = recoverParallelism;
+            this.recoverWriteBatchSize = recoverWriteBatchSize;
+            this.recoverWithSstIngestion = recoverWithSstIngestion;
         }
     }
 }
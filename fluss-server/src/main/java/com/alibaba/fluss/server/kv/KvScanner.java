@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv;
+
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.server.kv.rocksdb.RocksDBKvScanner;
+import com.alibaba.fluss.utils.function.ThrowingConsumer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+
+/**
+ * A scanner opened by {@link KvTablet#openScanner(byte[], byte[])} to read the values of the kv
+ * tablet page by page. The scanner becomes invalid once the kv tablet is closed.
+ */
+@NotThreadSafe
+public final class KvScanner implements AutoCloseable {
+
+    private final KvTablet kvTablet;
+    private final RocksDBKvScanner scanner;
+
+    KvScanner(KvTablet kvTablet, RocksDBKvScanner scanner) {
+        this.kvTablet = kvTablet;
+        this.scanner = scanner;
+    }
+
+    public TableBucket getTableBucket() {
+        return kvTablet.getTableBucket();
+    }
+
+    /**
+     * Reads the values of the next keys until the total size of the values reaches the given max
+     * bytes, at least one value is read if there are remaining keys.
+     *
+     * @return true if there are remaining keys to read.
+     */
+    public boolean next(int maxBytes, ThrowingConsumer<byte[], IOException> valueConsumer)
+            throws IOException {
+        return kvTablet.scan(scanner, maxBytes, valueConsumer);
+    }
+
+    @Override
+    public void close() {
+        kvTablet.closeScanner(scanner);
+    }
+}
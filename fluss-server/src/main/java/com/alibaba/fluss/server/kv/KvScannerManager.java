@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.exception.KvStorageException;
+import com.alibaba.fluss.exception.UnknownScannerException;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.utils.clock.Clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A manager to keep the {@link KvScanner}s opened by the clients between the scan requests. Each
+ * scanner is identified by a random scanner id which is returned to the client as the continuation
+ * token. A scanner is held exclusively by a request when it's acquired, and is closed if it's not
+ * accessed within the configured ttl.
+ */
+@ThreadSafe
+public class KvScannerManager implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KvScannerManager.class);
+
+    private final Clock clock;
+    private final long scannerTtlMs;
+    private final int maxScanners;
+
+    @GuardedBy("this")
+    private final Map<ByteBuffer, ScannerContext> scanners = new HashMap<>();
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    public KvScannerManager(Configuration conf, Clock clock) {
+        this(
+                clock,
+                conf.get(ConfigOptions.KV_SCANNER_TTL).toMillis(),
+                conf.getInt(ConfigOptions.KV_SCANNER_MAX_NUM));
+    }
+
+    KvScannerManager(Clock clock, long scannerTtlMs, int maxScanners) {
+        this.clock = clock;
+        this.scannerTtlMs = scannerTtlMs;
+        this.maxScanners = maxScanners;
+    }
+
+    public long getScannerTtlMs() {
+        return scannerTtlMs;
+    }
+
+    /**
+     * Registers the scanner which is acquired by the current request, the scanner should be
+     * released by {@link #release(ScannerContext, boolean)} once the request is done.
+     */
+    public synchronized ScannerContext register(KvScanner scanner) {
+        if (closed || scanners.size() >= maxScanners) {
+            scanner.close();
+            throw new KvStorageException(
+                    String.format(
+                            "Failed to open scanner for bucket %s, the number of open kv scanners "
+                                    + "has reached the limit %d.",
+                            scanner.getTableBucket(), maxScanners));
+        }
+
+        byte[] scannerId = newScannerId();
+        ScannerContext context = new ScannerContext(scannerId, scanner);
+        context.inUse = true;
+        scanners.put(ByteBuffer.wrap(scannerId), context);
+        return context;
+    }
+
+    /**
+     * Acquires the scanner of the given id for the bucket exclusively.
+     *
+     * @throws UnknownScannerException if the scanner is not found, which may be expired or closed,
+     *     or it's being used by another request.
+     */
+    public synchronized ScannerContext acquire(byte[] scannerId, TableBucket tableBucket) {
+        ScannerContext context = scanners.get(ByteBuffer.wrap(scannerId));
+        if (context == null || !context.scanner.getTableBucket().equals(tableBucket)) {
+            throw new UnknownScannerException(
+                    String.format(
+                            "The scanner is unknown for bucket %s, it may be expired or closed.",
+                            tableBucket));
+        }
+        if (context.inUse) {
+            throw new UnknownScannerException(
+                    String.format(
+                            "The scanner of bucket %s is being used by another request.",
+                            tableBucket));
+        }
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Releases the acquired scanner. The scanner is closed and removed if it's finished, otherwise
+     * the ttl of the scanner is refreshed.
+     */
+    public void release(ScannerContext context, boolean finished) {
+        synchronized (this) {
+            context.inUse = false;
+            context.lastAccessTimeMs = clock.milliseconds();
+            if (!finished && !closed) {
+                return;
+            }
+            scanners.remove(ByteBuffer.wrap(context.scannerId));
+        }
+        context.scanner.close();
+    }
+
+    /** Closes the scanners which are not accessed within the ttl. */
+    public void expireScanners() {
+        List<ScannerContext> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.milliseconds();
+            Iterator<ScannerContext> iterator = scanners.values().iterator();
+            while (iterator.hasNext()) {
+                ScannerContext context = iterator.next();
+                if (!context.inUse && now - context.lastAccessTimeMs > scannerTtlMs) {
+                    iterator.remove();
+                    expired.add(context);
+                }
+            }
+        }
+
+        for (ScannerContext context : expired) {
+            LOG.info(
+                    "Close the kv scanner of bucket {} as it's expired.",
+                    context.scanner.getTableBucket());
+            context.scanner.close();
+        }
+    }
+
+    public synchronized int numScanners() {
+        return scanners.size();
+    }
+
+    @Override
+    public void close() {
+        List<ScannerContext> toClose = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            // the scanners in use are closed when they are released
+            Iterator<ScannerContext> iterator = scanners.values().iterator();
+            while (iterator.hasNext()) {
+                ScannerContext context = iterator.next();
+                if (!context.inUse) {
+                    iterator.remove();
+                    toClose.add(context);
+                }
+            }
+        }
+        for (ScannerContext context : toClose) {
+            context.scanner.close();
+        }
+    }
+
+    private static byte[] newScannerId() {
+        UUID uuid = UUID.randomUUID();
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    /** The context of a scanner kept by the {@link KvScannerManager}. */
+    public static final class ScannerContext {
+        private final byte[] scannerId;
+        private final KvScanner scanner;
+
+        @GuardedBy("KvScannerManager.this")
+        private boolean inUse;
+
+        @GuardedBy("KvScannerManager.this")
+        private long lastAccessTimeMs;
+
+        private ScannerContext(byte[] scannerId, KvScanner scanner) {
+            this.scannerId = scannerId;
+            this.scanner = scanner;
+        }
+
+        public byte[] getScannerId() {
+            return scannerId;
+        }
+
+        public KvScanner getScanner() {
+            return scanner;
+        }
+    }
+}
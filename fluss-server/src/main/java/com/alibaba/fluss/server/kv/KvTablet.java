@@ -22,6 +22,7 @@ import com.alibaba.fluss.compression.ArrowCompressionInfo;
 import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.config.Configuration;
 import com.alibaba.fluss.exception.KvStorageException;
+import com.alibaba.fluss.exception.UnknownScannerException;
 import com.alibaba.fluss.memory.MemorySegmentPool;
 import com.alibaba.fluss.metadata.KvFormat;
 import com.alibaba.fluss.metadata.LogFormat;
@@ -29,8 +30,12 @@ import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.Schema;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.metrics.Counter;
+import com.alibaba.fluss.metrics.DescriptiveStatisticsHistogram;
+import com.alibaba.fluss.metrics.Histogram;
 import com.alibaba.fluss.metrics.MeterView;
 import com.alibaba.fluss.metrics.MetricNames;
+import com.alibaba.fluss.metrics.ThreadSafeSimpleCounter;
 import com.alibaba.fluss.metrics.groups.MetricGroup;
 import com.alibaba.fluss.record.ChangeType;
 import com.alibaba.fluss.record.KvRecord;
@@ -41,10 +46,13 @@ import com.alibaba.fluss.row.arrow.ArrowWriterPool;
 import com.alibaba.fluss.row.arrow.ArrowWriterProvider;
 import com.alibaba.fluss.row.encode.ValueDecoder;
 import com.alibaba.fluss.row.encode.ValueEncoder;
+import com.alibaba.fluss.server.kv.prewrite.AbstractKvPreWriteBuffer;
 import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer;
 import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.TruncateReason;
+import com.alibaba.fluss.server.kv.prewrite.PagedKvPreWriteBuffer;
 import com.alibaba.fluss.server.kv.rocksdb.RocksDBKv;
 import com.alibaba.fluss.server.kv.rocksdb.RocksDBKvBuilder;
+import com.alibaba.fluss.server.kv.rocksdb.RocksDBKvScanner;
 import com.alibaba.fluss.server.kv.rocksdb.RocksDBResourceContainer;
 import com.alibaba.fluss.server.kv.rowmerger.RowMerger;
 import com.alibaba.fluss.server.kv.snapshot.KvFileHandleAndLocalPath;
@@ -60,9 +68,10 @@ import com.alibaba.fluss.server.utils.FatalErrorHandler;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.BufferAllocator;
 import com.alibaba.fluss.types.DataType;
 import com.alibaba.fluss.types.RowType;
-import com.alibaba.fluss.utils.BytesUtils;
 import com.alibaba.fluss.utils.FileUtils;
 import com.alibaba.fluss.utils.FlussPaths;
+import com.alibaba.fluss.utils.function.SupplierWithException;
+import com.alibaba.fluss.utils.function.ThrowingConsumer;
 import com.alibaba.fluss.utils.types.Tuple2;
 
 import org.slf4j.Logger;
@@ -74,13 +83,20 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static com.alibaba.fluss.utils.concurrent.LockUtils.inLock;
 import static com.alibaba.fluss.utils.concurrent.LockUtils.inReadLock;
 import static com.alibaba.fluss.utils.concurrent.LockUtils.inWriteLock;
 
@@ -89,6 +105,9 @@ import static com.alibaba.fluss.utils.concurrent.LockUtils.inWriteLock;
 public final class KvTablet {
     private static final Logger LOG = LoggerFactory.getLogger(KvTablet.class);
 
+    // the directory under the kv tablet dir to write the SST files to be ingested into rocksdb
+    private static final String SST_INGEST_DIR = "sst-ingest";
+
     private final PhysicalTablePath physicalPath;
     private final TableBucket tableBucket;
 
@@ -99,10 +118,28 @@ public final class KvTablet {
     private final File kvTabletDir;
     private final long writeBatchSize;
     private final RocksDBKv rocksDBKv;
-    private final KvPreWriteBuffer kvPreWriteBuffer;
+    private final AbstractKvPreWriteBuffer kvPreWriteBuffer;
 
     // A lock that guards all modifications to the kv.
     private final ReadWriteLock kvLock = new ReentrantReadWriteLock();
+
+    // A lock that serializes the flushes of the pre-write buffer, the snapshots and the closing of
+    // the kv. It must be acquired before the kvLock if both are required. The flush only holds
+    // the kvLock to prepare and complete the flush, while the flushed key-value pairs are written
+    // to rocksdb without blocking the puts.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // the scanners opened on the kv, which hold rocksdb snapshots and must be closed before
+    // closing the kv
+    private final Set<RocksDBKvScanner> openScanners = ConcurrentHashMap.newKeySet();
+
+    // the time waiting for the kvLock by the puts and the flushes
+    private final Histogram putLockWaitTimeHistogram;
+    private final Histogram flushLockWaitTimeHistogram;
+
+    // the records and bytes applied to kv when recovering from the log
+    private final Counter recoveredRecordsCount;
+    private final Counter recoveredBytesCount;
     private final LogFormat logFormat;
     private final KvFormat kvFormat;
     private final Schema schema;
@@ -110,6 +147,21 @@ public final class KvTablet {
     private final RowMerger rowMerger;
     private final ArrowCompressionInfo arrowCompressionInfo;
 
+    // the read context and value decoder of the schema of the last put kv records, they are
+    // reused across the puts of the same schema to avoid creating them for every batch
+    @GuardedBy("kvLock")
+    private int readSchemaId = -1;
+
+    @GuardedBy("kvLock")
+    private KvRecordBatch.ReadContext readContext;
+
+    @GuardedBy("kvLock")
+    private ValueDecoder valueDecoder;
+
+    // the key reused to point to the keys of the put kv records
+    @GuardedBy("kvLock")
+    private final KvPreWriteBuffer.Key reusableKey = KvPreWriteBuffer.Key.reusable();
+
     /**
      * The kv data in pre-write buffer whose log offset is less than the flushedLogOffset has been
      * flushed into kv.
@@ -129,6 +181,7 @@ public final class KvTablet {
             LogFormat logFormat,
             BufferAllocator arrowBufferAllocator,
             MemorySegmentPool memorySegmentPool,
+            @Nullable MemorySegmentPool preWriteBufferPool,
             KvFormat kvFormat,
             Schema schema,
             RowMerger rowMerger,
@@ -139,7 +192,10 @@ public final class KvTablet {
         this.kvTabletDir = kvTabletDir;
         this.rocksDBKv = rocksDBKv;
         this.writeBatchSize = writeBatchSize;
-        this.kvPreWriteBuffer = new KvPreWriteBuffer(createKvBatchWriter());
+        this.kvPreWriteBuffer =
+                preWriteBufferPool == null
+                        ? new KvPreWriteBuffer(createKvBatchWriter())
+                        : new PagedKvPreWriteBuffer(createKvBatchWriter(), preWriteBufferPool);
         this.logFormat = logFormat;
         this.arrowWriterProvider = new ArrowWriterPool(arrowBufferAllocator);
         this.memorySegmentPool = memorySegmentPool;
@@ -147,6 +203,10 @@ public final class KvTablet {
         this.schema = schema;
         this.rowMerger = rowMerger;
         this.arrowCompressionInfo = arrowCompressionInfo;
+        this.putLockWaitTimeHistogram = new DescriptiveStatisticsHistogram(100);
+        this.flushLockWaitTimeHistogram = new DescriptiveStatisticsHistogram(100);
+        this.recoveredRecordsCount = new ThreadSafeSimpleCounter();
+        this.recoveredBytesCount = new ThreadSafeSimpleCounter();
     }
 
     public static KvTablet create(
@@ -155,6 +215,7 @@ public final class KvTablet {
             Configuration serverConf,
             BufferAllocator arrowBufferAllocator,
             MemorySegmentPool memorySegmentPool,
+            @Nullable MemorySegmentPool preWriteBufferPool,
             KvFormat kvFormat,
             Schema schema,
             RowMerger rowMerger,
@@ -170,6 +231,7 @@ public final class KvTablet {
                 serverConf,
                 arrowBufferAllocator,
                 memorySegmentPool,
+                preWriteBufferPool,
                 kvFormat,
                 schema,
                 rowMerger,
@@ -184,6 +246,7 @@ public final class KvTablet {
             Configuration serverConf,
             BufferAllocator arrowBufferAllocator,
             MemorySegmentPool memorySegmentPool,
+            @Nullable MemorySegmentPool preWriteBufferPool,
             KvFormat kvFormat,
             Schema schema,
             RowMerger rowMerger,
@@ -200,6 +263,7 @@ public final class KvTablet {
                 logTablet.getLogFormat(),
                 arrowBufferAllocator,
                 memorySegmentPool,
+                preWriteBufferPool,
                 kvFormat,
                 schema,
                 rowMerger,
@@ -259,6 +323,15 @@ public final class KvTablet {
         metricGroup.meter(
                 MetricNames.KV_PRE_WRITE_BUFFER_TRUNCATE_AS_ERROR_RATE,
                 new MeterView(kvPreWriteBuffer.getTruncateAsErrorCount()));
+
+        // about lock contention.
+        metricGroup.histogram(MetricNames.KV_PUT_LOCK_WAIT_TIME_MS, putLockWaitTimeHistogram);
+        metricGroup.histogram(MetricNames.KV_FLUSH_LOCK_WAIT_TIME_MS, flushLockWaitTimeHistogram);
+
+        // about recovering from log.
+        metricGroup.meter(
+                MetricNames.KV_RECOVER_RECORDS_RATE, new MeterView(recoveredRecordsCount));
+        metricGroup.meter(MetricNames.KV_RECOVER_BYTES_RATE, new MeterView(recoveredBytesCount));
     }
 
     /**
@@ -269,8 +342,8 @@ public final class KvTablet {
      */
     public LogAppendInfo putAsLeader(KvRecordBatch kvRecords, @Nullable int[] targetColumns)
             throws Exception {
-        return inWriteLock(
-                kvLock,
+        return inWriteLockTimed(
+                putLockWaitTimeHistogram,
                 () -> {
                     rocksDBKv.checkIfRocksDBClosed();
                     short schemaId = kvRecords.schemaId();
@@ -280,25 +353,35 @@ public final class KvTablet {
                     walBuilder.setWriterState(kvRecords.writerId(), kvRecords.batchSequence());
                     // get offset to track the offset corresponded to the kv record
                     long logEndOffsetOfPrevBatch = logTablet.localLogEndOffset();
-                    DataType[] fieldTypes = rowType.getChildren().toArray(new DataType[0]);
                     try {
                         long logOffset = logEndOffsetOfPrevBatch;
 
-                        // TODO: reuse the read context and decoder
-                        KvRecordBatch.ReadContext readContext =
-                                KvRecordReadContext.createReadContext(kvFormat, fieldTypes);
-                        ValueDecoder valueDecoder =
-                                new ValueDecoder(readContext.getRowDecoder(schemaId));
+                        prepareReadContext(schemaId, rowType);
+                        List<KvRecord> records = new ArrayList<>();
                         for (KvRecord kvRecord : kvRecords.records(readContext)) {
-                            byte[] keyBytes = BytesUtils.toArray(kvRecord.getKey());
-                            KvPreWriteBuffer.Key key = KvPreWriteBuffer.Key.of(keyBytes);
+                            if (kvRecord.getRow() == null && !rowMerger.supportsDelete()) {
+                                // skip delete rows if the merger doesn't support yet
+                                continue;
+                            }
+                            records.add(kvRecord);
+                        }
+                        // get the old values of all the keys missed in the pre-write buffer in
+                        // one batch before merging the records
+                        KvPreWriteBuffer.Key[] ownedKeys = new KvPreWriteBuffer.Key[records.size()];
+                        Map<KvPreWriteBuffer.Key, byte[]> kvValues =
+                                multiGetMissedKeys(records, ownedKeys);
+
+                        for (int i = 0; i < records.size(); i++) {
+                            KvRecord kvRecord = records.get(i);
+                            // the key points to the key of the record, and is copied only when
+                            // it's put into the pre-write buffer
+                            KvPreWriteBuffer.Key key =
+                                    ownedKeys[i] != null
+                                            ? ownedKeys[i]
+                                            : reusableKey.pointTo(kvRecord.getKey());
                             if (kvRecord.getRow() == null) {
-                                if (!rowMerger.supportsDelete()) {
-                                    // skip delete rows if the merger doesn't support yet
-                                    continue;
-                                }
                                 // it's for deletion
-                                byte[] oldValue = getFromBufferOrKv(key);
+                                byte[] oldValue = getFromBufferOrKv(key, kvValues);
                                 if (oldValue == null) {
                                     // there might be large amount of such deletion, so we don't log
                                     LOG.debug(
@@ -324,7 +407,7 @@ public final class KvTablet {
                                 }
                             } else {
                                 // upsert operation
-                                byte[] oldValue = getFromBufferOrKv(key);
+                                byte[] oldValue = getFromBufferOrKv(key, kvValues);
                                 // it's update
                                 if (oldValue != null) {
                                     BinaryRow oldRow = valueDecoder.decodeValue(oldValue).row;
@@ -393,6 +476,16 @@ public final class KvTablet {
                 });
     }
 
+    @GuardedBy("kvLock")
+    private void prepareReadContext(short schemaId, RowType rowType) {
+        if (readContext == null || readSchemaId != schemaId) {
+            DataType[] fieldTypes = rowType.getChildren().toArray(new DataType[0]);
+            readContext = KvRecordReadContext.createReadContext(kvFormat, fieldTypes);
+            valueDecoder = new ValueDecoder(readContext.getRowDecoder(schemaId));
+            readSchemaId = schemaId;
+        }
+    }
+
     private WalBuilder createWalBuilder(int schemaId, RowType rowType) throws Exception {
         switch (logFormat) {
             case INDEXED:
@@ -423,10 +516,8 @@ public final class KvTablet {
     }
 
     public void flush(long exclusiveUpToLogOffset, FatalErrorHandler fatalErrorHandler) {
-        // todo: need to introduce a backpressure mechanism
-        // to avoid too much records in kvPreWriteBuffer
-        inWriteLock(
-                kvLock,
+        inLock(
+                flushLock,
                 () -> {
                     // when kv manager is closed which means kv tablet is already closed,
                     // but the tablet server may still handle fetch log request from follower
@@ -434,19 +525,34 @@ public final class KvTablet {
                     // and then flush the pre-write buffer.
 
                     // In such case, if the tablet is already closed, we won't flush pre-write
-                    // buffer, just warning it.
+                    // buffer, just warning it. The tablet can't be closed during the flush as
+                    // closing also requires the flushLock.
                     if (isClosed) {
                         LOG.warn(
                                 "The kv tablet for {} is already closed, ignore flushing kv pre-write buffer.",
                                 tableBucket);
-                    } else {
-                        try {
-                            kvPreWriteBuffer.flush(exclusiveUpToLogOffset);
-                            flushedLogOffset = exclusiveUpToLogOffset;
-                        } catch (Throwable t) {
-                            fatalErrorHandler.onFatalError(
-                                    new KvStorageException("Failed to flush kv pre-write buffer."));
-                        }
+                        return;
+                    }
+                    try {
+                        AbstractKvPreWriteBuffer.PreparedFlush preparedFlush =
+                                inWriteLockTimed(
+                                        flushLockWaitTimeHistogram,
+                                        () ->
+                                                kvPreWriteBuffer.prepareFlush(
+                                                        exclusiveUpToLogOffset));
+                        // the flushed key-value pairs are kept in the pre-write buffer until
+                        // they are written to rocksdb, so the concurrent puts always see them
+                        kvPreWriteBuffer.writeFlush(preparedFlush);
+                        inWriteLockTimed(
+                                flushLockWaitTimeHistogram,
+                                () -> {
+                                    kvPreWriteBuffer.completeFlush(preparedFlush);
+                                    flushedLogOffset = exclusiveUpToLogOffset;
+                                    return null;
+                                });
+                    } catch (Throwable t) {
+                        fatalErrorHandler.onFatalError(
+                                new KvStorageException("Failed to flush kv pre-write buffer."));
                     }
                 });
     }
@@ -469,14 +575,63 @@ public final class KvTablet {
      *     tablet.
      */
     public Executor getGuardedExecutor() {
-        return runnable -> inWriteLock(kvLock, runnable::run);
+        return runnable -> inLock(flushLock, () -> inWriteLock(kvLock, runnable::run));
+    }
+
+    /** Runs the action in the write lock of the kvLock, and records the time waiting for it. */
+    private <T, E extends Exception> T inWriteLockTimed(
+            Histogram lockWaitTimeHistogram, SupplierWithException<T, E> action) throws E {
+        long startTime = System.nanoTime();
+        Lock writeLock = kvLock.writeLock();
+        writeLock.lock();
+        try {
+            lockWaitTimeHistogram.update((System.nanoTime() - startTime) / 1_000_000);
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
     }
 
-    // get from kv pre-write buffer first, if can't find, get from rocksdb
-    private byte[] getFromBufferOrKv(KvPreWriteBuffer.Key key) throws IOException {
+    /**
+     * Gets the values of the keys of the given records which can't be found in the pre-write buffer
+     * from rocksdb by one multi-get, instead of looking up rocksdb record by record. The keys
+     * looked up are copied into {@code ownedKeys} at the index of the records, so that they can be
+     * put into the pre-write buffer without copying again.
+     *
+     * @return the values of the keys looked up from rocksdb, a key maps to null if it doesn't exist
+     */
+    private Map<KvPreWriteBuffer.Key, byte[]> multiGetMissedKeys(
+            List<KvRecord> records, KvPreWriteBuffer.Key[] ownedKeys) throws IOException {
+        Map<KvPreWriteBuffer.Key, byte[]> kvValues = new HashMap<>();
+        List<KvPreWriteBuffer.Key> missedKeys = new ArrayList<>();
+        List<byte[]> missedKeyBytes = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            KvPreWriteBuffer.Key key = reusableKey.pointTo(records.get(i).getKey());
+            if (kvPreWriteBuffer.get(key) == null && !kvValues.containsKey(key)) {
+                KvPreWriteBuffer.Key ownedKey = key.copyIfReusable();
+                ownedKeys[i] = ownedKey;
+                kvValues.put(ownedKey, null);
+                missedKeys.add(ownedKey);
+                missedKeyBytes.add(ownedKey.get());
+            }
+        }
+        if (missedKeys.isEmpty()) {
+            return kvValues;
+        }
+
+        List<byte[]> values = rocksDBKv.multiGet(missedKeyBytes);
+        for (int i = 0; i < missedKeys.size(); i++) {
+            kvValues.put(missedKeys.get(i), values.get(i));
+        }
+        return kvValues;
+    }
+
+    // get from kv pre-write buffer first, if can't find, get from the values got from rocksdb
+    private byte[] getFromBufferOrKv(
+            KvPreWriteBuffer.Key key, Map<KvPreWriteBuffer.Key, byte[]> kvValues) {
         KvPreWriteBuffer.Value value = kvPreWriteBuffer.get(key);
         if (value == null) {
-            return rocksDBKv.get(key.get());
+            return kvValues.get(key);
         }
         return value.get();
     }
@@ -508,37 +663,128 @@ public final class KvTablet {
                 });
     }
 
-    public KvBatchWriter createKvBatchWriter() {
-        return rocksDBKv.newWriteBatch(writeBatchSize);
+    /**
+     * Opens a scanner to read the values of the keys in the range [startKey, endKey) from a
+     * snapshot of the kv. Only the data flushed to rocksdb is visible to the scanner. The scanner
+     * should be closed as soon as possible, and it will be closed when the kv is closed.
+     */
+    public KvScanner openScanner(@Nullable byte[] startKey, @Nullable byte[] endKey)
+            throws IOException {
+        return inReadLock(
+                kvLock,
+                () -> {
+                    rocksDBKv.checkIfRocksDBClosed();
+                    RocksDBKvScanner scanner = rocksDBKv.newScanner(startKey, endKey);
+                    openScanners.add(scanner);
+                    return new KvScanner(this, scanner);
+                });
     }
 
-    public void close() throws Exception {
-        LOG.info("close kv tablet {} for table {}.", tableBucket, physicalPath);
-        inWriteLock(
+    /**
+     * Reads the next values of the given scanner until the total size reaches the max bytes.
+     *
+     * @return true if there are remaining keys to read.
+     */
+    boolean scan(
+            RocksDBKvScanner scanner,
+            int maxBytes,
+            ThrowingConsumer<byte[], IOException> valueConsumer)
+            throws IOException {
+        return inReadLock(
                 kvLock,
                 () -> {
-                    if (isClosed) {
-                        return;
+                    if (scanner.isClosed()) {
+                        throw new UnknownScannerException(
+                                String.format(
+                                        "The scanner of bucket %s has been closed.", tableBucket));
                     }
-                    if (rocksDBKv != null) {
-                        rocksDBKv.close();
-                    }
-                    isClosed = true;
+                    return scanner.next(maxBytes, valueConsumer);
                 });
     }
 
-    /** Completely delete the kv directory and all contents form the file system with no delay. */
-    public void drop() throws Exception {
-        inWriteLock(
+    void closeScanner(RocksDBKvScanner scanner) {
+        inReadLock(
                 kvLock,
                 () -> {
-                    // first close the kv.
-                    close();
-                    // then delete the directory.
-                    FileUtils.deleteDirectory(kvTabletDir);
+                    if (openScanners.remove(scanner)) {
+                        scanner.close();
+                    }
                 });
     }
 
+    public KvBatchWriter createKvBatchWriter() {
+        return rocksDBKv.newWriteBatch(writeBatchSize);
+    }
+
+    /**
+     * Create a {@link KvBatchWriter} which is flushed only when the consumed memory reaches the
+     * given batch size, regardless of the number of the records. It's used to write large batches
+     * when recovering from the log.
+     */
+    KvBatchWriter createKvBatchWriter(long batchSize) {
+        return rocksDBKv.newWriteBatch(batchSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create a {@link KvBatchWriter} which writes the key-value pairs into SST files of the given
+     * size and ingests them into rocksdb. It's used to load a large amount of data when recovering
+     * from the log.
+     */
+    KvBatchWriter createSstIngestWriter(long fileSize) throws IOException {
+        return rocksDBKv.newSstIngestWriter(new File(kvTabletDir, SST_INGEST_DIR), fileSize);
+    }
+
+    Counter getRecoveredRecordsCount() {
+        return recoveredRecordsCount;
+    }
+
+    Counter getRecoveredBytesCount() {
+        return recoveredBytesCount;
+    }
+
+    public void close() throws Exception {
+        LOG.info("close kv tablet {} for table {}.", tableBucket, physicalPath);
+        // wait for the in-progress flush, which may be writing to rocksdb without the kvLock
+        inLock(
+                flushLock,
+                () ->
+                        inWriteLock(
+                                kvLock,
+                                () -> {
+                                    if (isClosed) {
+                                        return;
+                                    }
+                                    // close the pre-write buffer first to release the memory
+                                    // held by it
+                                    kvPreWriteBuffer.close();
+                                    // the open scanners hold the resource of rocksdb, which
+                                    // blocks the closing of rocksdb
+                                    for (RocksDBKvScanner scanner : openScanners) {
+                                        scanner.close();
+                                    }
+                                    openScanners.clear();
+                                    if (rocksDBKv != null) {
+                                        rocksDBKv.close();
+                                    }
+                                    isClosed = true;
+                                }));
+    }
+
+    /** Completely delete the kv directory and all contents form the file system with no delay. */
+    public void drop() throws Exception {
+        inLock(
+                flushLock,
+                () ->
+                        inWriteLock(
+                                kvLock,
+                                () -> {
+                                    // first close the kv.
+                                    close();
+                                    // then delete the directory.
+                                    FileUtils.deleteDirectory(kvTabletDir);
+                                }));
+    }
+
     public RocksIncrementalSnapshot createIncrementalSnapshot(
             Map<Long, Collection<KvFileHandleAndLocalPath>> uploadedSstFiles,
             KvSnapshotDataUploader kvSnapshotDataUploader,
@@ -554,7 +800,7 @@ public final class KvTablet {
 
     // only for testing.
     @VisibleForTesting
-    KvPreWriteBuffer getKvPreWriteBuffer() {
+    AbstractKvPreWriteBuffer getKvPreWriteBuffer() {
         return kvPreWriteBuffer;
     }
 
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.prewrite;
+
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.metrics.Counter;
+import com.alibaba.fluss.metrics.DescriptiveStatisticsHistogram;
+import com.alibaba.fluss.metrics.Histogram;
+import com.alibaba.fluss.metrics.SimpleCounter;
+import com.alibaba.fluss.server.kv.KvBatchWriter;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Key;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.TruncateReason;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Value;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+
+/**
+ * The base class of the pre-write buffers for putting kv records. It maintains the max log sequence
+ * number, the metrics and the {@link KvBatchWriter} to flush the key-value pairs to, while the
+ * subclasses decide how the key-value pairs are stored in the buffer.
+ *
+ * <p>See {@link KvPreWriteBuffer} for the design of the pre-write buffer.
+ *
+ * <p>A flush can be split into three steps, so that the key-value pairs can be written to the
+ * underlying kv storage without blocking the puts: {@link #prepareFlush(long)} collects the
+ * key-value pairs to be flushed, {@link #writeFlush(PreparedFlush)} writes them to the kv storage
+ * and {@link #completeFlush(PreparedFlush)} removes them from the buffer. Only the writing step can
+ * run concurrently with the other methods of the buffer, and the flushes must not run concurrently
+ * with each other.
+ */
+@NotThreadSafe
+public abstract class AbstractKvPreWriteBuffer implements AutoCloseable {
+
+    protected final KvBatchWriter kvBatchWriter;
+
+    // metrics related.
+    private final Counter flushCount;
+    private final Histogram flushLatencyHistogram;
+    private final Counter truncateAsDuplicatedCount;
+    private final Counter truncateAsErrorCount;
+
+    // the max LSN in the buffer
+    protected long maxLogSequenceNumber = -1;
+
+    protected AbstractKvPreWriteBuffer(KvBatchWriter kvBatchWriter) {
+        this.kvBatchWriter = kvBatchWriter;
+
+        flushCount = new SimpleCounter();
+        // consider won't flush frequently, we set a small window size
+        flushLatencyHistogram = new DescriptiveStatisticsHistogram(5);
+        truncateAsDuplicatedCount = new SimpleCounter();
+        truncateAsErrorCount = new SimpleCounter();
+    }
+
+    /**
+     * Delete a key-value pair with the given key.
+     *
+     * @param logSequenceNumber the log sequence number for the delete operation
+     */
+    public void delete(Key key, long logSequenceNumber) {
+        update(key, null, logSequenceNumber);
+    }
+
+    /**
+     * Put a key-value pair.
+     *
+     * @param logSequenceNumber the log sequence number for the put operation
+     */
+    public void put(Key key, @Nullable byte[] value, long logSequenceNumber) {
+        update(key, value, logSequenceNumber);
+    }
+
+    private void update(Key key, @Nullable byte[] value, long lsn) {
+        if (maxLogSequenceNumber >= lsn) {
+            throw new IllegalArgumentException(
+                    "The log sequence number must be non-decreasing. "
+                            + "The current log sequence number is "
+                            + maxLogSequenceNumber
+                            + ", but the new log sequence number is "
+                            + lsn);
+        }
+
+        doUpdate(key, value, lsn);
+        // update the max lsn
+        maxLogSequenceNumber = lsn;
+    }
+
+    /**
+     * Put the key-value pair into the buffer, a null value means the key is marked as deleted. The
+     * given key may be a reusable key, so the implementation must copy it if it's retained.
+     */
+    protected abstract void doUpdate(Key key, @Nullable byte[] value, long lsn);
+
+    /**
+     * Return a value with the given key.
+     *
+     * @return A value wrapping a null byte array if the key is marked as deleted; null if any
+     *     key-value pair can be found by the key in the buffer.
+     */
+    public abstract @Nullable Value get(Key key);
+
+    /**
+     * Truncate the buffer to the given log sequence number so that it only contains key-value pairs
+     * whose log sequence number is less than the given log sequence number.
+     *
+     * @param targetLogSequenceNumber the lower bound of the log sequence number truncated to.
+     * @param truncateReason the reason to truncate
+     */
+    public void truncateTo(long targetLogSequenceNumber, TruncateReason truncateReason) {
+        if (truncateReason == TruncateReason.DUPLICATED) {
+            truncateAsDuplicatedCount.inc();
+        } else {
+            truncateAsErrorCount.inc();
+        }
+        doTruncateTo(targetLogSequenceNumber);
+    }
+
+    /**
+     * Remove the key-value pairs whose log sequence number is greater or equal than the given log
+     * sequence number, and update the max log sequence number accordingly.
+     */
+    protected abstract void doTruncateTo(long targetLogSequenceNumber);
+
+    /**
+     * To flush the key-value pairs whose sequence number is less than the given sequence number.
+     *
+     * @param exclusiveUpToLogSequenceNumber the exclusive upper bound of the log sequence number to
+     *     be flushed
+     */
+    public void flush(long exclusiveUpToLogSequenceNumber) throws IOException {
+        PreparedFlush preparedFlush = prepareFlush(exclusiveUpToLogSequenceNumber);
+        writeFlush(preparedFlush);
+        completeFlush(preparedFlush);
+    }
+
+    /**
+     * Collects the key-value pairs whose sequence number is less than the given sequence number to
+     * be flushed. The key-value pairs are still visible in the buffer until the flush is completed.
+     *
+     * @param exclusiveUpToLogSequenceNumber the exclusive upper bound of the log sequence number to
+     *     be flushed
+     */
+    public abstract PreparedFlush prepareFlush(long exclusiveUpToLogSequenceNumber);
+
+    /**
+     * Writes the prepared key-value pairs to the underlying kv storage. It can run concurrently
+     * with the puts, gets and truncations of the buffer.
+     */
+    public void writeFlush(PreparedFlush preparedFlush) throws IOException {
+        // flush to underlying kv tablet
+        if (preparedFlush.writeTo(kvBatchWriter) > 0) {
+            long start = System.nanoTime();
+            kvBatchWriter.flush();
+            flushCount.inc();
+            flushLatencyHistogram.update((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /** Removes the prepared key-value pairs, which have been written to the kv storage. */
+    public void completeFlush(PreparedFlush preparedFlush) {
+        preparedFlush.complete();
+    }
+
+    @VisibleForTesting
+    public long getMaxLSN() {
+        return maxLogSequenceNumber;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (kvBatchWriter != null) {
+            kvBatchWriter.close();
+        }
+    }
+
+    public Histogram getFlushLatencyHistogram() {
+        return flushLatencyHistogram;
+    }
+
+    public Counter getFlushCount() {
+        return flushCount;
+    }
+
+    public Counter getTruncateAsDuplicatedCount() {
+        return truncateAsDuplicatedCount;
+    }
+
+    public Counter getTruncateAsErrorCount() {
+        return truncateAsErrorCount;
+    }
+
+    /** The key-value pairs prepared to be flushed by {@link #prepareFlush(long)}. */
+    public interface PreparedFlush {
+
+        /**
+         * Writes the key-value pairs to the given writer without flushing it.
+         *
+         * @return the number of the key-value pairs written
+         */
+        int writeTo(KvBatchWriter kvBatchWriter) throws IOException;
+
+        /** Removes the key-value pairs from the buffer. */
+        void complete();
+    }
+}
@@ -18,11 +18,6 @@
 package com.alibaba.fluss.server.kv.prewrite;
 
 import com.alibaba.fluss.annotation.VisibleForTesting;
-import com.alibaba.fluss.memory.MemorySegment;
-import com.alibaba.fluss.metrics.Counter;
-import com.alibaba.fluss.metrics.DescriptiveStatisticsHistogram;
-import com.alibaba.fluss.metrics.Histogram;
-import com.alibaba.fluss.metrics.SimpleCounter;
 import com.alibaba.fluss.server.kv.KvBatchWriter;
 import com.alibaba.fluss.utils.MurmurHashUtils;
 
@@ -30,15 +25,20 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.alibaba.fluss.utils.Preconditions.checkState;
 import static com.alibaba.fluss.utils.UnsafeUtils.BYTE_ARRAY_BASE_OFFSET;
+import static com.alibaba.fluss.utils.UnsafeUtils.getLong;
 
 /**
  * An in-memory pre-write buffer for putting kv records. The kv records will first be put into the
@@ -86,8 +86,7 @@ import static com.alibaba.fluss.utils.UnsafeUtils.BYTE_ARRAY_BASE_OFFSET;
  * head to tail, it will stop flush.
  */
 @NotThreadSafe
-public class KvPreWriteBuffer implements AutoCloseable {
-    private final KvBatchWriter kvBatchWriter;
+public class KvPreWriteBuffer extends AbstractKvPreWriteBuffer {
 
     // a mapping from the key to the kv-entry
     private final Map<Key, KvEntry> kvEntryMap = new HashMap<>();
@@ -95,93 +94,36 @@ public class KvPreWriteBuffer implements AutoCloseable {
     // a linked list for all kv entries
     private final LinkedList<KvEntry> allKvEntries = new LinkedList<>();
 
-    // metrics related.
-    private final Counter flushCount;
-    private final Histogram flushLatencyHistogram;
-    private final Counter truncateAsDuplicatedCount;
-    private final Counter truncateAsErrorCount;
-
-    // the max LSN in the buffer
-    private long maxLogSequenceNumber = -1;
-
     public KvPreWriteBuffer(KvBatchWriter kvBatchWriter) {
-        this.kvBatchWriter = kvBatchWriter;
-
-        flushCount = new SimpleCounter();
-        // consider won't flush frequently, we set a small window size
-        flushLatencyHistogram = new DescriptiveStatisticsHistogram(5);
-        truncateAsDuplicatedCount = new SimpleCounter();
-        truncateAsErrorCount = new SimpleCounter();
-    }
-
-    /**
-     * Delete a key-value pair with the given key.
-     *
-     * @param logSequenceNumber the log sequence number for the delete operation
-     */
-    public void delete(Key key, long logSequenceNumber) {
-        update(key, Value.of(null), logSequenceNumber);
+        super(kvBatchWriter);
     }
 
-    /**
-     * Put a key-value pair.
-     *
-     * @param logSequenceNumber the log sequence number for the put operation
-     */
-    public void put(Key key, @Nullable byte[] value, long logSequenceNumber) {
-        update(key, Value.of(value), logSequenceNumber);
-    }
-
-    private void update(Key key, Value value, long lsn) {
-        if (maxLogSequenceNumber >= lsn) {
-            throw new IllegalArgumentException(
-                    "The log sequence number must be non-decreasing. "
-                            + "The current log sequence number is "
-                            + maxLogSequenceNumber
-                            + ", but the new log sequence number is "
-                            + lsn);
-        }
-
+    @Override
+    protected void doUpdate(Key key, @Nullable byte[] bytes, long lsn) {
+        Value value = Value.of(bytes);
+        // the reusable key may be re-pointed later, so keep a copy of it
+        Key ownedKey = key.copyIfReusable();
         // create the kv entry with previous pointer if exists, and put the new entry to the map
         KvEntry kvEntry =
                 kvEntryMap.compute(
-                        key,
+                        ownedKey,
                         (k, v) ->
                                 v == null
-                                        ? KvEntry.of(key, value, lsn)
-                                        : KvEntry.of(key, value, lsn, v));
+                                        ? KvEntry.of(ownedKey, value, lsn)
+                                        : KvEntry.of(ownedKey, value, lsn, v));
         // append the entry to the tail of the list for all kv entries
         allKvEntries.addLast(kvEntry);
-        // update the max lsn
-        maxLogSequenceNumber = lsn;
     }
 
-    /**
-     * Return a value with the given key.
-     *
-     * @return A value wrapping a null byte array if the key is marked as deleted; null if any
-     *     key-value pair can be found by the key in the buffer.
-     */
+    @Override
     public @Nullable Value get(Key key) {
         KvEntry kvEntry = kvEntryMap.get(key);
 
         return kvEntry == null ? null : kvEntry.getValue();
     }
 
-    /**
-     * Truncate the buffer to the given log sequence number so that it only contains key-value pairs
-     * whose log sequence number is less than the given log sequence number.
-     *
-     * @param targetLogSequenceNumber the lower bound of the log sequence number truncated to.
-     * @param truncateReason the reason to truncate
-     */
-    public void truncateTo(long targetLogSequenceNumber, TruncateReason truncateReason) {
-        if (truncateReason == TruncateReason.DUPLICATED) {
-            truncateAsDuplicatedCount.inc();
-        } else {
-            truncateAsErrorCount.inc();
-        }
-
+    @Override
+    protected void doTruncateTo(long targetLogSequenceNumber) {
         Iterator<KvEntry> descIter = allKvEntries.descendingIterator();
         while (descIter.hasNext()) {
             KvEntry entry = descIter.next();
@@ -201,47 +143,18 @@ public class KvPreWriteBuffer implements AutoCloseable {
         }
     }
 
-    /**
-     * To flush the key-value pairs whose sequence number is less than the given sequence number.
-     *
-     * @param exclusiveUpToLogSequenceNumber the exclusive upper bound of the log sequence number to
-     *     be flushed
-     */
-    public void flush(long exclusiveUpToLogSequenceNumber) throws IOException {
-        int flushedCount = 0;
-        for (Iterator<KvEntry> it = allKvEntries.iterator(); it.hasNext(); ) {
-            KvEntry entry = it.next();
+    @Override
+    public PreparedFlush prepareFlush(long exclusiveUpToLogSequenceNumber) {
+        List<KvEntry> entries = new ArrayList<>();
+        for (KvEntry entry : allKvEntries) {
             // if find one entry whose sequence number is greater than the given sequence number,
             // break the loop
             if (entry.getLogSequenceNumber() >= exclusiveUpToLogSequenceNumber) {
                 break;
             }
-
-            // first remove the entry from the list
-            it.remove();
-
-            // then write data using write batch writer
-            Value value = entry.getValue();
-            if (value.value != null) {
-                flushedCount += 1;
-                kvBatchWriter.put(entry.getKey().key, value.value);
-            } else {
-                flushedCount += 1;
-                kvBatchWriter.delete(entry.getKey().key);
-            }
-
-            // if the kv entry to be flushed is equal to the one in the kvEntryMap, we
-            // can remove it from the map. Although it's not a must to remove from the map,
-            // we remove it to reduce the memory usage
-            kvEntryMap.remove(entry.getKey(), entry);
-        }
-        // flush to underlying kv tablet
-        if (flushedCount > 0) {
-            long start = System.nanoTime();
-            kvBatchWriter.flush();
-            flushCount.inc();
-            flushLatencyHistogram.update((System.nanoTime() - start) / 1_000_000);
+            entries.add(entry);
         }
+        return new HeapPreparedFlush(entries);
     }
 
     @VisibleForTesting
@@ -254,32 +167,43 @@ public class KvPreWriteBuffer implements AutoCloseable {
         return allKvEntries;
     }
 
-    @VisibleForTesting
-    public long getMaxLSN() {
-        return maxLogSequenceNumber;
-    }
+    /** The kv entries at the head of the buffer to be flushed. */
+    private class HeapPreparedFlush implements PreparedFlush {
 
-    @Override
-    public void close() throws Exception {
-        if (kvBatchWriter != null) {
-            kvBatchWriter.close();
-        }
-    }
-
-    public Histogram getFlushLatencyHistogram() {
-        return flushLatencyHistogram;
-    }
+        // the kv entries are immutable, so they can be written while the buffer is modified
+        private final List<KvEntry> entries;
 
-    public Counter getFlushCount() {
-        return flushCount;
-    }
+        private HeapPreparedFlush(List<KvEntry> entries) {
+            this.entries = entries;
+        }
 
-    public Counter getTruncateAsDuplicatedCount() {
-        return truncateAsDuplicatedCount;
-    }
+        @Override
+        public int writeTo(KvBatchWriter kvBatchWriter) throws IOException {
+            for (KvEntry entry : entries) {
+                Value value = entry.getValue();
+                if (value.value != null) {
+                    kvBatchWriter.put(entry.getKey().key, value.value);
+                } else {
+                    kvBatchWriter.delete(entry.getKey().key);
+                }
+            }
+            return entries.size();
+        }
 
-    public Counter getTruncateAsErrorCount() {
-        return truncateAsErrorCount;
+        @Override
+        public void complete() {
+            for (KvEntry entry : entries) {
+                // the flushed entries are always at the head of the list as the entries being
+                // flushed are never truncated
+                KvEntry head = allKvEntries.pollFirst();
+                checkState(head == entry, "The kv entry to be flushed has been removed.");
+
+                // if the kv entry to be flushed is equal to the one in the kvEntryMap, we
+                // can remove it from the map. Although it's not a must to remove from the map,
+                // we remove it to reduce the memory usage
+                kvEntryMap.remove(entry.getKey(), entry);
+            }
+        }
     }
 
     /**
@@ -361,29 +285,100 @@ public class KvPreWriteBuffer implements AutoCloseable {
         }
     }
 
-    /** A key wrapper to wrap a byte array with overriding the hashCode and equals method. */
+    /**
+     * A key wrapper to wrap a byte array with overriding the hashCode and equals method.
+     *
+     * <p>A key created by {@link #of(byte[])} owns the whole byte array. A key created by {@link
+     * #reusable()} can be re-pointed to the keys of the kv records by {@link #pointTo(ByteBuffer)}
+     * to look up the buffer without allocating, such a key is copied when it's put into the buffer.
+     */
     public static class Key {
-        private final byte[] key;
+        private byte[] key;
+        private int offset;
+        private int length;
 
         // Currently, in our design, the Key is always created for putting to a map, or getting from
         // a map, which means the hash code for the Key will always be calculated.
         // So, in here, we calculate the hash code eagerly for the key.
-        private final int hashCode;
+        private int hashCode;
+
+        private final boolean reusable;
+        // the buffer to copy the bytes of direct buffers into, only used by the reusable key
+        private byte[] copyBuffer = new byte[0];
 
         public static Key of(byte[] key) {
-            return new Key(key);
+            return new Key(key, 0, key.length, hashBytes(key, 0, key.length), false);
         }
 
-        private Key(byte[] key) {
+        /** Creates a key which can be re-pointed to other keys by {@link #pointTo(ByteBuffer)}. */
+        public static Key reusable() {
+            byte[] empty = new byte[0];
+            return new Key(empty, 0, 0, hashBytes(empty, 0, 0), true);
+        }
+
+        private Key(byte[] key, int offset, int length, int hashCode, boolean reusable) {
             this.key = key;
-            this.hashCode =
-                    MurmurHashUtils.hashUnsafeBytes(key, BYTE_ARRAY_BASE_OFFSET, key.length);
+            this.offset = offset;
+            this.length = length;
+            this.hashCode = hashCode;
+            this.reusable = reusable;
+        }
+
+        /**
+         * Points the reusable key to the remaining bytes of the given buffer. The key references
+         * the backing array of a heap buffer directly, the bytes of a direct buffer are copied into
+         * a byte array kept by this key. So the key is only valid until the content of the buffer
+         * changes or this key is re-pointed.
+         */
+        public Key pointTo(ByteBuffer buffer) {
+            checkState(reusable, "Only the reusable key can be re-pointed.");
+            int size = buffer.remaining();
+            if (buffer.hasArray()) {
+                key = buffer.array();
+                offset = buffer.arrayOffset() + buffer.position();
+            } else {
+                if (copyBuffer.length < size) {
+                    copyBuffer = new byte[size];
+                }
+                int position = buffer.position();
+                buffer.get(copyBuffer, 0, size);
+                buffer.position(position);
+                key = copyBuffer;
+                offset = 0;
+            }
+            length = size;
+            hashCode = hashBytes(key, offset, length);
+            return this;
         }
 
+        /** Returns a copy of this key if the key is reusable, otherwise returns this key. */
+        public Key copyIfReusable() {
+            if (!reusable) {
+                return this;
+            }
+            return new Key(
+                    Arrays.copyOfRange(key, offset, offset + length), 0, length, hashCode, false);
+        }
+
+        /** Returns the bytes of the key, the bytes are copied if this key is reusable. */
         public byte[] get() {
+            return reusable ? Arrays.copyOfRange(key, offset, offset + length) : key;
+        }
+
+        // the array, offset and length of the key bytes, which are only valid before the key is
+        // re-pointed
+        byte[] array() {
             return key;
         }
 
+        int offset() {
+            return offset;
+        }
+
+        int length() {
+            return length;
+        }
+
         @Override
         public int hashCode() {
             return hashCode;
@@ -401,21 +396,35 @@ public class KvPreWriteBuffer implements AutoCloseable {
 
             // first compare hash code, if hash code is not equal,
             // it must be not equal
-            if (this.hashCode != that.hashCode) {
+            if (this.hashCode != that.hashCode || this.length != that.length) {
                 return false;
             }
 
-            // then, compare the key
-            // we use MemorySegment to compare the key since it's faster
-            // than Arrays.equals
-            MemorySegment s1 = MemorySegment.wrap(key);
-            MemorySegment s2 = MemorySegment.wrap(that.key);
-            return key.length == that.key.length && s1.equalTo(s2, 0, 0, key.length);
+            // then, compare the key 8 bytes at a time since it's faster than comparing the bytes
+            // one by one
+            int i = 0;
+            while (i <= length - 8) {
+                if (getLong(key, offset + i) != getLong(that.key, that.offset + i)) {
+                    return false;
+                }
+                i += 8;
+            }
+            while (i < length) {
+                if (key[offset + i] != that.key[that.offset + i]) {
+                    return false;
+                }
+                i++;
+            }
+            return true;
         }
 
         @Override
         public String toString() {
-            return "[" + Base64.getEncoder().encodeToString(key) + "]";
+            return "[" + Base64.getEncoder().encodeToString(get()) + "]";
+        }
+
+        private static int hashBytes(byte[] bytes, int offset, int length) {
+            return MurmurHashUtils.hashUnsafeBytes(bytes, BYTE_ARRAY_BASE_OFFSET + offset, length);
         }
     }
 
@@ -0,0 +1,592 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.prewrite;
+
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.exception.KvPreWriteBufferFullException;
+import com.alibaba.fluss.exception.RecordTooLargeException;
+import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.memory.MemorySegmentPool;
+import com.alibaba.fluss.server.kv.KvBatchWriter;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Key;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Value;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+import static com.alibaba.fluss.utils.Preconditions.checkState;
+import static com.alibaba.fluss.utils.UnsafeUtils.getLong;
+
+/**
+ * A pre-write buffer which stores the key-value pairs in the pages allocated from a {@link
+ * MemorySegmentPool} instead of in per-record heap objects, see {@link KvPreWriteBuffer} for the
+ * design of the pre-write buffer.
+ *
+ * <p>The key-value pairs are appended to the pages as entries in the order of their log sequence
+ * numbers, and an entry is addressed by its logical position in the stream of appended bytes. Each
+ * entry consists of a fixed size header and the bytes of the key and value:
+ *
+ * <pre>
+ * +----------+---------------+----------+---------+-----------+-----+-------+
+ * | LSN (8B) | Previous (8B) | Hash(4B) | KeyLen  | ValueLen  | Key | Value |
+ * |          |               |          | (4B)    | (4B)      |     |       |
+ * +----------+---------------+----------+---------+-----------+-----+-------+
+ * </pre>
+ *
+ * <p>The previous is the position of the previous entry of the same key, which is used to roll back
+ * the index when truncating, and a value length of -1 means the key is marked as deleted. The
+ * header never spans two pages, while the bytes of the key and value may span multiple pages.
+ *
+ * <p>A hash index of open addressing maps each key to the position of its latest entry. Flushing
+ * returns the pages at the head back to the pool, and truncating returns the pages at the tail. The
+ * buffer fails the put with a {@link KvPreWriteBufferFullException} if no more pages can be
+ * allocated from the pool, so that the memory is bounded by the pool and the writers are throttled
+ * until the buffers are flushed. A key-value pair which needs more pages than the whole pool fails
+ * with a {@link RecordTooLargeException} instead, as retrying it would never succeed.
+ *
+ * <p>The written entries are never modified, so a prepared flush reads the entries from a snapshot
+ * of the pages while the new entries are appended to the buffer.
+ */
+@NotThreadSafe
+public class PagedKvPreWriteBuffer extends AbstractKvPreWriteBuffer {
+
+    private static final int LSN_OFFSET = 0;
+    private static final int PREVIOUS_OFFSET = LSN_OFFSET + 8;
+    private static final int HASH_OFFSET = PREVIOUS_OFFSET + 8;
+    private static final int KEY_LENGTH_OFFSET = HASH_OFFSET + 4;
+    private static final int VALUE_LENGTH_OFFSET = KEY_LENGTH_OFFSET + 4;
+    @VisibleForTesting static final int HEADER_SIZE = VALUE_LENGTH_OFFSET + 4;
+
+    private static final int DELETED_VALUE_LENGTH = -1;
+    private static final long NO_ENTRY = -1L;
+    private static final int INITIAL_INDEX_CAPACITY = 64;
+
+    private final MemorySegmentPool memoryPool;
+    private final int pageSize;
+
+    // the pages holding the entries
+    private final Pages pages;
+    // the position of the first entry not flushed yet
+    private long headPosition = 0;
+    // the end position of the last entry, the next entry is appended from it
+    private long writePosition = 0;
+
+    // the hash index from the key to the position of its latest entry
+    private long[] slots;
+    private int[] slotHashes;
+    private int slotMask;
+    private int indexSize;
+
+    public PagedKvPreWriteBuffer(KvBatchWriter kvBatchWriter, MemorySegmentPool memoryPool) {
+        super(kvBatchWriter);
+        checkArgument(
+                memoryPool.pageSize() >= HEADER_SIZE,
+                "The page size of the memory pool must be at least %s bytes, but is %s bytes.",
+                HEADER_SIZE,
+                memoryPool.pageSize());
+        this.memoryPool = memoryPool;
+        this.pageSize = memoryPool.pageSize();
+        this.pages = new Pages(pageSize, new ArrayList<>(), 0);
+        initIndex(INITIAL_INDEX_CAPACITY);
+    }
+
+    @Override
+    protected void doUpdate(Key key, @Nullable byte[] value, long lsn) {
+        int keyLength = key.length();
+        int valueLength = value == null ? DELETED_VALUE_LENGTH : value.length;
+        long entrySize = HEADER_SIZE + (long) keyLength + Math.max(valueLength, 0);
+        checkEntrySize(entrySize);
+        long position = pages.alignHeader(writePosition);
+        long end = position + entrySize;
+        ensureCapacity(end);
+
+        int hash = key.hashCode();
+        int slot = findSlot(key);
+        long previous = slots[slot];
+
+        MemorySegment headerPage = pages.page(position);
+        int headerOffset = pages.offsetInPage(position);
+        headerPage.putLong(headerOffset + LSN_OFFSET, lsn);
+        headerPage.putLong(headerOffset + PREVIOUS_OFFSET, previous);
+        headerPage.putInt(headerOffset + HASH_OFFSET, hash);
+        headerPage.putInt(headerOffset + KEY_LENGTH_OFFSET, keyLength);
+        headerPage.putInt(headerOffset + VALUE_LENGTH_OFFSET, valueLength);
+        long keyPosition = position + HEADER_SIZE;
+        pages.writeBytes(keyPosition, key.array(), key.offset(), keyLength);
+        if (value != null) {
+            pages.writeBytes(keyPosition + keyLength, value, 0, valueLength);
+        }
+        writePosition = end;
+
+        slots[slot] = position;
+        slotHashes[slot] = hash;
+        if (previous == NO_ENTRY && ++indexSize * 2 > slots.length) {
+            initIndexAndRehash(slots.length * 2);
+        }
+    }
+
+    @Override
+    public @Nullable Value get(Key key) {
+        long position = slots[findSlot(key)];
+        if (position == NO_ENTRY) {
+            return null;
+        }
+        int valueLength = pages.valueLength(position);
+        if (valueLength == DELETED_VALUE_LENGTH) {
+            return Value.of(null);
+        }
+        byte[] value = new byte[valueLength];
+        pages.readBytes(position + HEADER_SIZE + pages.keyLength(position), value);
+        return Value.of(value);
+    }
+
+    @Override
+    protected void doTruncateTo(long targetLogSequenceNumber) {
+        // find the first entry to be truncated, the end and the max lsn of the entries to be
+        // retained
+        long truncatePosition = NO_ENTRY;
+        long retainedEnd = headPosition;
+        long retainedMaxLogSequenceNumber = -1;
+        while (retainedEnd < writePosition) {
+            long position = pages.alignHeader(retainedEnd);
+            long lsn = pages.logSequenceNumber(position);
+            if (lsn >= targetLogSequenceNumber) {
+                truncatePosition = position;
+                break;
+            }
+            retainedMaxLogSequenceNumber = lsn;
+            retainedEnd = pages.nextEntry(position);
+        }
+        if (truncatePosition == NO_ENTRY) {
+            return;
+        }
+
+        // roll back the index to the latest entries before the truncate position
+        for (long position = truncatePosition;
+                position < writePosition;
+                position = pages.alignHeader(pages.nextEntry(position))) {
+            int slot = findSlot(position);
+            if (slot < 0) {
+                continue;
+            }
+            long previous = pages.previous(position);
+            while (previous >= truncatePosition) {
+                previous = pages.previous(previous);
+            }
+            if (previous >= headPosition) {
+                slots[slot] = previous;
+            } else {
+                removeSlot(slot);
+            }
+        }
+
+        writePosition = retainedEnd;
+        maxLogSequenceNumber = retainedMaxLogSequenceNumber;
+        releasePages();
+    }
+
+    @Override
+    public PreparedFlush prepareFlush(long exclusiveUpToLogSequenceNumber) {
+        int count = 0;
+        long flushEnd = headPosition;
+        while (flushEnd < writePosition) {
+            long position = pages.alignHeader(flushEnd);
+            if (pages.logSequenceNumber(position) >= exclusiveUpToLogSequenceNumber) {
+                break;
+            }
+            flushEnd = pages.nextEntry(position);
+            count++;
+        }
+        return new PagedPreparedFlush(pages.snapshot(flushEnd), headPosition, flushEnd, count);
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            super.close();
+        } finally {
+            memoryPool.returnAll(pages.segments);
+            pages.reset();
+            headPosition = writePosition = 0;
+            initIndex(INITIAL_INDEX_CAPACITY);
+        }
+    }
+
+    @VisibleForTesting
+    int getPageCount() {
+        return pages.segments.size();
+    }
+
+    @VisibleForTesting
+    int getIndexSize() {
+        return indexSize;
+    }
+
+    // ------------------------------------------------------------------------
+    //  pages
+    // ------------------------------------------------------------------------
+
+    /**
+     * Fails the put if the entry can't be held by the pool even when the buffer is empty, i.e. when
+     * the entry starts at the beginning of a page.
+     */
+    private void checkEntrySize(long entrySize) {
+        long requiredPages = (entrySize + pageSize - 1) / pageSize;
+        long totalPages = memoryPool.totalSize() / pageSize;
+        if (requiredPages > totalPages) {
+            throw new RecordTooLargeException(
+                    String.format(
+                            "The kv record requires %s bytes in the kv pre-write buffer, which "
+                                    + "exceeds the memory of the kv pre-write buffers of %s bytes.",
+                            entrySize, memoryPool.totalSize()));
+        }
+    }
+
+    private void ensureCapacity(long end) {
+        while (pages.endPosition() < end) {
+            MemorySegment page;
+            try {
+                page = memoryPool.nextSegment();
+            } catch (IOException e) {
+                page = null;
+            }
+            if (page == null) {
+                // don't hold the pages which can't be written
+                releasePages();
+                throw new KvPreWriteBufferFullException(
+                        String.format(
+                                "The memory of the kv pre-write buffers is exhausted, the pool of "
+                                        + "%s bytes has %s bytes available, but %s bytes are "
+                                        + "required to put the kv record.",
+                                memoryPool.totalSize(),
+                                memoryPool.availableMemory(),
+                                end - writePosition));
+            }
+            pages.segments.add(page);
+        }
+    }
+
+    /**
+     * Returns the pages before the head position and after the write position back to the pool, all
+     * the pages are returned if the buffer is empty.
+     */
+    private void releasePages() {
+        List<MemorySegment> segments = pages.segments;
+        if (headPosition >= writePosition) {
+            memoryPool.returnAll(segments);
+            // all the entries have been removed from the index, so it's safe to restart from 0
+            pages.reset();
+            headPosition = writePosition = 0;
+            return;
+        }
+        int headPages = (int) ((headPosition - pages.basePosition) / pageSize);
+        int usedPages = pages.pageCount(writePosition);
+        if (usedPages < segments.size()) {
+            List<MemorySegment> tailPages = segments.subList(usedPages, segments.size());
+            memoryPool.returnAll(new ArrayList<>(tailPages));
+            tailPages.clear();
+        }
+        if (headPages > 0) {
+            List<MemorySegment> flushedPages = segments.subList(0, headPages);
+            memoryPool.returnAll(new ArrayList<>(flushedPages));
+            flushedPages.clear();
+            pages.basePosition += (long) headPages * pageSize;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  hash index
+    // ------------------------------------------------------------------------
+
+    private void initIndex(int capacity) {
+        slots = new long[capacity];
+        Arrays.fill(slots, NO_ENTRY);
+        slotHashes = new int[capacity];
+        slotMask = capacity - 1;
+        indexSize = 0;
+    }
+
+    private void initIndexAndRehash(int capacity) {
+        long[] oldSlots = slots;
+        int[] oldSlotHashes = slotHashes;
+        int oldIndexSize = indexSize;
+        initIndex(capacity);
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != NO_ENTRY) {
+                int slot = oldSlotHashes[i] & slotMask;
+                while (slots[slot] != NO_ENTRY) {
+                    slot = (slot + 1) & slotMask;
+                }
+                slots[slot] = oldSlots[i];
+                slotHashes[slot] = oldSlotHashes[i];
+            }
+        }
+        indexSize = oldIndexSize;
+    }
+
+    /** Returns the slot of the given key, or the empty slot to insert the key if it's absent. */
+    private int findSlot(Key key) {
+        int hash = key.hashCode();
+        int slot = hash & slotMask;
+        while (slots[slot] != NO_ENTRY) {
+            if (slotHashes[slot] == hash && pages.keyEquals(slots[slot], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot pointing to the entry at the given position, or -1 if the entry isn't the
+     * latest entry of its key.
+     */
+    private int findSlot(long position) {
+        int slot = pages.hash(position) & slotMask;
+        while (slots[slot] != NO_ENTRY) {
+            if (slots[slot] == position) {
+                return slot;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return -1;
+    }
+
+    /** Removes the slot by shifting the following slots backward to keep the probe sequences. */
+    private void removeSlot(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & slotMask;
+        while (slots[next] != NO_ENTRY) {
+            int ideal = slotHashes[next] & slotMask;
+            // move the slot to the hole if its ideal slot isn't in the cyclic range (hole, next]
+            if (((next - ideal) & slotMask) >= ((next - hole) & slotMask)) {
+                slots[hole] = slots[next];
+                slotHashes[hole] = slotHashes[next];
+                hole = next;
+            }
+            next = (next + 1) & slotMask;
+        }
+        slots[hole] = NO_ENTRY;
+        indexSize--;
+    }
+
+    /** The entries at the head of the buffer to be flushed. */
+    private class PagedPreparedFlush implements PreparedFlush {
+
+        // the snapshot of the pages holding the entries, which isn't changed by the puts
+        private final Pages flushingPages;
+        private final long startPosition;
+        private final long endPosition;
+        private final int count;
+
+        private PagedPreparedFlush(
+                Pages flushingPages, long startPosition, long endPosition, int count) {
+            this.flushingPages = flushingPages;
+            this.startPosition = startPosition;
+            this.endPosition = endPosition;
+            this.count = count;
+        }
+
+        @Override
+        public int writeTo(KvBatchWriter kvBatchWriter) throws IOException {
+            long position = startPosition;
+            while (position < endPosition) {
+                position = flushingPages.alignHeader(position);
+                byte[] key = new byte[flushingPages.keyLength(position)];
+                flushingPages.readBytes(position + HEADER_SIZE, key);
+                int valueLength = flushingPages.valueLength(position);
+                if (valueLength == DELETED_VALUE_LENGTH) {
+                    kvBatchWriter.delete(key);
+                } else {
+                    byte[] value = new byte[valueLength];
+                    flushingPages.readBytes(position + HEADER_SIZE + key.length, value);
+                    kvBatchWriter.put(key, value);
+                }
+                position = flushingPages.nextEntry(position);
+            }
+            return count;
+        }
+
+        @Override
+        public void complete() {
+            if (count == 0) {
+                return;
+            }
+            // the flushed entries are always at the head of the buffer as the entries being
+            // flushed are never truncated
+            checkState(
+                    headPosition == startPosition && writePosition >= endPosition,
+                    "The kv entries to be flushed have been removed.");
+            long position = startPosition;
+            while (position < endPosition) {
+                position = pages.alignHeader(position);
+                // remove the key from the index if it's the latest entry of the key
+                int slot = findSlot(position);
+                if (slot >= 0) {
+                    removeSlot(slot);
+                }
+                position = pages.nextEntry(position);
+            }
+            headPosition = endPosition;
+            releasePages();
+        }
+    }
+
+    /**
+     * The pages holding the entries, where the first page starts at the base position, and an entry
+     * is read or written by its position.
+     */
+    private static final class Pages {
+
+        private final int pageSize;
+        private final List<MemorySegment> segments;
+        private long basePosition;
+
+        private Pages(int pageSize, List<MemorySegment> segments, long basePosition) {
+            this.pageSize = pageSize;
+            this.segments = segments;
+            this.basePosition = basePosition;
+        }
+
+        /** Returns a snapshot of the pages holding the bytes before the given position. */
+        private Pages snapshot(long endPosition) {
+            return new Pages(
+                    pageSize,
+                    new ArrayList<>(segments.subList(0, pageCount(endPosition))),
+                    basePosition);
+        }
+
+        private void reset() {
+            segments.clear();
+            basePosition = 0;
+        }
+
+        /** Returns the number of the pages holding the bytes before the given position. */
+        private int pageCount(long endPosition) {
+            return (int) ((endPosition - basePosition + pageSize - 1) / pageSize);
+        }
+
+        private long endPosition() {
+            return basePosition + (long) segments.size() * pageSize;
+        }
+
+        private MemorySegment page(long position) {
+            return segments.get((int) ((position - basePosition) / pageSize));
+        }
+
+        private int offsetInPage(long position) {
+            return (int) ((position - basePosition) % pageSize);
+        }
+
+        /** Returns the position of the header to write at the given position. */
+        private long alignHeader(long position) {
+            int remaining = pageSize - offsetInPage(position);
+            return remaining < HEADER_SIZE ? position + remaining : position;
+        }
+
+        private long nextEntry(long position) {
+            return position
+                    + HEADER_SIZE
+                    + keyLength(position)
+                    + Math.max(valueLength(position), 0);
+        }
+
+        private long logSequenceNumber(long position) {
+            return page(position).getLong(offsetInPage(position) + LSN_OFFSET);
+        }
+
+        private long previous(long position) {
+            return page(position).getLong(offsetInPage(position) + PREVIOUS_OFFSET);
+        }
+
+        private int hash(long position) {
+            return page(position).getInt(offsetInPage(position) + HASH_OFFSET);
+        }
+
+        private int keyLength(long position) {
+            return page(position).getInt(offsetInPage(position) + KEY_LENGTH_OFFSET);
+        }
+
+        private int valueLength(long position) {
+            return page(position).getInt(offsetInPage(position) + VALUE_LENGTH_OFFSET);
+        }
+
+        private void writeBytes(long position, byte[] src, int offset, int length) {
+            while (length > 0) {
+                int offsetInPage = offsetInPage(position);
+                int toWrite = Math.min(length, pageSize - offsetInPage);
+                page(position).put(offsetInPage, src, offset, toWrite);
+                position += toWrite;
+                offset += toWrite;
+                length -= toWrite;
+            }
+        }
+
+        private void readBytes(long position, byte[] dst) {
+            int offset = 0;
+            while (offset < dst.length) {
+                int offsetInPage = offsetInPage(position);
+                int toRead = Math.min(dst.length - offset, pageSize - offsetInPage);
+                page(position).get(offsetInPage, dst, offset, toRead);
+                position += toRead;
+                offset += toRead;
+            }
+        }
+
+        /** Returns whether the key of the entry at the given position equals to the given key. */
+        private boolean keyEquals(long position, Key key) {
+            int length = key.length();
+            if (keyLength(position) != length) {
+                return false;
+            }
+            byte[] array = key.array();
+            int offset = key.offset();
+            long keyPosition = position + HEADER_SIZE;
+            int compared = 0;
+            while (compared < length) {
+                MemorySegment page = page(keyPosition);
+                int offsetInPage = offsetInPage(keyPosition);
+                int toCompare = Math.min(length - compared, pageSize - offsetInPage);
+                // compare 8 bytes at a time since it's faster than comparing the bytes one by one
+                int i = 0;
+                while (i <= toCompare - 8) {
+                    if (page.getLongNativeEndian(offsetInPage + i)
+                            != getLong(array, offset + compared + i)) {
+                        return false;
+                    }
+                    i += 8;
+                }
+                while (i < toCompare) {
+                    if (page.get(offsetInPage + i) != array[offset + compared + i]) {
+                        return false;
+                    }
+                    i++;
+                }
+                keyPosition += toCompare;
+                compared += toCompare;
+            }
+            return true;
+        }
+    }
+}
@@ -25,6 +25,8 @@ import com.alibaba.fluss.utils.IOUtils;
 
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
@@ -33,6 +35,7 @@ import org.rocksdb.WriteOptions;
 
 import javax.annotation.Nullable;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -86,6 +89,37 @@ public class RocksDBKv implements AutoCloseable {
         return new RocksDBWriteBatchWrapper(db, writeBatchSize);
     }
 
+    public RocksDBWriteBatchWrapper newWriteBatch(long writeBatchSize, int capacity) {
+        return new RocksDBWriteBatchWrapper(db, writeBatchSize, capacity);
+    }
+
+    public RocksDBSstIngestWriter newSstIngestWriter(File ingestDir, long fileSize)
+            throws IOException {
+        // write the SST files with the same options as the db, e.g., the compression
+        Options options =
+                new Options(optionsContainer.getDbOptions(), optionsContainer.getColumnOptions());
+        return new RocksDBSstIngestWriter(db, options, ingestDir, fileSize);
+    }
+
+    /**
+     * Ingests the SST files built outside of the db, e.g., by a bulk load, into the db. The files
+     * are moved into the db, and the key-value pairs in them override the existing ones. The files
+     * must be written by an {@link org.rocksdb.SstFileWriter} with the bytewise comparator, and a
+     * file in the list overrides the files before it.
+     */
+    public void ingestSstFiles(List<File> sstFiles) throws IOException {
+        List<String> files = new ArrayList<>(sstFiles.size());
+        for (File sstFile : sstFiles) {
+            files.add(sstFile.getAbsolutePath());
+        }
+        try (IngestExternalFileOptions ingestOptions =
+                RocksDBSstIngestWriter.createIngestOptions()) {
+            db.ingestExternalFile(files, ingestOptions);
+        } catch (RocksDBException e) {
+            throw new IOException("Fail to ingest SST files " + sstFiles + ".", e);
+        }
+    }
+
     public @Nullable byte[] get(byte[] key) throws IOException {
         try {
             return db.get(key);
@@ -120,6 +154,19 @@ public class RocksDBKv implements AutoCloseable {
         return pkList;
     }
 
+    /**
+     * Opens a scanner to read the values of the keys in the given range from a snapshot of the kv.
+     *
+     * @param startKey the inclusive start key, scan from the first key if null
+     * @param endKey the exclusive end key, scan to the last key if null
+     */
+    public RocksDBKvScanner newScanner(@Nullable byte[] startKey, @Nullable byte[] endKey)
+            throws IOException {
+        // prevent the db from being disposed while the scanner is open
+        ResourceGuard.Lease lease = rocksDBResourceGuard.acquireResource();
+        return new RocksDBKvScanner(db, defaultColumnFamilyHandle, lease, startKey, endKey);
+    }
+
     public List<byte[]> limitScan(Integer limit) {
         List<byte[]> pkList = new ArrayList<>();
         ReadOptions readOptions = new ReadOptions();
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.rocksdb;
+
+import com.alibaba.fluss.server.utils.ResourceGuard;
+import com.alibaba.fluss.utils.IOUtils;
+import com.alibaba.fluss.utils.function.ThrowingConsumer;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+import org.rocksdb.Snapshot;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A scanner to read the values of a {@link RocksDBKv} in the order of the keys. The scanner reads
+ * from a RocksDB snapshot taken when it's opened, so that the data written after that is invisible
+ * to the scanner. The snapshot and the iterator are kept until the scanner is closed, thus the
+ * scanner should be closed as soon as possible.
+ */
+@NotThreadSafe
+public class RocksDBKvScanner implements AutoCloseable {
+
+    private final RocksDB db;
+    private final ResourceGuard.Lease lease;
+    private final Snapshot snapshot;
+    private final ReadOptions readOptions;
+    @Nullable private final Slice upperBound;
+    private final RocksIterator iterator;
+
+    private boolean closed;
+
+    RocksDBKvScanner(
+            RocksDB db,
+            ColumnFamilyHandle columnFamilyHandle,
+            ResourceGuard.Lease lease,
+            @Nullable byte[] startKey,
+            @Nullable byte[] endKey) {
+        this.db = db;
+        this.lease = lease;
+        this.snapshot = db.getSnapshot();
+        this.readOptions = new ReadOptions().setSnapshot(snapshot);
+        if (endKey != null) {
+            this.upperBound = new Slice(endKey);
+            readOptions.setIterateUpperBound(upperBound);
+        } else {
+            this.upperBound = null;
+        }
+        this.iterator = db.newIterator(columnFamilyHandle, readOptions);
+        if (startKey != null) {
+            iterator.seek(startKey);
+        } else {
+            iterator.seekToFirst();
+        }
+    }
+
+    /**
+     * Reads the values of the next keys until the total size of the values reaches the given max
+     * bytes, at least one value is read if there are remaining keys.
+     *
+     * @return true if there are remaining keys to read.
+     */
+    public boolean next(int maxBytes, ThrowingConsumer<byte[], IOException> valueConsumer)
+            throws IOException {
+        int bytes = 0;
+        while (bytes < maxBytes && iterator.isValid()) {
+            byte[] value = iterator.value();
+            valueConsumer.accept(value);
+            bytes += value.length;
+            iterator.next();
+        }
+        if (iterator.isValid()) {
+            return true;
+        }
+
+        // the iterator becomes invalid either it reaches the end or there is an error
+        try {
+            iterator.status();
+        } catch (RocksDBException e) {
+            throw new IOException("Fail to scan kv.", e);
+        }
+        return false;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        List<AutoCloseable> toClose = new ArrayList<>(4);
+        toClose.add(iterator);
+        toClose.add(readOptions);
+        toClose.add(upperBound);
+        toClose.add(() -> db.releaseSnapshot(snapshot));
+        // release the lease at last, so that the db won't be closed before the resources above
+        toClose.add(lease);
+        IOUtils.closeAllQuietly(toClose);
+    }
+}
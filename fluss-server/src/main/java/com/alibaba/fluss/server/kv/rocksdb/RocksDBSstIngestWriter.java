@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.rocksdb;
+
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.server.kv.KvBatchWriter;
+import com.alibaba.fluss.utils.FileUtils;
+import com.alibaba.fluss.utils.IOUtils;
+
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
+
+/**
+ * A {@link KvBatchWriter} which sorts the written key-value pairs in memory, writes them into an
+ * SST file and ingests the file into RocksDB when flushing. Comparing to {@link
+ * RocksDBWriteBatchWrapper}, the data bypasses the memtable and is not rewritten by the flush of
+ * the memtable, which is much cheaper for loading a large amount of data.
+ *
+ * <p>The files are ingested in the order they are flushed, so a key-value pair written later
+ * overrides the one written before, even though they are in different files.
+ *
+ * <p>SST files which are built outside of the db can be ingested the same way by {@link
+ * RocksDBKv#ingestSstFiles(List)}.
+ */
+@NotThreadSafe
+public class RocksDBSstIngestWriter implements KvBatchWriter {
+
+    private final RocksDB db;
+    private final Options options;
+    private final EnvOptions envOptions;
+    private final IngestExternalFileOptions ingestOptions;
+
+    /** The directory to write the SST files before ingesting them. */
+    private final File ingestDir;
+
+    /** The max bytes of the key-value pairs in one SST file. */
+    private final long fileSize;
+
+    /**
+     * The key-value pairs to write to the next SST file, sorted by the bytewise comparator of
+     * RocksDB. A null value means the key is deleted.
+     */
+    private final TreeMap<byte[], byte[]> sortedKvs;
+
+    /** The bytes of the key-value pairs in {@link #sortedKvs}. */
+    private long bufferedBytes;
+
+    private int fileCount;
+
+    public RocksDBSstIngestWriter(RocksDB db, Options options, File ingestDir, long fileSize)
+            throws IOException {
+        checkArgument(fileSize > 0, "File size have to be positive.");
+        // clean up the files left by the previous failed ingestion
+        FileUtils.deleteDirectoryQuietly(ingestDir);
+        if (!ingestDir.mkdirs()) {
+            throw new IOException("Failed to create the directory " + ingestDir + ".");
+        }
+        this.db = db;
+        this.options = options;
+        this.envOptions = new EnvOptions();
+        this.ingestOptions = createIngestOptions();
+        this.ingestDir = ingestDir;
+        this.fileSize = fileSize;
+        this.sortedKvs = new TreeMap<>(RocksDBSstIngestWriter::compareBytes);
+    }
+
+    @Override
+    public void put(@Nonnull byte[] key, @Nonnull byte[] value) throws IOException {
+        buffer(key, value);
+        flushIfNeeded();
+    }
+
+    @Override
+    public void delete(@Nonnull byte[] key) throws IOException {
+        buffer(key, null);
+        flushIfNeeded();
+    }
+
+    private void buffer(byte[] key, @Nullable byte[] value) {
+        int size = sortedKvs.size();
+        byte[] previous = sortedKvs.put(key, value);
+        if (sortedKvs.size() == size) {
+            // the key is overridden, only the latest value will be written to the file
+            bufferedBytes -= entrySize(key, previous);
+        }
+        bufferedBytes += entrySize(key, value);
+    }
+
+    private static long entrySize(byte[] key, @Nullable byte[] value) {
+        return key.length + (value == null ? 0 : value.length);
+    }
+
+    @VisibleForTesting
+    long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (sortedKvs.isEmpty()) {
+            return;
+        }
+
+        File sstFile = new File(ingestDir, "ingest-" + fileCount++ + ".sst");
+        try {
+            try (SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options)) {
+                sstFileWriter.open(sstFile.getAbsolutePath());
+                for (Map.Entry<byte[], byte[]> entry : sortedKvs.entrySet()) {
+                    if (entry.getValue() == null) {
+                        sstFileWriter.delete(entry.getKey());
+                    } else {
+                        sstFileWriter.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                sstFileWriter.finish();
+            }
+            List<String> files = Collections.singletonList(sstFile.getAbsolutePath());
+            db.ingestExternalFile(files, ingestOptions);
+        } catch (RocksDBException e) {
+            throw new IOException("Failed to ingest SST file " + sstFile + " to RocksDB.", e);
+        }
+        sortedKvs.clear();
+        bufferedBytes = 0;
+    }
+
+    private void flushIfNeeded() throws IOException {
+        if (bufferedBytes >= fileSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            IOUtils.closeAllQuietly(Arrays.asList(ingestOptions, envOptions, options));
+            FileUtils.deleteDirectoryQuietly(ingestDir);
+        }
+    }
+
+    /**
+     * Creates the options to ingest SST files, which move the files into the db instead of copying
+     * them, and allow the files to overlap with the existing data which will be overridden by the
+     * ingested data.
+     */
+    static IngestExternalFileOptions createIngestOptions() {
+        return new IngestExternalFileOptions()
+                .setMoveFiles(true)
+                .setAllowGlobalSeqNo(true)
+                .setAllowBlockingFlush(true);
+    }
+
+    /** Compares the bytes lexicographically as unsigned bytes, like RocksDB does by default. */
+    private static int compareBytes(byte[] left, byte[] right) {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            int cmp = (left[i] & 0xff) - (right[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return left.length - right.length;
+    }
+}
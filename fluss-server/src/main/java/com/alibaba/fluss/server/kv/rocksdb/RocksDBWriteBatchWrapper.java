@@ -58,7 +58,9 @@ public class RocksDBWriteBatchWrapper implements KvBatchWriter {
     private final WriteOptions options;
     // we hard code it to 500 just like Flink,
     // and according to the doc of rocksdb, it's best practice to set it to hundreds of keys
-    private final int capacity = 500;
+    private static final int DEFAULT_CAPACITY = 500;
+
+    private final int capacity;
 
     @Nonnegative private final long batchSize;
 
@@ -66,16 +68,26 @@ public class RocksDBWriteBatchWrapper implements KvBatchWriter {
     private final List<AutoCloseable> toClose;
 
     public RocksDBWriteBatchWrapper(@Nonnull RocksDB rocksDB, long batchSize) {
+        this(rocksDB, batchSize, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a write batch which is flushed when either the number of the records reaches the
+     * capacity or the consumed memory reaches the batch size.
+     */
+    public RocksDBWriteBatchWrapper(@Nonnull RocksDB rocksDB, long batchSize, int capacity) {
         checkArgument(batchSize >= 0, "Max batch size have to be no negative.");
+        checkArgument(capacity > 0, "Capacity have to be positive.");
         this.db = rocksDB;
         this.batchSize = batchSize;
+        this.capacity = capacity;
         this.toClose = new ArrayList<>(2);
+        // the reserved bytes of the batch, the batch will grow on demand
+        long reservedBytes = (long) Math.min(capacity, DEFAULT_CAPACITY) * PER_RECORD_BYTES;
         if (this.batchSize > 0) {
-            this.batch =
-                    new WriteBatch(
-                            (int) Math.min(this.batchSize, this.capacity * PER_RECORD_BYTES));
+            this.batch = new WriteBatch((int) Math.min(this.batchSize, reservedBytes));
         } else {
-            this.batch = new WriteBatch(this.capacity * PER_RECORD_BYTES);
+            this.batch = new WriteBatch((int) reservedBytes);
         }
         this.toClose.add(this.batch);
         // Use default write options with disabled WAL
@@ -50,6 +50,12 @@ public class DefaultSnapshotContext implements SnapshotContext {
 
     private final int maxFetchLogSizeInRecoverKv;
 
+    private final int recoverKvParallelism;
+
+    private final long recoverKvWriteBatchSize;
+
+    private final boolean recoverKvWithSstIngestion;
+
     private final FsPath remoteKvDir;
 
     private DefaultSnapshotContext(
@@ -63,7 +69,10 @@ public class DefaultSnapshotContext implements SnapshotContext {
             int writeBufferSizeInBytes,
             FsPath remoteKvDir,
             CompletedSnapshotHandleStore completedSnapshotHandleStore,
-            int maxFetchLogSizeInRecoverKv) {
+            int maxFetchLogSizeInRecoverKv,
+            int recoverKvParallelism,
+            long recoverKvWriteBatchSize,
+            boolean recoverKvWithSstIngestion) {
         this.zooKeeperClient = zooKeeperClient;
         this.completedKvSnapshotCommitter = completedKvSnapshotCommitter;
         this.snapshotScheduler = snapshotScheduler;
@@ -76,6 +85,9 @@ public class DefaultSnapshotContext implements SnapshotContext {
 
         this.completedSnapshotHandleStore = completedSnapshotHandleStore;
         this.maxFetchLogSizeInRecoverKv = maxFetchLogSizeInRecoverKv;
+        this.recoverKvParallelism = recoverKvParallelism;
+        this.recoverKvWriteBatchSize = recoverKvWriteBatchSize;
+        this.recoverKvWithSstIngestion = recoverKvWithSstIngestion;
     }
 
     public static DefaultSnapshotContext create(
@@ -94,7 +106,10 @@ public class DefaultSnapshotContext implements SnapshotContext {
                 (int) conf.get(ConfigOptions.REMOTE_FS_WRITE_BUFFER_SIZE).getBytes(),
                 FlussPaths.remoteKvDir(conf),
                 new ZooKeeperCompletedSnapshotHandleStore(zkClient),
-                (int) conf.get(ConfigOptions.KV_RECOVER_LOG_RECORD_BATCH_MAX_SIZE).getBytes());
+                (int) conf.get(ConfigOptions.KV_RECOVER_LOG_RECORD_BATCH_MAX_SIZE).getBytes(),
+                conf.get(ConfigOptions.KV_RECOVER_PARALLELISM),
+                conf.get(ConfigOptions.KV_RECOVER_WRITE_BATCH_SIZE).getBytes(),
+                conf.get(ConfigOptions.KV_RECOVER_SST_INGESTION_ENABLED));
     }
 
     public ZooKeeperClient getZooKeeperClient() {
@@ -155,4 +170,19 @@ public class DefaultSnapshotContext implements SnapshotContext {
     public int maxFetchLogSizeInRecoverKv() {
         return maxFetchLogSizeInRecoverKv;
     }
+
+    @Override
+    public int recoverKvParallelism() {
+        return recoverKvParallelism;
+    }
+
+    @Override
+    public long recoverKvWriteBatchSize() {
+        return recoverKvWriteBatchSize;
+    }
+
+    @Override
+    public boolean recoverKvWithSstIngestion() {
+        return recoverKvWithSstIngestion;
+    }
 }
@@ -69,4 +69,16 @@ public interface SnapshotContext {
      * log during recovering.
      */
     int maxFetchLogSizeInRecoverKv();
+
+    /**
+     * Get the number of threads to convert the log records to key-value pairs during recovering kv.
+     * The recovery is pipelined if it's larger than 1.
+     */
+    int recoverKvParallelism();
+
+    /** Get the max size of the write batch to apply kv during the pipelined recovering kv. */
+    long recoverKvWriteBatchSize();
+
+    /** Whether to ingest SST files into kv instead of writing batches during recovering kv. */
+    boolean recoverKvWithSstIngestion();
 }
@@ -24,7 +24,10 @@ public enum FetchIsolation {
     LOG_END,
     // Indicates that fetching should be up to the high watermark, which is the offset
     // up to which all replicas have caught up.
-    HIGH_WATERMARK;
+    HIGH_WATERMARK,
+    // Indicates that fetching should be up to the high watermark of the leader known by a follower,
+    // like client fetches from a follower which shouldn't see records not committed by the leader.
+    LEADER_HIGH_WATERMARK;
 
     public static FetchIsolation of(boolean isFromFollower) {
         if (isFromFollower) {
@@ -17,8 +17,8 @@
 
 package com.alibaba.fluss.server.log;
 
-import com.alibaba.fluss.annotation.VisibleForTesting;
 import com.alibaba.fluss.compression.ArrowCompressionInfo;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.record.FileLogProjection;
 import com.alibaba.fluss.rpc.messages.FetchLogRequest;
 import com.alibaba.fluss.types.RowType;
@@ -26,6 +26,7 @@ import com.alibaba.fluss.types.RowType;
 import javax.annotation.Nullable;
 
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /** Fetch data params. */
 public final class FetchParams {
@@ -48,8 +49,8 @@ public final class FetchParams {
     public static final long DEFAULT_MAX_WAIT_MS_WHEN_MIN_BYTES_ENABLE = 100L;
 
     private final int replicaId;
-    // Currently, FetchOnlyLeader can be set to false only for test,
-    // which indicate that the client can read log data from follower.
+    // FetchOnlyLeader is false when the client allows reading log data from
+    // followers, the read is then bounded by the high watermark of the leader.
     private final boolean fetchOnlyLeader;
     private final FetchIsolation fetchIsolation;
 
@@ -76,7 +77,6 @@ public final class FetchParams {
         this(replicaId, true, maxFetchBytes, minFetchBytes, maxWaitMs);
     }
 
-    @VisibleForTesting
     public FetchParams(
             int replicaId,
             boolean fetchOnlyLeader,
@@ -100,8 +100,33 @@ public final class FetchParams {
             RowType schema,
             ArrowCompressionInfo compressionInfo,
             @Nullable int[] projectedFields) {
+        setCurrentFetch(
+                tableId,
+                fetchOffset,
+                maxFetchBytes,
+                schema,
+                compressionInfo,
+                projectedFields,
+                null);
+    }
+
+    /**
+     * Sets the current fetch. The filter is evaluated on the projection util, so a filter without
+     * projection is served with an identity projection (all fields) of the schema.
+     */
+    public void setCurrentFetch(
+            long tableId,
+            long fetchOffset,
+            int maxFetchBytes,
+            RowType schema,
+            ArrowCompressionInfo compressionInfo,
+            @Nullable int[] projectedFields,
+            @Nullable Predicate filter) {
         this.fetchOffset = fetchOffset;
         this.maxFetchBytes = maxFetchBytes;
+        if (projectedFields == null && filter != null) {
+            projectedFields = IntStream.range(0, schema.getFieldCount()).toArray();
+        }
         if (projectedFields != null) {
             projectionEnabled = true;
             if (fileLogProjection == null) {
@@ -109,6 +134,7 @@ public final class FetchParams {
             }
             fileLogProjection.setCurrentProjection(
                     tableId, schema, compressionInfo, projectedFields);
+            fileLogProjection.setCurrentFilter(filter);
         } else {
             projectionEnabled = false;
         }
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.log;
+
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
+import com.alibaba.fluss.rpc.messages.FetchLogRequest;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
+import com.alibaba.fluss.rpc.protocol.ApiError;
+import com.alibaba.fluss.rpc.protocol.Errors;
+import com.alibaba.fluss.server.entity.FetchReqInfo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.FINAL_EPOCH;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INITIAL_EPOCH;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INVALID_SESSION_ID;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.nextEpoch;
+
+/* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
+ * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership. */
+
+/**
+ * The cache of the fetch sessions of the followers and clients fetching from a tablet server.
+ *
+ * <p>A fetch session remembers the buckets and their fetch state of the fetcher, so that an
+ * incremental {@link FetchLogRequest} only carries the buckets whose fetch state changed, and the
+ * response only carries the buckets with new records, errors or high watermark changes. The least
+ * recently used session (of a client first) is evicted when the cache is full, its fetcher will get
+ * a {@link Errors#FETCH_SESSION_ID_NOT_FOUND_EXCEPTION} and create a new session.
+ */
+public final class FetchSessionCache {
+    private static final Logger LOG = LoggerFactory.getLogger(FetchSessionCache.class);
+
+    private final int maxEntries;
+
+    /** The sessions ordered by the time of the last access. */
+    @GuardedBy("this")
+    private final LinkedHashMap<Integer, FetchSession> sessions =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    public FetchSessionCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Resolves the fetch log request against its fetch session.
+     *
+     * @param request the fetch log request
+     * @param requestData the buckets carried by the request
+     * @param forgottenBuckets the buckets to remove from the session of an incremental request
+     */
+    public FetchContext newContext(
+            FetchLogRequest request,
+            Map<TableBucket, FetchReqInfo> requestData,
+            Collection<TableBucket> forgottenBuckets) {
+        int sessionId = request.hasSessionId() ? request.getSessionId() : INVALID_SESSION_ID;
+        int epoch = request.hasSessionEpoch() ? request.getSessionEpoch() : FINAL_EPOCH;
+        int replicaId = request.getFollowerServerId();
+
+        if (epoch == FINAL_EPOCH || epoch == INITIAL_EPOCH) {
+            // a full fetch closes the previous session of the fetcher
+            if (sessionId != INVALID_SESSION_ID) {
+                remove(sessionId);
+            }
+            FetchSession session =
+                    epoch == INITIAL_EPOCH ? maybeCreate(replicaId, requestData) : null;
+            return new FetchContext(session, false, requestData, null);
+        }
+
+        FetchSession session = get(sessionId);
+        if (session == null || session.replicaId != replicaId) {
+            return FetchContext.error(
+                    new ApiError(
+                            Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION,
+                            "The fetch session " + sessionId + " is not found."));
+        }
+        synchronized (session) {
+            if (session.epoch != epoch) {
+                return FetchContext.error(
+                        new ApiError(
+                                Errors.INVALID_FETCH_SESSION_EPOCH_EXCEPTION,
+                                String.format(
+                                        "The fetch session %s expects epoch %s, but got %s.",
+                                        sessionId, session.epoch, epoch)));
+            }
+            forgottenBuckets.forEach(session.buckets::remove);
+            requestData.forEach(
+                    (tb, fetchReqInfo) -> {
+                        CachedBucket cachedBucket = session.buckets.get(tb);
+                        if (cachedBucket == null) {
+                            session.buckets.put(tb, new CachedBucket(copyOf(fetchReqInfo)));
+                        } else {
+                            cachedBucket.fetchReqInfo = copyOf(fetchReqInfo);
+                        }
+                    });
+            session.epoch = nextEpoch(epoch);
+            return new FetchContext(session, true, session.fetchData(), null);
+        }
+    }
+
+    @VisibleForTesting
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private synchronized void remove(int sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    @Nullable
+    private synchronized FetchSession get(int sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    @Nullable
+    private synchronized FetchSession maybeCreate(
+            int replicaId, Map<TableBucket, FetchReqInfo> fetchData) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        if (sessions.size() >= maxEntries) {
+            FetchSession evicted = evictionCandidate();
+            sessions.remove(evicted.id);
+            LOG.debug(
+                    "Evicted fetch session {} of replica {} as the fetch session cache is full.",
+                    evicted.id,
+                    evicted.replicaId);
+        }
+
+        int sessionId;
+        do {
+            sessionId = ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE);
+        } while (sessions.containsKey(sessionId));
+
+        FetchSession session = new FetchSession(sessionId, replicaId);
+        fetchData.forEach(
+                (tb, fetchReqInfo) ->
+                        session.buckets.put(tb, new CachedBucket(copyOf(fetchReqInfo))));
+        sessions.put(sessionId, session);
+        return session;
+    }
+
+    /**
+     * Returns the least recently used session of the clients, or the least recently used session if
+     * there are only sessions of followers, as the followers fetch continuously and their sessions
+     * are more valuable to keep.
+     */
+    @GuardedBy("this")
+    private FetchSession evictionCandidate() {
+        FetchSession eldest = null;
+        for (FetchSession session : sessions.values()) {
+            if (session.replicaId < 0) {
+                return session;
+            }
+            if (eldest == null) {
+                eldest = session;
+            }
+        }
+        return eldest;
+    }
+
+    /**
+     * Copies the fetch info to be cached across requests, as the filter may be lazily parsed from
+     * the buffer of the request.
+     */
+    private static FetchReqInfo copyOf(FetchReqInfo fetchReqInfo) {
+        PbPredicate filter = fetchReqInfo.getFilter();
+        return new FetchReqInfo(
+                fetchReqInfo.getTableId(),
+                fetchReqInfo.getFetchOffset(),
+                fetchReqInfo.getMaxBytes(),
+                fetchReqInfo.getProjectFields(),
+                filter == null ? null : new PbPredicate().copyFrom(filter));
+    }
+
+    /** The fetch log request resolved against its fetch session. */
+    public static final class FetchContext {
+        @Nullable private final FetchSession session;
+        private final boolean incremental;
+        private final Map<TableBucket, FetchReqInfo> fetchData;
+        @Nullable private final ApiError error;
+
+        private FetchContext(
+                @Nullable FetchSession session,
+                boolean incremental,
+                Map<TableBucket, FetchReqInfo> fetchData,
+                @Nullable ApiError error) {
+            this.session = session;
+            this.incremental = incremental;
+            this.fetchData = fetchData;
+            this.error = error;
+        }
+
+        private static FetchContext error(ApiError error) {
+            return new FetchContext(null, false, new HashMap<>(), error);
+        }
+
+        /** Returns the buckets to fetch, which are all the buckets of the session. */
+        public Map<TableBucket, FetchReqInfo> fetchData() {
+            return fetchData;
+        }
+
+        /** Returns the error of the fetch session, the buckets are not fetched if not null. */
+        @Nullable
+        public ApiError error() {
+            return error;
+        }
+
+        /** Returns the id of the session to return to the fetcher. */
+        public int sessionId() {
+            return session == null ? INVALID_SESSION_ID : session.id;
+        }
+
+        /**
+         * Updates the session with the fetch results, and returns the results to send back. An
+         * incremental fetch only returns the buckets with new records, errors or high watermark
+         * changes.
+         */
+        public Map<TableBucket, FetchLogResultForBucket> updateAndGenerateResponseData(
+                Map<TableBucket, FetchLogResultForBucket> results) {
+            if (session == null) {
+                return results;
+            }
+
+            Map<TableBucket, FetchLogResultForBucket> responseData = new HashMap<>();
+            synchronized (session) {
+                results.forEach(
+                        (tb, result) -> {
+                            CachedBucket cachedBucket = session.buckets.get(tb);
+                            boolean changed = true;
+                            if (cachedBucket != null && !result.failed()) {
+                                changed =
+                                        result.fetchFromRemote()
+                                                || result.recordsOrEmpty().sizeInBytes() > 0
+                                                || result.getHighWatermark()
+                                                        != cachedBucket.highWatermark;
+                                cachedBucket.highWatermark = result.getHighWatermark();
+                            }
+                            if (!incremental || changed) {
+                                responseData.put(tb, result);
+                            }
+                        });
+            }
+            return responseData;
+        }
+    }
+
+    /** The fetch session of a follower or a client. */
+    private static final class FetchSession {
+        private final int id;
+        private final int replicaId;
+
+        @GuardedBy("this")
+        private final Map<TableBucket, CachedBucket> buckets = new HashMap<>();
+
+        /** The epoch expected by the next incremental fetch. */
+        @GuardedBy("this")
+        private int epoch = nextEpoch(INITIAL_EPOCH);
+
+        private FetchSession(int id, int replicaId) {
+            this.id = id;
+            this.replicaId = replicaId;
+        }
+
+        @GuardedBy("this")
+        private Map<TableBucket, FetchReqInfo> fetchData() {
+            Map<TableBucket, FetchReqInfo> fetchData = new HashMap<>();
+            buckets.forEach((tb, cachedBucket) -> fetchData.put(tb, cachedBucket.fetchReqInfo));
+            return fetchData;
+        }
+    }
+
+    /** The bucket cached in a fetch session. */
+    private static final class CachedBucket {
+        private FetchReqInfo fetchReqInfo;
+        /** The high watermark last sent to the fetcher. */
+        private long highWatermark = -1L;
+
+        private CachedBucket(FetchReqInfo fetchReqInfo) {
+            this.fetchReqInfo = fetchReqInfo;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.alibaba.fluss.record.FileLogProjection;
 import com.alibaba.fluss.record.MemoryLogRecords;
 import com.alibaba.fluss.utils.FileUtils;
 import com.alibaba.fluss.utils.FlussPaths;
+import com.alibaba.fluss.utils.clock.Clock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +76,7 @@ public final class LocalLog {
     private final TableBucket tableBucket;
     private final LogFormat logFormat;
     // Last time the log was flushed
+    private final Clock clock;
     private final AtomicLong lastFlushedTime;
 
     private final Counter flushCount;
@@ -94,7 +96,8 @@ public final class LocalLog {
             long recoveryPoint,
             LogOffsetMetadata nextOffsetMetadata,
             TableBucket tableBucket,
-            LogFormat logFormat)
+            LogFormat logFormat,
+            Clock clock)
             throws IOException {
         this.logTabletDir = logTabletDir;
         this.config = config;
@@ -103,8 +106,9 @@ public final class LocalLog {
         this.nextOffsetMetadata = nextOffsetMetadata;
         this.tableBucket = tableBucket;
         this.logFormat = logFormat;
+        this.clock = clock;
 
-        lastFlushedTime = new AtomicLong(System.currentTimeMillis());
+        lastFlushedTime = new AtomicLong(clock.milliseconds());
         flushCount = new SimpleCounter();
         // consider won't flush frequently, we set a small window size
         flushLatencyHistogram = new DescriptiveStatisticsHistogram(5);
@@ -133,6 +137,10 @@ public final class LocalLog {
         return flushCount;
     }
 
+    long getLastFlushedTime() {
+        return lastFlushedTime.get();
+    }
+
     /** The offset metadata of the next message that will be appended to the log. */
     @VisibleForTesting
     LogOffsetMetadata getLocalLogEndOffsetMetadata() {
@@ -192,7 +200,7 @@ public final class LocalLog {
         checkIfMemoryMappedBufferClosed();
         if (offset > recoveryPoint) {
             updateRecoveryPoint(offset);
-            lastFlushedTime.set(System.currentTimeMillis());
+            lastFlushedTime.set(clock.milliseconds());
         }
     }
 
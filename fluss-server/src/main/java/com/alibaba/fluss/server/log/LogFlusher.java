@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.log;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.utils.MapUtils;
+import com.alibaba.fluss.utils.clock.Clock;
+import com.alibaba.fluss.utils.concurrent.ShutdownableThread;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A background thread of a data directory which flushes the local logs out of the append path.
+ *
+ * <p>If {@link ConfigOptions#LOG_FLUSH_BACKGROUND_ENABLED} is true, the appends to a {@link
+ * LogTablet} only request a flush when the unflushed messages or bytes exceed the configured
+ * intervals, and the flusher flushes all the requested logs in a group, which means a single wakeup
+ * of the flusher commits the segments of multiple buckets to disk. The flusher also flushes the
+ * logs which haven't been flushed for {@link ConfigOptions#LOG_FLUSH_INTERVAL}, and checkpoints the
+ * recovery points of the flushed logs every {@link
+ * ConfigOptions#LOG_RECOVERY_POINT_CHECKPOINT_INTERVAL}.
+ */
+@ThreadSafe
+public final class LogFlusher extends ShutdownableThread {
+
+    /** The max time to wait for the flush requests before checking the time based flushes. */
+    private static final long MAX_WAIT_MS = 1000L;
+
+    private final Supplier<Collection<LogTablet>> logsSupplier;
+    private final Runnable recoveryPointCheckpointer;
+    private final Clock clock;
+    private final long flushIntervalMs;
+    private final long checkpointIntervalMs;
+    private final long waitMs;
+
+    /** The logs requested to flush, and the time of the first flush request of each log. */
+    private final Map<LogTablet, Long> pendingFlushes = MapUtils.newConcurrentHashMap();
+
+    private final Object signal = new Object();
+
+    @GuardedBy("signal")
+    private boolean signaled;
+
+    private long lastCheckpointTimeMs;
+    private boolean checkpointNeeded;
+
+    LogFlusher(
+            String dataDir,
+            Configuration conf,
+            Supplier<Collection<LogTablet>> logsSupplier,
+            Runnable recoveryPointCheckpointer,
+            Clock clock) {
+        // never interrupt the flusher, as interrupting a thread blocked on a file channel
+        // closes the channel
+        super("log-flusher-" + dataDir, false);
+        this.logsSupplier = logsSupplier;
+        this.recoveryPointCheckpointer = recoveryPointCheckpointer;
+        this.clock = clock;
+        Duration flushInterval = conf.get(ConfigOptions.LOG_FLUSH_INTERVAL);
+        this.flushIntervalMs = flushInterval == null ? Long.MAX_VALUE : flushInterval.toMillis();
+        this.checkpointIntervalMs =
+                conf.get(ConfigOptions.LOG_RECOVERY_POINT_CHECKPOINT_INTERVAL).toMillis();
+        this.waitMs = Math.max(1L, Math.min(MAX_WAIT_MS, flushIntervalMs));
+        this.lastCheckpointTimeMs = clock.milliseconds();
+    }
+
+    /**
+     * Requests to flush the given log in the background, the request returns immediately.
+     *
+     * @return false if the flusher isn't running, e.g., not started or shut down, then the caller
+     *     should flush the log by itself
+     */
+    boolean requestFlush(LogTablet logTablet) {
+        if (!isAlive() || !isRunning()) {
+            return false;
+        }
+        if (pendingFlushes.putIfAbsent(logTablet, clock.milliseconds()) == null) {
+            wakeup();
+        }
+        return true;
+    }
+
+    /** Cancels the pending flush of the given log, e.g., the log is dropped. */
+    void cancelFlush(LogTablet logTablet) {
+        pendingFlushes.remove(logTablet);
+    }
+
+    @Override
+    public boolean initiateShutdown() {
+        boolean shutdown = super.initiateShutdown();
+        wakeup();
+        return shutdown;
+    }
+
+    @Override
+    public void doWork() throws Exception {
+        awaitFlushRequests();
+        if (!isRunning()) {
+            return;
+        }
+
+        long now = clock.milliseconds();
+        if (flushIntervalMs != Long.MAX_VALUE) {
+            for (LogTablet logTablet : logsSupplier.get()) {
+                if (logTablet.unflushedMessages() > 0
+                        && now - logTablet.getLastFlushedTime() >= flushIntervalMs) {
+                    pendingFlushes.putIfAbsent(logTablet, now);
+                }
+            }
+        }
+
+        flushPendingLogs();
+
+        now = clock.milliseconds();
+        if (checkpointNeeded && now - lastCheckpointTimeMs >= checkpointIntervalMs) {
+            lastCheckpointTimeMs = now;
+            checkpointNeeded = false;
+            try {
+                recoveryPointCheckpointer.run();
+            } catch (Exception e) {
+                log.warn("Failed to checkpoint the recovery points of the flushed logs.", e);
+            }
+        }
+    }
+
+    /** Returns the number of logs waiting to be flushed. */
+    public int numPendingFlushes() {
+        return pendingFlushes.size();
+    }
+
+    /** Returns the time in ms the longest waiting flush request has been waiting for. */
+    public long pendingFlushLagMs() {
+        long now = clock.milliseconds();
+        long lag = 0L;
+        for (Long requestTimeMs : pendingFlushes.values()) {
+            lag = Math.max(lag, now - requestTimeMs);
+        }
+        return lag;
+    }
+
+    private void flushPendingLogs() {
+        List<LogTablet> logsToFlush = new ArrayList<>(pendingFlushes.keySet());
+        for (LogTablet logTablet : logsToFlush) {
+            // remove the request before flushing, so that the appends during the flush can
+            // request a new flush
+            pendingFlushes.remove(logTablet);
+            try {
+                logTablet.flush(false);
+                checkpointNeeded = true;
+            } catch (Exception e) {
+                log.warn("Failed to flush the log of bucket {}.", logTablet.getTableBucket(), e);
+            }
+        }
+    }
+
+    private void awaitFlushRequests() throws InterruptedException {
+        synchronized (signal) {
+            if (!signaled && pendingFlushes.isEmpty()) {
+                signal.wait(waitMs);
+            }
+            signaled = false;
+        }
+    }
+
+    private void wakeup() {
+        synchronized (signal) {
+            signaled = true;
+            signal.notifyAll();
+        }
+    }
+}
@@ -91,6 +91,11 @@ public final class LogManager extends TabletManagerBase {
 
     private final Map<TableBucket, LogTablet> currentLogs = MapUtils.newConcurrentHashMap();
 
+    private final LogFlusher logFlusher;
+
+    /** Whether the appends request the flushes from the flusher instead of flushing inline. */
+    private final boolean flushInBackground;
+
     private volatile OffsetCheckpointFile recoveryPointCheckpoint;
     private boolean loadLogsCompletedFlag = false;
 
@@ -109,6 +114,14 @@ public final class LogManager extends TabletManagerBase {
         createAndValidateDataDir(dataDir);
 
         initializeCheckpointMaps();
+        this.logFlusher =
+                new LogFlusher(
+                        dataDir.getAbsolutePath(),
+                        conf,
+                        currentLogs::values,
+                        this::checkpointRecoveryOffsets,
+                        clock);
+        this.flushInBackground = conf.get(ConfigOptions.LOG_FLUSH_BACKGROUND_ENABLED);
     }
 
     public static LogManager create(
@@ -128,13 +141,17 @@ public final class LogManager extends TabletManagerBase {
     public void startup() {
         loadLogs();
 
-        // TODO add more scheduler, like log-flusher etc.
+        logFlusher.start();
     }
 
     public File getDataDir() {
         return dataDir;
     }
 
+    public LogFlusher getLogFlusher() {
+        return logFlusher;
+    }
+
     private void initializeCheckpointMaps() throws IOException {
         recoveryPointCheckpoint =
                 new OffsetCheckpointFile(new File(dataDir, RECOVERY_POINT_CHECKPOINT_FILE));
@@ -253,6 +270,7 @@ public final class LogManager extends TabletManagerBase {
                                     isChangelog,
                                     clock,
                                     true);
+                    setLogFlusher(logTablet);
                     currentLogs.put(tableBucket, logTablet);
 
                     LOG.info(
@@ -273,6 +291,7 @@ public final class LogManager extends TabletManagerBase {
                 inLock(logCreationOrDeletionLock, () -> currentLogs.remove(tableBucket));
 
         if (dropLogTablet != null) {
+            logFlusher.cancelFlush(dropLogTablet);
             TablePath tablePath = dropLogTablet.getTablePath();
             try {
                 dropLogTablet.drop();
@@ -369,11 +388,18 @@ public final class LogManager extends TabletManagerBase {
                             tabletDir.getAbsolutePath(),
                             currentLogs.get(tableBucket).getLogDir().getAbsolutePath()));
         }
+        setLogFlusher(logTablet);
         currentLogs.put(tableBucket, logTablet);
 
         return logTablet;
     }
 
+    private void setLogFlusher(LogTablet logTablet) {
+        if (flushInBackground) {
+            logTablet.setLogFlusher(logFlusher);
+        }
+    }
+
     private void createAndValidateDataDir(File dataDir) {
         try {
             inLock(
@@ -409,6 +435,12 @@ public final class LogManager extends TabletManagerBase {
     public void shutdown() {
         LOG.info("Shutting down LogManager.");
 
+        try {
+            logFlusher.shutdown();
+        } catch (InterruptedException e) {
+            LOG.warn("Interrupted while shutting down the log flusher.");
+        }
+
         String dataDirAbsolutePath = dataDir.getAbsolutePath();
         ExecutorService pool = createThreadPool("log-tablet-closing-" + dataDirAbsolutePath);
 
@@ -91,12 +91,21 @@ public final class LogTablet {
 
     private final int maxSegmentFileSize;
     private final long logFlushIntervalMessages;
+    private final long logFlushIntervalBytes;
     // A lock that guards all modifications to the localLog.
     private final Object lock = new Object();
 
     @GuardedBy("lock")
     private final WriterStateManager writerStateManager;
 
+    // The bytes appended since the last flush request.
+    @GuardedBy("lock")
+    private long bytesSinceLastFlushRequest;
+
+    // The flusher to flush the log in background, flush in the append path if it's null or not
+    // running.
+    @Nullable private volatile LogFlusher logFlusher;
+
     private final Scheduler scheduler;
     private final ScheduledFuture<?> writerExpireCheck;
     private final LogFormat logFormat;
@@ -110,6 +119,13 @@ public final class LogTablet {
     /** The leader end offset snapshot when become leader. */
     private volatile long leaderEndOffsetSnapshot = -1L;
 
+    /**
+     * The high watermark of the leader received by this replica as a follower. The high watermark
+     * of a follower is its log end offset, so the reads of clients fetching from the follower are
+     * bounded by this offset instead.
+     */
+    private volatile long leaderHighWatermark = 0L;
+
     // The minimum offset that should be retained in the local log. This is used to ensure that,
     // the offset of kv snapshot should be retained, otherwise, kv recovery will fail.
     private volatile long minRetainOffset;
@@ -138,6 +154,7 @@ public final class LogTablet {
         this.localLog = localLog;
         this.maxSegmentFileSize = (int) conf.get(ConfigOptions.LOG_SEGMENT_FILE_SIZE).getBytes();
         this.logFlushIntervalMessages = conf.get(ConfigOptions.LOG_FLUSH_INTERVAL_MESSAGES);
+        this.logFlushIntervalBytes = conf.get(ConfigOptions.LOG_FLUSH_INTERVAL_BYTES).getBytes();
         int writerExpirationCheckIntervalMs =
                 (int) conf.get(ConfigOptions.WRITER_ID_EXPIRATION_CHECK_INTERVAL).toMillis();
         this.writerStateManager = writerStateManager;
@@ -224,6 +241,18 @@ public final class LogTablet {
         return localLog.getRecoveryPoint();
     }
 
+    long unflushedMessages() {
+        return localLog.unflushedMessages();
+    }
+
+    long getLastFlushedTime() {
+        return localLog.getLastFlushedTime();
+    }
+
+    void setLogFlusher(@Nullable LogFlusher logFlusher) {
+        this.logFlusher = logFlusher;
+    }
+
     public TableBucket getTableBucket() {
         return localLog.getTableBucket();
     }
@@ -317,7 +346,8 @@ public final class LogTablet {
                         recoveryPoint,
                         offsets.getNextOffsetMetadata(),
                         tableBucket,
-                        logFormat);
+                        logFormat,
+                        clock);
 
         return new LogTablet(
                 tablePath,
@@ -343,6 +373,12 @@ public final class LogTablet {
         metricGroup.meter(MetricNames.LOG_FLUSH_RATE, new MeterView(localLog.getFlushCount()));
         metricGroup.histogram(
                 MetricNames.LOG_FLUSH_LATENCY_MS, localLog.getFlushLatencyHistogram());
+        metricGroup.gauge(
+                MetricNames.LOG_FLUSH_LAG_MS,
+                () ->
+                        localLog.unflushedMessages() > 0
+                                ? clock.milliseconds() - localLog.getLastFlushedTime()
+                                : 0L);
     }
 
     public void updateLeaderEndOffsetSnapshot() {
@@ -381,6 +417,8 @@ public final class LogTablet {
             maxOffsetMetadata = localLog.getLocalLogEndOffsetMetadata();
         } else if (fetchIsolation == FetchIsolation.HIGH_WATERMARK) {
             maxOffsetMetadata = fetchHighWatermarkMetadata();
+        } else if (fetchIsolation == FetchIsolation.LEADER_HIGH_WATERMARK) {
+            maxOffsetMetadata = fetchLeaderHighWatermarkMetadata();
         }
 
         return localLog.read(readOffset, maxLength, minOneMessage, maxOffsetMetadata, projection);
@@ -535,6 +573,40 @@ public final class LogTablet {
                 highWatermark);
     }
 
+    /**
+     * Like {@link #fetchOffsetSnapshot()}, but the high watermark is bounded by the high watermark
+     * of the leader received by this replica as a follower.
+     */
+    public LogOffsetSnapshot fetchLeaderBoundedOffsetSnapshot() throws IOException {
+        LogOffsetMetadata highWatermark = fetchLeaderHighWatermarkMetadata();
+        return new LogOffsetSnapshot(
+                logStartOffset(),
+                localLogStartOffset(),
+                localLog.getLocalLogEndOffsetMetadata(),
+                highWatermark);
+    }
+
+    /**
+     * Update the high watermark of the leader received by this replica as a follower.
+     *
+     * @return true if the leader high watermark is increased
+     */
+    public boolean updateLeaderHighWatermark(long highWatermark) {
+        if (highWatermark > leaderHighWatermark) {
+            leaderHighWatermark = highWatermark;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the offset up to which clients can read from this replica as a follower, which is the
+     * high watermark of the leader bounded by the local high watermark.
+     */
+    public long getLeaderHighWatermark() {
+        return Math.min(leaderHighWatermark, getHighWatermark());
+    }
+
     private void deleteSegments(long cleanUpToOffset) {
         // cache to local variables
         long localLogStartOffset = localLog.getLocalLogStartOffset();
@@ -588,6 +660,17 @@ public final class LogTablet {
         }
     }
 
+    private LogOffsetMetadata fetchLeaderHighWatermarkMetadata() throws IOException {
+        LogOffsetMetadata highWatermark = fetchHighWatermarkMetadata();
+        long leaderHighWatermark = this.leaderHighWatermark;
+        if (leaderHighWatermark >= highWatermark.getMessageOffset()) {
+            return highWatermark;
+        }
+        // the offsets before the local log start offset can't be read from local anyway
+        return convertToOffsetMetadataOrThrow(
+                Math.max(leaderHighWatermark, localLog.getLocalLogStartOffset()));
+    }
+
     /**
      * Given a message offset, find its corresponding offset metadata in the log. If the message
      * offset is out of range, throw an {@link LogOffsetOutOfRangeException}
@@ -695,8 +778,16 @@ public final class LogTablet {
                         localLog.getLocalLogEndOffset(),
                         validRecords);
 
-                if (localLog.unflushedMessages() >= logFlushIntervalMessages) {
-                    flush(false);
+                bytesSinceLastFlushRequest += validRecords.sizeInBytes();
+                if (localLog.unflushedMessages() >= logFlushIntervalMessages
+                        || bytesSinceLastFlushRequest >= logFlushIntervalBytes) {
+                    bytesSinceLastFlushRequest = 0;
+                    LogFlusher flusher = logFlusher;
+                    // group commit the flush in background to not block the appends, note that
+                    // the append is acknowledged before the data is fsynced then
+                    if (flusher == null || !flusher.requestFlush(this)) {
+                        flush(false);
+                    }
                 }
             }
             return appendInfo;
@@ -193,6 +193,28 @@ public class DefaultRemoteLogStorage implements RemoteLogStorage {
         }
     }
 
+    @Override
+    public InputStream fetchLogSegment(RemoteLogSegment remoteLogSegment, long startPosition)
+            throws RemoteStorageException {
+        FsPath remoteLogSegmentFile =
+                remoteLogSegmentFile(
+                        remoteLogSegmentDir(remoteLogDir, remoteLogSegment),
+                        remoteLogSegment.remoteLogStartOffset());
+        FSDataInputStream inputStream = null;
+        try {
+            inputStream = fileSystem.open(remoteLogSegmentFile);
+            inputStream.seek(startPosition);
+            return inputStream;
+        } catch (IOException e) {
+            IOUtils.closeQuietly(inputStream);
+            throw new RemoteStorageException(
+                    String.format(
+                            "Failed to fetch log segment from path: %s at position %s",
+                            remoteLogSegmentFile, startPosition),
+                    e);
+        }
+    }
+
     @Override
     public RemoteLogManifest readRemoteLogManifestSnapshot(FsPath remoteLogManifestPath)
             throws RemoteStorageException {
@@ -39,6 +39,7 @@ import com.alibaba.fluss.utils.concurrent.ExecutorThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.Closeable;
@@ -71,6 +72,8 @@ public class RemoteLogManager implements Closeable {
 
     private final long taskInterval;
     private final RemoteLogIndexCache remoteLogIndexCache;
+    // the cache to read remote log segments for clients, null if server side read is disabled.
+    private final @Nullable RemoteLogSegmentCache remoteLogSegmentCache;
     private final RemoteLogStorage remoteLogStorage;
     private final CoordinatorGateway coordinatorGateway;
     private final ScheduledExecutorService rlManagerScheduledThreadPool;
@@ -113,6 +116,19 @@ public class RemoteLogManager implements Closeable {
                         (int) conf.get(ConfigOptions.REMOTE_LOG_INDEX_FILE_CACHE_SIZE).getBytes(),
                         remoteLogStorage,
                         dataDir);
+        if (conf.getBoolean(ConfigOptions.REMOTE_LOG_SERVER_SIDE_READ_ENABLED)) {
+            this.remoteLogSegmentCache =
+                    new RemoteLogSegmentCache(
+                            conf.get(ConfigOptions.REMOTE_LOG_SEGMENT_CACHE_SIZE).getBytes(),
+                            (int)
+                                    conf.get(ConfigOptions.REMOTE_LOG_SEGMENT_CACHE_CHUNK_SIZE)
+                                            .getBytes(),
+                            remoteLogStorage,
+                            dataDir,
+                            scheduledExecutor);
+        } else {
+            this.remoteLogSegmentCache = null;
+        }
         this.taskInterval = conf.get(ConfigOptions.REMOTE_LOG_TASK_INTERVAL_DURATION).toMillis();
         this.rlManagerScheduledThreadPool = scheduledExecutor;
         this.clock = clock;
@@ -205,6 +221,15 @@ public class RemoteLogManager implements Closeable {
         }
     }
 
+    /**
+     * Returns the cache to read remote log segments through for the clients, or null if the server
+     * side read of remote log is disabled and the clients download the remote log segments
+     * themselves.
+     */
+    public @Nullable RemoteLogSegmentCache getRemoteLogSegmentCache() {
+        return remoteLogSegmentCache;
+    }
+
     /** Get the position of the given offset in the remote log segment. */
     public int lookupPositionForOffset(RemoteLogSegment remoteLogSegment, long offset) {
         return remoteLogIndexCache.lookupPosition(remoteLogSegment, offset);
@@ -308,6 +333,7 @@ public class RemoteLogManager implements Closeable {
         rlmTasks.values().forEach(TaskWithFuture::cancel);
         IOUtils.closeQuietly(remoteLogStorage, "RemoteLogStorageManager");
         IOUtils.closeQuietly(remoteLogIndexCache, "RemoteIndexCache");
+        IOUtils.closeQuietly(remoteLogSegmentCache, "RemoteLogSegmentCache");
 
         shutdownAndAwaitTermination(
                 rlManagerScheduledThreadPool, "RLMScheduledThreadPool", 10, TimeUnit.SECONDS);
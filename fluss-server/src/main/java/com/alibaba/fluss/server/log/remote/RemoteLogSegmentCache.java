@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.log.remote;
+
+import com.alibaba.fluss.annotation.VisibleForTesting;
+import com.alibaba.fluss.exception.RemoteStorageException;
+import com.alibaba.fluss.memory.MemorySegment;
+import com.alibaba.fluss.metrics.Counter;
+import com.alibaba.fluss.metrics.ThreadSafeSimpleCounter;
+import com.alibaba.fluss.record.DefaultLogRecordBatch;
+import com.alibaba.fluss.record.MemoryLogRecords;
+import com.alibaba.fluss.remote.RemoteLogSegment;
+import com.alibaba.fluss.utils.FileUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.alibaba.fluss.record.DefaultLogRecordBatch.RECORD_BATCH_HEADER_SIZE;
+
+/**
+ * A bounded local disk cache of remote log segments, which is used by the tablet server to serve
+ * the fetch log requests whose fetch offset has been moved to remote storage. The segments are read
+ * from remote storage and cached in fixed-size chunks, stored as files in
+ * `$dataDir/remote-log-segment-cache` and named as `$segmentId-$chunkIndex-$sequence.chunk`. The
+ * least recently used chunks are evicted when the total size of the chunks exceeds the max size.
+ *
+ * <p>The cache is shared by all the log scanners reading the remote log of this tablet server, so
+ * the scanners replaying the same history only read the segments from remote storage once.
+ *
+ * <p>Reads never wait for remote storage, as they are served by the rpc threads. The chunks which
+ * are not cached yet are loaded in the background by the given executor, and the read returns null
+ * meanwhile.
+ *
+ * <p>Note that the chunks on disk are not reused across restarts, the cache directory is cleaned up
+ * on startup and close.
+ *
+ * <p>This class is thread safe.
+ */
+@ThreadSafe
+public class RemoteLogSegmentCache implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RemoteLogSegmentCache.class);
+
+    public static final String DIR_NAME = "remote-log-segment-cache";
+    private static final String CHUNK_FILE_SUFFIX = ".chunk";
+    private static final String TMP_FILE_SUFFIX = ".tmp";
+
+    private final RemoteLogStorage remoteLogStorage;
+    private final Executor loadExecutor;
+    private final File cacheDir;
+    private final int chunkSize;
+    private final Cache<ChunkKey, File> chunks;
+    // the chunks being loaded in the background, to not load a chunk multiple times
+    private final Set<ChunkKey> loadingChunks = ConcurrentHashMap.newKeySet();
+    private final AtomicLong cachedBytes = new AtomicLong(0L);
+    // the sequence to name the chunk files uniquely, as the file of an evicted chunk may be
+    // deleted after the chunk is loaded again
+    private final AtomicLong chunkFileSequence = new AtomicLong(0L);
+
+    private volatile boolean closed;
+
+    // ---- metrics ----
+    private final Counter hitCount = new ThreadSafeSimpleCounter();
+    private final Counter missCount = new ThreadSafeSimpleCounter();
+
+    public RemoteLogSegmentCache(
+            long maxSize,
+            int chunkSize,
+            RemoteLogStorage remoteLogStorage,
+            File dataDir,
+            Executor loadExecutor)
+            throws IOException {
+        this.remoteLogStorage = remoteLogStorage;
+        this.loadExecutor = loadExecutor;
+        this.chunkSize = chunkSize;
+        this.cacheDir = new File(dataDir, DIR_NAME);
+        // the chunks of the last run are not reused
+        FileUtils.deleteDirectoryQuietly(cacheDir);
+        Files.createDirectories(cacheDir.toPath());
+        this.chunks =
+                Caffeine.newBuilder()
+                        .maximumWeight(maxSize)
+                        .weigher((ChunkKey key, File chunk) -> key.length)
+                        .removalListener(
+                                (ChunkKey key, File chunk, RemovalCause cause) -> {
+                                    if (key != null && chunk != null) {
+                                        cachedBytes.addAndGet(-key.length);
+                                        deleteChunk(chunk);
+                                    }
+                                })
+                        .build();
+    }
+
+    /**
+     * Reads the log record batches of the remote log segment from the given start position, which
+     * is expected to be a batch boundary at or before the batch containing the fetch offset. The
+     * batches before the batch containing the fetch offset are skipped, and only complete batches
+     * of at most max bytes in total are returned, or the first batch if {@code minOneBatch} is true
+     * and the first batch is larger than max bytes.
+     *
+     * <p>If any chunk to read is not cached, the chunks covering the range to read are loaded in
+     * the background and null is returned, the caller should fall back to let the client download
+     * the segment itself.
+     *
+     * @return the read records, empty if there is no batch containing the fetch offset or later, or
+     *     null if the chunks to read are not cached yet
+     */
+    public @Nullable MemoryLogRecords read(
+            RemoteLogSegment segment,
+            long fetchOffset,
+            int startPosition,
+            int maxBytes,
+            boolean minOneBatch)
+            throws IOException {
+        int segmentSize = segment.segmentSizeInBytes();
+        DefaultLogRecordBatch batch = new DefaultLogRecordBatch();
+
+        // skip the batches before the fetch offset
+        int position = startPosition;
+        while (true) {
+            if (segmentSize - position < RECORD_BATCH_HEADER_SIZE) {
+                return MemoryLogRecords.EMPTY;
+            }
+            byte[] header = readBytes(segment, position, RECORD_BATCH_HEADER_SIZE);
+            if (header == null) {
+                // warm up the chunks which are likely read by the next fetch
+                loadChunksAsync(segment, position, Math.min(maxBytes, segmentSize - position));
+                return null;
+            }
+            batch.pointTo(MemorySegment.wrap(header), 0);
+            if (batch.nextLogOffset() > fetchOffset) {
+                break;
+            }
+            position += batch.sizeInBytes();
+        }
+        int firstBatchSize = Math.min(batch.sizeInBytes(), segmentSize - position);
+
+        // read the complete batches fitting into max bytes
+        int length = Math.min(maxBytes, segmentSize - position);
+        byte[] bytes = readBytes(segment, position, length);
+        if (bytes == null) {
+            loadChunksAsync(segment, position, length);
+            return null;
+        }
+        MemorySegment bytesSegment = MemorySegment.wrap(bytes);
+        int validBytes = 0;
+        while (bytes.length - validBytes >= RECORD_BATCH_HEADER_SIZE) {
+            batch.pointTo(bytesSegment, validBytes);
+            int batchSize = batch.sizeInBytes();
+            if (validBytes + batchSize > bytes.length) {
+                break;
+            }
+            validBytes += batchSize;
+        }
+
+        if (validBytes == 0 && minOneBatch) {
+            // the first batch is larger than max bytes, read it entirely
+            byte[] firstBatch = readBytes(segment, position, firstBatchSize);
+            if (firstBatch == null) {
+                loadChunksAsync(segment, position, firstBatchSize);
+                return null;
+            }
+            return MemoryLogRecords.pointToBytes(firstBatch);
+        }
+        return MemoryLogRecords.pointToBytes(bytes, 0, validBytes);
+    }
+
+    /**
+     * Reads the bytes of the remote log segment in the given range from the cached chunks, or
+     * returns null if any of the chunks is not cached.
+     */
+    @VisibleForTesting
+    @Nullable
+    byte[] readBytes(RemoteLogSegment segment, int position, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int currentPosition = position + read;
+            int chunkIndex = currentPosition / chunkSize;
+            int positionInChunk = currentPosition - chunkIndex * chunkSize;
+            int n = readFromChunk(segment, chunkIndex, positionInChunk, bytes, read);
+            if (n < 0) {
+                return null;
+            }
+            read += n;
+        }
+        return bytes;
+    }
+
+    /** Reads the bytes from the cached chunk, or returns -1 if the chunk is not cached. */
+    private int readFromChunk(
+            RemoteLogSegment segment,
+            int chunkIndex,
+            int positionInChunk,
+            byte[] bytes,
+            int bytesOffset)
+            throws IOException {
+        ChunkKey key = chunkKey(segment, chunkIndex);
+        File chunk = chunks.getIfPresent(key);
+        if (chunk == null) {
+            missCount.inc();
+            return -1;
+        }
+        int length = Math.min(key.length - positionInChunk, bytes.length - bytesOffset);
+        try (FileChannel channel = FileChannel.open(chunk.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, bytesOffset, length);
+            long filePosition = positionInChunk;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, filePosition);
+                if (n < 0) {
+                    throw new EOFException(
+                            String.format(
+                                    "Unexpected end of the chunk %s of remote log segment %s.",
+                                    chunk, segment.remoteLogSegmentId()));
+                }
+                filePosition += n;
+            }
+            hitCount.inc();
+            return length;
+        } catch (NoSuchFileException e) {
+            // the chunk is evicted after it's got from the cache, it's loaded again
+            chunks.asMap().remove(key, chunk);
+            missCount.inc();
+            return -1;
+        }
+    }
+
+    /** Loads the chunks covering the given range in the background if they are not cached. */
+    private void loadChunksAsync(RemoteLogSegment segment, int position, int length) {
+        int firstChunk = position / chunkSize;
+        int lastChunk = (position + Math.max(length, 1) - 1) / chunkSize;
+        for (int chunkIndex = firstChunk; chunkIndex <= lastChunk; chunkIndex++) {
+            ChunkKey key = chunkKey(segment, chunkIndex);
+            if (chunks.asMap().containsKey(key) || !loadingChunks.add(key)) {
+                continue;
+            }
+            try {
+                loadExecutor.execute(() -> loadChunkInBackground(segment, key));
+            } catch (RejectedExecutionException e) {
+                // the tablet server is shutting down
+                loadingChunks.remove(key);
+                return;
+            }
+        }
+    }
+
+    private void loadChunkInBackground(RemoteLogSegment segment, ChunkKey key) {
+        if (closed) {
+            loadingChunks.remove(key);
+            return;
+        }
+        try {
+            chunks.get(
+                    key,
+                    k -> {
+                        try {
+                            return loadChunk(segment, k);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (Exception e) {
+            LOG.warn(
+                    "Failed to load the chunk {} of remote log segment {} into the segment cache.",
+                    key.chunkIndex,
+                    segment.remoteLogSegmentId(),
+                    e);
+        } finally {
+            loadingChunks.remove(key);
+        }
+    }
+
+    private ChunkKey chunkKey(RemoteLogSegment segment, int chunkIndex) {
+        int chunkStart = chunkIndex * chunkSize;
+        return new ChunkKey(
+                segment.remoteLogSegmentId(),
+                chunkIndex,
+                Math.min(chunkSize, segment.segmentSizeInBytes() - chunkStart));
+    }
+
+    private File loadChunk(RemoteLogSegment segment, ChunkKey key) throws IOException {
+        String fileName = key.fileName(chunkFileSequence.getAndIncrement());
+        File chunk = new File(cacheDir, fileName);
+        File tmpChunk = new File(cacheDir, fileName + TMP_FILE_SUFFIX);
+        long chunkStart = (long) key.chunkIndex * chunkSize;
+        try (InputStream in = remoteLogStorage.fetchLogSegment(segment, chunkStart);
+                OutputStream out = Files.newOutputStream(tmpChunk.toPath())) {
+            byte[] buffer = new byte[Math.min(key.length, 64 * 1024)];
+            int remaining = key.length;
+            while (remaining > 0) {
+                int n = in.read(buffer, 0, Math.min(buffer.length, remaining));
+                if (n < 0) {
+                    throw new EOFException(
+                            String.format(
+                                    "Unexpected end of remote log segment %s when reading "
+                                            + "the chunk %s.",
+                                    segment.remoteLogSegmentId(), key.chunkIndex));
+                }
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmpChunk.toPath());
+            throw e;
+        } catch (RemoteStorageException e) {
+            Files.deleteIfExists(tmpChunk.toPath());
+            throw new IOException(
+                    String.format(
+                            "Failed to fetch the chunk %s of remote log segment %s.",
+                            key.chunkIndex, segment.remoteLogSegmentId()),
+                    e);
+        }
+        Files.move(tmpChunk.toPath(), chunk.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        cachedBytes.addAndGet(key.length);
+        LOG.debug(
+                "Loaded the chunk {} of remote log segment {} into the segment cache.",
+                key.chunkIndex,
+                segment.remoteLogSegmentId());
+        return chunk;
+    }
+
+    private static void deleteChunk(File chunk) {
+        try {
+            Files.deleteIfExists(chunk.toPath());
+        } catch (IOException e) {
+            LOG.warn("Failed to delete the remote log segment chunk {}.", chunk, e);
+        }
+    }
+
+    /** Returns the counter of the chunks read from the local cache. */
+    public Counter getCacheHitCount() {
+        return hitCount;
+    }
+
+    /** Returns the counter of the chunks not found in the local cache, which are loaded then. */
+    public Counter getCacheMissCount() {
+        return missCount;
+    }
+
+    /** Returns the total size in bytes of the cached chunks. */
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        chunks.invalidateAll();
+        chunks.cleanUp();
+        FileUtils.deleteDirectoryQuietly(cacheDir);
+    }
+
+    /** The key of a chunk of a remote log segment. */
+    private static final class ChunkKey {
+        private final UUID segmentId;
+        private final int chunkIndex;
+        // not part of the identity, derived from the segment size
+        private final int length;
+
+        private ChunkKey(UUID segmentId, int chunkIndex, int length) {
+            this.segmentId = segmentId;
+            this.chunkIndex = chunkIndex;
+            this.length = length;
+        }
+
+        private String fileName(long sequence) {
+            return segmentId + "-" + chunkIndex + "-" + sequence + CHUNK_FILE_SUFFIX;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ChunkKey that = (ChunkKey) o;
+            return chunkIndex == that.chunkIndex && segmentId.equals(that.segmentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(segmentId, chunkIndex);
+        }
+    }
+}
@@ -118,6 +118,18 @@ public interface RemoteLogStorage extends Closeable {
     InputStream fetchIndex(RemoteLogSegment remoteLogSegment, IndexType indexType)
             throws RemoteStorageException;
 
+    /**
+     * Returns the log segment file of the given {@link RemoteLogSegment} starting from the given
+     * position.
+     *
+     * @param remoteLogSegment the remote log segment.
+     * @param startPosition the position in the log segment file to start reading from.
+     * @return input stream of the log segment file positioned at the start position.
+     * @throws RemoteStorageException if there are any errors while fetching the log segment.
+     */
+    InputStream fetchLogSegment(RemoteLogSegment remoteLogSegment, long startPosition)
+            throws RemoteStorageException;
+
     /**
      * Read the remote log manifest from remote manifest file path.
      *
@@ -22,6 +22,7 @@ import com.alibaba.fluss.cluster.Cluster;
 import com.alibaba.fluss.cluster.ServerNode;
 import com.alibaba.fluss.cluster.TabletServerInfo;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
+import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePath;
 
 import javax.annotation.Nullable;
@@ -48,6 +49,7 @@ public class ServerMetadataSnapshot {
     private final Map<Integer, ServerInfo> aliveTabletServers;
     private final Map<TablePath, Long> tableIdByPath;
     private final Map<Long, TablePath> pathByTableId;
+    private final Map<Long, TableInfo> tableInfoById;
     // partition table.
     private final Map<PhysicalTablePath, Long> partitionIdByPath;
     private final Map<Long, PhysicalTablePath> physicalPathByPartitionId;
@@ -64,6 +66,7 @@ public class ServerMetadataSnapshot {
             Map<Integer, ServerInfo> aliveTabletServers,
             Map<TablePath, Long> tableIdByPath,
             Map<Long, TablePath> pathByTableId,
+            Map<Long, TableInfo> tableInfoById,
             Map<PhysicalTablePath, Long> partitionIdByPath,
             Map<Long, Map<Integer, BucketMetadata>> bucketMetadataMapForTables,
             Map<Long, Map<Integer, BucketMetadata>> bucketMetadataMapForPartitions) {
@@ -72,6 +75,7 @@ public class ServerMetadataSnapshot {
 
         this.tableIdByPath = Collections.unmodifiableMap(tableIdByPath);
         this.pathByTableId = Collections.unmodifiableMap(pathByTableId);
+        this.tableInfoById = Collections.unmodifiableMap(tableInfoById);
 
         this.partitionIdByPath = Collections.unmodifiableMap(partitionIdByPath);
         Map<Long, PhysicalTablePath> tempPhysicalPathByPartitionId = new HashMap<>();
@@ -94,6 +98,7 @@ public class ServerMetadataSnapshot {
                 Collections.emptyMap(),
                 Collections.emptyMap(),
                 Collections.emptyMap(),
+                Collections.emptyMap(),
                 Collections.emptyMap());
     }
 
@@ -142,6 +147,14 @@ public class ServerMetadataSnapshot {
         return tableIdByPath;
     }
 
+    public Optional<TableInfo> getTableInfo(long tableId) {
+        return Optional.ofNullable(tableInfoById.get(tableId));
+    }
+
+    public Map<Long, TableInfo> getTableInfoById() {
+        return tableInfoById;
+    }
+
     public Optional<Long> getPartitionId(PhysicalTablePath physicalTablePath) {
         return Optional.ofNullable(partitionIdByPath.get(physicalTablePath));
     }
@@ -23,6 +23,8 @@ import com.alibaba.fluss.cluster.TabletServerInfo;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.metrics.Counter;
+import com.alibaba.fluss.metrics.ThreadSafeSimpleCounter;
 import com.alibaba.fluss.server.coordinator.MetadataManager;
 import com.alibaba.fluss.server.tablet.TabletServer;
 import com.alibaba.fluss.server.zk.ZooKeeperClient;
@@ -68,10 +70,17 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
     private final MetadataManager metadataManager;
     private final ZooKeeperClient zkClient;
 
+    // the metadata lookups served from the cache, and the ones fall back to zookeeper
+    private final Counter cacheHitCount = new ThreadSafeSimpleCounter();
+    private final Counter cacheMissCount = new ThreadSafeSimpleCounter();
+
+    private volatile long lastUpdateTimeMs;
+
     public TabletServerMetadataCache(MetadataManager metadataManager, ZooKeeperClient zkClient) {
         this.serverMetadataSnapshot = ServerMetadataSnapshot.empty();
         this.metadataManager = metadataManager;
         this.zkClient = zkClient;
+        this.lastUpdateTimeMs = System.currentTimeMillis();
     }
 
     @Override
@@ -115,25 +124,28 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
     }
 
     public TableMetadata getTableMetadata(TablePath tablePath) {
-        // always get table info from zk.
-        TableInfo tableInfo = metadataManager.getTable(tablePath);
         ServerMetadataSnapshot snapshot = serverMetadataSnapshot;
         OptionalLong tableIdOpt = snapshot.getTableId(tablePath);
-        List<BucketMetadata> bucketMetadataList;
-        if (!tableIdOpt.isPresent()) {
-            // TODO no need to get assignment from zk if refactor client metadata cache. Trace by
-            // https://github.com/alibaba/fluss/issues/483
-            // get table assignment from zk.
-            bucketMetadataList =
-                    getTableMetadataFromZk(
-                            zkClient, tablePath, tableInfo.getTableId(), tableInfo.isPartitioned());
-        } else {
-            // get table assignment from cache.
-            bucketMetadataList =
+        Optional<TableInfo> cachedTableInfo =
+                tableIdOpt.isPresent()
+                        ? snapshot.getTableInfo(tableIdOpt.getAsLong())
+                        : Optional.empty();
+        if (cachedTableInfo.isPresent()) {
+            // the table info and the bucket leader and assignment are all pushed by the
+            // coordinator, get them from cache.
+            cacheHitCount.inc();
+            return new TableMetadata(
+                    cachedTableInfo.get(),
                     new ArrayList<>(
-                            snapshot.getBucketMetadataForTable(tableIdOpt.getAsLong()).values());
+                            snapshot.getBucketMetadataForTable(tableIdOpt.getAsLong()).values()));
         }
 
+        // the table hasn't been pushed to this server yet, get the metadata from zk.
+        cacheMissCount.inc();
+        TableInfo tableInfo = metadataManager.getTable(tablePath);
+        List<BucketMetadata> bucketMetadataList =
+                getTableMetadataFromZk(
+                        zkClient, tablePath, tableInfo.getTableId(), tableInfo.isPartitioned());
         return new TableMetadata(tableInfo, bucketMetadataList);
     }
 
@@ -146,6 +158,7 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
         OptionalLong tableIdOpt = snapshot.getTableId(tablePath);
         Optional<Long> partitionIdOpt = snapshot.getPartitionId(partitionPath);
         if (tableIdOpt.isPresent() && partitionIdOpt.isPresent()) {
+            cacheHitCount.inc();
             long tableId = tableIdOpt.getAsLong();
             long partitionId = partitionIdOpt.get();
             return new PartitionMetadata(
@@ -154,12 +167,27 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
                     partitionId,
                     new ArrayList<>(snapshot.getBucketMetadataForPartition(partitionId).values()));
         } else {
-            // TODO no need to get assignment from zk if refactor client metadata cache. Trace by
-            // https://github.com/alibaba/fluss/issues/483
+            // the partition hasn't been pushed to this server yet, get the metadata from zk.
+            cacheMissCount.inc();
             return getPartitionMetadataFromZk(partitionPath, zkClient);
         }
     }
 
+    /** Returns the counter of the metadata lookups served from the cache. */
+    public Counter getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    /** Returns the counter of the metadata lookups which fall back to zookeeper. */
+    public Counter getCacheMissCount() {
+        return cacheMissCount;
+    }
+
+    /** Returns the time in ms since the cache was last updated by the coordinator. */
+    public long getLastUpdateAgeMs() {
+        return System.currentTimeMillis() - lastUpdateTimeMs;
+    }
+
     public void updateClusterMetadata(ClusterMetadata clusterMetadata) {
         inLock(
                 metadataLock,
@@ -178,6 +206,8 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
                     // 3. update table metadata. Always partial update.
                     Map<TablePath, Long> tableIdByPath =
                             new HashMap<>(serverMetadataSnapshot.getTableIdByPath());
+                    Map<Long, TableInfo> tableInfoById =
+                            new HashMap<>(serverMetadataSnapshot.getTableInfoById());
                     Map<Long, Map<Integer, BucketMetadata>> bucketMetadataMapForTables =
                             new HashMap<>(serverMetadataSnapshot.getBucketMetadataMapForTables());
 
@@ -188,15 +218,18 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
                         if (tableId == DELETED_TABLE_ID) {
                             Long removedTableId = tableIdByPath.remove(tablePath);
                             if (removedTableId != null) {
+                                tableInfoById.remove(removedTableId);
                                 bucketMetadataMapForTables.remove(removedTableId);
                             }
                         } else if (tablePath == DELETED_TABLE_PATH) {
                             serverMetadataSnapshot
                                     .getTablePath(tableId)
                                     .ifPresent(tableIdByPath::remove);
+                            tableInfoById.remove(tableId);
                             bucketMetadataMapForTables.remove(tableId);
                         } else {
                             tableIdByPath.put(tablePath, tableId);
+                            tableInfoById.put(tableId, tableInfo);
                             tableMetadata
                                     .getBucketMetadataList()
                                     .forEach(
@@ -261,9 +294,11 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
                                     newAliveTableServers,
                                     tableIdByPath,
                                     newPathByTableId,
+                                    tableInfoById,
                                     partitionIdByPath,
                                     bucketMetadataMapForTables,
                                     bucketMetadataMapForPartitions);
+                    lastUpdateTimeMs = System.currentTimeMillis();
                 });
     }
 
@@ -283,6 +318,7 @@ public class TabletServerMetadataCache implements ServerMetadataCache {
                                     Collections.emptyMap(),
                                     Collections.emptyMap(),
                                     Collections.emptyMap(),
+                                    Collections.emptyMap(),
                                     Collections.emptyMap());
                 });
     }
@@ -206,6 +206,22 @@ public class PhysicalTableMetricGroup extends AbstractMetricGroup {
         }
     }
 
+    public Counter totalScanKvRequests() {
+        if (kvMetrics == null) {
+            return NoOpCounter.INSTANCE;
+        } else {
+            return kvMetrics.totalScanKvRequests;
+        }
+    }
+
+    public Counter failedScanKvRequests() {
+        if (kvMetrics == null) {
+            return NoOpCounter.INSTANCE;
+        } else {
+            return kvMetrics.failedScanKvRequests;
+        }
+    }
+
     public Counter totalPrefixLookupRequests() {
         if (kvMetrics == null) {
             return NoOpCounter.INSTANCE;
@@ -347,6 +363,8 @@ public class PhysicalTableMetricGroup extends AbstractMetricGroup {
         private final Counter failedPutKvRequests;
         private final Counter totalLimitScanRequests;
         private final Counter failedLimitScanRequests;
+        private final Counter totalScanKvRequests;
+        private final Counter failedScanKvRequests;
         private final Counter totalPrefixLookupRequests;
         private final Counter failedPrefixLookupRequests;
 
@@ -372,6 +390,11 @@ public class PhysicalTableMetricGroup extends AbstractMetricGroup {
             meter(
                     MetricNames.FAILED_LIMIT_SCAN_REQUESTS_RATE,
                     new MeterView(failedLimitScanRequests));
+            // for scan kv request
+            totalScanKvRequests = new ThreadSafeSimpleCounter();
+            meter(MetricNames.TOTAL_SCAN_KV_REQUESTS_RATE, new MeterView(totalScanKvRequests));
+            failedScanKvRequests = new ThreadSafeSimpleCounter();
+            meter(MetricNames.FAILED_SCAN_KV_REQUESTS_RATE, new MeterView(failedScanKvRequests));
 
             // for prefix lookup request
             totalPrefixLookupRequests = new ThreadSafeSimpleCounter();
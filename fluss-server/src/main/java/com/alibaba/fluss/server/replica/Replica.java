@@ -23,6 +23,7 @@ import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.config.TableConfig;
 import com.alibaba.fluss.exception.FencedLeaderEpochException;
 import com.alibaba.fluss.exception.InvalidColumnProjectionException;
+import com.alibaba.fluss.exception.InvalidFilterException;
 import com.alibaba.fluss.exception.InvalidTimestampException;
 import com.alibaba.fluss.exception.InvalidUpdateVersionException;
 import com.alibaba.fluss.exception.KvStorageException;
@@ -41,16 +42,19 @@ import com.alibaba.fluss.metrics.Counter;
 import com.alibaba.fluss.metrics.MeterView;
 import com.alibaba.fluss.metrics.MetricNames;
 import com.alibaba.fluss.metrics.SimpleCounter;
+import com.alibaba.fluss.predicate.Predicate;
 import com.alibaba.fluss.record.DefaultValueRecordBatch;
 import com.alibaba.fluss.record.KvRecordBatch;
 import com.alibaba.fluss.record.LogRecords;
 import com.alibaba.fluss.record.MemoryLogRecords;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
 import com.alibaba.fluss.rpc.protocol.Errors;
 import com.alibaba.fluss.server.SequenceIDCounter;
 import com.alibaba.fluss.server.coordinator.CoordinatorContext;
 import com.alibaba.fluss.server.entity.NotifyLeaderAndIsrData;
 import com.alibaba.fluss.server.kv.KvManager;
 import com.alibaba.fluss.server.kv.KvRecoverHelper;
+import com.alibaba.fluss.server.kv.KvScanner;
 import com.alibaba.fluss.server.kv.KvTablet;
 import com.alibaba.fluss.server.kv.rocksdb.RocksDBKvBuilder;
 import com.alibaba.fluss.server.kv.snapshot.CompletedKvSnapshotCommitter;
@@ -124,6 +128,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static com.alibaba.fluss.rpc.util.CommonRpcMessageUtils.toPredicate;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 import static com.alibaba.fluss.utils.concurrent.LockUtils.inReadLock;
 import static com.alibaba.fluss.utils.concurrent.LockUtils.inWriteLock;
@@ -496,12 +501,41 @@ public final class Replica {
         }
     }
 
+    /**
+     * Resolves the filter of a fetch request against the schema of this replica, returns null if no
+     * filter requested.
+     */
+    @Nullable
+    public Predicate resolveFilter(@Nullable PbPredicate filter) {
+        if (filter == null) {
+            return null;
+        }
+        if (logFormat != LogFormat.ARROW) {
+            throw new InvalidFilterException(
+                    String.format(
+                            "Filter pushdown is only supported for ARROW format, but the table %s is %s format.",
+                            physicalPath.getTablePath(), logFormat));
+        }
+        try {
+            return toPredicate(filter, getRowType());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidFilterException(
+                    String.format(
+                            "Invalid filter for table %s: %s",
+                            physicalPath.getTablePath(), e.getMessage()));
+        }
+    }
+
     public LogOffsetSnapshot fetchOffsetSnapshot(boolean fetchOnlyFromLeader) throws IOException {
         return inReadLock(
                 leaderIsrUpdateLock,
                 () -> {
                     LogTablet logTablet = localLogOrThrow(fetchOnlyFromLeader);
-                    return logTablet.fetchOffsetSnapshot();
+                    // the high watermark of a follower is its log end offset, clients fetching
+                    // from the follower can only see the records committed by the leader
+                    return isLeader()
+                            ? logTablet.fetchOffsetSnapshot()
+                            : logTablet.fetchLeaderBoundedOffsetSnapshot();
                 });
     }
 
@@ -693,7 +727,10 @@ public final class Replica {
                             getTablePath(),
                             tableBucket,
                             snapshotContext.getZooKeeperClient(),
-                            snapshotContext.maxFetchLogSizeInRecoverKv());
+                            snapshotContext.maxFetchLogSizeInRecoverKv(),
+                            snapshotContext.recoverKvParallelism(),
+                            snapshotContext.recoverKvWriteBatchSize(),
+                            snapshotContext.recoverKvWithSstIngestion());
             KvRecoverHelper kvRecoverHelper =
                     new KvRecoverHelper(
                             kvTablet,
@@ -1155,6 +1192,36 @@ public final class Replica {
                 });
     }
 
+    public KvScanner openKvScanner(@Nullable byte[] startKey, @Nullable byte[] endKey) {
+        if (!isKvTable()) {
+            throw new NonPrimaryKeyTableException(
+                    "the primary key table not exists for " + tableBucket);
+        }
+
+        return inReadLock(
+                leaderIsrUpdateLock,
+                () -> {
+                    try {
+                        if (!isLeader()) {
+                            throw new NotLeaderOrFollowerException(
+                                    String.format(
+                                            "Leader not local for bucket %s on tabletServer %d",
+                                            tableBucket, localTabletServerId));
+                        }
+                        checkNotNull(
+                                kvTablet, "KvTablet for the replica to scan shouldn't be null.");
+                        return kvTablet.openScanner(startKey, endKey);
+                    } catch (IOException e) {
+                        String errorMsg =
+                                String.format(
+                                        "Failed to open scanner on local kv for table bucket %s, the cause is: %s",
+                                        tableBucket, e.getMessage());
+                        LOG.error(errorMsg, e);
+                        throw new KvStorageException(errorMsg, e);
+                    }
+                });
+    }
+
     public LogRecords limitLogScan(int limit) {
         return inReadLock(
                 leaderIsrUpdateLock,
@@ -1324,11 +1391,17 @@ public final class Replica {
 
         // todo validate fetched epoch.
 
+        FetchIsolation isolation = fetchParams.isolation();
+        if (isolation == FetchIsolation.HIGH_WATERMARK && !isLeader()) {
+            // clients fetching from a follower can only see the records committed by the leader
+            isolation = FetchIsolation.LEADER_HIGH_WATERMARK;
+            initialHighWatermark = logTablet.getLeaderHighWatermark();
+        }
         FetchDataInfo fetchDataInfo =
                 logTablet.read(
                         readOffset,
                         fetchParams.maxFetchBytes(),
-                        fetchParams.isolation(),
+                        isolation,
                         fetchParams.minOneMessage(),
                         fetchParams.projection());
         return new LogReadInfo(fetchDataInfo, initialHighWatermark, initialLogEndOffset);
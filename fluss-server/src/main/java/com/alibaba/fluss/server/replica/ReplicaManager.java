@@ -27,13 +27,17 @@ import com.alibaba.fluss.exception.LogOffsetOutOfRangeException;
 import com.alibaba.fluss.exception.LogStorageException;
 import com.alibaba.fluss.exception.NotLeaderOrFollowerException;
 import com.alibaba.fluss.exception.StorageException;
+import com.alibaba.fluss.exception.UnknownScannerException;
 import com.alibaba.fluss.exception.UnknownTableOrBucketException;
 import com.alibaba.fluss.fs.FsPath;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.metadata.TableInfo;
 import com.alibaba.fluss.metadata.TablePath;
+import com.alibaba.fluss.metrics.MeterView;
 import com.alibaba.fluss.metrics.MetricNames;
+import com.alibaba.fluss.predicate.Predicate;
+import com.alibaba.fluss.record.DefaultValueRecordBatch;
 import com.alibaba.fluss.record.KvRecordBatch;
 import com.alibaba.fluss.record.MemoryLogRecords;
 import com.alibaba.fluss.remote.RemoteLogFetchInfo;
@@ -46,6 +50,7 @@ import com.alibaba.fluss.rpc.entity.LookupResultForBucket;
 import com.alibaba.fluss.rpc.entity.PrefixLookupResultForBucket;
 import com.alibaba.fluss.rpc.entity.ProduceLogResultForBucket;
 import com.alibaba.fluss.rpc.entity.PutKvResultForBucket;
+import com.alibaba.fluss.rpc.entity.ScanKvResultForBucket;
 import com.alibaba.fluss.rpc.entity.WriteResultForBucket;
 import com.alibaba.fluss.rpc.gateway.CoordinatorGateway;
 import com.alibaba.fluss.rpc.messages.NotifyKvSnapshotOffsetResponse;
@@ -64,6 +69,8 @@ import com.alibaba.fluss.server.entity.NotifyRemoteLogOffsetsData;
 import com.alibaba.fluss.server.entity.StopReplicaData;
 import com.alibaba.fluss.server.entity.StopReplicaResultForBucket;
 import com.alibaba.fluss.server.kv.KvManager;
+import com.alibaba.fluss.server.kv.KvScannerManager;
+import com.alibaba.fluss.server.kv.KvScannerManager.ScannerContext;
 import com.alibaba.fluss.server.kv.KvSnapshotResource;
 import com.alibaba.fluss.server.kv.snapshot.CompletedKvSnapshotCommitter;
 import com.alibaba.fluss.server.kv.snapshot.DefaultSnapshotContext;
@@ -78,6 +85,7 @@ import com.alibaba.fluss.server.log.LogReadInfo;
 import com.alibaba.fluss.server.log.LogTablet;
 import com.alibaba.fluss.server.log.checkpoint.OffsetCheckpointFile;
 import com.alibaba.fluss.server.log.remote.RemoteLogManager;
+import com.alibaba.fluss.server.log.remote.RemoteLogSegmentCache;
 import com.alibaba.fluss.server.metadata.ClusterMetadata;
 import com.alibaba.fluss.server.metadata.TabletServerMetadataCache;
 import com.alibaba.fluss.server.metrics.group.BucketMetricGroup;
@@ -177,6 +185,9 @@ public class ReplicaManager {
     // remote log manager for remote log storage.
     private final RemoteLogManager remoteLogManager;
 
+    // the kv scanners kept between the scan kv requests
+    private final KvScannerManager kvScannerManager;
+
     // for metrics
     private final TabletServerMetricGroup serverMetricGroup;
     private final String internalListenerName;
@@ -273,6 +284,7 @@ public class ReplicaManager {
                 DefaultSnapshotContext.create(
                         zkClient, completedKvSnapshotCommitter, kvSnapshotResource, conf);
         this.remoteLogManager = remoteLogManager;
+        this.kvScannerManager = new KvScannerManager(conf, clock);
         this.serverMetricGroup = serverMetricGroup;
         this.clock = clock;
         registerMetrics();
@@ -287,6 +299,14 @@ public class ReplicaManager {
                 this::maybeShrinkIsr,
                 0L,
                 conf.get(ConfigOptions.LOG_REPLICA_MAX_LAG_TIME).toMillis() / 2);
+
+        // close the kv scanners which are not accessed by the clients within the ttl
+        long scannerTtlMs = kvScannerManager.getScannerTtlMs();
+        scheduler.schedule(
+                "kv-scanner-expiration",
+                kvScannerManager::expireScanners,
+                scannerTtlMs / 2,
+                scannerTtlMs / 2);
     }
 
     public RemoteLogManager getRemoteLogManager() {
@@ -302,6 +322,33 @@ public class ReplicaManager {
         serverMetricGroup.gauge(MetricNames.DELAYED_WRITE_COUNT, delayedWriteManager::numDelayed);
         serverMetricGroup.gauge(
                 MetricNames.DELAYED_FETCH_COUNT, delayedFetchLogManager::numDelayed);
+        serverMetricGroup.gauge(
+                MetricNames.LOG_FLUSH_PENDING_COUNT,
+                () -> logManager.getLogFlusher().numPendingFlushes());
+        serverMetricGroup.gauge(
+                MetricNames.LOG_FLUSH_PENDING_LAG_MS,
+                () -> logManager.getLogFlusher().pendingFlushLagMs());
+        serverMetricGroup.meter(
+                MetricNames.METADATA_CACHE_HIT_RATE,
+                new MeterView(metadataCache.getCacheHitCount()));
+        serverMetricGroup.meter(
+                MetricNames.METADATA_CACHE_MISS_RATE,
+                new MeterView(metadataCache.getCacheMissCount()));
+        serverMetricGroup.gauge(
+                MetricNames.METADATA_CACHE_UPDATE_AGE_MS, metadataCache::getLastUpdateAgeMs);
+
+        RemoteLogSegmentCache remoteLogSegmentCache = remoteLogManager.getRemoteLogSegmentCache();
+        if (remoteLogSegmentCache != null) {
+            serverMetricGroup.meter(
+                    MetricNames.REMOTE_LOG_SEGMENT_CACHE_HIT_RATE,
+                    new MeterView(remoteLogSegmentCache.getCacheHitCount()));
+            serverMetricGroup.meter(
+                    MetricNames.REMOTE_LOG_SEGMENT_CACHE_MISS_RATE,
+                    new MeterView(remoteLogSegmentCache.getCacheMissCount()));
+            serverMetricGroup.gauge(
+                    MetricNames.REMOTE_LOG_SEGMENT_CACHE_SIZE,
+                    remoteLogSegmentCache::getCachedBytes);
+        }
     }
 
     private Stream<Replica> onlineReplicas() {
@@ -981,6 +1028,67 @@ public class ReplicaManager {
         responseCallback.accept(limitScanResultForBucket);
     }
 
+    /**
+     * Scans the values of the kv bucket page by page. A new scanner is opened if the scanner id is
+     * null, otherwise the scan is continued by the scanner kept from the previous request. The
+     * scanner id is returned in the result if there are more values to scan.
+     */
+    public void scanKv(
+            TableBucket tableBucket,
+            @Nullable byte[] scannerId,
+            @Nullable byte[] startKey,
+            @Nullable byte[] endKey,
+            int maxBytes,
+            boolean closeScanner,
+            Consumer<ScanKvResultForBucket> responseCallback) {
+        ScanKvResultForBucket scanKvResultForBucket;
+        PhysicalTableMetricGroup tableMetrics = null;
+        ScannerContext scannerContext = null;
+        boolean finished = true;
+        try {
+            Replica replica = getReplicaOrException(tableBucket);
+            tableMetrics = replica.tableMetrics();
+            tableMetrics.totalScanKvRequests().inc();
+            if (scannerId == null) {
+                scannerContext = kvScannerManager.register(replica.openKvScanner(startKey, endKey));
+            } else {
+                scannerContext = kvScannerManager.acquire(scannerId, tableBucket);
+            }
+
+            if (closeScanner) {
+                scanKvResultForBucket = new ScanKvResultForBucket(tableBucket, null, null);
+            } else {
+                DefaultValueRecordBatch.Builder builder = DefaultValueRecordBatch.builder();
+                boolean hasMore = scannerContext.getScanner().next(maxBytes, builder::append);
+                finished = !hasMore;
+                scanKvResultForBucket =
+                        new ScanKvResultForBucket(
+                                tableBucket,
+                                hasMore ? scannerContext.getScannerId() : null,
+                                builder.build());
+            }
+        } catch (Exception e) {
+            if (isUnexpectedException(e)) {
+                LOG.error("Error scan kv on replica {}", tableBucket, e);
+                if (tableMetrics != null) {
+                    tableMetrics.failedScanKvRequests().inc();
+                }
+            }
+            scanKvResultForBucket =
+                    new ScanKvResultForBucket(tableBucket, ApiError.fromThrowable(e));
+        } finally {
+            if (scannerContext != null) {
+                kvScannerManager.release(scannerContext, finished);
+            }
+        }
+        responseCallback.accept(scanKvResultForBucket);
+    }
+
+    @VisibleForTesting
+    KvScannerManager getKvScannerManager() {
+        return kvScannerManager;
+    }
+
     public Map<TableBucket, LogReadResult> readFromLog(
             FetchParams fetchParams, Map<TableBucket, FetchReqInfo> bucketFetchInfo) {
         Map<TableBucket, LogReadResult> logReadResult = new HashMap<>();
@@ -1002,13 +1110,15 @@ public class ReplicaManager {
                         tb,
                         fetchReqInfo.getFetchOffset());
                 replica.checkProjection(fetchReqInfo.getProjectFields());
+                Predicate filter = replica.resolveFilter(fetchReqInfo.getFilter());
                 fetchParams.setCurrentFetch(
                         tb.getTableId(),
                         fetchOffset,
                         adjustedMaxBytes,
                         replica.getRowType(),
                         replica.getArrowCompressionInfo(),
-                        fetchReqInfo.getProjectFields());
+                        fetchReqInfo.getProjectFields(),
+                        filter);
                 LogReadInfo readInfo = replica.fetchRecords(fetchParams);
 
                 // Once we read from a non-empty bucket, we stop ignoring request and bucket
@@ -1046,7 +1156,9 @@ public class ReplicaManager {
 
                 FetchLogResultForBucket result;
                 if (replica != null && e instanceof LogOffsetOutOfRangeException) {
-                    result = handleFetchOutOfRangeException(replica, fetchOffset, e);
+                    result =
+                            handleFetchOutOfRangeException(
+                                    replica, fetchParams, fetchOffset, adjustedMaxBytes, e);
                 } else {
                     result = new FetchLogResultForBucket(tb, ApiError.fromThrowable(e));
                 }
@@ -1058,8 +1170,20 @@ public class ReplicaManager {
     }
 
     private FetchLogResultForBucket handleFetchOutOfRangeException(
-            Replica replica, long fetchOffset, Exception e) {
+            Replica replica, FetchParams fetchParams, long fetchOffset, int maxBytes, Exception e) {
         TableBucket tb = replica.getTableBucket();
+        if (!replica.isLeader()) {
+            // only the leader tracks the remote and lake logs, let the client which is reading
+            // from a follower turn to the leader
+            return new FetchLogResultForBucket(
+                    tb,
+                    ApiError.fromThrowable(
+                            new NotLeaderOrFollowerException(
+                                    String.format(
+                                            "The fetch offset %s is out of the local log range of "
+                                                    + "the follower of table bucket %s, please fetch from the leader.",
+                                            fetchOffset, tb))));
+        }
         if (fetchOffset == FetchParams.FETCH_FROM_EARLIEST_OFFSET) {
             fetchOffset = replica.getLogStartOffset();
         }
@@ -1076,6 +1200,20 @@ public class ReplicaManager {
         // of RemoteLogSegment. For client fetcher, it will fetch the log from remote in client.
         // For follower, it can update its local metadata to adjust the next fetch offset.
         else if (canFetchFromRemoteLog(replica, fetchOffset)) {
+            RemoteLogSegmentCache remoteLogSegmentCache =
+                    remoteLogManager.getRemoteLogSegmentCache();
+            // the projection and filter can't be applied to the records read from remote
+            // segments, let the client download the segments and apply them itself
+            if (remoteLogSegmentCache != null
+                    && !fetchParams.isFromFollower()
+                    && fetchParams.projection() == null) {
+                MemoryLogRecords records =
+                        readLogFromRemote(
+                                replica, remoteLogSegmentCache, fetchParams, fetchOffset, maxBytes);
+                if (records != null) {
+                    return new FetchLogResultForBucket(tb, records, replica.getLogHighWatermark());
+                }
+            }
             RemoteLogFetchInfo remoteLogFetchInfo = fetchLogFromRemote(replica, fetchOffset);
             if (remoteLogFetchInfo != null) {
                 return new FetchLogResultForBucket(
@@ -1102,6 +1240,52 @@ public class ReplicaManager {
         return replica.getLogTablet().canFetchFromRemoteLog(fetchOffset);
     }
 
+    /**
+     * Reads the records from the remote log segment containing the fetch offset through the remote
+     * log segment cache. Returns null if the records can't be read or the chunks to read are not
+     * cached yet, and the client should download the remote log segments itself. The missing chunks
+     * are loaded in the background, so the rpc thread never waits for remote storage.
+     */
+    private @Nullable MemoryLogRecords readLogFromRemote(
+            Replica replica,
+            RemoteLogSegmentCache remoteLogSegmentCache,
+            FetchParams fetchParams,
+            long fetchOffset,
+            int maxBytes) {
+        TableBucket tb = replica.getTableBucket();
+        List<RemoteLogSegment> remoteLogSegmentList =
+                remoteLogManager.relevantRemoteLogSegments(tb, fetchOffset);
+        if (remoteLogSegmentList.isEmpty()) {
+            return null;
+        }
+        RemoteLogSegment segment = remoteLogSegmentList.get(0);
+        try {
+            int startPosition = remoteLogManager.lookupPositionForOffset(segment, fetchOffset);
+            MemoryLogRecords records =
+                    remoteLogSegmentCache.read(
+                            segment,
+                            fetchOffset,
+                            startPosition,
+                            maxBytes,
+                            fetchParams.minOneMessage());
+            if (records.sizeInBytes() == 0) {
+                return null;
+            }
+            fetchParams.markReadOneMessage();
+            replica.tableMetrics().logBytesOut().inc(records.sizeInBytes());
+            return records;
+        } catch (Exception e) {
+            LOG.warn(
+                    "Failed to read remote log segment {} of table bucket {} at offset {}, "
+                            + "falling back to let the client download the segment.",
+                    segment.remoteLogSegmentId(),
+                    tb,
+                    fetchOffset,
+                    e);
+            return null;
+        }
+    }
+
     private @Nullable RemoteLogFetchInfo fetchLogFromRemote(Replica replica, long fetchOffset) {
         List<RemoteLogSegment> remoteLogSegmentList =
                 remoteLogManager.relevantRemoteLogSegments(replica.getTableBucket(), fetchOffset);
@@ -1134,7 +1318,8 @@ public class ReplicaManager {
     private boolean isUnexpectedException(Exception e) {
         return !(e instanceof UnknownTableOrBucketException
                 || e instanceof NotLeaderOrFollowerException
-                || e instanceof LogOffsetOutOfRangeException);
+                || e instanceof LogOffsetOutOfRangeException
+                || e instanceof UnknownScannerException);
     }
 
     /**
@@ -1569,6 +1754,7 @@ public class ReplicaManager {
         replicaFetcherManager.shutdown();
         delayedWriteManager.shutdown();
         delayedFetchLogManager.shutdown();
+        kvScannerManager.close();
 
         // Checkpoint highWatermark.
         checkpointHighWatermarks();
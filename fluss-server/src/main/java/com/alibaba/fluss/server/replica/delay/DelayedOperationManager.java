@@ -29,29 +29,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import static com.alibaba.fluss.utils.Preconditions.checkArgument;
-import static com.alibaba.fluss.utils.concurrent.LockUtils.inLock;
 
 /* This file is based on source code of Apache Kafka Project (https://kafka.apache.org/), licensed by the Apache
  * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
  * additional information regarding copyright ownership. */
 
-/** A manager for bookkeeping delay operations with a timeout, and expiring timed out operations. */
+/**
+ * A manager for bookkeeping delay operations with a timeout, and expiring timed out operations.
+ *
+ * <p>The operations are watched in a lock-free queue per watch key (i.e., per table bucket). The
+ * watchers of all keys live in one concurrent map, a watcher is only created and removed through
+ * the atomic compute methods of the map, so an operation is never added to a removed watcher.
+ * Concurrent {@link #checkAndComplete(Object)} calls on the same key are coalesced: only one thread
+ * traverses the watched operations at a time, and it traverses them once more for all the calls
+ * which arrived during the traversal.
+ */
 public final class DelayedOperationManager<T extends DelayedOperation> {
     private static final Logger LOG = LoggerFactory.getLogger(DelayedOperationManager.class);
 
-    // Shard the watcher list to reduce lock contention.
-    private static final int DEFAULT_SHARDS = 512;
+    // The interval the expiration reaper advances the clock of the timing wheel.
+    private static final long ADVANCE_CLOCK_INTERVAL_MS = 200L;
 
     private final String managerName;
     private final Timer timeoutTimer;
@@ -59,7 +64,7 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
     private final int serverId;
     private final int purgeInterval;
 
-    private final List<WatcherList> watcherLists;
+    private final Map<Object, Watcher> watchersByKey;
     // the number of estimated total operations in the manager.
     private final AtomicInteger estimatedTotalOperations = new AtomicInteger(0);
     private final ExpiredOperationReaper expirationReaper;
@@ -69,10 +74,7 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
         this.timeoutTimer = new DefaultTimer(managerName);
         this.serverId = serverId;
         this.purgeInterval = purgeInterval;
-        this.watcherLists = new ArrayList<>(DEFAULT_SHARDS);
-        for (int i = 0; i < DEFAULT_SHARDS; i++) {
-            watcherLists.add(new WatcherList());
-        }
+        this.watchersByKey = MapUtils.newConcurrentHashMap();
 
         this.expirationReaper = new ExpiredOperationReaper();
         expirationReaper.start();
@@ -128,13 +130,16 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
      * Check if some delayed operations can be completed with the given watch key, and if yes
      * complete them.
      *
+     * <p>If another thread is checking the same key, the check is handed over to that thread and
+     * this method returns 0 immediately, the operations completable by now are completed before
+     * that thread returns.
+     *
      * @return the number of completed operations during this process
      */
     public int checkAndComplete(Object key) {
-        WatcherList wl = watcherList(key);
-        Watcher watcher = inLock(wl.watcherLock, () -> wl.watchersByKey.get(key));
+        Watcher watcher = watchersByKey.get(key);
 
-        int numCompleted = watcher == null ? 0 : watcher.tryCompletedWatched();
+        int numCompleted = watcher == null ? 0 : watcher.tryCompleteWatched();
         if (numCompleted > 0) {
             LOG.debug("Request key {} unblocked {} {} operations", key, numCompleted, managerName);
         }
@@ -149,10 +154,8 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
      */
     public int watched() {
         int count = 0;
-        for (WatcherList wl : watcherLists) {
-            for (Watcher watcher : wl.allWatchers()) {
-                count += watcher.countWatched();
-            }
+        for (Watcher watcher : watchersByKey.values()) {
+            count += watcher.countWatched();
         }
         return count;
     }
@@ -168,48 +171,33 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
      */
     @VisibleForTesting
     public List<T> cancelForKey(Object key) {
-        WatcherList wl = watcherList(key);
-        return inLock(
-                wl.watcherLock,
-                () -> {
-                    Watcher watcher = wl.watchersByKey.remove(key);
-                    if (watcher != null) {
-                        return watcher.cancel();
-                    } else {
-                        return new ArrayList<>();
-                    }
-                });
+        Watcher watcher = watchersByKey.remove(key);
+        if (watcher != null) {
+            return watcher.cancel();
+        } else {
+            return new ArrayList<>();
+        }
     }
 
     @VisibleForTesting
     void watchForOperation(Object key, T operation) {
-        WatcherList wl = watcherList(key);
-        inLock(
-                wl.watcherLock,
-                () -> {
-                    Watcher watcher = wl.watchersByKey.computeIfAbsent(key, Watcher::new);
+        // add the operation inside compute(), so that it can't race with removeKeyIfEmpty()
+        // removing the watcher of the key
+        watchersByKey.compute(
+                key,
+                (k, watcher) -> {
+                    if (watcher == null) {
+                        watcher = new Watcher(k);
+                    }
                     watcher.watch(operation);
+                    return watcher;
                 });
     }
 
-    private WatcherList watcherList(Object key) {
-        return watcherLists.get(Math.abs(key.hashCode()) % watcherLists.size());
-    }
-
     private void removeKeyIfEmpty(Object key, Watcher watcher) {
-        WatcherList wl = watcherList(key);
-        inLock(
-                wl.watcherLock,
-                () -> {
-                    // if the current key is no longer correlated to the watcher to remove, skip.
-                    if (wl.watchersByKey.get(key) != watcher) {
-                        return;
-                    }
-
-                    if (watcher != null && watcher.isEmpty()) {
-                        wl.watchersByKey.remove(key);
-                    }
-                });
+        // if the current key is no longer correlated to the watcher to remove, skip.
+        watchersByKey.computeIfPresent(
+                key, (k, current) -> current == watcher && current.isEmpty() ? null : current);
     }
 
     public void shutdown() {
@@ -230,33 +218,18 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
         timeoutTimer.shutdown();
     }
 
-    /** A list of operation watching keys. */
-    private class WatcherList {
-        private final Map<Object, Watcher> watchersByKey;
-        private final Lock watcherLock;
-
-        public WatcherList() {
-            this.watchersByKey = MapUtils.newConcurrentHashMap();
-            this.watcherLock = new ReentrantLock();
-        }
-
-        /**
-         * Return all the current watcher lists, note that the returned watcher may be removed from
-         * the list by other threads.
-         */
-        public Collection<Watcher> allWatchers() {
-            return watchersByKey.values();
-        }
-    }
-
-    /** A linked list of watched delayed operations based on some key. */
+    /** A lock-free queue of watched delayed operations based on some key. */
     private class Watcher {
         private final Object key;
         private final Queue<T> operations;
+        // the number of checks requested since the running traversal started, 0 if no traversal
+        // is running.
+        private final AtomicInteger pendingChecks;
 
         public Watcher(Object key) {
             this.key = key;
             this.operations = new ConcurrentLinkedQueue<>();
+            this.pendingChecks = new AtomicInteger(0);
         }
 
         /**
@@ -276,8 +249,31 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
             operations.add(t);
         }
 
+        /**
+         * Try to complete the watched elements. The checks arriving while a traversal is running
+         * are batched into one more traversal by the running thread.
+         */
+        public int tryCompleteWatched() {
+            if (pendingChecks.getAndIncrement() > 0) {
+                // the running traversal will traverse again for this check.
+                return 0;
+            }
+
+            int completed = 0;
+            int checks = 1;
+            do {
+                completed += traverseAndComplete();
+                checks = pendingChecks.addAndGet(-checks);
+            } while (checks > 0);
+
+            if (operations.isEmpty()) {
+                removeKeyIfEmpty(key, this);
+            }
+            return completed;
+        }
+
         /** traverse the list and try to complete some watched elements. */
-        public int tryCompletedWatched() {
+        private int traverseAndComplete() {
             int completed = 0;
             Iterator<T> iter = operations.iterator();
             while (iter.hasNext()) {
@@ -289,10 +285,6 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
                     completed++;
                 }
             }
-
-            if (operations.isEmpty()) {
-                removeKeyIfEmpty(key, this);
-            }
             return completed;
         }
 
@@ -342,12 +334,12 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
         }
 
         private void advanceClock() throws InterruptedException {
-            timeoutTimer.advanceClock(200L);
+            timeoutTimer.advanceClock(ADVANCE_CLOCK_INTERVAL_MS);
 
             // Trigger an expiry operation if the number of completed but still being watched
-            // operations is
-            // larger than the purge threshold. That number is computed by the difference btw the
-            // estimated total number of operations and the number of pending delayed operations.
+            // operations is larger than the purge threshold. That number is computed by the
+            // difference btw the estimated total number of operations and the number of pending
+            // delayed operations.
             if (estimatedTotalOperations.get() - numDelayed() > purgeInterval) {
                 // now set estimatedTotalOperations to delayed (the number of pending operations)
                 // since we are going to clean up watcher. Note that, if more operations are
@@ -356,10 +348,8 @@ public final class DelayedOperationManager<T extends DelayedOperation> {
                 estimatedTotalOperations.getAndSet(numDelayed());
                 LOG.debug("Begin purging watch lists");
                 int purged = 0;
-                for (WatcherList watcherList : watcherLists) {
-                    for (Watcher watcher : watcherList.allWatchers()) {
-                        purged += watcher.purgeCompleted();
-                    }
+                for (Watcher watcher : watchersByKey.values()) {
+                    purged += watcher.purgeCompleted();
                 }
                 LOG.debug("Purged {} elements from watch lists", purged);
             }
@@ -24,15 +24,25 @@ import java.util.Map;
 
 /** FetchLogContext to fetch log from leader. */
 public class FetchLogContext {
+    /** The fetch slot of the fetcher thread sending the fetch. */
+    private final int fetchSlot;
+
     private final Map<Long, TablePath> tableIdToTablePath;
     private final FetchLogRequest fetchLogRequest;
 
     public FetchLogContext(
-            Map<Long, TablePath> tableIdToTablePath, FetchLogRequest fetchLogRequest) {
+            int fetchSlot,
+            Map<Long, TablePath> tableIdToTablePath,
+            FetchLogRequest fetchLogRequest) {
+        this.fetchSlot = fetchSlot;
         this.tableIdToTablePath = tableIdToTablePath;
         this.fetchLogRequest = fetchLogRequest;
     }
 
+    public int getFetchSlot() {
+        return fetchSlot;
+    }
+
     public FetchLogRequest getFetchLogRequest() {
         return fetchLogRequest;
     }
@@ -49,12 +49,16 @@ interface LeaderEndpoint {
     CompletableFuture<FetchData> fetchLog(FetchLogContext fetchLogContext);
 
     /**
-     * Builds a fetch request, given a bucket map.
+     * Builds a fetch request, given a bucket map. A fetcher thread has at most one in-flight fetch
+     * per fetch slot, so the fetches of a slot can be handled sequentially, e.g., by a fetch
+     * session.
      *
+     * @param fetchSlot The fetch slot of the fetcher thread sending the fetch.
      * @param replicas A map of table replicas to their respective bucket fetch state.
      * @return fetchLogContext.
      */
-    Optional<FetchLogContext> buildFetchLogContext(Map<TableBucket, BucketFetchStatus> replicas);
+    Optional<FetchLogContext> buildFetchLogContext(
+            int fetchSlot, Map<TableBucket, BucketFetchStatus> replicas);
 
     /** Closes access to fetch from leader. */
     void close();
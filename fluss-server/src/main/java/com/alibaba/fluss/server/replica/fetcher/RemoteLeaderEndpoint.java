@@ -29,6 +29,7 @@ import com.alibaba.fluss.rpc.messages.PbFetchLogRespForBucket;
 import com.alibaba.fluss.rpc.messages.PbFetchLogRespForTable;
 import com.alibaba.fluss.rpc.messages.PbListOffsetsRespForBucket;
 import com.alibaba.fluss.rpc.protocol.Errors;
+import com.alibaba.fluss.rpc.util.FetchSessionHandler;
 import com.alibaba.fluss.server.log.ListOffsetsParam;
 
 import java.util.ArrayList;
@@ -54,6 +55,12 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
     private final int minFetchBytes;
     private final int maxFetchWaitMs;
 
+    /**
+     * The fetch session of each fetch slot with the leader to send incremental fetch log requests,
+     * only accessed by the fetcher thread.
+     */
+    private final Map<Integer, FetchSessionHandler> fetchSessionHandlers;
+
     RemoteLeaderEndpoint(
             Configuration conf,
             int followerServerId,
@@ -68,6 +75,7 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
         this.maxFetchWaitMs =
                 (int) conf.get(ConfigOptions.LOG_REPLICA_FETCH_WAIT_MAX_TIME).toMillis();
         this.tabletServerGateway = tabletServerGateway;
+        this.fetchSessionHandlers = new HashMap<>();
     }
 
     @Override
@@ -92,13 +100,29 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
 
     @Override
     public CompletableFuture<FetchData> fetchLog(FetchLogContext fetchLogContext) {
-        FetchLogRequest fetchLogRequest = fetchLogContext.getFetchLogRequest();
+        FetchSessionHandler fetchSessionHandler =
+                fetchSessionHandlers.computeIfAbsent(
+                        fetchLogContext.getFetchSlot(),
+                        slot -> new FetchSessionHandler(remoteServerId));
+        FetchLogRequest fetchLogRequest =
+                fetchSessionHandler.build(fetchLogContext.getFetchLogRequest());
         return tabletServerGateway
                 .fetchLog(fetchLogRequest)
+                .whenComplete(
+                        (fetchLogResponse, t) -> {
+                            if (t != null) {
+                                fetchSessionHandler.handleError(fetchLogRequest, t);
+                            }
+                        })
                 .thenApply(
                         fetchLogResponse -> {
                             Map<TableBucket, FetchLogResultForBucket> fetchLogResultMap =
                                     new HashMap<>();
+                            if (!fetchSessionHandler.handleResponse(
+                                    fetchLogRequest, fetchLogResponse)) {
+                                // the fetch session failed, fetch again with a full fetch
+                                return new FetchData(fetchLogResponse, fetchLogResultMap);
+                            }
                             List<PbFetchLogRespForTable> tablesRespList =
                                     fetchLogResponse.getTablesRespsList();
                             for (PbFetchLogRespForTable tableResp : tablesRespList) {
@@ -127,8 +151,9 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
 
     @Override
     public Optional<FetchLogContext> buildFetchLogContext(
-            Map<TableBucket, BucketFetchStatus> replicas) {
+            int fetchSlot, Map<TableBucket, BucketFetchStatus> replicas) {
         return buildFetchLogContext(
+                fetchSlot,
                 replicas,
                 followerServerId,
                 maxFetchSize,
@@ -143,6 +168,7 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
     }
 
     static Optional<FetchLogContext> buildFetchLogContext(
+            int fetchSlot,
             Map<TableBucket, BucketFetchStatus> replicas,
             int followerServerId,
             int maxFetchSize,
@@ -189,7 +215,7 @@ final class RemoteLeaderEndpoint implements LeaderEndpoint {
                                     .setProjectionPushdownEnabled(false)
                                     .setTableId(tableId)
                                     .addAllBucketsReqs(buckets));
-            return Optional.of(new FetchLogContext(tableIdToTablePath, fetchRequest));
+            return Optional.of(new FetchLogContext(fetchSlot, tableIdToTablePath, fetchRequest));
         }
     }
 
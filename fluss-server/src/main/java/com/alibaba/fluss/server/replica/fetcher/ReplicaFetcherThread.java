@@ -17,6 +17,7 @@
 
 package com.alibaba.fluss.server.replica.fetcher;
 
+import com.alibaba.fluss.annotation.VisibleForTesting;
 import com.alibaba.fluss.exception.CorruptRecordException;
 import com.alibaba.fluss.exception.DuplicateSequenceException;
 import com.alibaba.fluss.exception.InvalidOffsetException;
@@ -30,7 +31,6 @@ import com.alibaba.fluss.record.MemoryLogRecords;
 import com.alibaba.fluss.remote.RemoteLogFetchInfo;
 import com.alibaba.fluss.remote.RemoteLogSegment;
 import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
-import com.alibaba.fluss.rpc.messages.FetchLogRequest;
 import com.alibaba.fluss.server.log.LogAppendInfo;
 import com.alibaba.fluss.server.log.LogTablet;
 import com.alibaba.fluss.server.log.remote.RemoteLogManager;
@@ -38,10 +38,13 @@ import com.alibaba.fluss.server.log.remote.RemoteLogStorage.IndexType;
 import com.alibaba.fluss.server.metrics.group.TabletServerMetricGroup;
 import com.alibaba.fluss.server.replica.Replica;
 import com.alibaba.fluss.server.replica.ReplicaManager;
+import com.alibaba.fluss.server.replica.delay.DelayedTableBucketKey;
 import com.alibaba.fluss.server.replica.fetcher.LeaderEndpoint.FetchData;
 import com.alibaba.fluss.shaded.netty4.io.netty.buffer.ByteBuf;
 import com.alibaba.fluss.utils.FileUtils;
 import com.alibaba.fluss.utils.FlussPaths;
+import com.alibaba.fluss.utils.MathUtils;
+import com.alibaba.fluss.utils.concurrent.FutureUtils;
 import com.alibaba.fluss.utils.concurrent.ShutdownableThread;
 import com.alibaba.fluss.utils.log.FairBucketStatusMap;
 
@@ -55,16 +58,24 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import static com.alibaba.fluss.utils.Preconditions.checkArgument;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 import static com.alibaba.fluss.utils.concurrent.LockUtils.inLock;
 
@@ -72,7 +83,14 @@ import static com.alibaba.fluss.utils.concurrent.LockUtils.inLock;
  * Software Foundation (ASF) under the Apache License, Version 2.0. See the NOTICE file distributed with this work for
  * additional information regarding copyright ownership. */
 
-/** Replica fetcher thread to fetch data from leader. */
+/**
+ * Replica fetcher thread to fetch data from leader.
+ *
+ * <p>The fetches are sent asynchronously, each bucket is always fetched by the same fetch slot
+ * which has at most one in-flight fetch, so that the fetches of a bucket are kept in order while
+ * the fetches of different slots are pipelined, i.e., the records fetched by one slot are appended
+ * while the fetches of the other slots are in flight.
+ */
 final class ReplicaFetcherThread extends ShutdownableThread {
     private static final Logger LOG = LoggerFactory.getLogger(ReplicaFetcherThread.class);
 
@@ -80,9 +98,24 @@ final class ReplicaFetcherThread extends ShutdownableThread {
     private final LeaderEndpoint leader;
     private final int fetchBackOffMs;
 
+    /** The max number of in-flight fetches to the leader, i.e., the number of fetch slots. */
+    private final int maxInFlightFetches;
+
+    /** The in-flight fetch of each fetch slot, null if idle. Only accessed by this thread. */
+    private final InFlightFetch[] inFlightFetches;
+
+    /** The in-flight fetches whose response arrived, which are offered by the rpc threads. */
+    private final BlockingQueue<InFlightFetch> completedFetches = new LinkedBlockingQueue<>();
+
+    /**
+     * Whether the thread is stopped, then the responses arriving later are released by the rpc
+     * threads as nobody will process them.
+     */
+    private volatile boolean stopped;
+
     // manually add timout logic in here, todo remove this timeout logic if
     // we support global request timeout in #279
-    private final int timeoutSeconds = 30;
+    private final long fetchTimeoutMs;
 
     // TODO this range-robin fair map will take effect after we introduce fetch response limit size
     // in FetchLogRequest. trace id: FLUSS-56111098
@@ -104,10 +137,40 @@ final class ReplicaFetcherThread extends ShutdownableThread {
 
     public ReplicaFetcherThread(
             String name, ReplicaManager replicaManager, LeaderEndpoint leader, int fetchBackOffMs) {
+        this(name, replicaManager, leader, fetchBackOffMs, 1);
+    }
+
+    public ReplicaFetcherThread(
+            String name,
+            ReplicaManager replicaManager,
+            LeaderEndpoint leader,
+            int fetchBackOffMs,
+            int maxInFlightFetches) {
+        this(
+                name,
+                replicaManager,
+                leader,
+                fetchBackOffMs,
+                maxInFlightFetches,
+                TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @VisibleForTesting
+    ReplicaFetcherThread(
+            String name,
+            ReplicaManager replicaManager,
+            LeaderEndpoint leader,
+            int fetchBackOffMs,
+            int maxInFlightFetches,
+            long fetchTimeoutMs) {
         super(name, false);
+        checkArgument(maxInFlightFetches > 0, "maxInFlightFetches must be positive.");
         this.replicaManager = replicaManager;
         this.leader = leader;
         this.fetchBackOffMs = fetchBackOffMs;
+        this.maxInFlightFetches = maxInFlightFetches;
+        this.inFlightFetches = new InFlightFetch[maxInFlightFetches];
+        this.fetchTimeoutMs = fetchTimeoutMs;
         this.serverMetricGroup = replicaManager.getServerMetricGroup();
     }
 
@@ -122,35 +185,177 @@ final class ReplicaFetcherThread extends ShutdownableThread {
     @Override
     public void doWork() {
         maybeFetch();
-        // TODO, if we support fetch from follower, we need to complete delayed fetch log operation
-        // here.
+        processCompletedFetches();
     }
 
     private void maybeFetch() {
-        Optional<FetchLogContext> fetchLogContextOpt =
-                inLock(
-                        bucketStatusMapLock,
-                        () -> {
-                            Optional<FetchLogContext> fetchLogContext = Optional.empty();
-                            try {
-                                fetchLogContext =
-                                        leader.buildFetchLogContext(
-                                                fairBucketStatusMap.bucketStatusMap());
-                                if (!fetchLogContext.isPresent()) {
-                                    LOG.trace(
-                                            "There are no active buckets. Back off for {} ms before "
-                                                    + "sending a fetch fetchLogRequest",
-                                            fetchBackOffMs);
-                                    bucketStatusMapCondition.await(
-                                            fetchBackOffMs, TimeUnit.MILLISECONDS);
-                                }
-                            } catch (InterruptedException e) {
-                                LOG.error("Interrupted while awaiting fetch back off ms.", e);
-                            }
-                            return fetchLogContext;
-                        });
+        inLock(
+                bucketStatusMapLock,
+                () -> {
+                    List<Map<TableBucket, BucketFetchStatus>> bucketsPerSlot =
+                            bucketsPerSlot(fairBucketStatusMap.bucketStatusMap());
+                    boolean hasInFlightFetch = false;
+                    for (int slot = 0; slot < maxInFlightFetches; slot++) {
+                        if (inFlightFetches[slot] == null) {
+                            inFlightFetches[slot] = sendFetch(slot, bucketsPerSlot.get(slot));
+                        }
+                        hasInFlightFetch |= inFlightFetches[slot] != null;
+                    }
 
-        fetchLogContextOpt.ifPresent(this::processFetchLogRequest);
+                    if (!hasInFlightFetch) {
+                        try {
+                            LOG.trace(
+                                    "There are no active buckets. Back off for {} ms before "
+                                            + "sending a fetch fetchLogRequest",
+                                    fetchBackOffMs);
+                            bucketStatusMapCondition.await(fetchBackOffMs, TimeUnit.MILLISECONDS);
+                        } catch (InterruptedException e) {
+                            LOG.error("Interrupted while awaiting fetch back off ms.", e);
+                        }
+                    }
+                });
+    }
+
+    private List<Map<TableBucket, BucketFetchStatus>> bucketsPerSlot(
+            Map<TableBucket, BucketFetchStatus> bucketStatusMap) {
+        if (maxInFlightFetches == 1) {
+            return Collections.singletonList(bucketStatusMap);
+        }
+
+        List<Map<TableBucket, BucketFetchStatus>> bucketsPerSlot = new ArrayList<>();
+        for (int slot = 0; slot < maxInFlightFetches; slot++) {
+            bucketsPerSlot.add(new LinkedHashMap<>());
+        }
+        // keep the fair order of the buckets in each slot
+        bucketStatusMap.forEach(
+                (tableBucket, fetchStatus) ->
+                        bucketsPerSlot
+                                .get(
+                                        MathUtils.murmurHash(tableBucket.hashCode())
+                                                % maxInFlightFetches)
+                                .put(tableBucket, fetchStatus));
+        return bucketsPerSlot;
+    }
+
+    /**
+     * Sends a fetch of the ready buckets of the slot, returns null if there is nothing to fetch.
+     */
+    @Nullable
+    private InFlightFetch sendFetch(int slot, Map<TableBucket, BucketFetchStatus> buckets) {
+        Optional<FetchLogContext> fetchLogContextOpt = leader.buildFetchLogContext(slot, buckets);
+        if (!fetchLogContextOpt.isPresent()) {
+            return null;
+        }
+
+        FetchLogContext fetchLogContext = fetchLogContextOpt.get();
+        Map<TableBucket, Long> fetchOffsets = new HashMap<>();
+        buckets.forEach(
+                (tableBucket, fetchStatus) -> {
+                    if (fetchStatus.isReadyForFetch()) {
+                        fetchOffsets.put(tableBucket, fetchStatus.fetchOffset());
+                    }
+                });
+        LOG.trace(
+                "Sending fetch log request {} to leader {}",
+                fetchLogContext.getFetchLogRequest(),
+                leader.leaderServerId());
+
+        CompletableFuture<FetchData> responseFuture;
+        try {
+            responseFuture = leader.fetchLog(fetchLogContext);
+        } catch (Throwable t) {
+            responseFuture = FutureUtils.completedExceptionally(t);
+        }
+        InFlightFetch inFlightFetch =
+                new InFlightFetch(
+                        slot,
+                        fetchLogContext,
+                        fetchOffsets,
+                        responseFuture,
+                        System.currentTimeMillis() + fetchTimeoutMs);
+        responseFuture.whenComplete(
+                (r, t) -> {
+                    completedFetches.offer(inFlightFetch);
+                    if (stopped) {
+                        releaseCompletedFetches();
+                    }
+                });
+        return inFlightFetch;
+    }
+
+    /**
+     * Waits for the in-flight fetches and processes the arrived responses. The fetches not
+     * responded in time are abandoned and their buckets are retried after the back off.
+     */
+    private void processCompletedFetches() {
+        long now = System.currentTimeMillis();
+        long waitMs = Long.MAX_VALUE;
+        boolean hasIdleSlot = false;
+        for (InFlightFetch inFlightFetch : inFlightFetches) {
+            if (inFlightFetch == null) {
+                hasIdleSlot = true;
+            } else {
+                waitMs = Math.min(waitMs, Math.max(0L, inFlightFetch.deadlineMs - now));
+            }
+        }
+        if (waitMs == Long.MAX_VALUE) {
+            return;
+        }
+        if (hasIdleSlot) {
+            // wake up in time to send the fetches of the buckets ready again
+            waitMs = Math.min(waitMs, fetchBackOffMs);
+        }
+
+        try {
+            InFlightFetch completedFetch = completedFetches.poll(waitMs, TimeUnit.MILLISECONDS);
+            while (completedFetch != null) {
+                // the response of an abandoned fetch is ignored
+                if (inFlightFetches[completedFetch.slot] == completedFetch) {
+                    inFlightFetches[completedFetch.slot] = null;
+                    processFetchLogResponse(completedFetch);
+                } else {
+                    releaseResponse(completedFetch);
+                }
+                completedFetch = completedFetches.poll();
+            }
+        } catch (InterruptedException e) {
+            LOG.error("Interrupted while awaiting fetch log responses.", e);
+        }
+
+        now = System.currentTimeMillis();
+        for (int slot = 0; slot < maxInFlightFetches; slot++) {
+            InFlightFetch inFlightFetch = inFlightFetches[slot];
+            if (inFlightFetch != null && now >= inFlightFetch.deadlineMs) {
+                inFlightFetches[slot] = null;
+                LOG.warn(
+                        "Fetch log request {} to leader {} is not responded in {} ms.",
+                        inFlightFetch.fetchLogContext.getFetchLogRequest(),
+                        leader.leaderServerId(),
+                        fetchTimeoutMs);
+                handleBucketWithError(inFlightFetch.fetchOffsets.keySet());
+            }
+        }
+    }
+
+    /** Releases the responses which arrived but won't be processed, as the thread is stopped. */
+    private void releaseCompletedFetches() {
+        InFlightFetch completedFetch = completedFetches.poll();
+        while (completedFetch != null) {
+            releaseResponse(completedFetch);
+            completedFetch = completedFetches.poll();
+        }
+    }
+
+    /** Releases the network buffer held by the response of a fetch which isn't processed. */
+    private static void releaseResponse(InFlightFetch completedFetch) {
+        if (completedFetch.responseFuture.isCompletedExceptionally()) {
+            return;
+        }
+        ByteBuf parsedByteBuf =
+                completedFetch.responseFuture.join().getFetchLogResponse().getParsedByteBuf();
+        if (parsedByteBuf != null) {
+            parsedByteBuf.release();
+        }
     }
 
     void removeBuckets(Set<TableBucket> tableBuckets) throws InterruptedException {
@@ -212,32 +417,28 @@ final class ReplicaFetcherThread extends ShutdownableThread {
         }
     }
 
-    // TODO add fetch session to reduce the fetch request byte size.
-    private void processFetchLogRequest(FetchLogContext fetchLogContext) {
+    private void processFetchLogResponse(InFlightFetch inFlightFetch) {
         Set<TableBucket> bucketsWithError = new HashSet<>();
         FetchData responseData = null;
-        FetchLogRequest fetchLogRequest = fetchLogContext.getFetchLogRequest();
         try {
-            LOG.trace(
-                    "Sending fetch log request {} to leader {}",
-                    fetchLogRequest,
-                    leader.leaderServerId());
-            // TODO this need not blocking to wait fetch log complete, change to async, see
-            // FLUSS-56115172.
-            responseData = leader.fetchLog(fetchLogContext).get(timeoutSeconds, TimeUnit.SECONDS);
+            responseData = inFlightFetch.responseFuture.get();
         } catch (Throwable t) {
             if (isRunning()) {
-                LOG.warn("Error in response for fetch log request {}", fetchLogRequest, t);
-                inLock(
-                        bucketStatusMapLock,
-                        () -> bucketsWithError.addAll(fairBucketStatusMap.bucketSet()));
+                LOG.warn(
+                        "Error in response for fetch log request {}",
+                        inFlightFetch.fetchLogContext.getFetchLogRequest(),
+                        t);
+                bucketsWithError.addAll(inFlightFetch.fetchOffsets.keySet());
             }
         }
 
         if (responseData != null) {
             bucketStatusMapLock.lock();
             try {
-                handleFetchLogResponse(responseData.getFetchLogResultMap(), bucketsWithError);
+                handleFetchLogResponse(
+                        responseData.getFetchLogResultMap(),
+                        inFlightFetch.fetchOffsets,
+                        bucketsWithError);
             } finally {
                 // release buffer handle by fetchLogResponse.
                 ByteBuf parsedByteBuf = responseData.getFetchLogResponse().getParsedByteBuf();
@@ -255,6 +456,7 @@ final class ReplicaFetcherThread extends ShutdownableThread {
 
     private void handleFetchLogResponse(
             Map<TableBucket, FetchLogResultForBucket> responseData,
+            Map<TableBucket, Long> fetchOffsets,
             Set<TableBucket> replicasWithError) {
         responseData.forEach(
                 (tableBucket, replicaData) -> {
@@ -263,6 +465,17 @@ final class ReplicaFetcherThread extends ShutdownableThread {
                     if (currentFetchStatus == null || !currentFetchStatus.isReadyForFetch()) {
                         return;
                     }
+                    // the bucket may be truncated or re-added while the fetch is in flight
+                    Long fetchOffset = fetchOffsets.get(tableBucket);
+                    if (fetchOffset == null || fetchOffset != currentFetchStatus.fetchOffset()) {
+                        LOG.debug(
+                                "Ignoring fetched data of replica {} at offset {} as the current "
+                                        + "fetch offset is {}.",
+                                tableBucket,
+                                fetchOffset,
+                                currentFetchStatus.fetchOffset());
+                        return;
+                    }
 
                     // TODO different error using different fix way.
                     switch (replicaData.getError().error()) {
@@ -425,7 +638,8 @@ final class ReplicaFetcherThread extends ShutdownableThread {
          * don't fix this mismatch as of now.
          */
         long leaderEndOffset =
-                leader.fetchLocalLogEndOffset(tableBucket).get(timeoutSeconds, TimeUnit.SECONDS);
+                leader.fetchLocalLogEndOffset(tableBucket)
+                        .get(fetchTimeoutMs, TimeUnit.MILLISECONDS);
         if (leaderEndOffset < replicaEndOffset) {
             LOG.warn(
                     "Reset fetch offset for bucket {} from {} to current leader's latest offset {}",
@@ -461,7 +675,7 @@ final class ReplicaFetcherThread extends ShutdownableThread {
              * */
             long leaderStartOffset =
                     leader.fetchLocalLogStartOffset(tableBucket)
-                            .get(timeoutSeconds, TimeUnit.SECONDS);
+                            .get(fetchTimeoutMs, TimeUnit.MILLISECONDS);
             LOG.warn(
                     "Reset fetch offset for bucket {} from {} to current leader's start offset {}",
                     tableBucket,
@@ -558,6 +772,13 @@ final class ReplicaFetcherThread extends ShutdownableThread {
                 "Follower received high watermark {} from the leader for replica {}",
                 replicaData.getHighWatermark(),
                 tableBucket);
+        if (logTablet.updateLeaderHighWatermark(replicaData.getHighWatermark())) {
+            // more records can be read by the clients fetching from this follower, complete the
+            // delayed fetch log operations waiting for them
+            replicaManager
+                    .getDelayedFetchLogManager()
+                    .checkAndComplete(new DelayedTableBucketKey(tableBucket));
+        }
 
         serverMetricGroup.replicationBytesIn().inc(records.sizeInBytes());
 
@@ -661,6 +882,10 @@ final class ReplicaFetcherThread extends ShutdownableThread {
     @Override
     public void awaitShutdown() throws InterruptedException {
         super.awaitShutdown();
+        // the responses arrived are not processed anymore, and the responses still in flight are
+        // released once they arrive
+        stopped = true;
+        releaseCompletedFetches();
         // We don't expect any exceptions here, but catch and log any errors to avoid failing the
         // caller, especially during shutdown. It is safe to catch the exception here without
         // causing correctness issue because we are going to shut down the thread and will not
@@ -678,4 +903,28 @@ final class ReplicaFetcherThread extends ShutdownableThread {
         inLock(bucketStatusMapLock, bucketStatusMapCondition::signalAll);
         awaitShutdown();
     }
+
+    /** A fetch sent to the leader by a fetch slot. */
+    private static final class InFlightFetch {
+        private final int slot;
+        private final FetchLogContext fetchLogContext;
+        /** The fetch offsets of the fetched buckets. */
+        private final Map<TableBucket, Long> fetchOffsets;
+
+        private final CompletableFuture<FetchData> responseFuture;
+        private final long deadlineMs;
+
+        private InFlightFetch(
+                int slot,
+                FetchLogContext fetchLogContext,
+                Map<TableBucket, Long> fetchOffsets,
+                CompletableFuture<FetchData> responseFuture,
+                long deadlineMs) {
+            this.slot = slot;
+            this.fetchLogContext = fetchLogContext;
+            this.fetchOffsets = fetchOffsets;
+            this.responseFuture = responseFuture;
+            this.deadlineMs = deadlineMs;
+        }
+    }
 }
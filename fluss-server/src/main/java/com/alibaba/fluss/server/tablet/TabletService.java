@@ -56,6 +56,8 @@ import com.alibaba.fluss.rpc.messages.ProduceLogRequest;
 import com.alibaba.fluss.rpc.messages.ProduceLogResponse;
 import com.alibaba.fluss.rpc.messages.PutKvRequest;
 import com.alibaba.fluss.rpc.messages.PutKvResponse;
+import com.alibaba.fluss.rpc.messages.ScanKvRequest;
+import com.alibaba.fluss.rpc.messages.ScanKvResponse;
 import com.alibaba.fluss.rpc.messages.StopReplicaRequest;
 import com.alibaba.fluss.rpc.messages.StopReplicaResponse;
 import com.alibaba.fluss.rpc.messages.UpdateMetadataRequest;
@@ -70,6 +72,8 @@ import com.alibaba.fluss.server.coordinator.MetadataManager;
 import com.alibaba.fluss.server.entity.FetchReqInfo;
 import com.alibaba.fluss.server.entity.NotifyLeaderAndIsrData;
 import com.alibaba.fluss.server.log.FetchParams;
+import com.alibaba.fluss.server.log.FetchSessionCache;
+import com.alibaba.fluss.server.log.FetchSessionCache.FetchContext;
 import com.alibaba.fluss.server.log.ListOffsetsParam;
 import com.alibaba.fluss.server.metadata.TabletServerMetadataCache;
 import com.alibaba.fluss.server.replica.ReplicaManager;
@@ -79,6 +83,7 @@ import com.alibaba.fluss.server.zk.ZooKeeperClient;
 import javax.annotation.Nullable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,8 +96,11 @@ import java.util.stream.Collectors;
 import static com.alibaba.fluss.security.acl.OperationType.READ;
 import static com.alibaba.fluss.security.acl.OperationType.WRITE;
 import static com.alibaba.fluss.server.coordinator.CoordinatorContext.INITIAL_COORDINATOR_EPOCH;
+import static com.alibaba.fluss.server.log.FetchParams.DEFAULT_MAX_WAIT_MS;
 import static com.alibaba.fluss.server.log.FetchParams.DEFAULT_MAX_WAIT_MS_WHEN_MIN_BYTES_ENABLE;
+import static com.alibaba.fluss.server.log.FetchParams.DEFAULT_MIN_FETCH_BYTES;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.getFetchLogData;
+import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.getFetchLogForgottenBuckets;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.getListOffsetsData;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.getNotifyLakeTableOffset;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.getNotifyLeaderAndIsrRequestData;
@@ -112,6 +120,7 @@ import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makeNotifyLea
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makePrefixLookupResponse;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makeProduceLogResponse;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makePutKvResponse;
+import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makeScanKvResponse;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.makeStopReplicaResponse;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.toLookupData;
 import static com.alibaba.fluss.server.utils.ServerRpcMessageUtils.toPrefixLookupData;
@@ -122,6 +131,7 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
     private final String serviceName;
     private final ReplicaManager replicaManager;
     private final TabletServerMetadataCache metadataCache;
+    private final FetchSessionCache fetchSessionCache;
 
     public TabletService(
             int serverId,
@@ -130,11 +140,13 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
             ReplicaManager replicaManager,
             TabletServerMetadataCache metadataCache,
             MetadataManager metadataManager,
+            FetchSessionCache fetchSessionCache,
             @Nullable Authorizer authorizer) {
         super(remoteFileSystem, ServerType.TABLET_SERVER, zkClient, metadataManager, authorizer);
         this.serviceName = "server-" + serverId;
         this.replicaManager = replicaManager;
         this.metadataCache = metadataCache;
+        this.fetchSessionCache = fetchSessionCache;
     }
 
     @Override
@@ -160,7 +172,17 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
 
     @Override
     public CompletableFuture<FetchLogResponse> fetchLog(FetchLogRequest request) {
-        Map<TableBucket, FetchReqInfo> fetchLogData = getFetchLogData(request);
+        FetchContext fetchContext =
+                fetchSessionCache.newContext(
+                        request, getFetchLogData(request), getFetchLogForgottenBuckets(request));
+        ApiError sessionError = fetchContext.error();
+        if (sessionError != null) {
+            FetchLogResponse errorResponse = new FetchLogResponse();
+            errorResponse.setError(sessionError.error().code(), sessionError.message());
+            return CompletableFuture.completedFuture(errorResponse);
+        }
+
+        Map<TableBucket, FetchReqInfo> fetchLogData = fetchContext.fetchData();
         Map<TableBucket, FetchLogResultForBucket> errorResponseMap = new HashMap<>();
         Map<TableBucket, FetchReqInfo> interesting =
                 // TODO: we should also authorize for follower, otherwise, users can mock follower
@@ -170,7 +192,9 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
                                 READ, fetchLogData, errorResponseMap, FetchLogResultForBucket::new)
                         : fetchLogData;
         if (interesting.isEmpty()) {
-            return CompletableFuture.completedFuture(makeFetchLogResponse(errorResponseMap));
+            return CompletableFuture.completedFuture(
+                    makeFetchLogResponse(
+                            Collections.emptyMap(), errorResponseMap, fetchContext.sessionId()));
         }
 
         CompletableFuture<FetchLogResponse> response = new CompletableFuture<>();
@@ -180,23 +204,36 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
                 interesting,
                 fetchResponseMap ->
                         response.complete(
-                                makeFetchLogResponse(fetchResponseMap, errorResponseMap)));
+                                makeFetchLogResponse(
+                                        fetchContext.updateAndGenerateResponseData(
+                                                fetchResponseMap),
+                                        errorResponseMap,
+                                        fetchContext.sessionId())));
         return response;
     }
 
     private static FetchParams getFetchParams(FetchLogRequest request) {
+        // the followers always fetch from the leader, but clients can read from followers
+        boolean fetchOnlyLeader = !request.hasAllowFollowerRead() || !request.isAllowFollowerRead();
         FetchParams fetchParams;
         if (request.hasMinBytes()) {
             fetchParams =
                     new FetchParams(
                             request.getFollowerServerId(),
+                            fetchOnlyLeader,
                             request.getMaxBytes(),
                             request.getMinBytes(),
                             request.hasMaxWaitMs()
                                     ? request.getMaxWaitMs()
                                     : DEFAULT_MAX_WAIT_MS_WHEN_MIN_BYTES_ENABLE);
         } else {
-            fetchParams = new FetchParams(request.getFollowerServerId(), request.getMaxBytes());
+            fetchParams =
+                    new FetchParams(
+                            request.getFollowerServerId(),
+                            fetchOnlyLeader,
+                            request.getMaxBytes(),
+                            DEFAULT_MIN_FETCH_BYTES,
+                            DEFAULT_MAX_WAIT_MS);
         }
         return fetchParams;
     }
@@ -267,6 +304,25 @@ public final class TabletService extends RpcServiceBase implements TabletServerG
         return response;
     }
 
+    @Override
+    public CompletableFuture<ScanKvResponse> scanKv(ScanKvRequest request) {
+        authorizeTable(READ, request.getTableId());
+
+        CompletableFuture<ScanKvResponse> response = new CompletableFuture<>();
+        replicaManager.scanKv(
+                new TableBucket(
+                        request.getTableId(),
+                        request.hasPartitionId() ? request.getPartitionId() : null,
+                        request.getBucketId()),
+                request.hasScannerId() ? request.getScannerId() : null,
+                request.hasStartKey() ? request.getStartKey() : null,
+                request.hasEndKey() ? request.getEndKey() : null,
+                request.getMaxBytes(),
+                request.hasCloseScanner() && request.isCloseScanner(),
+                value -> response.complete(makeScanKvResponse(value)));
+        return response;
+    }
+
     @Override
     public CompletableFuture<NotifyLeaderAndIsrResponse> notifyLeaderAndIsr(
             NotifyLeaderAndIsrRequest notifyLeaderAndIsrRequest) {
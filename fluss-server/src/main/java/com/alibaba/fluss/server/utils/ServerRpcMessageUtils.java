@@ -47,6 +47,7 @@ import com.alibaba.fluss.rpc.entity.LookupResultForBucket;
 import com.alibaba.fluss.rpc.entity.PrefixLookupResultForBucket;
 import com.alibaba.fluss.rpc.entity.ProduceLogResultForBucket;
 import com.alibaba.fluss.rpc.entity.PutKvResultForBucket;
+import com.alibaba.fluss.rpc.entity.ScanKvResultForBucket;
 import com.alibaba.fluss.rpc.messages.AdjustIsrRequest;
 import com.alibaba.fluss.rpc.messages.AdjustIsrResponse;
 import com.alibaba.fluss.rpc.messages.CommitKvSnapshotRequest;
@@ -102,6 +103,7 @@ import com.alibaba.fluss.rpc.messages.PbNotifyLeaderAndIsrRespForBucket;
 import com.alibaba.fluss.rpc.messages.PbPartitionMetadata;
 import com.alibaba.fluss.rpc.messages.PbPartitionSpec;
 import com.alibaba.fluss.rpc.messages.PbPhysicalTablePath;
+import com.alibaba.fluss.rpc.messages.PbPredicate;
 import com.alibaba.fluss.rpc.messages.PbPrefixLookupReqForBucket;
 import com.alibaba.fluss.rpc.messages.PbPrefixLookupRespForBucket;
 import com.alibaba.fluss.rpc.messages.PbProduceLogReqForBucket;
@@ -124,6 +126,7 @@ import com.alibaba.fluss.rpc.messages.ProduceLogRequest;
 import com.alibaba.fluss.rpc.messages.ProduceLogResponse;
 import com.alibaba.fluss.rpc.messages.PutKvRequest;
 import com.alibaba.fluss.rpc.messages.PutKvResponse;
+import com.alibaba.fluss.rpc.messages.ScanKvResponse;
 import com.alibaba.fluss.rpc.messages.StopReplicaRequest;
 import com.alibaba.fluss.rpc.messages.StopReplicaResponse;
 import com.alibaba.fluss.rpc.messages.UpdateMetadataRequest;
@@ -175,6 +178,7 @@ import java.util.stream.Stream;
 
 import static com.alibaba.fluss.rpc.util.CommonRpcMessageUtils.toByteBuffer;
 import static com.alibaba.fluss.rpc.util.CommonRpcMessageUtils.toPbAclInfo;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INVALID_SESSION_ID;
 import static com.alibaba.fluss.utils.Preconditions.checkNotNull;
 
 /**
@@ -424,6 +428,10 @@ public class ServerRpcMessageUtils {
                 pbBucketMetadata.addReplicaId(replica);
             }
 
+            for (Integer isr : bucketMetadata.getIsr()) {
+                pbBucketMetadata.addIsr(isr);
+            }
+
             pbBucketMetadataList.add(pbBucketMetadata);
         }
         return pbBucketMetadataList;
@@ -456,7 +464,8 @@ public class ServerRpcMessageUtils {
                 pbBucketMetadata.hasLeaderEpoch() ? pbBucketMetadata.getLeaderEpoch() : null,
                 Arrays.stream(pbBucketMetadata.getReplicaIds())
                         .boxed()
-                        .collect(Collectors.toList()));
+                        .collect(Collectors.toList()),
+                Arrays.stream(pbBucketMetadata.getIsrs()).boxed().collect(Collectors.toList()));
     }
 
     private static PartitionMetadata toPartitionMetadata(PbPartitionMetadata pbPartitionMetadata) {
@@ -687,6 +696,8 @@ public class ServerRpcMessageUtils {
             } else {
                 projectionFields = null;
             }
+            final PbPredicate filter =
+                    fetchLogReqForTable.hasFilter() ? fetchLogReqForTable.getFilter() : null;
 
             List<PbFetchLogReqForBucket> bucketsReqsList = fetchLogReqForTable.getBucketsReqsList();
             for (PbFetchLogReqForBucket fetchLogReqForBucket : bucketsReqsList) {
@@ -702,19 +713,39 @@ public class ServerRpcMessageUtils {
                                 tableId,
                                 fetchLogReqForBucket.getFetchOffset(),
                                 fetchLogReqForBucket.getMaxFetchBytes(),
-                                projectionFields));
+                                projectionFields,
+                                filter));
             }
         }
 
         return fetchDataMap;
     }
 
+    public static List<TableBucket> getFetchLogForgottenBuckets(FetchLogRequest request) {
+        List<TableBucket> forgottenBuckets = new ArrayList<>();
+        for (PbTableBucket pbTableBucket : request.getForgottenBucketsList()) {
+            forgottenBuckets.add(toTableBucket(pbTableBucket));
+        }
+        return forgottenBuckets;
+    }
+
     public static FetchLogResponse makeFetchLogResponse(
             Map<TableBucket, FetchLogResultForBucket> fetchLogResult,
             Map<TableBucket, FetchLogResultForBucket> fetchLogErrors) {
         return makeFetchLogResponse(mergeResponse(fetchLogResult, fetchLogErrors));
     }
 
+    public static FetchLogResponse makeFetchLogResponse(
+            Map<TableBucket, FetchLogResultForBucket> fetchLogResult,
+            Map<TableBucket, FetchLogResultForBucket> fetchLogErrors,
+            int sessionId) {
+        FetchLogResponse fetchLogResponse = makeFetchLogResponse(fetchLogResult, fetchLogErrors);
+        if (sessionId != INVALID_SESSION_ID) {
+            fetchLogResponse.setSessionId(sessionId);
+        }
+        return fetchLogResponse;
+    }
+
     public static FetchLogResponse makeFetchLogResponse(
             Map<TableBucket, FetchLogResultForBucket> fetchLogResult) {
         Map<Long, List<PbFetchLogRespForBucket>> fetchLogRespMap = new HashMap<>();
@@ -896,6 +927,27 @@ public class ServerRpcMessageUtils {
         return putKvResponse;
     }
 
+    public static ScanKvResponse makeScanKvResponse(ScanKvResultForBucket bucketResult) {
+        ScanKvResponse scanKvResponse = new ScanKvResponse();
+        if (bucketResult.failed()) {
+            scanKvResponse.setError(bucketResult.getErrorCode(), bucketResult.getErrorMessage());
+        } else {
+            byte[] scannerId = bucketResult.getScannerId();
+            scanKvResponse.setHasMoreResults(scannerId != null);
+            if (scannerId != null) {
+                scanKvResponse.setScannerId(scannerId);
+            }
+            DefaultValueRecordBatch valueRecords = bucketResult.getValues();
+            if (valueRecords != null) {
+                scanKvResponse.setRecords(
+                        valueRecords.getSegment(),
+                        valueRecords.getPosition(),
+                        valueRecords.sizeInBytes());
+            }
+        }
+        return scanKvResponse;
+    }
+
     public static LimitScanResponse makeLimitScanResponse(LimitScanResultForBucket bucketResult) {
         LimitScanResponse limitScanResponse = new LimitScanResponse();
 
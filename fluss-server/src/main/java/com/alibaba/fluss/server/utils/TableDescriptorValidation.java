@@ -28,6 +28,7 @@ import com.alibaba.fluss.metadata.KvFormat;
 import com.alibaba.fluss.metadata.LogFormat;
 import com.alibaba.fluss.metadata.MergeEngineType;
 import com.alibaba.fluss.metadata.TableDescriptor;
+import com.alibaba.fluss.record.LogRecordBatchStatisticsCollector;
 import com.alibaba.fluss.types.DataType;
 import com.alibaba.fluss.types.DataTypeRoot;
 import com.alibaba.fluss.types.RowType;
@@ -87,6 +88,7 @@ public class TableDescriptorValidation {
         checkReplicationFactor(tableConf);
         checkLogFormat(tableConf, hasPrimaryKey);
         checkArrowCompression(tableConf);
+        checkArrowStatistics(tableConf, schema);
         checkMergeEngine(tableConf, hasPrimaryKey, schema);
         checkTieredLog(tableConf);
         checkPartition(tableConf, tableDescriptor.getPartitionKeys(), schema);
@@ -162,6 +164,34 @@ public class TableDescriptorValidation {
         }
     }
 
+    private static void checkArrowStatistics(Configuration tableConf, RowType schema) {
+        Optional<List<String>> statisticsColumns =
+                tableConf.getOptional(ConfigOptions.TABLE_LOG_ARROW_STATISTICS_COLUMNS);
+        if (!statisticsColumns.isPresent()) {
+            return;
+        }
+        for (String column : statisticsColumns.get()) {
+            int columnIndex = schema.getFieldIndex(column);
+            if (columnIndex < 0) {
+                throw new InvalidConfigException(
+                        String.format(
+                                "The statistics column '%s' configured by '%s' doesn't exist in schema.",
+                                column, ConfigOptions.TABLE_LOG_ARROW_STATISTICS_COLUMNS.key()));
+            }
+            DataType columnType = schema.getTypeAt(columnIndex);
+            if (!LogRecordBatchStatisticsCollector.SUPPORTED_TYPES.contains(
+                    columnType.getTypeRoot())) {
+                throw new InvalidConfigException(
+                        String.format(
+                                "The statistics column '%s' configured by '%s' is of type %s, "
+                                        + "which doesn't support collecting statistics.",
+                                column,
+                                ConfigOptions.TABLE_LOG_ARROW_STATISTICS_COLUMNS.key(),
+                                columnType));
+            }
+        }
+    }
+
     private static void checkMergeEngine(
             Configuration tableConf, boolean hasPrimaryKey, RowType schema) {
         MergeEngineType mergeEngine = tableConf.get(ConfigOptions.TABLE_MERGE_ENGINE);
@@ -70,6 +70,7 @@ import com.alibaba.fluss.shaded.curator5.org.apache.curator.framework.api.transa
 import com.alibaba.fluss.shaded.zookeeper3.org.apache.zookeeper.CreateMode;
 import com.alibaba.fluss.shaded.zookeeper3.org.apache.zookeeper.KeeperException;
 import com.alibaba.fluss.shaded.zookeeper3.org.apache.zookeeper.data.Stat;
+import com.alibaba.fluss.utils.ExceptionUtils;
 import com.alibaba.fluss.utils.types.Tuple2;
 
 import org.slf4j.Logger;
@@ -78,6 +79,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -86,6 +88,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static com.alibaba.fluss.metadata.ResolvedPartitionSpec.fromPartitionName;
 
@@ -201,12 +205,49 @@ public class ZooKeeperClient implements AutoCloseable {
                         data.length == 0 ? null : TableIdZNode.decode(data));
     }
 
+    /**
+     * Get the table assignments of the given tables in ZK with pipelined asynchronous reads. The
+     * returned map doesn't contain the tables whose assignment doesn't exist.
+     */
+    public Map<Long, TableAssignment> getTableAssignments(Collection<Long> tableIds)
+            throws Exception {
+        Map<Long, String> paths = new HashMap<>();
+        for (long tableId : tableIds) {
+            paths.put(tableId, TableIdZNode.path(tableId));
+        }
+        Map<Long, TableAssignment> assignments = new HashMap<>();
+        for (Map.Entry<Long, byte[]> entry : getDataInBackground(paths).entrySet()) {
+            // we'll put a laketable node under TableIdZNode, so the data may be zero-length
+            if (entry.getValue().length > 0) {
+                assignments.put(entry.getKey(), TableIdZNode.decode(entry.getValue()));
+            }
+        }
+        return assignments;
+    }
+
     /** Get the partition assignment in ZK. */
     public Optional<PartitionAssignment> getPartitionAssignment(long partitionId) throws Exception {
         Optional<byte[]> bytes = getOrEmpty(PartitionIdZNode.path(partitionId));
         return bytes.map(PartitionIdZNode::decode);
     }
 
+    /**
+     * Get the partition assignments of the given partitions in ZK with pipelined asynchronous
+     * reads. The returned map doesn't contain the partitions whose assignment doesn't exist.
+     */
+    public Map<Long, PartitionAssignment> getPartitionAssignments(Collection<Long> partitionIds)
+            throws Exception {
+        Map<Long, String> paths = new HashMap<>();
+        for (long partitionId : partitionIds) {
+            paths.put(partitionId, PartitionIdZNode.path(partitionId));
+        }
+        Map<Long, PartitionAssignment> assignments = new HashMap<>();
+        for (Map.Entry<Long, byte[]> entry : getDataInBackground(paths).entrySet()) {
+            assignments.put(entry.getKey(), PartitionIdZNode.decode(entry.getValue()));
+        }
+        return assignments;
+    }
+
     public void updateTableAssignment(long tableId, TableAssignment tableAssignment)
             throws Exception {
         String path = TableIdZNode.path(tableId);
@@ -294,6 +335,23 @@ public class ZooKeeperClient implements AutoCloseable {
         return bytes.map(LeaderAndIsrZNode::decode);
     }
 
+    /**
+     * Get the LeaderAndIsr of the given buckets in ZK with pipelined asynchronous reads. The
+     * returned map doesn't contain the buckets whose LeaderAndIsr doesn't exist.
+     */
+    public Map<TableBucket, LeaderAndIsr> getLeaderAndIsrs(Collection<TableBucket> tableBuckets)
+            throws Exception {
+        Map<TableBucket, String> paths = new HashMap<>();
+        for (TableBucket tableBucket : tableBuckets) {
+            paths.put(tableBucket, LeaderAndIsrZNode.path(tableBucket));
+        }
+        Map<TableBucket, LeaderAndIsr> leaderAndIsrs = new HashMap<>();
+        for (Map.Entry<TableBucket, byte[]> entry : getDataInBackground(paths).entrySet()) {
+            leaderAndIsrs.put(entry.getKey(), LeaderAndIsrZNode.decode(entry.getValue()));
+        }
+        return leaderAndIsrs;
+    }
+
     public void updateLeaderAndIsr(TableBucket tableBucket, LeaderAndIsr leaderAndIsr)
             throws Exception {
         String path = LeaderAndIsrZNode.path(tableBucket);
@@ -301,6 +359,36 @@ public class ZooKeeperClient implements AutoCloseable {
         LOG.info("Updated {} for bucket {} in Zookeeper.", leaderAndIsr, tableBucket);
     }
 
+    /**
+     * Update the LeaderAndIsr of the given buckets in ZK with multi-op transactions, each of which
+     * contains at most {@link #MAX_BATCH_SIZE} updates. Note that the updates are only atomic
+     * within one transaction, so some of the buckets may have been updated if an exception is
+     * thrown.
+     */
+    public void batchUpdateLeaderAndIsr(Map<TableBucket, LeaderAndIsr> leaderAndIsrs)
+            throws Exception {
+        if (leaderAndIsrs.isEmpty()) {
+            return;
+        }
+        List<CuratorOp> ops = new ArrayList<>(Math.min(leaderAndIsrs.size(), MAX_BATCH_SIZE));
+        for (Map.Entry<TableBucket, LeaderAndIsr> entry : leaderAndIsrs.entrySet()) {
+            ops.add(
+                    zkClient.transactionOp()
+                            .setData()
+                            .forPath(
+                                    LeaderAndIsrZNode.path(entry.getKey()),
+                                    LeaderAndIsrZNode.encode(entry.getValue())));
+            if (ops.size() == MAX_BATCH_SIZE) {
+                zkClient.transaction().forOperations(ops);
+                ops.clear();
+            }
+        }
+        if (!ops.isEmpty()) {
+            zkClient.transaction().forOperations(ops);
+        }
+        LOG.info("Batch updated LeaderAndIsr for {} buckets in Zookeeper.", leaderAndIsrs.size());
+    }
+
     public void deleteLeaderAndIsr(TableBucket tableBucket) throws Exception {
         String path = LeaderAndIsrZNode.path(tableBucket);
         zkClient.delete().forPath(path);
@@ -908,6 +996,51 @@ public class ZooKeeperClient implements AutoCloseable {
         }
     }
 
+    /**
+     * Get the data of the given paths with pipelined asynchronous reads, at most {@link
+     * #MAX_BATCH_SIZE} reads are in flight at the same time. The returned map doesn't contain the
+     * keys whose path doesn't exist.
+     */
+    private <K> Map<K, byte[]> getDataInBackground(Map<K, String> paths) throws Exception {
+        Map<K, byte[]> result = new HashMap<>(paths.size());
+        List<K> keys = new ArrayList<>(paths.keySet());
+        for (int start = 0; start < keys.size(); start += MAX_BATCH_SIZE) {
+            List<K> batchKeys = keys.subList(start, Math.min(keys.size(), start + MAX_BATCH_SIZE));
+            List<CompletableFuture<byte[]>> futures = new ArrayList<>(batchKeys.size());
+            for (K key : batchKeys) {
+                CompletableFuture<byte[]> future = new CompletableFuture<>();
+                zkClient.getData()
+                        .inBackground(
+                                (client, event) -> {
+                                    KeeperException.Code code =
+                                            KeeperException.Code.get(event.getResultCode());
+                                    if (code == KeeperException.Code.OK) {
+                                        future.complete(event.getData());
+                                    } else if (code == KeeperException.Code.NONODE) {
+                                        future.complete(null);
+                                    } else {
+                                        future.completeExceptionally(
+                                                KeeperException.create(code, event.getPath()));
+                                    }
+                                })
+                        .forPath(paths.get(key));
+                futures.add(future);
+            }
+            for (int i = 0; i < batchKeys.size(); i++) {
+                byte[] data;
+                try {
+                    data = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    throw ExceptionUtils.toException(ExceptionUtils.stripExecutionException(e));
+                }
+                if (data != null) {
+                    result.put(batchKeys.get(i), data);
+                }
+            }
+        }
+        return result;
+    }
+
     public CuratorFramework getCuratorClient() {
         return zkClient;
     }
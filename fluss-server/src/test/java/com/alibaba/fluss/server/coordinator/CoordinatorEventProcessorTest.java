@@ -350,6 +350,25 @@ class CoordinatorEventProcessorTest {
                         assertThat(ctx.getBucketLeaderAndIsr(new TableBucket(table2Id, 0)))
                                 .isNotEmpty());
 
+        // t3: lots of buckets with a follower in the server 3, whose isr are all shrunk in batch
+        // when the server is down
+        int table3Buckets = 16;
+        TableAssignment.Builder table3AssignmentBuilder = TableAssignment.builder();
+        for (int bucket = 0; bucket < table3Buckets; bucket++) {
+            table3AssignmentBuilder.add(bucket, BucketAssignment.of(0, newlyServerId));
+        }
+        TableAssignment table3Assignment = table3AssignmentBuilder.build();
+        TablePath table3Path = TablePath.of(defaultDatabase, "t3");
+        long table3Id =
+                metadataManager.createTable(table3Path, TEST_TABLE, table3Assignment, false);
+        retryVerifyContext(
+                ctx -> {
+                    for (int bucket = 0; bucket < table3Buckets; bucket++) {
+                        assertThat(ctx.getBucketLeaderAndIsr(new TableBucket(table3Id, bucket)))
+                                .isNotEmpty();
+                    }
+                });
+
         // now, assume the server 3 is down;
         client.close();
 
@@ -367,6 +386,11 @@ class CoordinatorEventProcessorTest {
         verifyReplicaOnlineOrOffline(
                 table2Id, table2Assignment, Collections.singleton(newlyServerId));
         verifyBucketIsr(table2Id, 0, new int[] {3});
+        verifyReplicaOnlineOrOffline(
+                table3Id, table3Assignment, Collections.singleton(newlyServerId));
+        for (int bucket = 0; bucket < table3Buckets; bucket++) {
+            verifyBucketIsr(table3Id, bucket, new int[] {0});
+        }
 
         // now, check bucket state
         TableBucket t1Bucket0 = new TableBucket(table1Id, 0);
@@ -405,6 +429,7 @@ class CoordinatorEventProcessorTest {
         // make sure all the replica will be online again
         verifyReplicaOnlineOrOffline(table1Id, table1Assignment, Collections.emptySet());
         verifyReplicaOnlineOrOffline(table2Id, table2Assignment, Collections.emptySet());
+        verifyReplicaOnlineOrOffline(table3Id, table3Assignment, Collections.emptySet());
 
         // let's restart to check everything is ok
         eventProcessor.shutdown();
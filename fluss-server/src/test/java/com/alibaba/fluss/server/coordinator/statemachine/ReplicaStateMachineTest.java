@@ -239,6 +239,64 @@ class ReplicaStateMachineTest {
                                 LeaderAndIsr.NO_LEADER, 0, Collections.singletonList(0), 0, 3));
     }
 
+    @Test
+    void testOfflineReplicasOfServerAreRemovedFromIsrInBatch() throws Exception {
+        CoordinatorContext coordinatorContext = new CoordinatorContext();
+        coordinatorContext.setLiveTabletServers(createServers(new int[] {0, 1, 2}));
+        ReplicaStateMachine replicaStateMachine = createReplicaStateMachine(coordinatorContext);
+
+        long tableId = 2;
+        coordinatorContext.putTableInfo(
+                TableInfo.of(
+                        DATA1_TABLE_PATH,
+                        tableId,
+                        0,
+                        DATA1_TABLE_DESCRIPTOR,
+                        System.currentTimeMillis(),
+                        System.currentTimeMillis()));
+        coordinatorContext.putTablePath(tableId, DATA1_TABLE_PATH);
+        int numBuckets = 10;
+        List<TableBucketReplica> offlineReplicas = new ArrayList<>();
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            TableBucket tableBucket = new TableBucket(tableId, bucket);
+            for (int i = 0; i < 3; i++) {
+                coordinatorContext.putReplicaState(
+                        new TableBucketReplica(tableBucket, i), OnlineReplica);
+            }
+            // the leaders are spread over the servers
+            int leader = bucket % 3;
+            LeaderAndIsr leaderAndIsr = new LeaderAndIsr(leader, 0, Arrays.asList(0, 1, 2), 0, 0);
+            zookeeperClient.registerLeaderAndIsr(tableBucket, leaderAndIsr);
+            coordinatorContext.updateBucketReplicaAssignment(tableBucket, Arrays.asList(0, 1, 2));
+            coordinatorContext.putBucketLeaderAndIsr(tableBucket, leaderAndIsr);
+            // the replicas of server 1 go offline
+            offlineReplicas.add(new TableBucketReplica(tableBucket, 1));
+        }
+        // the replica of server 2 of bucket 0 goes offline at the same time
+        offlineReplicas.add(new TableBucketReplica(new TableBucket(tableId, 0), 2));
+
+        replicaStateMachine.handleStateChanges(offlineReplicas, OfflineReplica);
+
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            TableBucket tableBucket = new TableBucket(tableId, bucket);
+            int leader = bucket % 3;
+            LeaderAndIsr expected =
+                    bucket == 0
+                            ? new LeaderAndIsr(0, 0, Collections.singletonList(0), 0, 2)
+                            : new LeaderAndIsr(
+                                    leader == 1 ? LeaderAndIsr.NO_LEADER : leader,
+                                    0,
+                                    Arrays.asList(0, 2),
+                                    0,
+                                    1);
+            assertThat(coordinatorContext.getBucketLeaderAndIsr(tableBucket)).hasValue(expected);
+            assertThat(zookeeperClient.getLeaderAndIsr(tableBucket)).hasValue(expected);
+        }
+        for (TableBucketReplica replica : offlineReplicas) {
+            assertThat(coordinatorContext.getReplicaState(replica)).isEqualTo(OfflineReplica);
+        }
+    }
+
     private void toReplicaDeletionStartedState(
             ReplicaStateMachine replicaStateMachine, Collection<TableBucketReplica> replicas) {
         replicaStateMachine.handleStateChanges(replicas, NewReplica);
@@ -17,10 +17,16 @@
 
 package com.alibaba.fluss.server.kv;
 
+import com.alibaba.fluss.config.ConfigOptions;
 import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.MemorySize;
 import com.alibaba.fluss.config.TableConfig;
 import com.alibaba.fluss.exception.InvalidTargetColumnException;
+import com.alibaba.fluss.exception.KvPreWriteBufferFullException;
+import com.alibaba.fluss.exception.KvStorageException;
 import com.alibaba.fluss.exception.OutOfOrderSequenceException;
+import com.alibaba.fluss.exception.UnknownScannerException;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
 import com.alibaba.fluss.memory.TestingMemorySegmentPool;
 import com.alibaba.fluss.metadata.KvFormat;
 import com.alibaba.fluss.metadata.LogFormat;
@@ -33,6 +39,7 @@ import com.alibaba.fluss.record.FileLogProjection;
 import com.alibaba.fluss.record.KvRecord;
 import com.alibaba.fluss.record.KvRecordBatch;
 import com.alibaba.fluss.record.KvRecordTestUtils;
+import com.alibaba.fluss.record.LogRecordBatch;
 import com.alibaba.fluss.record.LogRecords;
 import com.alibaba.fluss.record.LogTestBase;
 import com.alibaba.fluss.record.MemoryLogRecords;
@@ -40,6 +47,8 @@ import com.alibaba.fluss.record.TestData;
 import com.alibaba.fluss.record.bytesview.MultiBytesView;
 import com.alibaba.fluss.row.BinaryRow;
 import com.alibaba.fluss.row.encode.ValueEncoder;
+import com.alibaba.fluss.server.kv.KvScannerManager.ScannerContext;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer;
 import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Key;
 import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.KvEntry;
 import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.Value;
@@ -48,10 +57,12 @@ import com.alibaba.fluss.server.log.FetchIsolation;
 import com.alibaba.fluss.server.log.LogAppendInfo;
 import com.alibaba.fluss.server.log.LogTablet;
 import com.alibaba.fluss.server.log.LogTestUtils;
+import com.alibaba.fluss.server.zk.NOPErrorHandler;
 import com.alibaba.fluss.shaded.arrow.org.apache.arrow.memory.RootAllocator;
 import com.alibaba.fluss.types.DataTypes;
 import com.alibaba.fluss.types.RowType;
 import com.alibaba.fluss.types.StringType;
+import com.alibaba.fluss.utils.clock.ManualClock;
 import com.alibaba.fluss.utils.clock.SystemClock;
 import com.alibaba.fluss.utils.concurrent.FlussScheduler;
 
@@ -75,6 +86,7 @@ import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.alibaba.fluss.compression.ArrowCompressionInfo.DEFAULT_COMPRESSION;
 import static com.alibaba.fluss.record.LogRecordBatch.NO_BATCH_SEQUENCE;
@@ -107,6 +119,7 @@ class KvTabletTest {
     private LogTablet logTablet;
     private KvTablet kvTablet;
     private ExecutorService executor;
+    private @Nullable ConcurrentMemorySegmentPool preWriteBufferPool;
 
     @BeforeEach
     void beforeEach() {
@@ -118,6 +131,9 @@ class KvTabletTest {
         if (executor != null) {
             executor.shutdown();
         }
+        if (preWriteBufferPool != null) {
+            preWriteBufferPool.close();
+        }
     }
 
     private void initLogTabletAndKvTablet(Schema schema, Map<String, String> tableConfig)
@@ -174,6 +190,7 @@ class KvTabletTest {
                 conf,
                 new RootAllocator(Long.MAX_VALUE),
                 new TestingMemorySegmentPool(10 * 1024),
+                preWriteBufferPool,
                 KvFormat.COMPACTED,
                 schema,
                 rowMerger,
@@ -581,8 +598,10 @@ class KvTabletTest {
         for (KvEntry kvEntry : expectedEntries) {
             expectedMap.put(kvEntry.getKey(), kvEntry);
         }
-        assertThat(kvTablet.getKvPreWriteBuffer().getAllKvEntries()).isEqualTo(expectedEntries);
-        assertThat(kvTablet.getKvPreWriteBuffer().getKvEntryMap()).isEqualTo(expectedMap);
+        assertThat(((KvPreWriteBuffer) kvTablet.getKvPreWriteBuffer()).getAllKvEntries())
+                .isEqualTo(expectedEntries);
+        assertThat(((KvPreWriteBuffer) kvTablet.getKvPreWriteBuffer()).getKvEntryMap())
+                .isEqualTo(expectedMap);
         assertThat(kvTablet.getKvPreWriteBuffer().getMaxLSN()).isEqualTo(3);
 
         // the second batch will be ignored.
@@ -591,8 +610,10 @@ class KvTabletTest {
                 .hasMessageContaining(
                         "Out of order batch sequence for writer 100 at offset 8 in table-bucket "
                                 + "TableBucket{tableId=0, bucket=587113} : 3 (incoming batch seq.), 0 (current batch seq.)");
-        assertThat(kvTablet.getKvPreWriteBuffer().getAllKvEntries()).isEqualTo(expectedEntries);
-        assertThat(kvTablet.getKvPreWriteBuffer().getKvEntryMap()).isEqualTo(expectedMap);
+        assertThat(((KvPreWriteBuffer) kvTablet.getKvPreWriteBuffer()).getAllKvEntries())
+                .isEqualTo(expectedEntries);
+        assertThat(((KvPreWriteBuffer) kvTablet.getKvPreWriteBuffer()).getKvEntryMap())
+                .isEqualTo(expectedMap);
         assertThat(kvTablet.getKvPreWriteBuffer().getMaxLSN()).isEqualTo(3);
     }
 
@@ -651,9 +672,14 @@ class KvTabletTest {
             endOffset = logTablet.localLogEndOffset();
             assertThat(endOffset).isEqualTo(offsetBefore + i + 1);
 
-            // the empty batch will be read if no projection,
-            // the empty batch will not be read if has projection
-            if (!doProjection) {
+            // the empty batch will be read if no projection, the consecutive empty batches are
+            // merged into one empty batch if has projection, so the fetch offset moves past them
+            if (doProjection) {
+                assertMergedEmptyBatch(
+                        readLogRecords(logTablet, offsetBefore, logProjection),
+                        offsetBefore,
+                        endOffset);
+            } else {
                 MemoryLogRecords emptyLogs =
                         logRecords(
                                 readLogRowType,
@@ -669,12 +695,12 @@ class KvTabletTest {
                                 .addBytes(emptyLogs.getMemorySegment(), 0, emptyLogs.sizeInBytes())
                                 .build();
                 expectedLogs = MemoryLogRecords.pointToBytesView(bytesView);
+                actualLogRecords = readLogRecords(logTablet, 0, logProjection);
+                assertThatLogRecords(actualLogRecords)
+                        .withSchema(readLogRowType)
+                        .assertCheckSum(true)
+                        .isEqualTo(expectedLogs);
             }
-            actualLogRecords = readLogRecords(logTablet, 0, logProjection);
-            assertThatLogRecords(actualLogRecords)
-                    .withSchema(readLogRowType)
-                    .assertCheckSum(!doProjection)
-                    .isEqualTo(expectedLogs);
         }
 
         List<KvRecord> kvData3 =
@@ -771,9 +797,14 @@ class KvTabletTest {
             endOffset = logTablet.localLogEndOffset();
             assertThat(endOffset).isEqualTo(offsetBefore + i + 1);
 
-            // the empty batch will be read if no projection,
-            // the empty batch will not be read if has projection
-            if (!doProjection) {
+            // the empty batch will be read if no projection, the consecutive empty batches are
+            // merged into one empty batch if has projection, so the fetch offset moves past them
+            if (doProjection) {
+                assertMergedEmptyBatch(
+                        readLogRecords(logTablet, offsetBefore, logProjection),
+                        offsetBefore,
+                        endOffset);
+            } else {
                 MemoryLogRecords emptyLogs =
                         logRecords(
                                 readLogRowType,
@@ -789,12 +820,12 @@ class KvTabletTest {
                                 .addBytes(emptyLogs.getMemorySegment(), 0, emptyLogs.sizeInBytes())
                                 .build();
                 expectedLogs = MemoryLogRecords.pointToBytesView(bytesView);
+                actualLogRecords = readLogRecords(logTablet, 0, logProjection);
+                assertThatLogRecords(actualLogRecords)
+                        .withSchema(readLogRowType)
+                        .assertCheckSum(true)
+                        .isEqualTo(expectedLogs);
             }
-            actualLogRecords = readLogRecords(logTablet, 0, logProjection);
-            assertThatLogRecords(actualLogRecords)
-                    .withSchema(readLogRowType)
-                    .assertCheckSum(!doProjection)
-                    .isEqualTo(expectedLogs);
         }
 
         List<KvRecord> kvData3 =
@@ -860,6 +891,160 @@ class KvTabletTest {
         assertThat(kvTablet.getKvPreWriteBuffer().getMaxLSN()).isEqualTo(9);
     }
 
+    @Test
+    void testPutWithKeysInKvAndPreWriteBuffer() throws Exception {
+        initLogTabletAndKvTablet(DATA1_SCHEMA_PK, new HashMap<>());
+        KvRecordBatch kvRecordBatch =
+                kvRecordBatchFactory.ofRecords(
+                        Arrays.asList(
+                                kvRecordFactory.ofRecord("k1".getBytes(), new Object[] {1, "v11"}),
+                                kvRecordFactory.ofRecord(
+                                        "k2".getBytes(), new Object[] {2, "v21"})));
+        kvTablet.putAsLeader(kvRecordBatch, null);
+        // flush k1, k2 into rocksdb
+        long endOffset = logTablet.localLogEndOffset();
+        kvTablet.flush(endOffset, NOPErrorHandler.INSTANCE);
+        assertThat(((KvPreWriteBuffer) kvTablet.getKvPreWriteBuffer()).getAllKvEntries()).isEmpty();
+
+        kvRecordBatch =
+                kvRecordBatchFactory.ofRecords(
+                        Arrays.asList(
+                                kvRecordFactory.ofRecord("k3".getBytes(), new Object[] {3, "v31"}),
+                                kvRecordFactory.ofRecord(
+                                        "k1".getBytes(), new Object[] {1, "v12"})));
+        kvTablet.putAsLeader(kvRecordBatch, null);
+
+        // the old values of k1, k2 are got from rocksdb, k3 is got from the pre-write buffer,
+        // and the later records see the changes of the former records of the same key
+        long endOffset2 = logTablet.localLogEndOffset();
+        kvRecordBatch =
+                kvRecordBatchFactory.ofRecords(
+                        Arrays.asList(
+                                kvRecordFactory.ofRecord("k2".getBytes(), new Object[] {2, "v22"}),
+                                kvRecordFactory.ofRecord("k3".getBytes(), null),
+                                kvRecordFactory.ofRecord("k4".getBytes(), null),
+                                kvRecordFactory.ofRecord("k2".getBytes(), null),
+                                kvRecordFactory.ofRecord("k1".getBytes(), new Object[] {1, "v13"}),
+                                kvRecordFactory.ofRecord(
+                                        "k2".getBytes(), new Object[] {2, "v23"})));
+        kvTablet.putAsLeader(kvRecordBatch, null);
+
+        List<MemoryLogRecords> expectedLogs =
+                Collections.singletonList(
+                        logRecords(
+                                endOffset2,
+                                Arrays.asList(
+                                        ChangeType.UPDATE_BEFORE,
+                                        ChangeType.UPDATE_AFTER,
+                                        ChangeType.DELETE,
+                                        ChangeType.DELETE,
+                                        ChangeType.UPDATE_BEFORE,
+                                        ChangeType.UPDATE_AFTER,
+                                        ChangeType.INSERT),
+                                Arrays.asList(
+                                        new Object[] {2, "v21"},
+                                        new Object[] {2, "v22"},
+                                        new Object[] {3, "v31"},
+                                        new Object[] {2, "v22"},
+                                        new Object[] {1, "v12"},
+                                        new Object[] {1, "v13"},
+                                        new Object[] {2, "v23"})));
+        checkEqual(readLogRecords(endOffset2), expectedLogs);
+    }
+
+    @Test
+    void testPutWithPagedPreWriteBufferFull() throws Exception {
+        Configuration poolConf = new Configuration();
+        poolConf.set(ConfigOptions.KV_PRE_WRITE_BUFFER_MEMORY_SIZE, MemorySize.parse("768b"));
+        poolConf.set(ConfigOptions.KV_PRE_WRITE_BUFFER_PAGE_SIZE, MemorySize.parse("64b"));
+        preWriteBufferPool = ConcurrentMemorySegmentPool.createKvPreWriteBufferPool(poolConf);
+        int totalPages = preWriteBufferPool.freePages();
+        initLogTabletAndKvTablet(DATA1_SCHEMA_PK, new HashMap<>());
+
+        kvTablet.putAsLeader(kvRecordBatch(0, 10), null);
+        long endOffset = logTablet.localLogEndOffset();
+
+        // the batch can't be put into the pre-write buffer as the memory is exhausted
+        KvRecordBatch kvRecordBatch = kvRecordBatch(10, 20);
+        assertThatThrownBy(() -> kvTablet.putAsLeader(kvRecordBatch, null))
+                .isInstanceOf(KvPreWriteBufferFullException.class);
+        // the records put before failing are truncated and no change log is appended
+        assertThat(kvTablet.getKvPreWriteBuffer().getMaxLSN()).isEqualTo(endOffset - 1);
+        assertThat(kvTablet.getKvPreWriteBuffer().get(Key.of("k10".getBytes()))).isNull();
+        assertThat(logTablet.localLogEndOffset()).isEqualTo(endOffset);
+
+        // the batch can be put after the pre-write buffer is flushed
+        kvTablet.flush(endOffset, NOPErrorHandler.INSTANCE);
+        assertThat(preWriteBufferPool.freePages()).isEqualTo(totalPages);
+        kvTablet.putAsLeader(kvRecordBatch, null);
+        assertThat(logTablet.localLogEndOffset()).isEqualTo(endOffset + 10);
+        assertThat(kvTablet.getKvPreWriteBuffer().get(Key.of("k19".getBytes()))).isNotNull();
+
+        // the memory is returned to the pool once the kv tablet is closed
+        kvTablet.close();
+        assertThat(preWriteBufferPool.freePages()).isEqualTo(totalPages);
+    }
+
+    @Test
+    void testScanWithScannerManager() throws Exception {
+        initLogTabletAndKvTablet(DATA1_SCHEMA_PK, new HashMap<>());
+        kvTablet.putAsLeader(kvRecordBatch(0, 10), null);
+        kvTablet.flush(logTablet.localLogEndOffset(), NOPErrorHandler.INSTANCE);
+
+        ManualClock clock = new ManualClock();
+        KvScannerManager scannerManager = new KvScannerManager(clock, 1000L, 2);
+        ScannerContext context = scannerManager.register(kvTablet.openScanner(null, null));
+        // the records put after opening the scanner are invisible
+        kvTablet.putAsLeader(kvRecordBatch(10, 20), null);
+        kvTablet.flush(logTablet.localLogEndOffset(), NOPErrorHandler.INSTANCE);
+
+        List<byte[]> values = new ArrayList<>();
+        assertThat(context.getScanner().next(1, values::add)).isTrue();
+        assertThat(values).hasSize(1);
+        scannerManager.release(context, false);
+
+        // the scanner can't be acquired by another bucket, or by two requests at the same time
+        byte[] scannerId = context.getScannerId();
+        assertThatThrownBy(() -> scannerManager.acquire(scannerId, new TableBucket(100L, 0)))
+                .isInstanceOf(UnknownScannerException.class);
+        context = scannerManager.acquire(scannerId, kvTablet.getTableBucket());
+        assertThatThrownBy(() -> scannerManager.acquire(scannerId, kvTablet.getTableBucket()))
+                .isInstanceOf(UnknownScannerException.class);
+        assertThat(context.getScanner().next(Integer.MAX_VALUE, values::add)).isFalse();
+        assertThat(values).hasSize(10);
+        scannerManager.release(context, false);
+
+        // the number of the scanners is limited
+        scannerManager.release(scannerManager.register(kvTablet.openScanner(null, null)), false);
+        KvScanner scanner = kvTablet.openScanner(null, null);
+        assertThatThrownBy(() -> scannerManager.register(scanner))
+                .isInstanceOf(KvStorageException.class)
+                .hasMessageContaining("has reached the limit 2");
+        assertThat(scannerManager.numScanners()).isEqualTo(2);
+
+        // the scanners not accessed within the ttl are expired
+        clock.advanceTime(1001L, TimeUnit.MILLISECONDS);
+        scannerManager.expireScanners();
+        assertThat(scannerManager.numScanners()).isEqualTo(0);
+        assertThatThrownBy(() -> scannerManager.acquire(scannerId, kvTablet.getTableBucket()))
+                .isInstanceOf(UnknownScannerException.class);
+
+        // the open scanners are closed when closing the kv tablet
+        KvScanner scanner2 = kvTablet.openScanner(null, null);
+        kvTablet.close();
+        assertThatThrownBy(() -> scanner2.next(Integer.MAX_VALUE, values::add))
+                .isInstanceOf(UnknownScannerException.class);
+        scanner2.close();
+    }
+
+    private KvRecordBatch kvRecordBatch(int fromId, int toId) throws Exception {
+        List<KvRecord> records = new ArrayList<>();
+        for (int i = fromId; i < toId; i++) {
+            records.add(kvRecordFactory.ofRecord(("k" + i).getBytes(), new Object[] {i, "v" + i}));
+        }
+        return kvRecordBatchFactory.ofRecords(records);
+    }
+
     private LogRecords readLogRecords() throws Exception {
         return readLogRecords(0L);
     }
@@ -880,6 +1065,18 @@ class KvTabletTest {
                 .getRecords();
     }
 
+    private static void assertMergedEmptyBatch(
+            LogRecords logRecords, long baseOffset, long nextOffset) {
+        List<LogRecordBatch> batches = new ArrayList<>();
+        logRecords.batches().forEach(batches::add);
+        assertThat(batches).hasSize(1);
+        LogRecordBatch emptyBatch = batches.get(0);
+        assertThat(emptyBatch.baseLogOffset()).isEqualTo(baseOffset);
+        assertThat(emptyBatch.nextLogOffset()).isEqualTo(nextOffset);
+        assertThat(emptyBatch.getRecordCount()).isEqualTo(0);
+        assertThat(emptyBatch.isValid()).isTrue();
+    }
+
     private MemoryLogRecords logRecords(
             long baseOffset, List<ChangeType> changeTypes, List<Object[]> values) throws Exception {
         return logRecords(baseRowType, baseOffset, changeTypes, values);
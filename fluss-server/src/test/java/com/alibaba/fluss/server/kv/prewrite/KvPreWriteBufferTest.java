@@ -24,6 +24,8 @@ import org.junit.jupiter.api.Test;
 
 import javax.annotation.Nonnull;
 
+import java.nio.ByteBuffer;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -183,6 +185,63 @@ class KvPreWriteBufferTest {
         assertThat(buffer.getKvEntryMap().size()).isEqualTo(0);
     }
 
+    @Test
+    void testPutAndTruncateDuringFlush() throws Exception {
+        KvPreWriteBuffer buffer = new KvPreWriteBuffer(new NopKvBatchWriter());
+        bufferPut(buffer, "key1", "value1", 0);
+        bufferPut(buffer, "key2", "value2", 1);
+        AbstractKvPreWriteBuffer.PreparedFlush preparedFlush = buffer.prepareFlush(2);
+
+        // the buffer is still writable while the prepared entries are written to the kv
+        bufferPut(buffer, "key1", "value1-1", 2);
+        bufferPut(buffer, "key3", "value3", 3);
+        buffer.writeFlush(preparedFlush);
+        assertThat(getValue(buffer, "key2")).isEqualTo("value2");
+        buffer.truncateTo(3, TruncateReason.ERROR);
+        assertThat(buffer.get(toKey("key3"))).isNull();
+
+        // the flushed entries are removed from the buffer only after completing the flush
+        buffer.completeFlush(preparedFlush);
+        assertThat(buffer.get(toKey("key2"))).isNull();
+        assertThat(getValue(buffer, "key1")).isEqualTo("value1-1");
+        assertThat(buffer.getAllKvEntries()).hasSize(1);
+        assertThat(buffer.getKvEntryMap()).hasSize(1);
+    }
+
+    @Test
+    void testReusableKey() throws Exception {
+        KvPreWriteBuffer buffer = new KvPreWriteBuffer(new NopKvBatchWriter());
+        KvPreWriteBuffer.Key reusableKey = KvPreWriteBuffer.Key.reusable();
+
+        // point to a region of a heap buffer
+        byte[] bytes = "xxkey1xx".getBytes();
+        reusableKey.pointTo(ByteBuffer.wrap(bytes, 2, 4));
+        assertThat(reusableKey).isEqualTo(toKey("key1")).hasSameHashCodeAs(toKey("key1"));
+        buffer.put(reusableKey, "value1".getBytes(), 0);
+
+        // the key kept by the buffer is a copy, so that the original bytes can be reused
+        System.arraycopy("key2".getBytes(), 0, bytes, 2, 4);
+        assertThat(getValue(buffer, "key1")).isEqualTo("value1");
+        assertThat(buffer.get(reusableKey.pointTo(ByteBuffer.wrap(bytes, 2, 4)))).isNull();
+
+        // point to a direct buffer
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(16);
+        directBuffer.put("long-key1".getBytes()).flip();
+        reusableKey.pointTo(directBuffer);
+        assertThat(directBuffer.remaining()).isEqualTo(9);
+        buffer.delete(reusableKey, 1);
+        directBuffer.clear();
+        directBuffer.put("key1".getBytes()).flip();
+        assertThat(buffer.get(reusableKey.pointTo(directBuffer)).get())
+                .isEqualTo("value1".getBytes());
+        assertThat(buffer.get(toKey("long-key1")).get()).isNull();
+        assertThat(buffer.getKvEntryMap()).hasSize(2);
+
+        assertThatThrownBy(() -> toKey("key1").pointTo(directBuffer))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Only the reusable key can be re-pointed.");
+    }
+
     private static void bufferPut(
             KvPreWriteBuffer kvPreWriteBuffer, String key, String value, int elementCount) {
         kvPreWriteBuffer.put(toKey(key), value.getBytes(), elementCount);
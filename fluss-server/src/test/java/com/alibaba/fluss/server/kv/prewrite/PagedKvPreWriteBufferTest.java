@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.prewrite;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.config.MemorySize;
+import com.alibaba.fluss.exception.KvPreWriteBufferFullException;
+import com.alibaba.fluss.exception.RecordTooLargeException;
+import com.alibaba.fluss.memory.ConcurrentMemorySegmentPool;
+import com.alibaba.fluss.server.kv.KvBatchWriter;
+import com.alibaba.fluss.server.kv.prewrite.KvPreWriteBuffer.TruncateReason;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Test for {@link PagedKvPreWriteBuffer}. */
+class PagedKvPreWriteBufferTest {
+
+    private static final int PAGE_SIZE = 64;
+    private static final int PAGE_NUM = 256;
+
+    private ConcurrentMemorySegmentPool memoryPool;
+    private RecordingKvBatchWriter kvBatchWriter;
+    private PagedKvPreWriteBuffer buffer;
+
+    @BeforeEach
+    void beforeEach() {
+        Configuration conf = new Configuration();
+        conf.set(
+                ConfigOptions.KV_PRE_WRITE_BUFFER_MEMORY_SIZE,
+                new MemorySize((long) PAGE_SIZE * PAGE_NUM));
+        conf.set(ConfigOptions.KV_PRE_WRITE_BUFFER_PAGE_SIZE, new MemorySize(PAGE_SIZE));
+        memoryPool = ConcurrentMemorySegmentPool.createKvPreWriteBufferPool(conf);
+        kvBatchWriter = new RecordingKvBatchWriter();
+        buffer = new PagedKvPreWriteBuffer(kvBatchWriter, memoryPool);
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        buffer.close();
+        assertThat(memoryPool.freePages()).isEqualTo(PAGE_NUM);
+        memoryPool.close();
+    }
+
+    @Test
+    void testIllegalLSN() {
+        bufferPut("key1", "value1", 1);
+        bufferDelete("key1", 3);
+
+        assertThatThrownBy(() -> bufferPut("key2", "value2", 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(
+                        "The log sequence number must be non-decreasing. The current "
+                                + "log sequence number is 3, but the new log sequence number is 2");
+    }
+
+    @Test
+    void testWriteAndFlush() throws Exception {
+        int elementCount = 0;
+
+        // put a series of kv entries
+        for (int i = 0; i < 3; i++) {
+            bufferPut("key" + i, "value" + i, elementCount++);
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThat(getValue("key" + i)).isEqualTo("value" + i);
+        }
+
+        // then delete key2
+        bufferDelete("key2", elementCount++);
+        assertThat(getValue("key2")).isNull();
+        assertThat(buffer.get(toKey("key2"))).isNotNull();
+        assertThat(buffer.getIndexSize()).isEqualTo(3);
+
+        // +key0, +key1, +key2, -key2, then flush up to offset 1
+        buffer.flush(1);
+        assertThat(kvBatchWriter.flushed).containsOnlyKeys("key0");
+        assertThat(buffer.getFlushCount().getCount()).isEqualTo(1);
+        // the entry count in the index is 2, for +key1, -key2
+        assertThat(buffer.getIndexSize()).isEqualTo(2);
+        assertThat(buffer.get(toKey("key0"))).isNull();
+        assertThat(getValue("key1")).isEqualTo("value1");
+        assertThat(getValue("key2")).isNull();
+
+        // put key2 again
+        bufferPut("key2", "value21", elementCount++);
+        assertThat(getValue("key2")).isEqualTo("value21");
+
+        // flush all, all the pages should be returned to the pool
+        buffer.flush(elementCount + 1);
+        assertThat(kvBatchWriter.flushed)
+                .containsEntry("key0", "value0")
+                .containsEntry("key1", "value1")
+                .containsEntry("key2", "value21");
+        assertThat(buffer.getIndexSize()).isEqualTo(0);
+        assertThat(buffer.getPageCount()).isEqualTo(0);
+        assertThat(memoryPool.freePages()).isEqualTo(PAGE_NUM);
+        for (int i = 0; i < 3; i++) {
+            assertThat(buffer.get(toKey("key" + i))).isNull();
+        }
+
+        // put two key3, the latest value wins
+        bufferPut("key3", "value31", elementCount++);
+        bufferPut("key3", "value32", elementCount++);
+        bufferDelete("key2", elementCount++);
+        assertThat(getValue("key3")).isEqualTo("value32");
+        buffer.flush(elementCount + 1);
+        assertThat(kvBatchWriter.flushed)
+                .containsEntry("key3", "value32")
+                .doesNotContainKey("key2");
+        assertThat(buffer.getIndexSize()).isEqualTo(0);
+    }
+
+    @Test
+    void testTruncate() {
+        int elementCount = 0;
+        for (int i = 0; i < 10; i++) {
+            bufferPut("key" + i, "value" + i, elementCount++);
+        }
+        assertThat(buffer.getMaxLSN()).isEqualTo(elementCount - 1);
+
+        // truncate to 5
+        buffer.truncateTo(5, TruncateReason.ERROR);
+        assertThat(buffer.getMaxLSN()).isEqualTo(4);
+        assertThat(buffer.getIndexSize()).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(getValue("key" + i)).isEqualTo("value" + i);
+        }
+        assertThat(buffer.get(toKey("key6"))).isNull();
+
+        // add delete and update records, which will be truncated
+        elementCount = 5;
+        bufferDelete("key4", elementCount++);
+        bufferDelete("key3", elementCount++);
+        bufferPut("key2", "value2-1", elementCount++);
+        bufferPut("key2", "value2-2", elementCount++);
+        bufferPut("key1", "value1-1", elementCount++);
+        assertThat(getValue("key3")).isNull();
+        assertThat(getValue("key2")).isEqualTo("value2-2");
+        buffer.truncateTo(5, TruncateReason.DUPLICATED);
+        assertThat(buffer.getMaxLSN()).isEqualTo(4);
+        assertThat(buffer.getIndexSize()).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(getValue("key" + i)).isEqualTo("value" + i);
+        }
+        assertThat(buffer.getTruncateAsDuplicatedCount().getCount()).isEqualTo(1);
+        assertThat(buffer.getTruncateAsErrorCount().getCount()).isEqualTo(1);
+
+        // truncate to zero
+        buffer.truncateTo(0, TruncateReason.ERROR);
+        assertThat(buffer.getMaxLSN()).isEqualTo(-1);
+        assertThat(buffer.getIndexSize()).isEqualTo(0);
+        assertThat(buffer.getPageCount()).isEqualTo(0);
+    }
+
+    @Test
+    void testTruncateAfterFlush() throws Exception {
+        bufferPut("key1", "value1", 0);
+        bufferPut("key2", "value2", 1);
+        buffer.flush(2);
+        bufferPut("key1", "value1-1", 2);
+        bufferPut("key3", "value3", 3);
+
+        // the previous entry of key1 has been flushed, so key1 should be removed from the buffer
+        buffer.truncateTo(2, TruncateReason.ERROR);
+        assertThat(buffer.get(toKey("key1"))).isNull();
+        assertThat(buffer.get(toKey("key3"))).isNull();
+        assertThat(buffer.getIndexSize()).isEqualTo(0);
+        assertThat(buffer.getPageCount()).isEqualTo(0);
+        assertThat(kvBatchWriter.flushed)
+                .containsEntry("key1", "value1")
+                .containsEntry("key2", "value2");
+    }
+
+    @Test
+    void testTruncateAndFlushWithHeaderAligned() throws Exception {
+        // vary the length of the first entry, so that the header of the second entry may be
+        // moved to the next page as the remaining bytes of the page can't hold a header
+        int lsn = 0;
+        for (int length = 1; length < PAGE_SIZE; length++) {
+            char[] value = new char[length];
+            Arrays.fill(value, 'v');
+            bufferPut("key1", new String(value), lsn++);
+            bufferPut("key2", "value2", lsn++);
+            buffer.truncateTo(lsn - 1, TruncateReason.ERROR);
+            assertThat(buffer.get(toKey("key2"))).isNull();
+            assertThat(buffer.getMaxLSN()).isEqualTo(lsn - 2);
+
+            buffer.flush(lsn);
+            assertThat(kvBatchWriter.flushed).containsEntry("key1", new String(value));
+            assertThat(buffer.getIndexSize()).isEqualTo(0);
+            assertThat(buffer.getPageCount()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void testPutAndTruncateDuringFlush() throws Exception {
+        bufferPut("key1", "value1", 0);
+        bufferPut("key2", "value2", 1);
+        AbstractKvPreWriteBuffer.PreparedFlush preparedFlush = buffer.prepareFlush(2);
+
+        // the buffer is still writable while the prepared entries are written to the kv
+        bufferPut("key1", "value1-1", 2);
+        bufferPut("key3", "value3", 3);
+        buffer.writeFlush(preparedFlush);
+        assertThat(kvBatchWriter.flushed)
+                .hasSize(2)
+                .containsEntry("key1", "value1")
+                .containsEntry("key2", "value2");
+        assertThat(getValue("key2")).isEqualTo("value2");
+        buffer.truncateTo(3, TruncateReason.ERROR);
+        assertThat(buffer.get(toKey("key3"))).isNull();
+
+        // the flushed entries are removed from the buffer only after completing the flush
+        buffer.completeFlush(preparedFlush);
+        assertThat(buffer.get(toKey("key2"))).isNull();
+        assertThat(getValue("key1")).isEqualTo("value1-1");
+        assertThat(buffer.getIndexSize()).isEqualTo(1);
+
+        buffer.flush(3);
+        assertThat(kvBatchWriter.flushed).hasSize(2).containsEntry("key1", "value1-1");
+        assertThat(buffer.getIndexSize()).isEqualTo(0);
+        assertThat(buffer.getPageCount()).isEqualTo(0);
+    }
+
+    @Test
+    void testEntriesSpanPages() throws Exception {
+        // the values are larger than a page, and the index will be resized
+        int keyCount = 100;
+        for (int i = 0; i < keyCount; i++) {
+            bufferPut("key" + i, longValue(i), i);
+        }
+        bufferDelete("key0", keyCount);
+        assertThat(buffer.getIndexSize()).isEqualTo(keyCount);
+        assertThat(buffer.get(toKey("key0")).get()).isNull();
+        for (int i = 1; i < keyCount; i++) {
+            assertThat(getValue("key" + i)).isEqualTo(longValue(i));
+        }
+
+        // the flushed pages are returned to the pool
+        int pageCount = buffer.getPageCount();
+        buffer.flush(keyCount / 2);
+        assertThat(buffer.getPageCount()).isLessThan(pageCount);
+        assertThat(memoryPool.freePages()).isEqualTo(PAGE_NUM - buffer.getPageCount());
+        for (int i = keyCount / 2; i < keyCount; i++) {
+            assertThat(getValue("key" + i)).isEqualTo(longValue(i));
+        }
+
+        // reuse a key from the reusable key
+        KvPreWriteBuffer.Key reusableKey = KvPreWriteBuffer.Key.reusable();
+        buffer.put(
+                reusableKey.pointTo(ByteBuffer.wrap("key99".getBytes())),
+                "value99".getBytes(),
+                keyCount + 1);
+        assertThat(getValue("key99")).isEqualTo("value99");
+
+        buffer.flush(keyCount + 2);
+        assertThat(kvBatchWriter.flushed).hasSize(keyCount - 1).containsEntry("key99", "value99");
+        assertThat(buffer.getPageCount()).isEqualTo(0);
+    }
+
+    @Test
+    void testBufferFull() throws Exception {
+        // put until the memory of the pool is exhausted
+        int lsn = 0;
+        while (memoryPool.freePages() > 0) {
+            bufferPut("key" + lsn, longValue(lsn), lsn);
+            lsn++;
+        }
+        int fullLsn = lsn;
+        assertThatThrownBy(() -> bufferPut("key" + fullLsn, longValue(fullLsn), fullLsn))
+                .isInstanceOf(KvPreWriteBufferFullException.class)
+                .hasMessageContaining("The memory of the kv pre-write buffers is exhausted");
+        assertThat(buffer.getMaxLSN()).isEqualTo(lsn - 1);
+        assertThat(buffer.get(toKey("key" + lsn))).isNull();
+        for (int i = 0; i < lsn; i++) {
+            assertThat(getValue("key" + i)).isEqualTo(longValue(i));
+        }
+
+        // the put can be retried after flushing
+        buffer.flush(lsn / 2);
+        assertThat(memoryPool.freePages()).isGreaterThan(0);
+        bufferPut("key" + lsn, longValue(lsn), lsn);
+        assertThat(getValue("key" + lsn)).isEqualTo(longValue(lsn));
+    }
+
+    @Test
+    void testRecordLargerThanPool() throws Exception {
+        bufferPut("key0", "value0", 0);
+
+        // the record can never be put, even after flushing, so it's not retriable
+        byte[] largeValue = new byte[PAGE_SIZE * PAGE_NUM];
+        assertThatThrownBy(() -> buffer.put(toKey("key1"), largeValue, 1))
+                .isInstanceOf(RecordTooLargeException.class)
+                .hasMessageContaining("exceeds the memory of the kv pre-write buffers");
+        assertThat(buffer.getMaxLSN()).isEqualTo(0);
+        assertThat(buffer.get(toKey("key1"))).isNull();
+        assertThat(getValue("key0")).isEqualTo("value0");
+
+        // the largest record which fits into the whole pool can be put once the buffer is empty
+        byte[] value = new byte[PAGE_SIZE * PAGE_NUM - PagedKvPreWriteBuffer.HEADER_SIZE - 4];
+        buffer.flush(1);
+        buffer.put(toKey("key1"), value, 1);
+        assertThat(memoryPool.freePages()).isEqualTo(0);
+        assertThat(buffer.get(toKey("key1")).get()).isEqualTo(value);
+    }
+
+    private static String longValue(int i) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < PAGE_SIZE) {
+            builder.append("value").append(i);
+        }
+        return builder.toString();
+    }
+
+    private void bufferPut(String key, String value, int elementCount) {
+        buffer.put(toKey(key), value.getBytes(), elementCount);
+    }
+
+    private void bufferDelete(String key, int elementCount) {
+        buffer.delete(toKey(key), elementCount);
+    }
+
+    private String getValue(String keyStr) {
+        KvPreWriteBuffer.Value value = buffer.get(toKey(keyStr));
+        if (value != null && value.get() != null) {
+            return new String(value.get());
+        } else {
+            return null;
+        }
+    }
+
+    private static KvPreWriteBuffer.Key toKey(String str) {
+        return KvPreWriteBuffer.Key.of(str.getBytes());
+    }
+
+    /** A {@link KvBatchWriter} for test purpose which records the flushed key-value pairs. */
+    private static class RecordingKvBatchWriter implements KvBatchWriter {
+
+        private final Map<String, String> flushed = new HashMap<>();
+
+        @Override
+        public void put(@Nonnull byte[] key, @Nonnull byte[] value) {
+            flushed.put(new String(key), new String(value));
+        }
+
+        @Override
+        public void delete(@Nonnull byte[] key) {
+            flushed.remove(new String(key));
+        }
+
+        @Override
+        public void flush() {
+            // do nothing
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+    }
+}
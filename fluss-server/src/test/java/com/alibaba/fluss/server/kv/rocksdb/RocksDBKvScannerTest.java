@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.rocksdb;
+
+import com.alibaba.fluss.config.Configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link RocksDBKvScanner}. */
+class RocksDBKvScannerTest {
+
+    @Test
+    void testScan(@TempDir Path tempDir) throws Exception {
+        File instanceBasePath = tempDir.toFile();
+        RocksDBResourceContainer rocksDBResourceContainer =
+                new RocksDBResourceContainer(new Configuration(), instanceBasePath);
+        RocksDBKvBuilder rocksDBKvBuilder =
+                new RocksDBKvBuilder(
+                        instanceBasePath,
+                        rocksDBResourceContainer,
+                        rocksDBResourceContainer.getColumnOptions());
+
+        try (RocksDBKv rocksDBKv = rocksDBKvBuilder.build()) {
+            for (int i = 0; i < 10; i++) {
+                rocksDBKv.put(new byte[] {(byte) i}, new byte[] {(byte) i, (byte) i});
+            }
+
+            // scan the whole kv, at least one value is read even if it exceeds the max bytes
+            List<byte[]> values = new ArrayList<>();
+            try (RocksDBKvScanner scanner = rocksDBKv.newScanner(null, null)) {
+                // the data written after opening the scanner is invisible
+                rocksDBKv.put(new byte[] {10}, new byte[] {10});
+                rocksDBKv.delete(new byte[] {0});
+
+                assertThat(scanner.next(1, values::add)).isTrue();
+                assertThat(values).hasSize(1);
+                assertThat(scanner.next(4, values::add)).isTrue();
+                assertThat(values).hasSize(3);
+                assertThat(scanner.next(Integer.MAX_VALUE, values::add)).isFalse();
+            }
+            assertThat(values).hasSize(10);
+            for (int i = 0; i < 10; i++) {
+                assertThat(values.get(i)).isEqualTo(new byte[] {(byte) i, (byte) i});
+            }
+
+            // scan the range [3, 6)
+            values.clear();
+            try (RocksDBKvScanner scanner = rocksDBKv.newScanner(new byte[] {3}, new byte[] {6})) {
+                assertThat(scanner.next(Integer.MAX_VALUE, values::add)).isFalse();
+                assertThat(scanner.next(Integer.MAX_VALUE, values::add)).isFalse();
+            }
+            assertThat(values)
+                    .containsExactly(new byte[] {3, 3}, new byte[] {4, 4}, new byte[] {5, 5});
+
+            // scan the range starting from 8, the data written after above scan is visible now
+            values.clear();
+            try (RocksDBKvScanner scanner = rocksDBKv.newScanner(new byte[] {8}, null)) {
+                assertThat(scanner.next(Integer.MAX_VALUE, values::add)).isFalse();
+            }
+            assertThat(values)
+                    .containsExactly(new byte[] {8, 8}, new byte[] {9, 9}, new byte[] {10});
+        }
+    }
+}
@@ -21,10 +21,14 @@ import com.alibaba.fluss.config.Configuration;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.SstFileWriter;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -64,4 +68,58 @@ class RocksDBKvTest {
             assertThat(rocksDBKv.multiGet(Arrays.asList(key, key2))).containsExactly(null, val2);
         }
     }
+
+    @Test
+    void testIngestSstFiles(@TempDir Path tempDir) throws Exception {
+        File instanceBasePath = tempDir.resolve("kv").toFile();
+        RocksDBResourceContainer rocksDBResourceContainer =
+                new RocksDBResourceContainer(new Configuration(), instanceBasePath);
+        RocksDBKvBuilder rocksDBKvBuilder =
+                new RocksDBKvBuilder(
+                        instanceBasePath,
+                        rocksDBResourceContainer,
+                        rocksDBResourceContainer.getColumnOptions());
+
+        // build the SST files outside of the db, like a bulk load does
+        File sstFile1 = tempDir.resolve("1.sst").toFile();
+        File sstFile2 = tempDir.resolve("2.sst").toFile();
+        try (EnvOptions envOptions = new EnvOptions();
+                Options options = new Options()) {
+            try (SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options)) {
+                sstFileWriter.open(sstFile1.getAbsolutePath());
+                sstFileWriter.put(new byte[] {1}, new byte[] {1});
+                sstFileWriter.put(new byte[] {2}, new byte[] {2});
+                sstFileWriter.put(new byte[] {3}, new byte[] {3});
+                sstFileWriter.finish();
+            }
+            try (SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options)) {
+                sstFileWriter.open(sstFile2.getAbsolutePath());
+                sstFileWriter.put(new byte[] {2}, new byte[] {4});
+                sstFileWriter.delete(new byte[] {3});
+                sstFileWriter.finish();
+            }
+        }
+
+        try (RocksDBKv rocksDBKv = rocksDBKvBuilder.build()) {
+            // the existing data is overridden by the ingested files
+            rocksDBKv.put(new byte[] {1}, new byte[] {0});
+            rocksDBKv.put(new byte[] {4}, new byte[] {4});
+
+            // the latter file overrides the former one
+            rocksDBKv.ingestSstFiles(Arrays.asList(sstFile1, sstFile2));
+
+            List<byte[]> values =
+                    rocksDBKv.multiGet(
+                            Arrays.asList(
+                                    new byte[] {1},
+                                    new byte[] {2},
+                                    new byte[] {3},
+                                    new byte[] {4}));
+            assertThat(values)
+                    .containsExactly(new byte[] {1}, new byte[] {4}, null, new byte[] {4});
+            // the files are moved into the db
+            assertThat(sstFile1).doesNotExist();
+            assertThat(sstFile2).doesNotExist();
+        }
+    }
 }
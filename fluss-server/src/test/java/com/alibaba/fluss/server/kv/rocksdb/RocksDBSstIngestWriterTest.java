@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.kv.rocksdb;
+
+import com.alibaba.fluss.config.Configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link RocksDBSstIngestWriter}. */
+class RocksDBSstIngestWriterTest {
+
+    @Test
+    void testIngest(@TempDir Path tempDir) throws Exception {
+        File instanceBasePath = tempDir.resolve("kv").toFile();
+        File ingestDir = tempDir.resolve("ingest").toFile();
+        RocksDBResourceContainer rocksDBResourceContainer =
+                new RocksDBResourceContainer(new Configuration(), instanceBasePath);
+        RocksDBKvBuilder rocksDBKvBuilder =
+                new RocksDBKvBuilder(
+                        instanceBasePath,
+                        rocksDBResourceContainer,
+                        rocksDBResourceContainer.getColumnOptions());
+
+        try (RocksDBKv rocksDBKv = rocksDBKvBuilder.build()) {
+            // the existing data will be overridden by the ingested data
+            rocksDBKv.put(new byte[] {1}, new byte[] {1});
+            rocksDBKv.put(new byte[] {2}, new byte[] {2});
+
+            // a small file size, so that the data is ingested by multiple files
+            try (RocksDBSstIngestWriter writer = rocksDBKv.newSstIngestWriter(ingestDir, 16)) {
+                // the keys are written out of order, and compared as unsigned bytes
+                writer.put(new byte[] {(byte) 0xff}, new byte[] {3});
+                writer.put(new byte[] {1}, new byte[] {4});
+                writer.delete(new byte[] {2});
+                for (int i = 0; i < 10; i++) {
+                    writer.put(new byte[] {3, (byte) i}, new byte[] {(byte) i});
+                }
+                // override the key written to the previous files
+                writer.put(new byte[] {(byte) 0xff}, new byte[] {5});
+                writer.delete(new byte[] {3, 0});
+            }
+
+            assertThat(rocksDBKv.get(new byte[] {1})).isEqualTo(new byte[] {4});
+            assertThat(rocksDBKv.get(new byte[] {2})).isNull();
+            assertThat(rocksDBKv.get(new byte[] {(byte) 0xff})).isEqualTo(new byte[] {5});
+            assertThat(rocksDBKv.get(new byte[] {3, 0})).isNull();
+            for (int i = 1; i < 10; i++) {
+                assertThat(rocksDBKv.get(new byte[] {3, (byte) i}))
+                        .isEqualTo(new byte[] {(byte) i});
+            }
+            // the ingested files are moved into the db
+            assertThat(ingestDir).doesNotExist();
+        }
+    }
+
+    @Test
+    void testBufferedBytesOfOverriddenKeys(@TempDir Path tempDir) throws Exception {
+        File instanceBasePath = tempDir.resolve("kv").toFile();
+        File ingestDir = tempDir.resolve("ingest").toFile();
+        RocksDBResourceContainer rocksDBResourceContainer =
+                new RocksDBResourceContainer(new Configuration(), instanceBasePath);
+        RocksDBKvBuilder rocksDBKvBuilder =
+                new RocksDBKvBuilder(
+                        instanceBasePath,
+                        rocksDBResourceContainer,
+                        rocksDBResourceContainer.getColumnOptions());
+
+        try (RocksDBKv rocksDBKv = rocksDBKvBuilder.build();
+                RocksDBSstIngestWriter writer = rocksDBKv.newSstIngestWriter(ingestDir, 16)) {
+            writer.put(new byte[] {1}, new byte[] {1, 1, 1});
+            assertThat(writer.getBufferedBytes()).isEqualTo(4);
+            // only the latest value of a key is counted, so that the overridden keys won't cut
+            // the files early
+            for (int i = 0; i < 10; i++) {
+                writer.put(new byte[] {1}, new byte[] {(byte) i, 1, 1});
+            }
+            assertThat(writer.getBufferedBytes()).isEqualTo(4);
+            writer.delete(new byte[] {1});
+            assertThat(writer.getBufferedBytes()).isEqualTo(1);
+            writer.put(new byte[] {1}, new byte[] {1, 1});
+            assertThat(writer.getBufferedBytes()).isEqualTo(3);
+            // nothing is ingested until the file size is reached
+            assertThat(rocksDBKv.get(new byte[] {1})).isNull();
+
+            writer.put(new byte[] {2}, new byte[12]);
+            assertThat(writer.getBufferedBytes()).isEqualTo(0);
+            assertThat(rocksDBKv.get(new byte[] {1})).isEqualTo(new byte[] {1, 1});
+            assertThat(rocksDBKv.get(new byte[] {2})).isEqualTo(new byte[12]);
+        }
+    }
+}
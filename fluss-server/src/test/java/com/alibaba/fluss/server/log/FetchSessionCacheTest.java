@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.log;
+
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.record.MemoryLogRecords;
+import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
+import com.alibaba.fluss.rpc.messages.FetchLogRequest;
+import com.alibaba.fluss.rpc.protocol.ApiError;
+import com.alibaba.fluss.rpc.protocol.Errors;
+import com.alibaba.fluss.server.entity.FetchReqInfo;
+import com.alibaba.fluss.server.log.FetchSessionCache.FetchContext;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.alibaba.fluss.record.TestData.DATA1;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.FINAL_EPOCH;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INITIAL_EPOCH;
+import static com.alibaba.fluss.rpc.util.FetchSessionHandler.INVALID_SESSION_ID;
+import static com.alibaba.fluss.testutils.DataTestUtils.genMemoryLogRecordsByObject;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Tests for {@link FetchSessionCache}. */
+class FetchSessionCacheTest {
+
+    private static final long TABLE_ID = 150001L;
+    private static final TableBucket TB0 = new TableBucket(TABLE_ID, 0);
+    private static final TableBucket TB1 = new TableBucket(TABLE_ID, 1);
+    private static final TableBucket TB2 = new TableBucket(TABLE_ID, 2);
+
+    @Test
+    void testIncrementalFetch() throws Exception {
+        FetchSessionCache cache = new FetchSessionCache(10);
+        Map<TableBucket, FetchReqInfo> fullData = new HashMap<>();
+        fullData.put(TB0, new FetchReqInfo(TABLE_ID, 0L, 1024));
+        fullData.put(TB1, new FetchReqInfo(TABLE_ID, 0L, 1024));
+
+        FetchContext context =
+                cache.newContext(request(1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none());
+        int sessionId = context.sessionId();
+        assertThat(sessionId).isNotEqualTo(INVALID_SESSION_ID);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(context.fetchData()).isEqualTo(fullData);
+        // a full fetch responds all the buckets
+        Map<TableBucket, FetchLogResultForBucket> results = new HashMap<>();
+        results.put(TB0, new FetchLogResultForBucket(TB0, MemoryLogRecords.EMPTY, 0L));
+        results.put(TB1, new FetchLogResultForBucket(TB1, MemoryLogRecords.EMPTY, 0L));
+        assertThat(context.updateAndGenerateResponseData(results)).isEqualTo(results);
+
+        // update the offset of bucket 0, add bucket 2 and remove bucket 1
+        Map<TableBucket, FetchReqInfo> incrementalData = new HashMap<>();
+        incrementalData.put(TB0, new FetchReqInfo(TABLE_ID, 10L, 1024));
+        incrementalData.put(TB2, new FetchReqInfo(TABLE_ID, 0L, 1024));
+        context =
+                cache.newContext(
+                        request(1, sessionId, 1), incrementalData, Collections.singleton(TB1));
+        assertThat(context.error()).isNull();
+        assertThat(context.sessionId()).isEqualTo(sessionId);
+        assertThat(context.fetchData()).isEqualTo(incrementalData);
+
+        // only the buckets with records, errors or high watermark changes are responded
+        results = new HashMap<>();
+        results.put(TB0, new FetchLogResultForBucket(TB0, genMemoryLogRecordsByObject(DATA1), 20L));
+        results.put(TB2, new FetchLogResultForBucket(TB2, MemoryLogRecords.EMPTY, -1L));
+        Map<TableBucket, FetchLogResultForBucket> responseData =
+                context.updateAndGenerateResponseData(results);
+        assertThat(responseData).containsOnlyKeys(TB0);
+
+        context = cache.newContext(request(1, sessionId, 2), Collections.emptyMap(), none());
+        assertThat(context.fetchData()).containsOnlyKeys(TB0, TB2);
+        assertThat(context.fetchData().get(TB0).getFetchOffset()).isEqualTo(10L);
+        results = new HashMap<>();
+        results.put(TB0, new FetchLogResultForBucket(TB0, MemoryLogRecords.EMPTY, 20L));
+        results.put(TB2, new FetchLogResultForBucket(TB2, MemoryLogRecords.EMPTY, 5L));
+        assertThat(context.updateAndGenerateResponseData(results)).containsOnlyKeys(TB2);
+
+        context = cache.newContext(request(1, sessionId, 3), Collections.emptyMap(), none());
+        results = new HashMap<>();
+        results.put(TB0, new FetchLogResultForBucket(TB0, MemoryLogRecords.EMPTY, 20L));
+        results.put(
+                TB2,
+                new FetchLogResultForBucket(
+                        TB2, ApiError.fromThrowable(Errors.NOT_LEADER_OR_FOLLOWER.exception())));
+        assertThat(context.updateAndGenerateResponseData(results)).containsOnlyKeys(TB2);
+
+        // a sessionless full fetch closes the session
+        context = cache.newContext(request(1, sessionId, FINAL_EPOCH), fullData, none());
+        assertThat(context.sessionId()).isEqualTo(INVALID_SESSION_ID);
+        assertThat(context.fetchData()).isEqualTo(fullData);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testSessionErrors() {
+        FetchSessionCache cache = new FetchSessionCache(10);
+        Map<TableBucket, FetchReqInfo> fullData =
+                Collections.singletonMap(TB0, new FetchReqInfo(TABLE_ID, 0L, 1024));
+        int sessionId =
+                cache.newContext(request(1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none())
+                        .sessionId();
+
+        FetchContext context =
+                cache.newContext(request(1, sessionId + 1, 1), Collections.emptyMap(), none());
+        assertThat(context.error()).isNotNull();
+        assertThat(context.error().error()).isEqualTo(Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION);
+
+        // the session belongs to another replica
+        context = cache.newContext(request(2, sessionId, 1), Collections.emptyMap(), none());
+        assertThat(context.error().error()).isEqualTo(Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION);
+
+        context = cache.newContext(request(1, sessionId, 2), Collections.emptyMap(), none());
+        assertThat(context.error().error()).isEqualTo(Errors.INVALID_FETCH_SESSION_EPOCH_EXCEPTION);
+
+        // a new full fetch closes the previous session and creates a new one
+        context = cache.newContext(request(1, sessionId, INITIAL_EPOCH), fullData, none());
+        assertThat(context.error()).isNull();
+        assertThat(context.sessionId()).isNotEqualTo(sessionId);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testEviction() {
+        FetchSessionCache cache = new FetchSessionCache(2);
+        Map<TableBucket, FetchReqInfo> fullData =
+                Collections.singletonMap(TB0, new FetchReqInfo(TABLE_ID, 0L, 1024));
+        int followerSession =
+                cache.newContext(request(1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none())
+                        .sessionId();
+        int clientSession =
+                cache.newContext(request(-1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none())
+                        .sessionId();
+        // the session of the client is evicted before the least recently used follower session
+        cache.newContext(request(-1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none());
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(
+                        cache.newContext(request(-1, clientSession, 1), fullData, none())
+                                .error()
+                                .error())
+                .isEqualTo(Errors.FETCH_SESSION_ID_NOT_FOUND_EXCEPTION);
+        assertThat(cache.newContext(request(1, followerSession, 1), fullData, none()).error())
+                .isNull();
+
+        // no session is created if the cache is disabled
+        FetchSessionCache disabledCache = new FetchSessionCache(0);
+        FetchContext context =
+                disabledCache.newContext(
+                        request(1, INVALID_SESSION_ID, INITIAL_EPOCH), fullData, none());
+        assertThat(context.sessionId()).isEqualTo(INVALID_SESSION_ID);
+        assertThat(context.fetchData()).isEqualTo(fullData);
+        assertThat(disabledCache.size()).isZero();
+    }
+
+    private static FetchLogRequest request(int replicaId, int sessionId, int epoch) {
+        return new FetchLogRequest()
+                .setFollowerServerId(replicaId)
+                .setMaxBytes(1024)
+                .setSessionId(sessionId)
+                .setSessionEpoch(epoch);
+    }
+
+    private static Set<TableBucket> none() {
+        return Collections.emptySet();
+    }
+}
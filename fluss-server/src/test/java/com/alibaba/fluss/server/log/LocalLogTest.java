@@ -24,6 +24,7 @@ import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.record.LogTestBase;
 import com.alibaba.fluss.record.MemoryLogRecords;
 import com.alibaba.fluss.server.log.LocalLog.SegmentDeletionReason;
+import com.alibaba.fluss.utils.clock.SystemClock;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -412,6 +413,7 @@ final class LocalLogTest extends LogTestBase {
                 recoverPoint,
                 nextOffsetMetadata,
                 tableBucket,
-                LogFormat.ARROW);
+                LogFormat.ARROW,
+                SystemClock.getInstance());
     }
 }
@@ -18,6 +18,7 @@
 package com.alibaba.fluss.server.log;
 
 import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.MemorySize;
 import com.alibaba.fluss.metadata.LogFormat;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
@@ -45,6 +46,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import javax.annotation.Nullable;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +64,7 @@ import static com.alibaba.fluss.record.TestData.DATA2_TABLE_ID;
 import static com.alibaba.fluss.server.log.LogManager.CLEAN_SHUTDOWN_FILE;
 import static com.alibaba.fluss.testutils.DataTestUtils.assertLogRecordsEquals;
 import static com.alibaba.fluss.testutils.DataTestUtils.genMemoryLogRecordsByObject;
+import static com.alibaba.fluss.testutils.common.CommonTestUtils.retry;
 import static org.assertj.core.api.Assertions.assertThat;
 
 /** Test for {@link LogManager}. */
@@ -241,6 +244,96 @@ final class LogManagerTest extends LogTestBase {
         assertThat(new File(dataDir, CLEAN_SHUTDOWN_FILE).exists()).isFalse();
     }
 
+    @Test
+    void testBackgroundFlushByMessages() throws Exception {
+        conf.set(ConfigOptions.LOG_FLUSH_INTERVAL_MESSAGES, 1L);
+        conf.set(ConfigOptions.LOG_FLUSH_BACKGROUND_ENABLED, true);
+        conf.set(ConfigOptions.LOG_RECOVERY_POINT_CHECKPOINT_INTERVAL, Duration.ZERO);
+        restartLogManager();
+
+        initTableBuckets(null);
+        LogTablet log1 = getOrCreateLog(tablePath1, null, tableBucket1);
+        LogTablet log2 = getOrCreateLog(tablePath2, null, tableBucket2);
+        for (int i = 0; i < 10; i++) {
+            log1.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+            log2.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+        }
+
+        // the logs are flushed and the recovery points are checkpointed by the flusher
+        retry(
+                Duration.ofMinutes(1),
+                () -> {
+                    assertThat(log1.getRecoveryPoint()).isEqualTo(log1.localLogEndOffset());
+                    assertThat(log2.getRecoveryPoint()).isEqualTo(log2.localLogEndOffset());
+                    Map<TableBucket, Long> checkpoints =
+                            new OffsetCheckpointFile(
+                                            new File(
+                                                    tempDir,
+                                                    LogManager.RECOVERY_POINT_CHECKPOINT_FILE))
+                                    .read();
+                    assertThat(checkpoints.get(tableBucket1)).isEqualTo(log1.localLogEndOffset());
+                    assertThat(checkpoints.get(tableBucket2)).isEqualTo(log2.localLogEndOffset());
+                });
+        assertThat(logManager.getLogFlusher().numPendingFlushes()).isEqualTo(0);
+    }
+
+    @Test
+    void testBackgroundFlushByBytes() throws Exception {
+        conf.set(ConfigOptions.LOG_FLUSH_INTERVAL_BYTES, MemorySize.parse("1b"));
+        conf.set(ConfigOptions.LOG_FLUSH_BACKGROUND_ENABLED, true);
+        restartLogManager();
+
+        initTableBuckets(null);
+        LogTablet log1 = getOrCreateLog(tablePath1, null, tableBucket1);
+        log1.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+        retry(
+                Duration.ofMinutes(1),
+                () -> assertThat(log1.getRecoveryPoint()).isEqualTo(log1.localLogEndOffset()));
+    }
+
+    @Test
+    void testBackgroundFlushByTime() throws Exception {
+        conf.set(ConfigOptions.LOG_FLUSH_INTERVAL, Duration.ofMillis(100));
+        restartLogManager();
+
+        initTableBuckets(null);
+        LogTablet log1 = getOrCreateLog(tablePath1, null, tableBucket1);
+        log1.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+        assertThat(log1.getRecoveryPoint()).isLessThan(log1.localLogEndOffset());
+        retry(
+                Duration.ofMinutes(1),
+                () -> assertThat(log1.getRecoveryPoint()).isEqualTo(log1.localLogEndOffset()));
+    }
+
+    @Test
+    void testFlushInAppendPathByDefault() throws Exception {
+        conf.set(ConfigOptions.LOG_FLUSH_INTERVAL_MESSAGES, 1L);
+        restartLogManager();
+
+        initTableBuckets(null);
+        LogTablet log1 = getOrCreateLog(tablePath1, null, tableBucket1);
+        log1.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+        // the data is flushed before the append returns
+        assertThat(log1.getRecoveryPoint()).isEqualTo(log1.localLogEndOffset());
+        assertThat(logManager.getLogFlusher().numPendingFlushes()).isEqualTo(0);
+    }
+
+    @Test
+    void testFlushInAppendPathIfFlusherNotRunning() throws Exception {
+        conf.set(ConfigOptions.LOG_FLUSH_INTERVAL_MESSAGES, 1L);
+        conf.set(ConfigOptions.LOG_FLUSH_BACKGROUND_ENABLED, true);
+        logManager.shutdown();
+        // the log manager is not started, so the flusher isn't running
+        logManager =
+                LogManager.create(conf, zkClient, new FlussScheduler(1), SystemClock.getInstance());
+
+        initTableBuckets(null);
+        LogTablet log1 = getOrCreateLog(tablePath1, null, tableBucket1);
+        log1.appendAsLeader(genMemoryLogRecordsByObject(DATA1));
+        assertThat(log1.getRecoveryPoint()).isEqualTo(log1.localLogEndOffset());
+        assertThat(logManager.getLogFlusher().numPendingFlushes()).isEqualTo(0);
+    }
+
     @ParameterizedTest
     @MethodSource("partitionProvider")
     void testSameTableNameInDifferentDb(String partitionName) throws Exception {
@@ -279,6 +372,13 @@ final class LogManagerTest extends LogTestBase {
         assertThat(logManager.getLog(log1.getTableBucket()).isPresent()).isTrue();
     }
 
+    private void restartLogManager() throws Exception {
+        logManager.shutdown();
+        logManager =
+                LogManager.create(conf, zkClient, new FlussScheduler(1), SystemClock.getInstance());
+        logManager.startup();
+    }
+
     private LogTablet getOrCreateLog(
             TablePath tablePath, String partitionName, TableBucket tableBucket) throws Exception {
         return logManager.getOrCreateLog(
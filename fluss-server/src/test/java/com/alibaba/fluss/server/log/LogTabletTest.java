@@ -213,6 +213,38 @@ final class LogTabletTest extends LogTestBase {
         assertHighWatermarkBoundedFetches();
     }
 
+    @Test
+    void testFetchUpToLeaderHighWatermark() throws Exception {
+        MemoryLogRecords mr1 =
+                genMemoryLogRecordsByObject(
+                        Arrays.asList(
+                                new Object[] {1, "a"},
+                                new Object[] {2, "b"},
+                                new Object[] {3, "c"}));
+        logTablet.appendAsLeader(mr1);
+        MemoryLogRecords mr2 =
+                genMemoryLogRecordsByObject(
+                        Arrays.asList(new Object[] {4, "a"}, new Object[] {5, "b"}));
+        logTablet.appendAsLeader(mr2);
+        // the high watermark of a follower is its log end offset
+        logTablet.updateHighWatermark(logTablet.localLogEndOffset());
+
+        // nothing is readable before receiving the high watermark of the leader
+        assertThat(logTablet.getLeaderHighWatermark()).isEqualTo(0L);
+        assertEmptyFetch(0L, FetchIsolation.LEADER_HIGH_WATERMARK);
+
+        assertThat(logTablet.updateLeaderHighWatermark(3L)).isTrue();
+        assertThat(logTablet.updateLeaderHighWatermark(3L)).isFalse();
+        assertNonEmptyFetch(0L, FetchIsolation.LEADER_HIGH_WATERMARK);
+        assertEmptyFetch(3L, FetchIsolation.LEADER_HIGH_WATERMARK);
+
+        // the leader high watermark is bounded by the local high watermark
+        assertThat(logTablet.updateLeaderHighWatermark(10L)).isTrue();
+        assertThat(logTablet.getLeaderHighWatermark()).isEqualTo(5L);
+        assertNonEmptyFetch(3L, FetchIsolation.LEADER_HIGH_WATERMARK);
+        assertEmptyFetch(5L, FetchIsolation.LEADER_HIGH_WATERMARK);
+    }
+
     @Test
     void testActiveWriters() throws Exception {
         long writerId1 = 1L;
@@ -551,6 +583,8 @@ final class LogTabletTest extends LogTestBase {
                         long upperBoundOffset;
                         if (isolation == FetchIsolation.HIGH_WATERMARK) {
                             upperBoundOffset = logTablet.getHighWatermark();
+                        } else if (isolation == FetchIsolation.LEADER_HIGH_WATERMARK) {
+                            upperBoundOffset = logTablet.getLeaderHighWatermark();
                         } else {
                             upperBoundOffset = logTablet.localLogEndOffset();
                         }
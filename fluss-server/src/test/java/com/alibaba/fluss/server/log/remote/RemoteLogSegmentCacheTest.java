@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.fluss.server.log.remote;
+
+import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.Configuration;
+import com.alibaba.fluss.metadata.TableBucket;
+import com.alibaba.fluss.record.LogRecordBatch;
+import com.alibaba.fluss.record.MemoryLogRecords;
+import com.alibaba.fluss.remote.RemoteLogSegment;
+import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
+import com.alibaba.fluss.server.entity.FetchReqInfo;
+import com.alibaba.fluss.server.log.FetchParams;
+import com.alibaba.fluss.server.log.LogTablet;
+import com.alibaba.fluss.testutils.common.ManuallyTriggeredScheduledExecutorService;
+import com.alibaba.fluss.utils.IOUtils;
+import com.alibaba.fluss.utils.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.alibaba.fluss.record.TestData.DATA1_TABLE_ID;
+import static com.alibaba.fluss.testutils.common.CommonTestUtils.retry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Test for {@link RemoteLogSegmentCache}. */
+class RemoteLogSegmentCacheTest extends RemoteLogTestBase {
+
+    // a small chunk size to make sure the reads always span multiple chunks
+    private static final int CHUNK_SIZE = 64;
+
+    private RemoteLogSegmentCache segmentCache;
+
+    @Override
+    public Configuration getServerConf() {
+        Configuration conf = super.getServerConf();
+        conf.set(ConfigOptions.REMOTE_LOG_SERVER_SIDE_READ_ENABLED, true);
+        return conf;
+    }
+
+    @BeforeEach
+    public void setup() throws Exception {
+        super.setup();
+        // load the chunks in the calling thread to make the tests deterministic
+        segmentCache =
+                new RemoteLogSegmentCache(
+                        1024 * 1024L,
+                        CHUNK_SIZE,
+                        remoteLogStorage,
+                        tempDir,
+                        Executors.directExecutor());
+    }
+
+    @AfterEach
+    public void teardown() {
+        IOUtils.closeQuietly(segmentCache, "RemoteLogSegmentCache created for unit test");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testReadWholeSegment(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+
+        MemoryLogRecords records =
+                readCached(
+                        remoteLogSegment,
+                        remoteLogSegment.remoteLogStartOffset(),
+                        0,
+                        Integer.MAX_VALUE,
+                        true);
+        assertThat(records.sizeInBytes()).isEqualTo(remoteLogSegment.segmentSizeInBytes());
+        List<LogRecordBatch> batches = batches(records);
+        assertThat(batches.get(0).baseLogOffset())
+                .isEqualTo(remoteLogSegment.remoteLogStartOffset());
+        assertThat(batches.get(batches.size() - 1).nextLogOffset())
+                .isEqualTo(remoteLogSegment.remoteLogEndOffset());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testSkipBatchesBeforeFetchOffset(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        List<LogRecordBatch> allBatches =
+                batches(
+                        readCached(
+                                remoteLogSegment,
+                                remoteLogSegment.remoteLogStartOffset(),
+                                0,
+                                Integer.MAX_VALUE,
+                                true));
+        assertThat(allBatches.size()).isGreaterThan(1);
+
+        // fetch from the last offset of the second batch, starting at the segment head
+        LogRecordBatch secondBatch = allBatches.get(1);
+        List<LogRecordBatch> batches =
+                batches(
+                        readCached(
+                                remoteLogSegment,
+                                secondBatch.lastLogOffset(),
+                                0,
+                                Integer.MAX_VALUE,
+                                true));
+        assertThat(batches.get(0).baseLogOffset()).isEqualTo(secondBatch.baseLogOffset());
+        assertThat(batches).hasSize(allBatches.size() - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testReadOnlyCompleteBatches(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        long startOffset = remoteLogSegment.remoteLogStartOffset();
+        List<LogRecordBatch> allBatches =
+                batches(readCached(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true));
+        int firstBatchSize = allBatches.get(0).sizeInBytes();
+
+        // max bytes in the middle of the second batch only returns the first batch
+        MemoryLogRecords records =
+                readCached(remoteLogSegment, startOffset, 0, firstBatchSize + 1, true);
+        assertThat(records.sizeInBytes()).isEqualTo(firstBatchSize);
+
+        // max bytes smaller than the first batch returns the first batch only if min one batch
+        records = readCached(remoteLogSegment, startOffset, 0, firstBatchSize - 1, true);
+        assertThat(records.sizeInBytes()).isEqualTo(firstBatchSize);
+        records = readCached(remoteLogSegment, startOffset, 0, firstBatchSize - 1, false);
+        assertThat(records.sizeInBytes()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testCacheHitAndMiss(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        long startOffset = remoteLogSegment.remoteLogStartOffset();
+
+        readCached(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true);
+        long misses = segmentCache.getCacheMissCount().getCount();
+        assertThat(misses).isGreaterThan(0);
+        assertThat(segmentCache.getCachedBytes()).isEqualTo(remoteLogSegment.segmentSizeInBytes());
+
+        // the second read is served from the cached chunks
+        long hits = segmentCache.getCacheHitCount().getCount();
+        readCached(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true);
+        assertThat(segmentCache.getCacheMissCount().getCount()).isEqualTo(misses);
+        assertThat(segmentCache.getCacheHitCount().getCount()).isGreaterThan(hits);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testCacheDirIsDeletedOnClose(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        readCached(
+                remoteLogSegment,
+                remoteLogSegment.remoteLogStartOffset(),
+                0,
+                Integer.MAX_VALUE,
+                true);
+
+        File cacheDir = new File(tempDir, RemoteLogSegmentCache.DIR_NAME);
+        assertThat(cacheDir.listFiles()).isNotEmpty();
+        segmentCache.close();
+        assertThat(cacheDir).doesNotExist();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testLoadChunksInBackgroundOnMiss(boolean partitionTable) throws Exception {
+        ManuallyTriggeredScheduledExecutorService loadExecutor =
+                new ManuallyTriggeredScheduledExecutorService();
+        segmentCache.close();
+        segmentCache =
+                new RemoteLogSegmentCache(
+                        1024 * 1024L, CHUNK_SIZE, remoteLogStorage, tempDir, loadExecutor);
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        long startOffset = remoteLogSegment.remoteLogStartOffset();
+        int segmentSize = remoteLogSegment.segmentSizeInBytes();
+
+        // the miss doesn't wait for remote storage, but loads all the chunks to read
+        assertThat(segmentCache.read(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true))
+                .isNull();
+        int numChunks = (segmentSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        assertThat(loadExecutor.numQueuedRunnables()).isEqualTo(numChunks);
+        assertThat(segmentCache.getCachedBytes()).isEqualTo(0);
+
+        // the chunks being loaded are not loaded again
+        assertThat(segmentCache.read(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true))
+                .isNull();
+        assertThat(loadExecutor.numQueuedRunnables()).isEqualTo(numChunks);
+
+        loadExecutor.triggerAll();
+        assertThat(segmentCache.getCachedBytes()).isEqualTo(segmentSize);
+        MemoryLogRecords records =
+                segmentCache.read(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true);
+        assertThat(records).isNotNull();
+        assertThat(records.sizeInBytes()).isEqualTo(segmentSize);
+        assertThat(loadExecutor.numQueuedRunnables()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testEvictChunksBeyondMaxSize(boolean partitionTable) throws Exception {
+        int maxChunks = 4;
+        segmentCache.close();
+        segmentCache =
+                new RemoteLogSegmentCache(
+                        maxChunks * CHUNK_SIZE,
+                        CHUNK_SIZE,
+                        remoteLogStorage,
+                        tempDir,
+                        Executors.directExecutor());
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        assertThat(remoteLogSegment.segmentSizeInBytes()).isGreaterThan(maxChunks * CHUNK_SIZE);
+
+        // loads all the chunks of the segment, which don't fit into the cache
+        segmentCache.read(
+                remoteLogSegment,
+                remoteLogSegment.remoteLogStartOffset(),
+                0,
+                Integer.MAX_VALUE,
+                true);
+
+        // the evicted chunks are deleted from disk
+        File cacheDir = new File(tempDir, RemoteLogSegmentCache.DIR_NAME);
+        retry(
+                Duration.ofMinutes(1),
+                () -> {
+                    assertThat(segmentCache.getCachedBytes())
+                            .isLessThanOrEqualTo(maxChunks * CHUNK_SIZE);
+                    assertThat(cacheDir.listFiles())
+                            .hasSizeLessThanOrEqualTo(maxChunks)
+                            .allSatisfy(chunk -> assertThat(chunk.getName()).endsWith(".chunk"));
+                });
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testReloadChunksDeletedFromDisk(boolean partitionTable) throws Exception {
+        LogTablet logTablet = makeLogTabletAndAddSegments(partitionTable);
+        RemoteLogSegment remoteLogSegment = copyLogSegmentToRemote(logTablet, remoteLogStorage, 0);
+        long startOffset = remoteLogSegment.remoteLogStartOffset();
+        MemoryLogRecords expected =
+                readCached(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true);
+
+        // delete the chunk files behind the cache, like they are evicted after being got
+        File cacheDir = new File(tempDir, RemoteLogSegmentCache.DIR_NAME);
+        for (File chunk : cacheDir.listFiles()) {
+            Files.delete(chunk.toPath());
+        }
+        long misses = segmentCache.getCacheMissCount().getCount();
+        assertThat(segmentCache.read(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true))
+                .isNull();
+        assertThat(segmentCache.getCacheMissCount().getCount()).isGreaterThan(misses);
+
+        // the deleted chunks are loaded again
+        MemoryLogRecords records =
+                readCached(remoteLogSegment, startOffset, 0, Integer.MAX_VALUE, true);
+        assertThat(records.sizeInBytes()).isEqualTo(expected.sizeInBytes());
+        assertThat(records.getMemorySegment().getHeapMemory())
+                .isEqualTo(expected.getMemorySegment().getHeapMemory());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testServerSideReadThroughReplicaManager(boolean partitionTable) throws Exception {
+        TableBucket tb =
+                partitionTable
+                        ? new TableBucket(DATA1_TABLE_ID, 0L, 0)
+                        : new TableBucket(DATA1_TABLE_ID, 0);
+        makeLogTableAsLeader(tb, partitionTable);
+        LogTablet logTablet = replicaManager.getReplicaOrException(tb).getLogTablet();
+        addMultiSegmentsToLogTablet(logTablet, 5);
+        // trigger RLMTask copy local log segment to remote and update metadata.
+        remoteLogTaskScheduler.triggerPeriodicScheduledTasks();
+        // mock to update remote log end offset and delete local log segments.
+        logTablet.updateRemoteLogEndOffset(40L);
+
+        // the chunks are not cached, the client downloads the segments itself
+        FetchLogResultForBucket resultForBucket = fetchLog(tb, 0L);
+        assertThat(resultForBucket.fetchFromRemote()).isTrue();
+        assertThat(resultForBucket.remoteLogFetchInfo()).isNotNull();
+
+        // the chunks are loaded by the remote log thread pool, then the records are served
+        assertThat(remoteLogTaskScheduler.numQueuedRunnables()).isGreaterThan(0);
+        remoteLogTaskScheduler.triggerAll();
+        resultForBucket = fetchLog(tb, 0L);
+        assertThat(resultForBucket.fetchFromRemote()).isFalse();
+        assertThat(resultForBucket.getHighWatermark()).isEqualTo(50L);
+        List<LogRecordBatch> batches = batches((MemoryLogRecords) resultForBucket.records());
+        assertThat(batches).isNotEmpty();
+        assertThat(batches.get(0).baseLogOffset()).isEqualTo(0L);
+        assertThat(remoteLogManager.getRemoteLogSegmentCache().getCacheHitCount().getCount())
+                .isGreaterThan(0);
+    }
+
+    private FetchLogResultForBucket fetchLog(TableBucket tb, long fetchOffset) throws Exception {
+        CompletableFuture<Map<TableBucket, FetchLogResultForBucket>> future =
+                new CompletableFuture<>();
+        replicaManager.fetchLogRecords(
+                new FetchParams(-1, Integer.MAX_VALUE),
+                Collections.singletonMap(
+                        tb, new FetchReqInfo(tb.getTableId(), fetchOffset, 1024 * 1024)),
+                future::complete);
+        return future.get().get(tb);
+    }
+
+    /** Reads from the segment cache until the chunks to read are loaded. */
+    private MemoryLogRecords readCached(
+            RemoteLogSegment segment,
+            long fetchOffset,
+            int startPosition,
+            int maxBytes,
+            boolean minOneBatch)
+            throws IOException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MemoryLogRecords records =
+                    segmentCache.read(segment, fetchOffset, startPosition, maxBytes, minOneBatch);
+            if (records != null) {
+                return records;
+            }
+        }
+        throw new AssertionError("The chunks to read are never loaded into the cache.");
+    }
+
+    private static List<LogRecordBatch> batches(MemoryLogRecords records) {
+        List<LogRecordBatch> batches = new ArrayList<>();
+        for (LogRecordBatch batch : records.batches()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+}
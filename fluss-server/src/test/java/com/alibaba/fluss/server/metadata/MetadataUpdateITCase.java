@@ -450,7 +450,8 @@ class MetadataUpdateITCase {
                                                     bucketId,
                                                     leaderAndIsr.leader(),
                                                     leaderAndIsr.leaderEpoch(),
-                                                    replicas));
+                                                    replicas,
+                                                    leaderAndIsr.isr()));
                                 } catch (Exception e) {
                                     throw new RuntimeException(e);
                                 }
@@ -482,7 +483,8 @@ class MetadataUpdateITCase {
                                                     bucketId,
                                                     leaderAndIsr.leader(),
                                                     leaderAndIsr.leaderEpoch(),
-                                                    replicas));
+                                                    replicas,
+                                                    leaderAndIsr.isr()));
                                 } catch (Exception e) {
                                     throw new RuntimeException(e);
                                 }
@@ -244,6 +244,43 @@ public class TabletServerMetadataCacheTest {
                 initialBucketMetadata);
     }
 
+    @Test
+    void testServeMetadataFromCache() {
+        // the metadata manager knows no table, all the metadata must be served from the cache
+        serverMetadataCache =
+                new TabletServerMetadataCache(
+                        new TestingMetadataManager(Collections.emptyList()), null);
+        List<BucketMetadata> bucketMetadataWithIsr =
+                Arrays.asList(
+                        new BucketMetadata(0, 0, 1, Arrays.asList(0, 1, 2), Arrays.asList(0, 1)),
+                        new BucketMetadata(1, 1, 1, Arrays.asList(1, 0, 2), Arrays.asList(1)));
+        serverMetadataCache.updateClusterMetadata(
+                new ClusterMetadata(
+                        coordinatorServer,
+                        aliveTableServers,
+                        Arrays.asList(
+                                new TableMetadata(DATA1_TABLE_INFO, bucketMetadataWithIsr),
+                                new TableMetadata(partitionTableInfo, Collections.emptyList())),
+                        Collections.singletonList(
+                                new PartitionMetadata(
+                                        partitionTableId,
+                                        partitionName1,
+                                        partitionId1,
+                                        bucketMetadataWithIsr))));
+
+        assertTableMetadataEquals(DATA1_TABLE_ID, DATA1_TABLE_INFO, bucketMetadataWithIsr);
+        assertTableMetadataEquals(partitionTableId, partitionTableInfo, Collections.emptyList());
+        assertPartitionMetadataEquals(
+                partitionId1,
+                partitionTableId,
+                partitionId1,
+                partitionName1,
+                bucketMetadataWithIsr);
+        assertThat(serverMetadataCache.getCacheHitCount().getCount()).isEqualTo(3);
+        assertThat(serverMetadataCache.getCacheMissCount().getCount()).isEqualTo(0);
+        assertThat(serverMetadataCache.getLastUpdateAgeMs()).isGreaterThanOrEqualTo(0);
+    }
+
     private void assertTableMetadataEquals(
             long tableId,
             TableInfo expectedTableInfo,
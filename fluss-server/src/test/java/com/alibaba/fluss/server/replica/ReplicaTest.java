@@ -18,6 +18,7 @@
 package com.alibaba.fluss.server.replica;
 
 import com.alibaba.fluss.config.ConfigOptions;
+import com.alibaba.fluss.config.MemorySize;
 import com.alibaba.fluss.metadata.LogFormat;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
@@ -494,6 +495,54 @@ final class ReplicaTest extends ReplicaTestBase {
         verifyGetKeyValues(kvTablet, expectedKeyValues);
     }
 
+    @Test
+    void testRestoreWithPipelinedRecovery(@TempDir Path snapshotKvTabletDirPath) throws Exception {
+        conf.set(ConfigOptions.KV_RECOVER_PARALLELISM, 4);
+        verifyRestoreFromLog(snapshotKvTabletDirPath);
+    }
+
+    @Test
+    void testRestoreWithSstIngestion(@TempDir Path snapshotKvTabletDirPath) throws Exception {
+        conf.set(ConfigOptions.KV_RECOVER_SST_INGESTION_ENABLED, true);
+        // a small file size, so that the log is ingested by multiple files
+        conf.set(ConfigOptions.KV_RECOVER_WRITE_BATCH_SIZE, MemorySize.parse("64b"));
+        verifyRestoreFromLog(snapshotKvTabletDirPath);
+    }
+
+    private void verifyRestoreFromLog(Path snapshotKvTabletDirPath) throws Exception {
+        TableBucket tableBucket = new TableBucket(DATA1_TABLE_ID_PK, 1);
+        TestSnapshotContext testKvSnapshotContext =
+                new TestSnapshotContext(snapshotKvTabletDirPath.toString());
+        Replica kvReplica =
+                makeKvReplica(DATA1_PHYSICAL_TABLE_PATH_PK, tableBucket, testKvSnapshotContext);
+        makeKvReplicaAsLeader(kvReplica);
+
+        // the same keys are updated by many batches, so that the order of the log matters
+        int batchCount = 50;
+        for (int i = 0; i < batchCount; i++) {
+            putRecordsToLeader(
+                    kvReplica,
+                    DataTestUtils.genKvRecordBatch(
+                            new Object[] {1, "a" + i},
+                            new Object[] {2, "b" + i},
+                            new Object[] {i + 3, "c" + i}));
+        }
+        makeKvReplicaAsFollower(kvReplica, 1);
+
+        // make a kv replica again, should restore from log
+        makeKvReplicaAsLeader(kvReplica, 2);
+        KvTablet kvTablet = kvReplica.getKvTablet();
+        assertThat(kvTablet).isNotNull();
+        List<Object[]> expectedRows = new ArrayList<>();
+        expectedRows.add(new Object[] {1, "a" + (batchCount - 1)});
+        expectedRows.add(new Object[] {2, "b" + (batchCount - 1)});
+        for (int i = 0; i < batchCount; i++) {
+            expectedRows.add(new Object[] {i + 3, "c" + i});
+        }
+        verifyGetKeyValues(
+                kvTablet, getKeyValuePairs(genKvRecords(expectedRows.toArray(new Object[0][]))));
+    }
+
     private void makeLogReplicaAsLeader(Replica replica) throws Exception {
         makeLeaderReplica(
                 replica,
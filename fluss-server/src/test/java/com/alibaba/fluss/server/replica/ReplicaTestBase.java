@@ -637,6 +637,21 @@ public class ReplicaTestBase {
             return 1024;
         }
 
+        @Override
+        public int recoverKvParallelism() {
+            return conf.get(ConfigOptions.KV_RECOVER_PARALLELISM);
+        }
+
+        @Override
+        public long recoverKvWriteBatchSize() {
+            return conf.get(ConfigOptions.KV_RECOVER_WRITE_BATCH_SIZE).getBytes();
+        }
+
+        @Override
+        public boolean recoverKvWithSstIngestion() {
+            return conf.get(ConfigOptions.KV_RECOVER_SST_INGESTION_ENABLED);
+        }
+
         private void unchecked(ThrowingRunnable<?> throwingRunnable) {
             ThrowingRunnable.unchecked(throwingRunnable).run();
         }
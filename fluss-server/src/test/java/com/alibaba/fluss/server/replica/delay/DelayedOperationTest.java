@@ -29,11 +29,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -330,6 +332,106 @@ public class DelayedOperationTest {
         }
     }
 
+    @Test
+    void testConcurrentCheckAndCompleteOnSameKey() throws Exception {
+        int numOperations = 1000;
+        int numThreads = 8;
+        executorService = Executors.newFixedThreadPool(numThreads);
+
+        // the operations become completable one by one
+        AtomicInteger completableOperations = new AtomicInteger(0);
+        List<TestingDelayedOperation> ops = new ArrayList<>();
+        for (int i = 0; i < numOperations; i++) {
+            int index = i;
+            TestingDelayedOperation op =
+                    new TestingDelayedOperation(100000L, () -> index < completableOperations.get());
+            assertThat(
+                            delayedOperationManager.tryCompleteElseWatch(
+                                    op, Collections.singletonList("key")))
+                    .isFalse();
+            ops.add(op);
+        }
+
+        AtomicInteger completed = new AtomicInteger(0);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            futures.add(
+                    executorService.submit(
+                            () -> {
+                                start.await();
+                                while (completableOperations.incrementAndGet() <= numOperations) {
+                                    completed.addAndGet(
+                                            delayedOperationManager.checkAndComplete("key"));
+                                }
+                                return null;
+                            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        // every operation is completed exactly once, and none is left behind by the checks
+        // handed over to the traversal of another thread
+        assertThat(completed.get()).isEqualTo(numOperations);
+        for (TestingDelayedOperation op : ops) {
+            assertThat(op.isCompleted()).isTrue();
+        }
+        assertThat(delayedOperationManager.watched()).isEqualTo(0);
+    }
+
+    @Test
+    void testCompletionDuringTraversalIsNotLost() throws Exception {
+        executorService = Executors.newSingleThreadExecutor();
+        AtomicBoolean completable = new AtomicBoolean(false);
+        AtomicBoolean blockNextCheck = new AtomicBoolean(false);
+        CountDownLatch traversing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+
+        // watched first, so a traversal checks it before the blocking operation
+        TestingDelayedOperation op = new TestingDelayedOperation(100000L, completable::get);
+        TestingDelayedOperation blockingOp =
+                new TestingDelayedOperation(
+                        100000L,
+                        () -> {
+                            if (blockNextCheck.compareAndSet(true, false)) {
+                                traversing.countDown();
+                                try {
+                                    resume.await();
+                                } catch (InterruptedException e) {
+                                    throw new FlussRuntimeException(e);
+                                }
+                            }
+                            return false;
+                        });
+        assertThat(
+                        delayedOperationManager.tryCompleteElseWatch(
+                                op, Collections.singletonList("key")))
+                .isFalse();
+        assertThat(
+                        delayedOperationManager.tryCompleteElseWatch(
+                                blockingOp, Collections.singletonList("key")))
+                .isFalse();
+
+        blockNextCheck.set(true);
+        Future<Integer> traversal =
+                executorService.submit(() -> delayedOperationManager.checkAndComplete("key"));
+        traversing.await();
+
+        // the operation becomes completable after the running traversal has checked it, the check
+        // is handed over to the running traversal
+        completable.set(true);
+        assertThat(delayedOperationManager.checkAndComplete("key")).isEqualTo(0);
+        assertThat(op.isCompleted()).isFalse();
+
+        resume.countDown();
+        assertThat(traversal.get()).isEqualTo(1);
+        assertThat(op.isCompleted()).isTrue();
+        assertThat(blockingOp.isCompleted()).isFalse();
+        assertThat(delayedOperationManager.watched()).isEqualTo(1);
+    }
+
     private static class TestDelayedOperation extends DelayedOperation {
         protected boolean completable;
 
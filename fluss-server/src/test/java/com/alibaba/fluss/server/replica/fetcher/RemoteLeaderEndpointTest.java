@@ -117,6 +117,7 @@ public class RemoteLeaderEndpointTest {
                         .fetchLog(
                                 remoteLeaderEndpoint
                                         .buildFetchLogContext(
+                                                0,
                                                 Collections.singletonMap(
                                                         tb,
                                                         new BucketFetchStatus(
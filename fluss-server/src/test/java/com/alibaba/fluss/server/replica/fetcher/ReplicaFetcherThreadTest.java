@@ -25,25 +25,33 @@ import com.alibaba.fluss.exception.FlussRuntimeException;
 import com.alibaba.fluss.metadata.PhysicalTablePath;
 import com.alibaba.fluss.metadata.TableBucket;
 import com.alibaba.fluss.rpc.RpcClient;
+import com.alibaba.fluss.rpc.entity.FetchLogResultForBucket;
 import com.alibaba.fluss.rpc.entity.ProduceLogResultForBucket;
+import com.alibaba.fluss.rpc.messages.FetchLogResponse;
 import com.alibaba.fluss.rpc.metrics.TestingClientMetricGroup;
+import com.alibaba.fluss.rpc.protocol.Errors;
 import com.alibaba.fluss.server.coordinator.MetadataManager;
 import com.alibaba.fluss.server.coordinator.TestCoordinatorGateway;
+import com.alibaba.fluss.server.entity.FetchReqInfo;
 import com.alibaba.fluss.server.entity.NotifyLeaderAndIsrData;
 import com.alibaba.fluss.server.entity.NotifyLeaderAndIsrResultForBucket;
 import com.alibaba.fluss.server.kv.KvManager;
 import com.alibaba.fluss.server.kv.snapshot.TestingCompletedKvSnapshotCommitter;
+import com.alibaba.fluss.server.log.FetchParams;
 import com.alibaba.fluss.server.log.LogManager;
 import com.alibaba.fluss.server.metadata.TabletServerMetadataCache;
 import com.alibaba.fluss.server.metrics.group.TabletServerMetricGroup;
 import com.alibaba.fluss.server.metrics.group.TestingMetricGroups;
 import com.alibaba.fluss.server.replica.Replica;
 import com.alibaba.fluss.server.replica.ReplicaManager;
+import com.alibaba.fluss.server.replica.fetcher.LeaderEndpoint.FetchData;
 import com.alibaba.fluss.server.zk.NOPErrorHandler;
 import com.alibaba.fluss.server.zk.ZooKeeperClient;
 import com.alibaba.fluss.server.zk.ZooKeeperExtension;
 import com.alibaba.fluss.server.zk.data.LeaderAndIsr;
 import com.alibaba.fluss.server.zk.data.TableRegistration;
+import com.alibaba.fluss.shaded.netty4.io.netty.buffer.ByteBuf;
+import com.alibaba.fluss.shaded.netty4.io.netty.buffer.Unpooled;
 import com.alibaba.fluss.testutils.common.AllCallbackWrapper;
 import com.alibaba.fluss.utils.clock.Clock;
 import com.alibaba.fluss.utils.clock.SystemClock;
@@ -59,11 +67,19 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static com.alibaba.fluss.record.TestData.DATA1;
@@ -72,6 +88,8 @@ import static com.alibaba.fluss.record.TestData.DATA1_TABLE_DESCRIPTOR;
 import static com.alibaba.fluss.record.TestData.DATA1_TABLE_ID;
 import static com.alibaba.fluss.record.TestData.DATA1_TABLE_PATH;
 import static com.alibaba.fluss.server.coordinator.CoordinatorContext.INITIAL_COORDINATOR_EPOCH;
+import static com.alibaba.fluss.server.log.FetchParams.DEFAULT_MAX_WAIT_MS;
+import static com.alibaba.fluss.server.log.FetchParams.DEFAULT_MIN_FETCH_BYTES;
 import static com.alibaba.fluss.server.zk.data.LeaderAndIsr.INITIAL_BUCKET_EPOCH;
 import static com.alibaba.fluss.server.zk.data.LeaderAndIsr.INITIAL_LEADER_EPOCH;
 import static com.alibaba.fluss.testutils.DataTestUtils.genMemoryLogRecordsByObject;
@@ -206,6 +224,143 @@ public class ReplicaFetcherThreadTest {
         }
     }
 
+    @Test
+    void testReadFromFollower() throws Exception {
+        CompletableFuture<List<ProduceLogResultForBucket>> future = new CompletableFuture<>();
+        leaderRM.appendRecordsToLog(
+                1000,
+                1,
+                Collections.singletonMap(tb, genMemoryLogRecordsByObject(DATA1)),
+                future::complete);
+        assertThat(future.get()).containsOnly(new ProduceLogResultForBucket(tb, 0, 10L));
+
+        followerFetcher.addBuckets(
+                Collections.singletonMap(
+                        tb,
+                        new InitialFetchStatus(DATA1_TABLE_ID, DATA1_TABLE_PATH, leader.id(), 0L)));
+        followerFetcher.start();
+
+        // the follower serves the records once it learns the high watermark of the leader.
+        retry(
+                Duration.ofSeconds(20),
+                () -> {
+                    FetchLogResultForBucket result =
+                            fetchFromFollower(
+                                    new FetchParams(
+                                            -1,
+                                            false,
+                                            Integer.MAX_VALUE,
+                                            DEFAULT_MIN_FETCH_BYTES,
+                                            DEFAULT_MAX_WAIT_MS));
+                    assertThat(result.succeeded()).isTrue();
+                    assertThat(result.getHighWatermark()).isEqualTo(10L);
+                    assertThat(result.recordsOrEmpty().sizeInBytes()).isGreaterThan(0);
+                });
+
+        // a fetch which only allows reading from the leader is rejected by the follower.
+        FetchLogResultForBucket result = fetchFromFollower(new FetchParams(-1, Integer.MAX_VALUE));
+        assertThat(result.getErrorCode()).isEqualTo(Errors.NOT_LEADER_OR_FOLLOWER.code());
+    }
+
+    @Test
+    void testPipelinedFetch() throws Exception {
+        List<TableBucket> buckets = new ArrayList<>();
+        buckets.add(tb);
+        for (int bucket = 1; bucket < 8; bucket++) {
+            TableBucket tableBucket = new TableBucket(DATA1_TABLE_ID, bucket);
+            makeLeaderAndFollower(tableBucket);
+            buckets.add(tableBucket);
+        }
+
+        Map<TableBucket, InitialFetchStatus> initialFetchStatus = new HashMap<>();
+        for (TableBucket tableBucket : buckets) {
+            CompletableFuture<List<ProduceLogResultForBucket>> future = new CompletableFuture<>();
+            leaderRM.appendRecordsToLog(
+                    1000,
+                    1,
+                    Collections.singletonMap(tableBucket, genMemoryLogRecordsByObject(DATA1)),
+                    future::complete);
+            assertThat(future.get())
+                    .containsOnly(new ProduceLogResultForBucket(tableBucket, 0, 10L));
+            initialFetchStatus.put(
+                    tableBucket,
+                    new InitialFetchStatus(DATA1_TABLE_ID, DATA1_TABLE_PATH, leader.id(), 0L));
+        }
+
+        ServerNode follower =
+                new ServerNode(
+                        followerServerId, "localhost", 10001, ServerType.TABLET_SERVER, "rack2");
+        DelayedLeaderEndpoint delayedLeader =
+                new DelayedLeaderEndpoint(
+                        new TestingLeaderEndpoint(new Configuration(), leaderRM, follower), 50);
+        ReplicaFetcherThread pipelinedFetcher =
+                new ReplicaFetcherThread(
+                        "test-pipelined-fetcher-thread", followerRM, delayedLeader, 1000, 4);
+        pipelinedFetcher.addBuckets(initialFetchStatus);
+        pipelinedFetcher.start();
+        try {
+            for (TableBucket tableBucket : buckets) {
+                retry(
+                        Duration.ofSeconds(20),
+                        () ->
+                                assertThat(
+                                                followerRM
+                                                        .getReplicaOrException(tableBucket)
+                                                        .getLocalLogEndOffset())
+                                        .isEqualTo(10L));
+            }
+            // the fetches of different slots are in flight at the same time
+            assertThat(delayedLeader.maxInFlightFetches.get()).isGreaterThan(1);
+        } finally {
+            pipelinedFetcher.shutdown();
+            delayedLeader.close();
+        }
+    }
+
+    @Test
+    void testReleaseResponsesOfAbandonedFetches() throws Exception {
+        CompletableFuture<List<ProduceLogResultForBucket>> future = new CompletableFuture<>();
+        leaderRM.appendRecordsToLog(
+                1000,
+                1,
+                Collections.singletonMap(tb, genMemoryLogRecordsByObject(DATA1)),
+                future::complete);
+        assertThat(future.get()).containsOnly(new ProduceLogResultForBucket(tb, 0, 10L));
+
+        ServerNode follower =
+                new ServerNode(
+                        followerServerId, "localhost", 10001, ServerType.TABLET_SERVER, "rack2");
+        // the responses arrive after the fetches are abandoned for timeout
+        DelayedLeaderEndpoint delayedLeader =
+                new DelayedLeaderEndpoint(
+                        new TestingLeaderEndpoint(new Configuration(), leaderRM, follower), 200);
+        ReplicaFetcherThread timeoutFetcher =
+                new ReplicaFetcherThread(
+                        "test-timeout-fetcher-thread", followerRM, delayedLeader, 10, 1, 50);
+        timeoutFetcher.addBuckets(
+                Collections.singletonMap(
+                        tb,
+                        new InitialFetchStatus(DATA1_TABLE_ID, DATA1_TABLE_PATH, leader.id(), 0L)));
+        timeoutFetcher.start();
+        try {
+            retry(
+                    Duration.ofSeconds(20),
+                    () -> assertThat(delayedLeader.responseBuffers).hasSizeGreaterThan(2));
+            // the responses of the abandoned fetches are ignored
+            assertThat(followerRM.getReplicaOrException(tb).getLocalLogEndOffset()).isEqualTo(0L);
+        } finally {
+            timeoutFetcher.shutdown();
+        }
+
+        // the responses arriving after the shutdown are released as well
+        retry(
+                Duration.ofSeconds(20),
+                () -> assertThat(delayedLeader.inFlightFetches.get()).isEqualTo(0));
+        for (ByteBuf responseBuffer : delayedLeader.responseBuffers) {
+            assertThat(responseBuffer.refCnt()).isEqualTo(0);
+        }
+    }
+
     // TODO this test need to be removed after we introduce leader epoch cache. Trace by
     // https://github.com/alibaba/fluss/issues/673
     @Test
@@ -277,6 +432,17 @@ public class ReplicaFetcherThreadTest {
                 () -> assertThat(followerReplica.getLocalLogEndOffset()).isEqualTo(120L));
     }
 
+    private FetchLogResultForBucket fetchFromFollower(FetchParams fetchParams) throws Exception {
+        CompletableFuture<Map<TableBucket, FetchLogResultForBucket>> future =
+                new CompletableFuture<>();
+        followerRM.fetchLogRecords(
+                fetchParams,
+                Collections.singletonMap(
+                        tb, new FetchReqInfo(tb.getTableId(), 0L, Integer.MAX_VALUE)),
+                future::complete);
+        return future.get().get(tb);
+    }
+
     private void registerTableInZkClient() throws Exception {
         ZOO_KEEPER_EXTENSION_WRAPPER.getCustomExtension().cleanupRoot();
         zkClient.registerTable(
@@ -286,6 +452,10 @@ public class ReplicaFetcherThreadTest {
     }
 
     private void makeLeaderAndFollower() {
+        makeLeaderAndFollower(tb);
+    }
+
+    private void makeLeaderAndFollower(TableBucket tb) {
         leaderRM.becomeLeaderOrFollower(
                 INITIAL_COORDINATOR_EPOCH,
                 Collections.singletonList(
@@ -397,4 +567,86 @@ public class ReplicaFetcherThreadTest {
             }
         }
     }
+
+    /**
+     * A {@link LeaderEndpoint} which delays the fetch log responses, the responses hold a network
+     * buffer like the responses received from the remote leader.
+     */
+    private static class DelayedLeaderEndpoint implements LeaderEndpoint {
+        private final LeaderEndpoint delegate;
+        private final long delayMs;
+        private final List<ByteBuf> responseBuffers = new CopyOnWriteArrayList<>();
+        private final ScheduledExecutorService executor =
+                Executors.newSingleThreadScheduledExecutor();
+        private final AtomicInteger inFlightFetches = new AtomicInteger();
+        private final AtomicInteger maxInFlightFetches = new AtomicInteger();
+
+        private DelayedLeaderEndpoint(LeaderEndpoint delegate, long delayMs) {
+            this.delegate = delegate;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public int leaderServerId() {
+            return delegate.leaderServerId();
+        }
+
+        @Override
+        public CompletableFuture<Long> fetchLocalLogEndOffset(TableBucket tableBucket) {
+            return delegate.fetchLocalLogEndOffset(tableBucket);
+        }
+
+        @Override
+        public CompletableFuture<Long> fetchLocalLogStartOffset(TableBucket tableBucket) {
+            return delegate.fetchLocalLogStartOffset(tableBucket);
+        }
+
+        @Override
+        public CompletableFuture<Long> fetchLeaderEndOffsetSnapshot(TableBucket tableBucket) {
+            return delegate.fetchLeaderEndOffsetSnapshot(tableBucket);
+        }
+
+        @Override
+        public CompletableFuture<FetchData> fetchLog(FetchLogContext fetchLogContext) {
+            int inFlight = inFlightFetches.incrementAndGet();
+            maxInFlightFetches.accumulateAndGet(inFlight, Math::max);
+            CompletableFuture<FetchData> response = new CompletableFuture<>();
+            delegate.fetchLog(fetchLogContext)
+                    .whenComplete(
+                            (fetchData, t) ->
+                                    executor.schedule(
+                                            () -> {
+                                                if (t != null) {
+                                                    response.completeExceptionally(t);
+                                                } else {
+                                                    response.complete(withBuffer(fetchData));
+                                                }
+                                                inFlightFetches.decrementAndGet();
+                                            },
+                                            delayMs,
+                                            TimeUnit.MILLISECONDS));
+            return response;
+        }
+
+        private FetchData withBuffer(FetchData fetchData) {
+            ByteBuf buffer = Unpooled.buffer(0);
+            responseBuffers.add(buffer);
+            FetchLogResponse fetchLogResponse = new FetchLogResponse();
+            fetchLogResponse.parseFrom(buffer, 0);
+            return new FetchData(fetchLogResponse, fetchData.getFetchLogResultMap());
+        }
+
+        @Override
+        public Optional<FetchLogContext> buildFetchLogContext(
+                int fetchSlot, Map<TableBucket, BucketFetchStatus> replicas) {
+            return delegate.buildFetchLogContext(fetchSlot, replicas);
+        }
+
+        @Override
+        public void close() {
+            // the delayed responses still arrive after closing, like the in-flight rpc responses
+            executor.shutdown();
+            delegate.close();
+        }
+    }
 }
@@ -100,9 +100,9 @@ public class TestingLeaderEndpoint implements LeaderEndpoint {
 
     @Override
     public Optional<FetchLogContext> buildFetchLogContext(
-            Map<TableBucket, BucketFetchStatus> replicas) {
+            int fetchSlot, Map<TableBucket, BucketFetchStatus> replicas) {
         return RemoteLeaderEndpoint.buildFetchLogContext(
-                replicas, localNode.id(), maxFetchSize, maxFetchSizeForBucket, -1, -1);
+                fetchSlot, replicas, localNode.id(), maxFetchSize, maxFetchSizeForBucket, -1, -1);
     }
 
     @Override
@@ -220,6 +220,63 @@ class ZooKeeperClientTest {
         }
     }
 
+    @Test
+    void testBatchGetAndUpdateLeaderAndIsr() throws Exception {
+        // more buckets than the max batch size of the pipelined reads and batched writes
+        int numBuckets = 1500;
+        List<RegisterTableBucketLeadAndIsrInfo> registerList = new ArrayList<>();
+        Map<TableBucket, LeaderAndIsr> expected = new HashMap<>();
+        for (int i = 0; i < numBuckets; i++) {
+            TableBucket tableBucket = new TableBucket(1, i);
+            LeaderAndIsr leaderAndIsr = new LeaderAndIsr(i, 10, Arrays.asList(i, i + 1), 100, 1000);
+            registerList.add(
+                    new RegisterTableBucketLeadAndIsrInfo(tableBucket, leaderAndIsr, null, null));
+            expected.put(tableBucket, leaderAndIsr);
+        }
+        zookeeperClient.batchRegisterLeaderAndIsrForTablePartition(registerList);
+
+        // the bucket doesn't exist in zk shouldn't be returned
+        List<TableBucket> bucketsToGet = new ArrayList<>(expected.keySet());
+        bucketsToGet.add(new TableBucket(2, 0));
+        assertThat(zookeeperClient.getLeaderAndIsrs(bucketsToGet)).isEqualTo(expected);
+
+        // test batch update
+        Map<TableBucket, LeaderAndIsr> updated = new HashMap<>();
+        for (Map.Entry<TableBucket, LeaderAndIsr> entry : expected.entrySet()) {
+            LeaderAndIsr leaderAndIsr = entry.getValue();
+            updated.put(
+                    entry.getKey(),
+                    new LeaderAndIsr(
+                            leaderAndIsr.leader() + 1,
+                            leaderAndIsr.leaderEpoch() + 1,
+                            leaderAndIsr.isr(),
+                            leaderAndIsr.coordinatorEpoch(),
+                            leaderAndIsr.bucketEpoch() + 1));
+        }
+        zookeeperClient.batchUpdateLeaderAndIsr(updated);
+        assertThat(zookeeperClient.getLeaderAndIsrs(updated.keySet())).isEqualTo(updated);
+    }
+
+    @Test
+    void testBatchGetAssignments() throws Exception {
+        TableAssignment tableAssignment =
+                TableAssignment.builder().add(0, BucketAssignment.of(1, 2)).build();
+        zookeeperClient.registerTableAssignment(1L, tableAssignment);
+        zookeeperClient.registerTableAssignment(2L, tableAssignment);
+        Map<Long, TableAssignment> expectedTableAssignments = new HashMap<>();
+        expectedTableAssignments.put(1L, tableAssignment);
+        expectedTableAssignments.put(2L, tableAssignment);
+        assertThat(zookeeperClient.getTableAssignments(Arrays.asList(1L, 2L, 3L)))
+                .isEqualTo(expectedTableAssignments);
+
+        PartitionAssignment partitionAssignment =
+                new PartitionAssignment(1L, tableAssignment.getBucketAssignments());
+        zookeeperClient.registerPartitionAssignmentAndMetadata(
+                10L, "p1", partitionAssignment, TablePath.of("db", "t"), 1L);
+        assertThat(zookeeperClient.getPartitionAssignments(Arrays.asList(10L, 11L)))
+                .isEqualTo(Collections.singletonMap(10L, partitionAssignment));
+    }
+
     @Test
     void testTable() throws Exception {
         TablePath tablePath = TablePath.of("db", "tb");